@@ -0,0 +1,79 @@
+package com.iotest.api.rest;
+
+import com.iotest.domain.model.api.dto.OperationStatusResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.infrastructure.ingest.AsyncSensorIngestor;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Ingesta asíncrona de lecturas de sensores.
+ * 
+ * Endpoints:
+ * - POST /api/sensor/reading/async - Encola una lectura y responde 202 con el id de operación
+ * - GET /api/operations/{id} - Estado y resultado de una lectura encolada
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class AsyncIngestionRestController {
+
+    private final AsyncSensorIngestor asyncSensorIngestor;
+    private final IngestAdmissionControl ingestAdmissionControl;
+
+    public AsyncIngestionRestController(AsyncSensorIngestor asyncSensorIngestor,
+                                        IngestAdmissionControl ingestAdmissionControl) {
+        this.asyncSensorIngestor = asyncSensorIngestor;
+        this.ingestAdmissionControl = ingestAdmissionControl;
+    }
+
+    /**
+     * Valida y encola una lectura sin esperar a los switches.
+     * 
+     * POST /api/sensor/reading/async?callback=http://gateway/resultados
+     * 
+     * Body: igual que POST /api/sensor/reading.
+     * 
+     * Retorna 202 con la operación en estado PENDING y la cabecera Location apuntando a
+     * /api/operations/{id}. Si se indica callback, el resultado final se envía por POST a esa URL
+     * (solo a hosts de async-ingest.callback-allowed-hosts).
+     * 400 si la lectura o el callback no son válidos, 429 si se excede el límite de ingesta, 503 si la cola está llena.
+     */
+    @PostMapping("/sensor/reading/async")
+    public ResponseEntity<OperationStatusResponse> submitSensorReading(
+            @RequestBody SensorReadingRequest request,
+            @RequestParam(required = false) String callback) {
+        if (request != null && !ingestAdmissionControl.admitRest(request.getSensorId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        try {
+            OperationStatusResponse pending = asyncSensorIngestor.submit(request, callback);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/operations/" + pending.getOperationId()))
+                    .body(pending);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    /**
+     * Estado de una lectura asíncrona: PENDING, COMPLETED (con el mismo resultado que
+     * POST /api/sensor/reading) o FAILED. 404 si no existe o ya venció.
+     * 
+     * GET /api/operations/{id}
+     */
+    @GetMapping("/operations/{id}")
+    public ResponseEntity<OperationStatusResponse> getOperation(@PathVariable String id) {
+        return asyncSensorIngestor.find(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
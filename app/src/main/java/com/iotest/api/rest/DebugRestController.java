@@ -0,0 +1,116 @@
+package com.iotest.api.rest;
+
+import com.iotest.domain.model.api.dto.JfrRecordingResponse;
+import com.iotest.domain.model.api.dto.TraceResponse;
+import com.iotest.domain.model.api.dto.TraceSpanResponse;
+import com.iotest.infrastructure.jfr.FlightRecordingManager;
+import com.iotest.infrastructure.tracing.Trace;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import com.iotest.infrastructure.tracing.TraceSpan;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Endpoints de diagnóstico.
+ *
+ * GET /api/debug/traces?minMs=100&limit=50
+ *
+ * Devuelve las trazas del buffer en memoria que duraron al menos minMs, de la más reciente a la más
+ * vieja: cada una con sus etapas (recepción, decisión, llamadas a los switches, sincronización).
+ *
+ * GET  /api/debug/jfr        estado de la grabación de JFR (404 si no hay ninguna)
+ * POST /api/debug/jfr/start  inicia la grabación con el perfil jfr/temperature-control.jfc (409 si ya hay una)
+ * POST /api/debug/jfr/dump   vuelca la ventana grabada a un archivo .jfr sin detenerla
+ * POST /api/debug/jfr/stop   detiene y descarta la grabación
+ */
+@RestController
+@RequestMapping("/api/debug")
+@CrossOrigin(origins = "*")
+public class DebugRestController {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final TraceRecorder traceRecorder;
+    private final FlightRecordingManager flightRecordingManager;
+
+    public DebugRestController(TraceRecorder traceRecorder, FlightRecordingManager flightRecordingManager) {
+        this.traceRecorder = traceRecorder;
+        this.flightRecordingManager = flightRecordingManager;
+    }
+
+    @GetMapping("/traces")
+    public ResponseEntity<List<TraceResponse>> getTraces(
+            @RequestParam(name = "minMs", defaultValue = "0") double minMs,
+            @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        if (minMs < 0 || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TraceResponse> traces = traceRecorder.find(minMs, limit).stream()
+                .map(DebugRestController::toResponse)
+                .toList();
+        return ResponseEntity.ok(traces);
+    }
+
+    @GetMapping("/jfr")
+    public ResponseEntity<JfrRecordingResponse> getRecording() {
+        return ResponseEntity.of(flightRecordingManager.status());
+    }
+
+    @PostMapping("/jfr/start")
+    public ResponseEntity<JfrRecordingResponse> startRecording() {
+        try {
+            return ResponseEntity.ok(flightRecordingManager.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/jfr/dump")
+    public ResponseEntity<JfrRecordingResponse> dumpRecording() {
+        try {
+            return ResponseEntity.of(flightRecordingManager.dump());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<JfrRecordingResponse> stopRecording() {
+        return ResponseEntity.of(flightRecordingManager.stop());
+    }
+
+    private static TraceResponse toResponse(Trace trace) {
+        long epochNanos = trace.getStartEpochNanos();
+        return TraceResponse.builder()
+                .traceId(trace.getTraceId())
+                .name(trace.getName())
+                .startedAt(Instant.ofEpochSecond(0, epochNanos))
+                .durationMs(trace.getDurationNanos() / NANOS_PER_MS)
+                .attributes(trace.getAttributes())
+                .spans(trace.getSpans().stream().map(DebugRestController::toResponse).toList())
+                .build();
+    }
+
+    private static TraceSpanResponse toResponse(TraceSpan span) {
+        return TraceSpanResponse.builder()
+                .spanId(span.spanId())
+                .parentSpanId(span.parentSpanId())
+                .name(span.name())
+                .startMs(span.startOffsetNanos() / NANOS_PER_MS)
+                .durationMs(span.durationNanos() / NANOS_PER_MS)
+                .attribute(span.attribute())
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.iotest.api.rest;
+
+import com.iotest.infrastructure.stream.RoomStreamBroadcaster;
+import com.iotest.infrastructure.stream.SseStreamClient;
+import com.iotest.infrastructure.stream.StreamClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streaming del estado de las habitaciones por Server-Sent Events.
+ *
+ * GET /api/stream/rooms
+ *
+ * Eventos:
+ * - snapshot: estado completo (mismo JSON que /api/system/status), al conectarse y cuando hace falta resincronizar
+ * - delta: {"version": N, "rooms": [...habitaciones que cambiaron...], "current_energy_consumption": ... si cambió}
+ *
+ * El id de cada evento es la versión del estado. La variante WebSocket está en /api/stream/rooms/ws.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class RoomStreamController {
+
+    private final RoomStreamBroadcaster broadcaster;
+    private final long sseTimeoutMs;
+
+    public RoomStreamController(RoomStreamBroadcaster broadcaster,
+                                @Value("${stream.sse-timeout-ms:0}") long sseTimeoutMs) {
+        this.broadcaster = broadcaster;
+        this.sseTimeoutMs = sseTimeoutMs;
+    }
+
+    @GetMapping(value = "/rooms", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRooms() {
+        // 0 = sin timeout: la conexión queda abierta hasta que el cliente se va
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        StreamClient client = new SseStreamClient(emitter, broadcaster.getClientBufferSize());
+        emitter.onCompletion(() -> broadcaster.unregister(client));
+        emitter.onTimeout(() -> broadcaster.unregister(client));
+        emitter.onError(error -> broadcaster.unregister(client));
+        broadcaster.register(client);
+        return emitter;
+    }
+}
@@ -0,0 +1,531 @@
+package com.iotest.api.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iotest.domain.model.api.dto.DecisionResponse;
+import com.iotest.domain.model.api.dto.ProcessOperationsResponse;
+import com.iotest.domain.model.api.dto.RoomHistoryResponse;
+import com.iotest.domain.model.api.dto.RoomQueryRequest;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.model.api.dto.SensorBatchResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.service.StatusSnapshot;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.history.RoomHistoryStore;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import com.iotest.infrastructure.scheduler.TariffTransitionScheduler;
+import com.iotest.infrastructure.stream.StatusVersionWaiter;
+import com.iotest.infrastructure.tracing.Trace;
+import com.iotest.infrastructure.tracing.TraceContext;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * REST Controller que expone la API pública del componente de control de temperatura.
+ * 
+ * Endpoints principales:
+ * - POST /api/sensor/reading - Recibe lecturas de sensores
+ * - POST /api/sensor/readings - Recibe un lote de lecturas (array JSON o NDJSON)
+ * - GET /api/system/status - Estado general del sistema
+ * - GET /api/rooms - Estado de todas las habitaciones
+ * - GET /api/rooms/{roomId} - Estado de una habitación específica
+ * - GET /api/rooms/{roomId}/decisions - Últimas decisiones del controlador sobre la habitación
+ * - GET /api/rooms/{roomId}/history - Historial de temperatura y calefacción de la habitación
+ * - POST /api/system/energy-cost-check - Verificar y aplicar política de alto costo
+ * - GET /api/system/tariff-transitions - Tiempos de las últimas transiciones de tarifa (por ola)
+ *
+ * Las lecturas de estado (/system/status, /rooms, /rooms/{roomId}) llevan la versión del estado:
+ * responden con ETag y cabecera X-State-Version, devuelven 304 si If-None-Match coincide, y con
+ * ?waitForVersion=N&timeout=S esperan (sin ocupar un hilo) a que el estado llegue a la versión N.
+ *
+ * Las lecturas pasan por el límite de ingesta por sensor y global: si se excede, 429 con Retry-After.
+ * Las respuestas de ingesta llevan la cabecera Server-Timing con el tiempo de cada etapa
+ * (sincronización, decisión, switches); la traza completa queda en GET /api/debug/traces.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class TemperatureControlRestController {
+
+    private static final String STATE_VERSION_HEADER = "X-State-Version";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final TemperatureControlService temperatureControlService;
+    private final TariffTransitionScheduler tariffTransitionScheduler;
+    private final StatusVersionWaiter statusVersionWaiter;
+    private final IngestAdmissionControl ingestAdmissionControl;
+    private final TraceRecorder traceRecorder;
+    private final RoomHistoryStore roomHistoryStore;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int maxPageSize;
+
+    // Distingue las versiones de esta ejecución de las de una anterior (la versión vuelve a 1 al reiniciar)
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36);
+
+    public TemperatureControlRestController(TemperatureControlService temperatureControlService,
+                                            TariffTransitionScheduler tariffTransitionScheduler,
+                                            StatusVersionWaiter statusVersionWaiter,
+                                            IngestAdmissionControl ingestAdmissionControl,
+                                            TraceRecorder traceRecorder,
+                                            RoomHistoryStore roomHistoryStore,
+                                            ObjectMapper objectMapper,
+                                            Clock clock,
+                                            @Value("${rooms.max-page-size:1000}") int maxPageSize) {
+        this.temperatureControlService = temperatureControlService;
+        this.tariffTransitionScheduler = tariffTransitionScheduler;
+        this.statusVersionWaiter = statusVersionWaiter;
+        this.ingestAdmissionControl = ingestAdmissionControl;
+        this.traceRecorder = traceRecorder;
+        this.roomHistoryStore = roomHistoryStore;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.maxPageSize = Math.max(1, maxPageSize);
+    }
+
+    /**
+     * Endpoint para recibir lecturas de temperatura de los sensores.
+     * Este es el endpoint principal que procesa los mensajes de los sensores MQTT
+     * (que también pueden llegar vía REST para pruebas o integración).
+     * 
+     * POST /api/sensor/reading
+     * 
+     * Body:
+     * {
+     *   "sensor_id": "mqtt:topic1",
+     *   "temperature": 19.5,
+     *   "time_stamp": "2024-10-27T10:30:00"
+     * }
+     *
+     * 429 (con Retry-After) si el sensor o el sistema superan el límite de ingesta.
+     */
+    @PostMapping("/sensor/reading")
+    public ResponseEntity<ProcessOperationsResponse> processSensorReading(
+            @RequestBody SensorReadingRequest request) {
+        if (request != null && !ingestAdmissionControl.admitRest(request.getSensorId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        Trace trace = traceRecorder.begin("rest.reading");
+        ProcessOperationsResponse response;
+        try {
+            TraceContext.attribute("sensor_id", request != null ? request.getSensorId() : null);
+            response = temperatureControlService.processSensorReading(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } finally {
+            traceRecorder.finish(trace);
+        }
+        return ResponseEntity.ok().headers(serverTiming(trace)).body(response);
+    }
+
+    /**
+     * Recibe un lote de lecturas de sensores, para gateways que agrupan muchos sensores.
+     * 
+     * POST /api/sensor/readings
+     * 
+     * Body: un array JSON de lecturas (mismo formato que /sensor/reading) o NDJSON (una lectura por
+     * línea, Content-Type application/x-ndjson). Se lee de a una lectura sin cargar el cuerpo entero,
+     * se aplica la más reciente de cada habitación y se decide una sola vez para todo el lote.
+     * 
+     * Retorna un resumen: lecturas recibidas, habitaciones actualizadas, operaciones y las que fallaron.
+     * Cada sensor del lote cuenta una vez contra el límite de ingesta; los que lo exceden se informan en
+     * rate_limited_readings. Si el cuerpo está mal formado no se aplica ninguna lectura (400).
+     */
+    @PostMapping(value = "/sensor/readings",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "application/ndjson"})
+    public ResponseEntity<SensorBatchResponse> processSensorReadings(InputStream body) {
+        Trace trace = traceRecorder.begin("rest.batch");
+        SensorBatchResponse response;
+        try (MappingIterator<SensorReadingRequest> readings =
+                     objectMapper.readerFor(SensorReadingRequest.class).readValues(body)) {
+            response = temperatureControlService.processSensorBatch(readings, ingestAdmissionControl::admitRest);
+        } catch (IOException | RuntimeJsonMappingException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            // MappingIterator envuelve los errores de sintaxis del JSON en RuntimeException
+            return e.getCause() instanceof JsonProcessingException
+                    ? ResponseEntity.badRequest().build()
+                    : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } finally {
+            traceRecorder.finish(trace);
+        }
+        return ResponseEntity.ok().headers(serverTiming(trace)).body(response);
+    }
+
+    /**
+     * Cabecera Server-Timing con el tiempo de cada etapa de la traza (vacía si el trazado está deshabilitado).
+     */
+    private static HttpHeaders serverTiming(Trace trace) {
+        HttpHeaders headers = new HttpHeaders();
+        if (trace != null) {
+            headers.set(SERVER_TIMING_HEADER, TraceRecorder.serverTiming(trace));
+        }
+        return headers;
+    }
+
+    /**
+     * Obtiene el estado general del sistema.
+     * 
+     * GET /api/system/status
+     * 
+     * Retorna:
+     * {
+     *   "max_energy": 5000.0,
+     *   "current_energy_consumption": 3000.0,
+     *   "available_energy": 2000.0,
+     *   "rooms": [...]
+     * }
+     *
+     * Se sirve el JSON ya serializado del snapshot de estado vigente.
+     */
+    @GetMapping("/system/status")
+    public ResponseEntity<byte[]> getSystemStatus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return systemStatus(temperatureControlService.getStatusSnapshot(), ifNoneMatch);
+    }
+
+    /**
+     * Long-poll del estado general.
+     * 
+     * GET /api/system/status?waitForVersion=N&timeout=30
+     */
+    @GetMapping(value = "/system/status", params = "waitForVersion")
+    public DeferredResult<ResponseEntity<byte[]>> waitForSystemStatus(
+            @RequestParam long waitForVersion,
+            @RequestParam(required = false) Long timeout,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return longPoll(waitForVersion, timeout, snapshot -> systemStatus(snapshot, ifNoneMatch));
+    }
+
+    /**
+     * Obtiene el estado de todas las habitaciones.
+     * 
+     * GET /api/rooms
+     *
+     * Parámetros opcionales:
+     * - limit, cursor: paginado; el cursor de la página siguiente llega en la cabecera X-Next-Cursor
+     * - heating=on|off, needsHeating=true|false, namePrefix: filtros
+     * - fields=room_id,current_temperature,...: solo esos campos de cada habitación
+     *
+     * Sin parámetros se sirve el JSON ya serializado del snapshot.
+     */
+    @GetMapping("/rooms")
+    public ResponseEntity<byte[]> getAllRooms(
+            RoomQueryRequest query,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return allRooms(temperatureControlService.getStatusSnapshot(), query, ifNoneMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Long-poll del estado de todas las habitaciones.
+     * 
+     * GET /api/rooms?waitForVersion=N&timeout=30
+     */
+    @GetMapping(value = "/rooms", params = "waitForVersion")
+    public DeferredResult<ResponseEntity<byte[]>> waitForAllRooms(
+            RoomQueryRequest query,
+            @RequestParam long waitForVersion,
+            @RequestParam(required = false) Long timeout,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return longPoll(waitForVersion, timeout, snapshot -> {
+            try {
+                return allRooms(snapshot, query, ifNoneMatch);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    /**
+     * Obtiene el estado de una habitación específica.
+     * 
+     * GET /api/rooms/{roomId}
+     */
+    @GetMapping("/rooms/{roomId}")
+    public ResponseEntity<RoomStatusResponse> getRoomStatus(
+            @PathVariable String roomId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return roomStatus(temperatureControlService.getStatusSnapshot(), roomId, ifNoneMatch);
+    }
+
+    /**
+     * Long-poll del estado de una habitación.
+     * 
+     * GET /api/rooms/{roomId}?waitForVersion=N&timeout=30
+     */
+    @GetMapping(value = "/rooms/{roomId}", params = "waitForVersion")
+    public DeferredResult<ResponseEntity<RoomStatusResponse>> waitForRoomStatus(
+            @PathVariable String roomId,
+            @RequestParam long waitForVersion,
+            @RequestParam(required = false) Long timeout,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return longPoll(waitForVersion, timeout, snapshot -> roomStatus(snapshot, roomId, ifNoneMatch));
+    }
+
+    /**
+     * Últimas decisiones del controlador sobre una habitación: por qué se encendió, se apagó para
+     * ceder energía o no se calefaccionó.
+     * 
+     * GET /api/rooms/{roomId}/decisions?limit=50
+     */
+    @GetMapping("/rooms/{roomId}/decisions")
+    public ResponseEntity<List<DecisionResponse>> getRoomDecisions(
+            @PathVariable String roomId,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(temperatureControlService.getRoomDecisions(roomId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Historial de temperatura y calefacción de una habitación. {@code from} y {@code to} aceptan epoch ms
+     * o un instante ISO-8601 (por defecto, la última hora); {@code step} es una duración ("30s", "5m",
+     * "PT1H") y sin él se devuelven los puntos del nivel elegido: muestras crudas dentro de la última
+     * hora, buckets de 5 minutos dentro del último día y de 1 hora dentro de la última semana.
+     * 
+     * GET /api/rooms/{roomId}/history?from=&to=&step=
+     */
+    @GetMapping("/rooms/{roomId}/history")
+    public ResponseEntity<RoomHistoryResponse> getRoomHistory(
+            @PathVariable String roomId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String step) {
+        try {
+            long toMs = to != null ? parseInstant(to) : clock.millis();
+            long fromMs = from != null ? parseInstant(from) : toMs - Duration.ofHours(1).toMillis();
+            long stepMs = step != null ? DurationStyle.detectAndParse(step).toMillis() : 0;
+            return roomHistoryStore.query(roomId, fromMs, toMs, stepMs)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static long parseInstant(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        return Instant.parse(value).toEpochMilli();
+    }
+
+    private ResponseEntity<byte[]> systemStatus(StatusSnapshot snapshot, String ifNoneMatch) {
+        return versioned(snapshot, ifNoneMatch, () -> snapshot.systemStatusJson(objectMapper));
+    }
+
+    private ResponseEntity<byte[]> allRooms(StatusSnapshot snapshot, RoomQueryRequest query, String ifNoneMatch) {
+        if (query.isPlain()) {
+            return versioned(snapshot, ifNoneMatch, () -> snapshot.roomsJson(objectMapper));
+        }
+        if (query.getFields() != null && !RoomQueryRequest.FIELDS.containsAll(query.getFields())) {
+            throw new IllegalArgumentException("Campos desconocidos en fields: " + query.getFields());
+        }
+        if (query.getLimit() == null || query.getLimit() > maxPageSize) {
+            query.setLimit(maxPageSize);
+        }
+        // Se valida antes de armar la respuesta, así un cursor inválido es 400 y no 304
+        StatusSnapshot.RoomPage page = snapshot.queryRooms(query);
+        ResponseEntity<byte[]> response = versioned(snapshot, ifNoneMatch, () -> project(page.rooms(), query.getFields()));
+        if (page.nextCursor() == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .body(response.getBody());
+    }
+
+    /**
+     * Serializa las habitaciones con solo los campos pedidos (todos si no se pidió ninguno).
+     */
+    private byte[] project(List<RoomStatusResponse> rooms, List<String> fields) {
+        try {
+            if (fields == null || fields.isEmpty()) {
+                return objectMapper.writeValueAsBytes(rooms);
+            }
+            ArrayNode projected = objectMapper.createArrayNode();
+            for (RoomStatusResponse room : rooms) {
+                ObjectNode node = objectMapper.valueToTree(room);
+                projected.add(node.retain(fields));
+            }
+            return objectMapper.writeValueAsBytes(projected);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<RoomStatusResponse> roomStatus(StatusSnapshot snapshot, String roomId, String ifNoneMatch) {
+        Optional<RoomStatusResponse> room = snapshot.findRoom(roomId);
+        if (room.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return versioned(snapshot, ifNoneMatch, room::get);
+    }
+
+    /**
+     * Respuesta con ETag de la versión del snapshot; 304 sin cuerpo si el cliente ya la tiene.
+     */
+    private <T> ResponseEntity<T> versioned(StatusSnapshot snapshot, String ifNoneMatch, Supplier<T> body) {
+        String etag = "\"" + etagPrefix + "-" + snapshot.getVersion() + "\"";
+        boolean notModified = matches(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .header(STATE_VERSION_HEADER, Long.toString(snapshot.getVersion()))
+                .cacheControl(CacheControl.noCache());
+        return notModified ? builder.build() : builder.contentType(MediaType.APPLICATION_JSON).body(body.get());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> DeferredResult<ResponseEntity<T>> longPoll(long waitForVersion, Long timeoutSeconds,
+                                                           Function<StatusSnapshot, ResponseEntity<T>> response) {
+        Duration timeout = statusVersionWaiter.effectiveTimeout(timeoutSeconds);
+        // El timeout propio de Spring queda por encima del de la espera, que siempre responde con el estado vigente
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeout.toMillis() + 5000);
+        result.onTimeout(() -> result.setResult(response.apply(temperatureControlService.getStatusSnapshot())));
+        statusVersionWaiter.awaitVersion(waitForVersion, timeout)
+                .thenAccept(snapshot -> result.setResult(response.apply(snapshot)));
+        return result;
+    }
+
+    /**
+     * Verifica el costo de energía y aplica la política de apagado si es necesario.
+     * 
+     * POST /api/system/energy-cost-check
+     * 
+     * Body (opcional):
+     * {
+     *   "contract": "testContract"
+     * }
+     * 
+     * Si no se envía contract, usa el contrato de prueba por defecto.
+     * 
+     * IMPORTANTE: El tiempo se obtiene aquí (capa de infraestructura) y se pasa como parámetro
+     * al dominio. El controller NO consulta el tiempo directamente.
+     */
+    @PostMapping("/system/energy-cost-check")
+    public ResponseEntity<ProcessOperationsResponse> checkEnergyCost(
+            @RequestBody(required = false) EnergyCostCheckRequest request) {
+        try {
+            String contract = request != null && request.getContract() != null 
+                    ? request.getContract() 
+                    : EnergyCost.TEST_CONTRACT_30S;
+            
+            // Obtener el tiempo aquí (capa de infraestructura, reloj inyectado) y pasarlo como parámetro
+            long currentTimestamp = clock.millis();
+            ProcessOperationsResponse response = temperatureControlService.checkAndApplyHighCostPolicy(contract, currentTimestamp);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            // Contrato inválido - devolver error 5xx
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Devuelve los reportes de las últimas transiciones de tarifa ejecutadas en olas,
+     * con los tiempos de cada ola (del más reciente al más antiguo).
+     * 
+     * GET /api/system/tariff-transitions
+     */
+    @GetMapping("/system/tariff-transitions")
+    public ResponseEntity<List<TariffTransitionReportResponse>> getTariffTransitions() {
+        return ResponseEntity.ok(tariffTransitionScheduler.getRecentReports());
+    }
+
+    /**
+     * Health check endpoint.
+     * 
+     * GET /api/health
+     */
+    @GetMapping("/health")
+    public ResponseEntity<HealthResponse> health() {
+        return ResponseEntity.ok(new HealthResponse("UP", "Temperature Control System is running"));
+    }
+
+    // DTOs internos para requests
+    private static class EnergyCostCheckRequest {
+        private String contract;
+
+        public String getContract() {
+            return contract;
+        }
+
+        public void setContract(String contract) {
+            this.contract = contract;
+        }
+    }
+
+    private static class HealthResponse {
+        private String status;
+        private String message;
+
+        public HealthResponse(String status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
+
@@ -0,0 +1,27 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//dto de una habitación encendida evaluada para ceder su energía en una decisión
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionCandidateResponse {
+    @JsonProperty("room_id")
+    private String roomId;
+
+    @JsonProperty("temperature_deficit")
+    private double temperatureDeficit;
+
+    @JsonProperty("energy")
+    private double energy;
+
+    // true si se apagó para encender la habitación de la decisión
+    @JsonProperty("chosen")
+    private boolean chosen;
+}
@@ -0,0 +1,64 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//dto de una decisión del controlador sobre una habitación (GET /api/rooms/{roomId}/decisions)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionResponse {
+    @JsonProperty("sequence")
+    private long sequence;
+
+    // READING, BATCH, REPLAN o TIME_EVENT
+    @JsonProperty("trigger")
+    private String trigger;
+
+    @JsonProperty("room_id")
+    private String roomId;
+
+    @JsonProperty("sensor_id")
+    private String sensorId;
+
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+
+    @JsonProperty("temperature")
+    private Double temperature;
+
+    @JsonProperty("desired_temperature")
+    private double desiredTemperature;
+
+    @JsonProperty("room_energy")
+    private double roomEnergy;
+
+    @JsonProperty("available_energy")
+    private double availableEnergy;
+
+    @JsonProperty("max_energy")
+    private double maxEnergy;
+
+    // NOT_NEEDED, ALREADY_ON, TURNED_ON, SWAPPED, NO_ENERGY o NO_SWITCH
+    @JsonProperty("outcome")
+    private String outcome;
+
+    @JsonProperty("candidates")
+    private List<DecisionCandidateResponse> candidates;
+
+    @JsonProperty("candidates_total")
+    private int candidatesTotal;
+
+    @JsonProperty("operations")
+    private List<PlannedOperationResponse> operations;
+
+    @JsonProperty("operations_total")
+    private int operationsTotal;
+}
@@ -0,0 +1,34 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//dto de un punto del historial de una habitación (una muestra o un bucket agregado)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPointResponse {
+    // Inicio del bucket (o instante de la muestra), epoch ms
+    @JsonProperty("timestamp")
+    private long timestamp;
+
+    @JsonProperty("min")
+    private double min;
+
+    @JsonProperty("avg")
+    private double avg;
+
+    @JsonProperty("max")
+    private double max;
+
+    @JsonProperty("count")
+    private int count;
+
+    // Fracción de las muestras con la calefacción encendida (0 a 1)
+    @JsonProperty("heating_ratio")
+    private double heatingRatio;
+}
@@ -0,0 +1,37 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+//dto con el estado de la grabación de JFR (y el archivo generado, después de un dump)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JfrRecordingResponse {
+    @JsonProperty("name")
+    private String name;
+
+    // NEW, RUNNING, STOPPED o CLOSED (estados de jdk.jfr.RecordingState)
+    @JsonProperty("state")
+    private String state;
+
+    @JsonProperty("started_at")
+    private Instant startedAt;
+
+    @JsonProperty("max_age_seconds")
+    private Long maxAgeSeconds;
+
+    @JsonProperty("file")
+    private String file;
+
+    @JsonProperty("size_bytes")
+    private Long sizeBytes;
+}
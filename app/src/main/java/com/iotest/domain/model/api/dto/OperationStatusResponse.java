@@ -0,0 +1,44 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+//dto con el estado de una lectura aceptada en modo asíncrono (GET /api/operations/{id})
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OperationStatusResponse {
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @JsonProperty("operation_id")
+    private String operationId;
+
+    // PENDING, COMPLETED o FAILED
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("sensor_id")
+    private String sensorId;
+
+    @JsonProperty("accepted_at")
+    private Instant acceptedAt;
+
+    @JsonProperty("completed_at")
+    private Instant completedAt;
+
+    @JsonProperty("result")
+    private ProcessOperationsResponse result;
+
+    @JsonProperty("error")
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//dto de una operación decidida por el controlador (todavía no ejecutada)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedOperationResponse {
+    @JsonProperty("switch_url")
+    private String switchUrl;
+
+    @JsonProperty("action")
+    private String action;
+}
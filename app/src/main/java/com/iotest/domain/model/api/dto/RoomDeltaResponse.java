@@ -0,0 +1,31 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+//dto con los campos que cambian de una habitacion (deltas del streaming)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDeltaResponse {
+    @JsonProperty("room_id")
+    private String roomId;
+
+    @JsonProperty("current_temperature")
+    private double currentTemperature;
+
+    @JsonProperty("is_heating_on")
+    private boolean isHeatingOn;
+
+    @JsonProperty("needs_heating")
+    private boolean needsHeating;
+
+    @JsonProperty("last_update")
+    private LocalDateTime lastUpdate;
+}
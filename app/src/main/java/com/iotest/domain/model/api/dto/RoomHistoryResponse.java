@@ -0,0 +1,37 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//dto del historial de una habitación (GET /api/rooms/{roomId}/history)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomHistoryResponse {
+    @JsonProperty("room_id")
+    private String roomId;
+
+    // Rango consultado, epoch ms
+    @JsonProperty("from")
+    private long from;
+
+    @JsonProperty("to")
+    private long to;
+
+    // raw, 5m o 1h: el nivel del que salen los puntos
+    @JsonProperty("resolution")
+    private String resolution;
+
+    // 0 si los puntos no se reagruparon
+    @JsonProperty("step_ms")
+    private long stepMs;
+
+    @JsonProperty("points")
+    private List<HistoryPointResponse> points;
+}
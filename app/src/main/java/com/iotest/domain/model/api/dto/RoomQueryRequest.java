@@ -0,0 +1,43 @@
+package com.iotest.domain.model.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+//dto con los parámetros de consulta de GET /api/rooms (paginado, filtros y proyección)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomQueryRequest {
+
+    // Campos de RoomStatusResponse que se pueden pedir en "fields"
+    public static final Set<String> FIELDS = Set.of("room_id", "sensor_id", "name", "current_temperature",
+            "desired_temperature", "temperature_tolerance", "is_heating_on", "last_update", "needs_heating");
+
+    // Cursor opaco devuelto en X-Next-Cursor por la página anterior
+    private String cursor;
+
+    // Máximo de habitaciones por página (sin límite si no se indica)
+    private Integer limit;
+
+    // "on" u "off"
+    private String heating;
+
+    private Boolean needsHeating;
+
+    // Prefijo del nombre, sin distinguir mayúsculas
+    private String namePrefix;
+
+    // Campos a devolver (por defecto, todos)
+    private List<String> fields;
+
+    public boolean isPlain() {
+        return cursor == null && limit == null && heating == null && needsHeating == null
+                && namePrefix == null && (fields == null || fields.isEmpty());
+    }
+}
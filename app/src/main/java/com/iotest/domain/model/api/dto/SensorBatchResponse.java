@@ -0,0 +1,49 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//dto con el resumen del procesamiento de un lote de lecturas (POST /api/sensor/readings)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorBatchResponse {
+    @JsonProperty("readings_received")
+    private int readingsReceived;
+
+    // Habitaciones actualizadas (se aplica la lectura más reciente de cada una)
+    @JsonProperty("rooms_updated")
+    private int roomsUpdated;
+
+    @JsonProperty("unknown_sensor_readings")
+    private int unknownSensorReadings;
+
+    @JsonProperty("invalid_readings")
+    private int invalidReadings;
+
+    // Lecturas descartadas por el límite de ingesta de su sensor
+    @JsonProperty("rate_limited_readings")
+    private int rateLimitedReadings;
+
+    @JsonProperty("operations_count")
+    private int operationsCount;
+
+    @JsonProperty("turned_on")
+    private int turnedOn;
+
+    @JsonProperty("turned_off")
+    private int turnedOff;
+
+    // Solo las operaciones que fallaron (las exitosas quedan resumidas en los contadores)
+    @JsonProperty("failed_operations")
+    private List<SwitchOperationResponse> failedOperations;
+
+    @JsonProperty("current_energy_consumption")
+    private double currentEnergyConsumption;
+}
@@ -0,0 +1,33 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//dto con los cambios de estado entre dos versiones (streaming); la energia solo viene si cambio
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatusDeltaResponse {
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("max_energy")
+    private Double maxEnergy;
+
+    @JsonProperty("current_energy_consumption")
+    private Double currentEnergyConsumption;
+
+    @JsonProperty("available_energy")
+    private Double availableEnergy;
+
+    @JsonProperty("rooms")
+    private List<RoomDeltaResponse> rooms;
+}
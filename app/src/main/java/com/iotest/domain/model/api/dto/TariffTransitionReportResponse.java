@@ -0,0 +1,41 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//dto para devolver el resultado de un cambio de tarifa ejecutado en olas
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TariffTransitionReportResponse {
+    @JsonProperty("previous_tariff")
+    private String previousTariff;
+
+    @JsonProperty("current_tariff")
+    private String currentTariff;
+
+    @JsonProperty("boundary_ts")
+    private long boundaryTs;
+
+    @JsonProperty("staged_at")
+    private Long stagedAt;
+
+    @JsonProperty("operations_count")
+    private int operationsCount;
+
+    @JsonProperty("total_duration_ms")
+    private long totalDurationMs;
+
+    // Solo al volver a tarifa económica: ms desde el límite hasta aprovechar de nuevo el presupuesto
+    @JsonProperty("budget_refill_ms")
+    private Long budgetRefillMs;
+
+    @JsonProperty("waves")
+    private List<WaveReportResponse> waves;
+}
@@ -0,0 +1,36 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+//dto de una traza de un evento (mensaje MQTT, lectura REST o lote) con el tiempo de cada etapa
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceResponse {
+    @JsonProperty("trace_id")
+    private String traceId;
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("started_at")
+    private Instant startedAt;
+
+    @JsonProperty("duration_ms")
+    private double durationMs;
+
+    @JsonProperty("attributes")
+    private Map<String, String> attributes;
+
+    @JsonProperty("spans")
+    private List<TraceSpanResponse> spans;
+}
@@ -0,0 +1,34 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//dto de una etapa de una traza; start_ms es relativo al inicio de la traza
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TraceSpanResponse {
+    @JsonProperty("span_id")
+    private String spanId;
+
+    @JsonProperty("parent_span_id")
+    private String parentSpanId;
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("start_ms")
+    private double startMs;
+
+    @JsonProperty("duration_ms")
+    private double durationMs;
+
+    @JsonProperty("attribute")
+    private String attribute;
+}
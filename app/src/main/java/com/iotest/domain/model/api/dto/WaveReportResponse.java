@@ -0,0 +1,35 @@
+package com.iotest.domain.model.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//dto para devolver los tiempos de una ola de operaciones en un cambio de tarifa
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaveReportResponse {
+    @JsonProperty("wave")
+    private int wave;
+
+    @JsonProperty("planned_start")
+    private long plannedStart;
+
+    @JsonProperty("started_at")
+    private long startedAt;
+
+    @JsonProperty("start_delay_ms")
+    private long startDelayMs;
+
+    @JsonProperty("duration_ms")
+    private long durationMs;
+
+    @JsonProperty("operations_count")
+    private int operationsCount;
+
+    @JsonProperty("failures")
+    private int failures;
+}
@@ -0,0 +1,232 @@
+package com.iotest.domain.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.api.dto.RoomQueryRequest;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.model.api.dto.SystemStatusResponse;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Estado del sistema publicado por {@link StatusSnapshotPublisher}: una versión inmutable que se
+ * comparte entre todos los lectores (API REST, monitor de terminal) sin locks.
+ * <p>
+ * Los DTOs que contiene no se deben modificar. El JSON de cada vista se serializa una sola vez por
+ * versión, la primera vez que se pide.
+ */
+public final class StatusSnapshot {
+
+    /**
+     * Página de una consulta de habitaciones.
+     *
+     * @param nextCursor cursor de la página siguiente, o null si es la última
+     */
+    public record RoomPage(List<RoomStatusResponse> rooms, String nextCursor) {
+    }
+
+    private final long version;
+    private final SystemStatusResponse systemStatus;
+
+    // Datos para reconstruir incrementalmente la próxima versión
+    final long changeCount;
+    final Map<String, Integer> indexByRoomId;
+    final List<Room> sourceRooms;
+    final RoomStatusResponse[] roomStatuses;
+    final double[] roomConsumption;
+    final Map<String, int[]> indexesBySwitchUrl;
+
+    private volatile byte[] systemStatusJson;
+    private volatile byte[] roomsJson;
+
+    StatusSnapshot(long version, long changeCount, double maxEnergy, List<Room> sourceRooms,
+                   RoomStatusResponse[] roomStatuses, double[] roomConsumption,
+                   Map<String, Integer> indexByRoomId, Map<String, int[]> indexesBySwitchUrl) {
+        this.version = version;
+        this.changeCount = changeCount;
+        this.sourceRooms = sourceRooms;
+        this.roomStatuses = roomStatuses;
+        this.roomConsumption = roomConsumption;
+        this.indexByRoomId = indexByRoomId;
+        this.indexesBySwitchUrl = indexesBySwitchUrl;
+
+        double currentConsumption = 0;
+        for (double consumption : roomConsumption) {
+            currentConsumption += consumption;
+        }
+        this.systemStatus = SystemStatusResponse.builder()
+                .maxEnergy(maxEnergy)
+                .currentEnergyConsumption(currentConsumption)
+                .availableEnergy(maxEnergy - currentConsumption)
+                .rooms(List.of(roomStatuses))
+                .build();
+    }
+
+    /**
+     * Versión del snapshot: crece en uno cada vez que se publica un estado distinto.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public SystemStatusResponse getSystemStatus() {
+        return systemStatus;
+    }
+
+    public List<RoomStatusResponse> getRooms() {
+        return systemStatus.getRooms();
+    }
+
+    /**
+     * Busca una habitación por su id (o id de sensor).
+     */
+    public Optional<RoomStatusResponse> findRoom(String roomId) {
+        Integer index = indexByRoomId.get(roomId);
+        return index != null ? Optional.of(roomStatuses[index]) : Optional.empty();
+    }
+
+    /**
+     * Habitaciones controladas por un switch.
+     */
+    public List<RoomStatusResponse> findRoomsBySwitchUrl(String switchUrl) {
+        int[] indexes = indexesBySwitchUrl.get(switchUrl);
+        if (indexes == null) {
+            return List.of();
+        }
+        List<RoomStatusResponse> rooms = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            rooms.add(roomStatuses[index]);
+        }
+        return rooms;
+    }
+
+    /**
+     * Consulta paginada y filtrada de habitaciones, en el orden del sitio.
+     * <p>
+     * El cursor lleva el id de la primera habitación de la página siguiente, así que se ubica con una
+     * búsqueda por mapa y sigue siendo válido entre versiones mientras esa habitación exista. El costo es
+     * proporcional a las habitaciones recorridas para llenar la página, no al total del sitio.
+     *
+     * @throws IllegalArgumentException si el cursor o algún filtro no es válido
+     */
+    public RoomPage queryRooms(RoomQueryRequest query) {
+        int start = 0;
+        if (query.getCursor() != null) {
+            Integer index = indexByRoomId.get(decodeCursor(query.getCursor()));
+            if (index == null) {
+                throw new IllegalArgumentException("Cursor inválido o de una habitación que ya no existe");
+            }
+            start = index;
+        }
+        int limit = query.getLimit() != null ? query.getLimit() : Integer.MAX_VALUE;
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit debe ser mayor que 0");
+        }
+        Boolean heatingOn = parseHeating(query.getHeating());
+        String namePrefix = query.getNamePrefix() != null ? query.getNamePrefix().toLowerCase(Locale.ROOT) : null;
+
+        List<RoomStatusResponse> page = new ArrayList<>(Math.min(limit, roomStatuses.length - start));
+        for (int i = start; i < roomStatuses.length; i++) {
+            RoomStatusResponse room = roomStatuses[i];
+            if ((heatingOn != null && room.isHeatingOn() != heatingOn)
+                    || (query.getNeedsHeating() != null && room.isNeedsHeating() != query.getNeedsHeating())
+                    || (namePrefix != null && (room.getName() == null
+                        || !room.getName().toLowerCase(Locale.ROOT).startsWith(namePrefix)))) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new RoomPage(page, encodeCursor(room.getRoomId()));
+            }
+            page.add(room);
+        }
+        return new RoomPage(page, null);
+    }
+
+    private static Boolean parseHeating(String heating) {
+        if (heating == null) {
+            return null;
+        }
+        switch (heating.toLowerCase(Locale.ROOT)) {
+            case "on":
+            case "true":
+                return true;
+            case "off":
+            case "false":
+                return false;
+            default:
+                throw new IllegalArgumentException("heating debe ser 'on' u 'off': " + heating);
+        }
+    }
+
+    private static String encodeCursor(String roomId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(roomId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Habitaciones cuyo estado cambió respecto de una versión anterior, en el orden del sitio.
+     * Las habitaciones sin cambios comparten la misma instancia entre versiones, así que alcanza
+     * con comparar referencias.
+     *
+     * @return vacío si la configuración del sitio cambió entre ambas versiones (no se puede dar un delta)
+     */
+    public Optional<List<RoomStatusResponse>> changedRoomsSince(StatusSnapshot previous) {
+        if (previous == null || previous.sourceRooms != sourceRooms) {
+            return Optional.empty();
+        }
+        List<RoomStatusResponse> changed = new ArrayList<>();
+        for (int i = 0; i < roomStatuses.length; i++) {
+            if (roomStatuses[i] != previous.roomStatuses[i] && !roomStatuses[i].equals(previous.roomStatuses[i])) {
+                changed.add(roomStatuses[i]);
+            }
+        }
+        return Optional.of(changed);
+    }
+
+    /**
+     * JSON de {@code /api/system/status}, serializado una vez por versión.
+     */
+    public byte[] systemStatusJson(ObjectMapper objectMapper) {
+        byte[] json = systemStatusJson;
+        if (json == null) {
+            json = toJson(objectMapper, systemStatus);
+            systemStatusJson = json;
+        }
+        return json;
+    }
+
+    /**
+     * JSON de {@code /api/rooms}, serializado una vez por versión.
+     */
+    public byte[] roomsJson(ObjectMapper objectMapper) {
+        byte[] json = roomsJson;
+        if (json == null) {
+            json = toJson(objectMapper, systemStatus.getRooms());
+            roomsJson = json;
+        }
+        return json;
+    }
+
+    private static byte[] toJson(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.iotest.domain.service;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.StateChangeListener;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica el estado del sistema como un {@link StatusSnapshot} inmutable (copy-on-write).
+ * <p>
+ * Los cambios de habitaciones y switches llegan como {@link StateChangeListener} y solo marcan qué
+ * cambió (O(1) en el hilo que decide). El snapshot se reconstruye al leerlo, y solo si hubo cambios:
+ * se copian las entradas sin cambios y se vuelve a mapear únicamente cada habitación marcada, con
+ * búsquedas por mapa en vez de recorrer los switches por cada habitación. Mientras no haya cambios,
+ * los lectores reciben el mismo snapshot sin tomar ningún lock.
+ */
+public class StatusSnapshotPublisher implements StateChangeListener {
+
+    private final TemperatureController temperatureController;
+
+    // Un cambio se marca primero en el set y después se cuenta; así, todo cambio contado antes de
+    // empezar una reconstrucción ya está en el set cuando ésta lo vacía.
+    private final Set<String> dirtyRooms = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtySwitches = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changeCount = new AtomicLong();
+    private volatile boolean fullRebuild = true;
+
+    private final Object refreshLock = new Object();
+    private volatile StatusSnapshot current;
+
+    // Avisos de "hubo un cambio" para quienes empujan el estado (streaming, long-poll)
+    private final List<Runnable> changeSignals = new CopyOnWriteArrayList<>();
+    // Vistas derivadas que necesitan el detalle de cada cambio (historial por habitación)
+    private final List<StateChangeListener> stateListeners = new CopyOnWriteArrayList<>();
+
+    public StatusSnapshotPublisher(TemperatureController temperatureController) {
+        this.temperatureController = temperatureController;
+    }
+
+    /**
+     * Snapshot vigente. Sin cambios pendientes no toma locks ni recalcula nada.
+     */
+    public StatusSnapshot current() {
+        StatusSnapshot snapshot = current;
+        if (snapshot != null && snapshot.changeCount == changeCount.get()) {
+            return snapshot;
+        }
+        synchronized (refreshLock) {
+            snapshot = current;
+            long target = changeCount.get();
+            if (snapshot != null && snapshot.changeCount == target) {
+                return snapshot;
+            }
+            boolean full = fullRebuild || snapshot == null;
+            fullRebuild = false;
+            snapshot = full ? rebuild(snapshot, target) : refresh(snapshot, target);
+            current = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Registra un aviso que se ejecuta (en el hilo que hizo el cambio) cada vez que cambia el estado.
+     * Debe ser rápido: solo despertar a quien vaya a leer el snapshot.
+     */
+    public void addChangeSignal(Runnable signal) {
+        changeSignals.add(signal);
+    }
+
+    /**
+     * Registra un listener que recibe, en el hilo que hizo el cambio, cada cambio de habitación, switch
+     * o configuración (el TemperatureController admite un solo listener, que es este publicador).
+     */
+    public void addStateListener(StateChangeListener listener) {
+        stateListeners.add(listener);
+    }
+
+    @Override
+    public void roomChanged(Room room) {
+        dirtyRooms.add(room.getSensorId());
+        changed();
+        for (StateChangeListener listener : stateListeners) {
+            listener.roomChanged(room);
+        }
+    }
+
+    @Override
+    public void switchChanged(DataSwitch dataSwitch) {
+        dirtySwitches.add(dataSwitch.getSwitchUrl());
+        changed();
+        for (StateChangeListener listener : stateListeners) {
+            listener.switchChanged(dataSwitch);
+        }
+    }
+
+    @Override
+    public void siteReconfigured() {
+        fullRebuild = true;
+        changed();
+        for (StateChangeListener listener : stateListeners) {
+            listener.siteReconfigured();
+        }
+    }
+
+    private void changed() {
+        changeCount.incrementAndGet();
+        for (Runnable signal : changeSignals) {
+            signal.run();
+        }
+    }
+
+    /**
+     * Reconstrucción completa (al inicio y después de recargar la configuración).
+     */
+    private StatusSnapshot rebuild(StatusSnapshot previous, long target) {
+        dirtyRooms.clear();
+        dirtySwitches.clear();
+
+        List<Room> rooms = temperatureController.getRooms();
+        RoomStatusResponse[] statuses = new RoomStatusResponse[rooms.size()];
+        double[] consumption = new double[rooms.size()];
+        Map<String, Integer> indexByRoomId = new HashMap<>();
+        Map<String, int[]> indexesBySwitchUrl = new HashMap<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            map(room, i, statuses, consumption);
+            indexByRoomId.putIfAbsent(room.getSensorId(), i);
+            indexByRoomId.putIfAbsent(room.getId(), i);
+            if (room.getSwitchUrl() != null) {
+                indexesBySwitchUrl.merge(room.getSwitchUrl(), new int[]{i}, StatusSnapshotPublisher::append);
+            }
+        }
+        return new StatusSnapshot(nextVersion(previous), target, temperatureController.getMaxEnergy(), rooms,
+                statuses, consumption, Map.copyOf(indexByRoomId), Map.copyOf(indexesBySwitchUrl));
+    }
+
+    /**
+     * Reconstrucción incremental: solo las habitaciones que cambiaron o cuyo switch cambió.
+     */
+    private StatusSnapshot refresh(StatusSnapshot previous, long target) {
+        RoomStatusResponse[] statuses = previous.roomStatuses.clone();
+        double[] consumption = previous.roomConsumption.clone();
+
+        for (Iterator<String> it = dirtyRooms.iterator(); it.hasNext(); ) {
+            Integer index = previous.indexByRoomId.get(it.next());
+            it.remove();
+            if (index != null) {
+                map(previous.sourceRooms.get(index), index, statuses, consumption);
+            }
+        }
+        for (Iterator<String> it = dirtySwitches.iterator(); it.hasNext(); ) {
+            int[] indexes = previous.indexesBySwitchUrl.get(it.next());
+            it.remove();
+            if (indexes != null) {
+                for (int index : indexes) {
+                    map(previous.sourceRooms.get(index), index, statuses, consumption);
+                }
+            }
+        }
+
+        return new StatusSnapshot(nextVersion(previous), target, temperatureController.getMaxEnergy(),
+                previous.sourceRooms, statuses, consumption, previous.indexByRoomId, previous.indexesBySwitchUrl);
+    }
+
+    private void map(Room room, int index, RoomStatusResponse[] statuses, double[] consumption) {
+        DataSwitch roomSwitch = temperatureController.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+        boolean heatingOn = roomSwitch != null && roomSwitch.isOn();
+        statuses[index] = RoomStatusResponse.builder()
+                .roomId(room.getId())
+                .sensorId(room.getSensorId())
+                .name(room.getName())
+                .currentTemperature(room.getCurrentTemperature() != null ? room.getCurrentTemperature() : 0.0)
+                .desiredTemperature(room.getDesiredTemperature())
+                .temperatureTolerance(room.getTemperatureTolerance() != null ? room.getTemperatureTolerance() : 1.0)
+                .isHeatingOn(heatingOn)
+                .lastUpdate(room.getLastUpdate())
+                .needsHeating(room.needsHeating())
+                .build();
+        consumption[index] = heatingOn ? room.getEnergyConsumption() : 0.0;
+    }
+
+    private static long nextVersion(StatusSnapshot previous) {
+        return previous != null ? previous.getVersion() + 1 : 1;
+    }
+
+    private static int[] append(int[] first, int[] second) {
+        int[] merged = new int[first.length + second.length];
+        System.arraycopy(first, 0, merged, 0, first.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        return merged;
+    }
+}
@@ -0,0 +1,590 @@
+package com.iotest.domain.service;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.Logica.ParallelSwitchTasks;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.StateChangeListener;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.decision.DecisionRecord;
+import com.iotest.domain.model.api.dto.DecisionCandidateResponse;
+import com.iotest.domain.model.api.dto.DecisionResponse;
+import com.iotest.domain.model.api.dto.PlannedOperationResponse;
+import com.iotest.domain.model.api.dto.ProcessOperationsResponse;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.model.api.dto.SensorBatchResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.model.api.dto.SwitchOperationResponse;
+import com.iotest.domain.model.api.dto.SystemStatusResponse;
+import com.iotest.infrastructure.tracing.TraceContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que coordina la lógica de control de temperatura.
+ * Actúa como intermediario entre el REST Controller y el TemperatureController,
+ * además de ejecutar las operaciones sobre los switches.
+ * <p>
+ * Métricas: {@code temperature.decision} (tiempo de decisión del controlador, por trigger),
+ * {@code ingest.decision.latency} (desde que llega la lectura hasta tener las operaciones),
+ * {@code switch.sync} (sincronización de switches) y los gauges {@code energy.consumption},
+ * {@code energy.consumption.max} y {@code energy.tariff}.
+ */
+@Service
+@DependsOn("tariffCalendars")
+public class TemperatureControlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemperatureControlService.class);
+
+    private final TemperatureController temperatureController;
+    private final ISwitchController switchController;
+    private final String energyContract;
+    private final ExecutorService switchIoExecutor;
+    private final long startupDeadlineMs;
+    private final StatusSnapshotPublisher statusPublisher;
+    private final Clock clock;
+
+    private final Timer readingDecisionTimer;
+    private final Timer batchDecisionTimer;
+    private final Timer replanDecisionTimer;
+    private final Timer readingIngestLatency;
+    private final Timer batchIngestLatency;
+    private final Timer syncTimer;
+
+    public TemperatureControlService(
+            TemperatureController temperatureController,
+            ISwitchController switchController,
+            @Value("${temperature-control.energy-contract:testContract}") String energyContract,
+            @Qualifier("switchIoExecutor") ExecutorService switchIoExecutor,
+            @Value("${switch-io.startup-deadline-ms:5000}") long startupDeadlineMs,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.temperatureController = temperatureController;
+        this.switchController = switchController;
+        this.energyContract = energyContract;
+        this.switchIoExecutor = switchIoExecutor;
+        this.startupDeadlineMs = Math.max(0, startupDeadlineMs);
+        this.clock = clock;
+        this.statusPublisher = new StatusSnapshotPublisher(temperatureController);
+        temperatureController.setStateChangeListener(statusPublisher);
+
+        this.readingDecisionTimer = decisionTimer(meterRegistry, "reading");
+        this.batchDecisionTimer = decisionTimer(meterRegistry, "batch");
+        this.replanDecisionTimer = decisionTimer(meterRegistry, "replan");
+        this.readingIngestLatency = ingestLatencyTimer(meterRegistry, "reading");
+        this.batchIngestLatency = ingestLatencyTimer(meterRegistry, "batch");
+        this.syncTimer = Timer.builder("switch.sync")
+                .description("Sincronización del estado de todos los switches")
+                .register(meterRegistry);
+        // Los gauges se evalúan solo al exportar, no en cada lectura
+        Gauge.builder("energy.consumption", temperatureController, TemperatureController::getCurrentEnergyConsumption)
+                .description("Consumo actual de los switches encendidos")
+                .baseUnit("kilowatts")
+                .register(meterRegistry);
+        Gauge.builder("energy.consumption.max", temperatureController, TemperatureController::getMaxEnergy)
+                .description("Energía máxima del sitio")
+                .baseUnit("kilowatts")
+                .register(meterRegistry);
+        Gauge.builder("energy.tariff", this,
+                        service -> EnergyCost.energyZone(service.energyContract, service.clock.millis()).current())
+                .description("Tarifa vigente (0=LOW, 1=HIGH, 2=VALLE)")
+                .tag("contract", energyContract)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Timer del tiempo de decisión del controlador; lo comparte el EnergyCostMonitor (trigger time_event).
+     */
+    public static Timer decisionTimer(MeterRegistry registry, String trigger) {
+        return Timer.builder("temperature.decision")
+                .description("Tiempo de decisión del TemperatureController")
+                .tag("trigger", trigger)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry);
+    }
+
+    private static Timer ingestLatencyTimer(MeterRegistry registry, String path) {
+        return Timer.builder("ingest.decision.latency")
+                .description("Desde que se recibe la lectura hasta tener las operaciones decididas")
+                .tag("path", path)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    /**
+     * Sincroniza el estado de los switches al inicio de la aplicación
+     * y apaga todos los switches para asegurar un estado inicial limpio.
+     * <p>
+     * Cada switch se inicializa en el pool de I/O de switches (paralelismo acotado por
+     * {@code switch-io.parallelism}). El arranque espera como máximo {@code switch-io.startup-deadline-ms}:
+     * los switches que no respondieron a tiempo terminan de inicializarse en segundo plano.
+     * Se invoca desde el {@code WarmRestartManager} cuando no hay un snapshot reciente para restaurar.
+     */
+    public void initializeSwitchStates() {
+        runOnAllSwitchesWithDeadline("apagados", this::initializeSwitch);
+    }
+
+    /**
+     * Valida contra los switches reales el estado restaurado de un snapshot (arranque en caliente):
+     * consulta todos los switches en paralelo, con el mismo plazo que la inicialización, sin apagarlos.
+     */
+    public void validateSwitchStates() {
+        runOnAllSwitchesWithDeadline("validados", dataSwitch -> {
+            try {
+                synchronizeSwitchState(dataSwitch);
+                return true;
+            } catch (IOException | InterruptedException e) {
+                logger.error("Error al validar estado del switch {}: {}", dataSwitch.getSwitchUrl(), e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    private void runOnAllSwitchesWithDeadline(String outcome, Predicate<DataSwitch> task) {
+        ParallelSwitchTasks.runWithDeadline(temperatureController.getSwitches(), switchIoExecutor, startupDeadlineMs,
+                outcome, task);
+    }
+
+    /**
+     * Sincroniza y apaga un switch. Devuelve false si no se pudo apagar.
+     */
+    private boolean initializeSwitch(DataSwitch dataSwitch) {
+        try {
+            synchronizeSwitchState(dataSwitch);
+        } catch (Exception e) {
+            logger.warn("⚠️ No se pudo sincronizar el switch {} durante el inicio (el simulador puede no estar disponible aún): {}",
+                    dataSwitch.getSwitchUrl(), e.getMessage());
+        }
+
+        // Apagar el switch al inicio, sin importar su estado actual
+        try {
+            switchController.postSwitchStatus(dataSwitch.getSwitchUrl(), false);
+            dataSwitch.setOn(false);
+            logger.info("✅ Switch {} apagado exitosamente", dataSwitch.getSwitchUrl());
+            return true;
+        } catch (IOException | InterruptedException e) {
+            logger.error("❌ Error al apagar switch {}: {}", dataSwitch.getSwitchUrl(), e.getMessage());
+            // Continuar con los demás switches aunque uno falle
+            return false;
+        }
+    }
+
+    /**
+     * Procesa una lectura de sensor y ejecuta las operaciones necesarias.
+     * 
+     * @param request Datos del sensor recibidos
+     * @return Respuesta con las operaciones ejecutadas
+     */
+    public ProcessOperationsResponse processSensorReading(SensorReadingRequest request) {
+        long receivedAt = System.nanoTime();
+        // Sincronizar estado real de switches antes de tomar decisiones
+        synchronizeSwitchStates();
+        
+        // Verificar la tarifa actual - si es HIGH, no permitir encender switches
+        long currentTime = clock.millis();
+        EnergyCost.EnergyZone zone = EnergyCost.energyZone(energyContract, currentTime);
+        boolean isHighTariff = zone.current() == EnergyCost.HIGH;
+        
+        if (isHighTariff) {
+            logger.debug("Tarifa actual es HIGH - bloqueando operaciones de encendido de switches");
+        }
+        
+        // Convertir DTO a modelo de dominio
+        DataSensor sensorData = new DataSensor(
+                request.getSensorId(),
+                request.getTemperature(),
+                request.getTimeStamp() != null ? request.getTimeStamp() : LocalDateTime.now(clock)
+        );
+
+        // Obtener operaciones del controlador
+        long decisionStart = System.nanoTime();
+        List<Operation> operations;
+        try (TraceContext.SpanScope span = TraceContext.span("decision")) {
+            operations = temperatureController.processSensorData(sensorData);
+        }
+        readingDecisionTimer.record(System.nanoTime() - decisionStart, TimeUnit.NANOSECONDS);
+        
+        // Si la tarifa es HIGH, filtrar operaciones de "ON" (solo permitir "OFF")
+        if (isHighTariff) {
+            List<Operation> filteredOperations = new ArrayList<>();
+            for (Operation op : operations) {
+                if ("OFF".equals(op.getAction())) {
+                    filteredOperations.add(op);
+                    logger.debug("Permitiendo operación OFF en tarifa HIGH: {}", op.getSwitchUrl());
+                } else {
+                    logger.info("Bloqueando operación ON en tarifa HIGH: {} - La tarifa alta no permite encender switches", op.getSwitchUrl());
+                }
+            }
+            operations = filteredOperations;
+        }
+        readingIngestLatency.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+
+        // Ejecutar operaciones sobre los switches
+        List<SwitchOperationResponse> executedOperations;
+        try (TraceContext.SpanScope span = TraceContext.span("switch.execute")) {
+            executedOperations = executeOperations(operations);
+        }
+
+        // Calcular consumo actual
+        double currentConsumption = calculateCurrentConsumption();
+
+        return ProcessOperationsResponse.builder()
+                .sensorId(request.getSensorId())
+                .operationscount(executedOperations.size())
+                .operations(executedOperations)
+                .currentEnergyConsumption(currentConsumption)
+                .build();
+    }
+
+    /**
+     * Procesa un lote de lecturas con una sola sincronización de switches y una sola pasada de decisión.
+     * <p>
+     * Las lecturas se consumen de a una (el iterador puede venir de un parser incremental) y se agrupan
+     * por habitación quedándose con la más reciente, así que la memoria depende de la cantidad de
+     * habitaciones y no del tamaño del lote. Las lecturas sin sensor_id se cuentan como inválidas y las
+     * de sensores desconocidos se ignoran. Las operaciones resultantes se ejecutan en paralelo; en tarifa
+     * HIGH solo los apagados.
+     */
+    public SensorBatchResponse processSensorBatch(Iterator<SensorReadingRequest> readings) {
+        return processSensorBatch(readings, sensorId -> true);
+    }
+
+    /**
+     * Igual que {@link #processSensorBatch(Iterator)}, pero cada sensor del lote pasa antes por
+     * {@code admission} (una vez por sensor, ya agrupado, para que un lote con mucho historial de un
+     * mismo sensor no se descarte por sus lecturas viejas). Las lecturas de los sensores no admitidos se
+     * cuentan en rate_limited_readings y no se aplican.
+     */
+    public SensorBatchResponse processSensorBatch(Iterator<SensorReadingRequest> readings,
+                                                  Predicate<String> admission) {
+        long startNanos = System.nanoTime();
+        Map<String, DataSensor> latestBySensor = new LinkedHashMap<>();
+        Map<String, Integer> readingsBySensor = new HashMap<>();
+        int received = 0;
+        int unknown = 0;
+        int invalid = 0;
+        LocalDateTime receivedAt = LocalDateTime.now(clock);
+        while (readings.hasNext()) {
+            SensorReadingRequest request = readings.next();
+            received++;
+            if (request == null || request.getSensorId() == null) {
+                invalid++;
+                continue;
+            }
+            if (temperatureController.findRoomBySensorId(request.getSensorId()).isEmpty()) {
+                unknown++;
+                continue;
+            }
+            DataSensor reading = new DataSensor(request.getSensorId(), request.getTemperature(),
+                    request.getTimeStamp() != null ? request.getTimeStamp() : receivedAt);
+            latestBySensor.merge(reading.getSensorId(), reading,
+                    (previous, next) -> next.getTimestamp().isBefore(previous.getTimestamp()) ? previous : next);
+            readingsBySensor.merge(reading.getSensorId(), 1, Integer::sum);
+        }
+
+        int rateLimited = 0;
+        for (Iterator<String> it = latestBySensor.keySet().iterator(); it.hasNext(); ) {
+            String sensorId = it.next();
+            if (!admission.test(sensorId)) {
+                rateLimited += readingsBySensor.get(sensorId);
+                it.remove();
+            }
+        }
+
+        List<SwitchOperationResponse> results = List.of();
+        if (!latestBySensor.isEmpty()) {
+            synchronizeSwitchStates();
+            long decisionStart = System.nanoTime();
+            List<Operation> operations;
+            try (TraceContext.SpanScope span = TraceContext.span("decision")) {
+                operations = temperatureController.processSensorBatch(latestBySensor.values());
+            }
+            batchDecisionTimer.record(System.nanoTime() - decisionStart, TimeUnit.NANOSECONDS);
+            if (EnergyCost.energyZone(energyContract, clock.millis()).current() == EnergyCost.HIGH) {
+                operations = operations.stream()
+                        .filter(op -> "OFF".equals(op.getAction()))
+                        .collect(Collectors.toList());
+            }
+            batchIngestLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            try (TraceContext.SpanScope span = TraceContext.span("switch.execute")) {
+                results = executeOperationsInParallel(operations);
+            }
+        }
+
+        logger.debug("Lote de {} lecturas: {} habitaciones actualizadas, {} operaciones",
+                received, latestBySensor.size(), results.size());
+        return SensorBatchResponse.builder()
+                .readingsReceived(received)
+                .roomsUpdated(latestBySensor.size())
+                .unknownSensorReadings(unknown)
+                .invalidReadings(invalid)
+                .rateLimitedReadings(rateLimited)
+                .operationsCount(results.size())
+                .turnedOn((int) results.stream().filter(r -> r.isSuccess() && "ON".equals(r.getAction())).count())
+                .turnedOff((int) results.stream().filter(r -> r.isSuccess() && "OFF".equals(r.getAction())).count())
+                .failedOperations(results.stream().filter(r -> !r.isSuccess()).collect(Collectors.toList()))
+                .currentEnergyConsumption(calculateCurrentConsumption())
+                .build();
+    }
+
+    /**
+     * Ejecuta las operaciones sobre los switches físicos.
+     * IMPORTANTE: Actualiza el estado interno del switch SOLO DESPUÉS de que la operación física se ejecute exitosamente.
+     * Esto evita desincronización entre el estado interno y el estado real del switch.
+     */
+    private List<SwitchOperationResponse> executeOperations(List<Operation> operations) {
+        List<SwitchOperationResponse> results = new ArrayList<>();
+
+        for (Operation operation : operations) {
+            results.add(executeOperation(operation));
+        }
+
+        return results;
+    }
+
+    /**
+     * Ejecuta las operaciones en paralelo sobre el pool de I/O de switches y espera a que terminen todas.
+     * Se usa para las olas de apagado/encendido en los cambios de tarifa, donde cada operación va a un
+     * switch distinto y no hay dependencias entre ellas.
+     *
+     * @return resultados en el mismo orden que las operaciones recibidas
+     */
+    public List<SwitchOperationResponse> executeOperationsInParallel(List<Operation> operations) {
+        if (operations.size() <= 1) {
+            return executeOperations(operations);
+        }
+
+        List<CompletableFuture<SwitchOperationResponse>> futures = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            futures.add(CompletableFuture.supplyAsync(TraceContext.wrap(() -> executeOperation(operation)), switchIoExecutor));
+        }
+
+        List<SwitchOperationResponse> results = new ArrayList<>(operations.size());
+        for (CompletableFuture<SwitchOperationResponse> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Re-planifica las habitaciones indicadas (por id de sensor) y ejecuta las operaciones en paralelo.
+     * Se usa después de recargar la configuración del sitio; en tarifa HIGH solo se ejecutan los apagados.
+     */
+    public List<SwitchOperationResponse> replanRooms(Collection<String> sensorIds) {
+        long decisionStart = System.nanoTime();
+        List<Operation> operations = temperatureController.replanRooms(sensorIds);
+        replanDecisionTimer.record(System.nanoTime() - decisionStart, TimeUnit.NANOSECONDS);
+        if (EnergyCost.energyZone(energyContract, clock.millis()).current() == EnergyCost.HIGH) {
+            operations = operations.stream()
+                    .filter(op -> "OFF".equals(op.getAction()))
+                    .collect(Collectors.toList());
+        }
+        return executeOperationsInParallel(operations);
+    }
+
+    private SwitchOperationResponse executeOperation(Operation operation) {
+        try {
+            boolean desiredState = "ON".equals(operation.getAction());
+            String response = switchController.postSwitchStatus(operation.getSwitchUrl(), desiredState);
+
+            // Actualizar el estado interno del switch SOLO DESPUÉS de que la operación física se ejecute exitosamente
+            DataSwitch switchToUpdate = temperatureController.findSwitchByUrl(operation.getSwitchUrl()).orElse(null);
+
+            if (switchToUpdate != null) {
+                switchToUpdate.setOn(desiredState);
+            }
+            temperatureController.getEventJournal().operation(operation, true);
+
+            return SwitchOperationResponse.builder()
+                    .switchUrl(operation.getSwitchUrl())
+                    .action(operation.getAction())
+                    .success(true)
+                    .message("Operación ejecutada exitosamente: " + response)
+                    .build();
+        } catch (IOException | InterruptedException e) {
+            // Si la operación falla, NO actualizamos el estado interno
+            // El estado interno se mantendrá como estaba, reflejando el estado real del switch
+            temperatureController.getEventJournal().operation(operation, false);
+            return SwitchOperationResponse.builder()
+                    .switchUrl(operation.getSwitchUrl())
+                    .action(operation.getAction())
+                    .success(false)
+                    .message("Error al ejecutar operación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Obtiene el estado actual del sistema (del snapshot publicado, sin recalcular si nada cambió).
+     */
+    public SystemStatusResponse getSystemStatus() {
+        return statusPublisher.current().getSystemStatus();
+    }
+
+    /**
+     * Snapshot inmutable del estado, con su versión y el JSON ya serializado.
+     */
+    public StatusSnapshot getStatusSnapshot() {
+        return statusPublisher.current();
+    }
+
+    /**
+     * Registra un aviso que se ejecuta cada vez que cambia el estado publicado (ver {@link StatusSnapshotPublisher}).
+     */
+    public void addStatusChangeListener(Runnable listener) {
+        statusPublisher.addChangeSignal(listener);
+    }
+
+    /**
+     * Registra un listener de los cambios de habitaciones, switches y configuración
+     * (ver {@link StatusSnapshotPublisher#addStateListener}).
+     */
+    public void addStateChangeListener(StateChangeListener listener) {
+        statusPublisher.addStateListener(listener);
+    }
+
+    /**
+     * Obtiene el estado de una habitación específica.
+     */
+    public RoomStatusResponse getRoomStatus(String roomId) {
+        return statusPublisher.current().findRoom(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Habitación no encontrada: " + roomId));
+    }
+
+    /**
+     * Últimas decisiones del controlador sobre una habitación (de la más reciente a la más vieja):
+     * entradas, habitaciones evaluadas para ceder energía y operaciones elegidas.
+     */
+    public List<DecisionResponse> getRoomDecisions(String roomId, int limit) {
+        Room room = temperatureController.findRoomById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Habitación no encontrada: " + roomId));
+        return temperatureController.getDecisionTrace().recent(room.getId(), limit).stream()
+                .map(TemperatureControlService::toDecisionResponse)
+                .collect(Collectors.toList());
+    }
+
+    private static DecisionResponse toDecisionResponse(DecisionRecord record) {
+        return DecisionResponse.builder()
+                .sequence(record.sequence())
+                .trigger(record.trigger().name())
+                .roomId(record.roomId())
+                .sensorId(record.sensorId())
+                .timestamp(record.timestamp())
+                .temperature(Double.isNaN(record.temperature()) ? null : record.temperature())
+                .desiredTemperature(record.desiredTemperature())
+                .roomEnergy(record.roomEnergy())
+                .availableEnergy(record.availableEnergy())
+                .maxEnergy(record.maxEnergy())
+                .outcome(record.outcome() != null ? record.outcome().name() : null)
+                .candidates(record.candidates().stream()
+                        .map(c -> new DecisionCandidateResponse(c.roomId(), c.temperatureDeficit(), c.energy(), c.chosen()))
+                        .collect(Collectors.toList()))
+                .candidatesTotal(record.candidatesTotal())
+                .operations(record.operations().stream()
+                        .map(op -> new PlannedOperationResponse(op.getSwitchUrl(), op.getAction()))
+                        .collect(Collectors.toList()))
+                .operationsTotal(record.operationsTotal())
+                .build();
+    }
+
+    /**
+     * Verifica y aplica la política de apagado por alto costo de energía.
+     * IMPORTANTE: Recibe el tiempo como parámetro, NO lo consulta internamente.
+     * 
+     * @param contract Contrato de energía
+     * @param timestamp Timestamp actual (en milisegundos desde epoch)
+     */
+    public ProcessOperationsResponse checkAndApplyHighCostPolicy(String contract, long timestamp) {
+        List<Operation> operations = temperatureController.turnSwitchOffWhenHighCost(contract, timestamp);
+        List<SwitchOperationResponse> executedOperations = executeOperations(operations);
+
+        double currentConsumption = calculateCurrentConsumption();
+
+        return ProcessOperationsResponse.builder()
+                .sensorId("SYSTEM")
+                .operationscount(executedOperations.size())
+                .operations(executedOperations)
+                .currentEnergyConsumption(currentConsumption)
+                .build();
+    }
+
+    /**
+     * Calcula el consumo actual de energía.
+     */
+    private double calculateCurrentConsumption() {
+        return temperatureController.getCurrentEnergyConsumption();
+    }
+
+    /**
+     * Sincroniza el estado interno de los switches con su estado real consultándolos.
+     * Esto asegura que el sistema siempre tenga el estado correcto antes de tomar decisiones.
+     * 
+     * Este método es público para que pueda ser llamado desde otros componentes (como EnergyCostMonitor).
+     */
+    public void synchronizeSwitchStates() {
+        long start = System.nanoTime();
+        try (TraceContext.SpanScope span = TraceContext.span("switch.sync")) {
+            for (DataSwitch dataSwitch : temperatureController.getSwitches()) {
+                try {
+                    synchronizeSwitchState(dataSwitch);
+                } catch (IOException | InterruptedException e) {
+                    logger.error("Error al sincronizar estado del switch {}: {}", 
+                        dataSwitch.getSwitchUrl(), e.getMessage());
+                    // No lanzamos excepción, solo registramos el error para no interrumpir el flujo
+                }
+            }
+        }
+        syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void synchronizeSwitchState(DataSwitch dataSwitch) throws IOException, InterruptedException {
+        String statusJson = switchController.getSwitchStatus(dataSwitch.getSwitchUrl());
+
+        // Verificar que la respuesta no sea null antes de procesarla
+        if (statusJson == null || statusJson.trim().isEmpty()) {
+            logger.warn("⚠️ Respuesta vacía o null del switch {} - omitiendo sincronización", 
+                dataSwitch.getSwitchUrl());
+            return;
+        }
+
+        // El switch devuelve {"id":1,"state":true/false}
+        boolean actualState = statusJson.contains("\"state\":true") || statusJson.contains("\"state\": true");
+
+        if (dataSwitch.isOn() != actualState) {
+            logger.warn("🔄 Sincronizando switch {}: estado interno era {}, estado real es {}", 
+                dataSwitch.getSwitchUrl(), dataSwitch.isOn(), actualState);
+            dataSwitch.setOn(actualState);
+        }
+    }
+}
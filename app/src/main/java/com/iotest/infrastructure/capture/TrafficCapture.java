@@ -0,0 +1,147 @@
+package com.iotest.infrastructure.capture;
+
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.replay.CaptureEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captura del tráfico en vivo para reproducirlo offline con {@code com.iotest.replay.ReplayDriver}:
+ * cada lectura MQTT admitida y cada cambio de tarifa detectado se agregan como una línea NDJSON
+ * ({@link CaptureEvent}) a {@code capture.file}.
+ * <p>
+ * Deshabilitada si {@code capture.file} está vacío. Las líneas se acumulan en un buffer en memoria y
+ * un hilo aparte lo vuelca cada {@code capture.flush-interval-ms}; si el archivo deja de poder
+ * escribirse, la captura se apaga sin afectar el procesamiento.
+ */
+@Component
+public class TrafficCapture {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCapture.class);
+
+    private final Path file;
+    private final Clock clock;
+    private Writer writer;
+    private ScheduledExecutorService flusher;
+
+    public TrafficCapture(
+            Clock clock,
+            @Value("${capture.file:}") String file,
+            @Value("${capture.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.clock = clock;
+        if (file == null || file.isBlank()) {
+            this.file = null;
+            return;
+        }
+        this.file = Path.of(file).toAbsolutePath();
+        try {
+            Path parent = this.file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = new BufferedWriter(Files.newBufferedWriter(this.file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        } catch (IOException e) {
+            logger.warn("No se pudo abrir el archivo de captura {}; captura deshabilitada: {}", this.file, e.getMessage());
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "traffic-capture-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Capturando el tráfico de sensores y tarifas en {}", this.file);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        synchronized (this) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    logger.warn("Error al cerrar el archivo de captura: {}", e.getMessage());
+                }
+                writer = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    public void reading(DataSensor reading) {
+        if (writer != null) {
+            write(CaptureEvent.reading(epochMs(reading.getTimestamp()), reading.getSensorId(), reading.getTemperature()));
+        }
+    }
+
+    public void timeEvent(TimeEvent timeEvent) {
+        if (writer != null) {
+            write(CaptureEvent.timeEvent(epochMs(timeEvent.getTimestamp()), timeEvent.getContract(),
+                    timeEvent.getPreviousTariff(), timeEvent.getCurrentTariff()));
+        }
+    }
+
+    public synchronized void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            disable(e);
+        }
+    }
+
+    private synchronized void write(CaptureEvent event) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(event.toJson());
+            writer.write('\n');
+        } catch (IOException e) {
+            disable(e);
+        }
+    }
+
+    // Con el lock tomado
+    private void disable(IOException e) {
+        logger.warn("No se pudo escribir la captura en {}; captura deshabilitada: {}", file, e.getMessage());
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Ya se está deshabilitando por un error de escritura
+        }
+        writer = null;
+    }
+
+    private long epochMs(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.atZone(clock.getZone()).toInstant().toEpochMilli()
+                : clock.millis();
+    }
+}
@@ -0,0 +1,33 @@
+package com.iotest.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Reloj único del servicio: todo lo que consulta la hora (tarifas, TTLs, historial, journal) lo recibe
+ * inyectado en lugar de leer {@code System.currentTimeMillis()}.
+ * <p>
+ * Con {@code clock.warp=1} y sin {@code clock.start} es el reloj del sistema. Con otro factor (o una hora
+ * de inicio) es un {@link WarpClock}, para correr al ritmo del simulador o probar días de tarifas en
+ * minutos. Las latencias de las métricas siguen midiéndose con {@code System.nanoTime()}.
+ */
+@Configuration
+public class ClockConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClockConfig.class);
+
+    @Bean
+    public Clock clock(@Value("${clock.warp:1}") double warp,
+                       @Value("${clock.start:}") String start) {
+        Clock clock = WarpClock.of(warp, start);
+        if (clock instanceof WarpClock) {
+            logger.info("Reloj acelerado x{} desde {}", warp, clock.instant());
+        }
+        return clock;
+    }
+}
@@ -0,0 +1,37 @@
+package com.iotest.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Termina la aplicación apenas queda lista si {@code startup.exit-after-ready=true}.
+ * <p>
+ * Se usa en la corrida de entrenamiento del perfil {@code aot-cds}: la JVM carga todas las clases
+ * del arranque y al salir las vuelca al archivo AppCDS. La propiedad se lee en tiempo de ejecución
+ * (no con {@code @ConditionalOnProperty}) porque Spring AOT fija las condiciones al compilar.
+ */
+@Component
+public class ExitAfterStartupListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExitAfterStartupListener.class);
+
+    private final boolean exitAfterReady;
+
+    public ExitAfterStartupListener(@Value("${startup.exit-after-ready:false}") boolean exitAfterReady) {
+        this.exitAfterReady = exitAfterReady;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (exitAfterReady) {
+            logger.info("startup.exit-after-ready=true: aplicación lista en {} ms, terminando",
+                    event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1);
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.iotest.infrastructure.config;
 
+import com.iotest.domain.model.config.RoomConfig;
+import com.iotest.domain.model.config.SiteConfiguration;
 import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.capture.TrafficCapture;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
 import com.iotest.infrastructure.mqtt.MqttSensorSubscriber;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,17 +29,23 @@ public class MqttConfig {
     @ConditionalOnProperty(name = "mqtt.enabled", havingValue = "true", matchIfMissing = true)
     public MqttSensorSubscriber mqttSensorSubscriber(
             TemperatureControlService temperatureControlService,
-            TemperatureControlConfig.SiteConfiguration siteConfiguration,
+            IngestAdmissionControl ingestAdmissionControl,
+            TraceRecorder traceRecorder,
+            TrafficCapture trafficCapture,
+            VirtualThreads virtualThreads,
+            MeterRegistry meterRegistry,
+            Clock clock,
+            SiteConfiguration siteConfiguration,
             @Value("${mqtt.broker:tcp://localhost:1883}") String brokerUrl,
             @Value("${mqtt.client-id:temp-controller}") String clientId,
             @Value("${mqtt.auto-reconnect:true}") boolean autoReconnect) {
         
         // Extraer los tópicos de los sensores desde la configuración
         List<String> topics = siteConfiguration.getRooms().stream()
-                .map(TemperatureControlConfig.RoomConfig::getSensorTopic)
+                .map(RoomConfig::getSensorTopic)
                 .collect(Collectors.toList());
 
-        return new MqttSensorSubscriber(temperatureControlService, topics, brokerUrl, clientId, autoReconnect);
+        return new MqttSensorSubscriber(temperatureControlService, ingestAdmissionControl, traceRecorder, trafficCapture, virtualThreads, meterRegistry, clock, topics, brokerUrl, clientId, autoReconnect);
     }
 }
 
@@ -0,0 +1,57 @@
+package com.iotest.infrastructure.config;
+
+import com.iotest.domain.model.api.dto.DecisionCandidateResponse;
+import com.iotest.domain.model.api.dto.DecisionResponse;
+import com.iotest.domain.model.api.dto.HistoryPointResponse;
+import com.iotest.domain.model.api.dto.JfrRecordingResponse;
+import com.iotest.domain.model.api.dto.OperationStatusResponse;
+import com.iotest.domain.model.api.dto.PlannedOperationResponse;
+import com.iotest.domain.model.api.dto.ProcessOperationsResponse;
+import com.iotest.domain.model.api.dto.RoomDeltaResponse;
+import com.iotest.domain.model.api.dto.RoomHistoryResponse;
+import com.iotest.domain.model.api.dto.RoomQueryRequest;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.model.api.dto.SensorBatchResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.model.api.dto.StatusDeltaResponse;
+import com.iotest.domain.model.api.dto.SwitchOperationResponse;
+import com.iotest.domain.model.api.dto.SystemStatusResponse;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.model.api.dto.TraceResponse;
+import com.iotest.domain.model.api.dto.TraceSpanResponse;
+import com.iotest.domain.model.api.dto.WaveReportResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metadata de reflexión de Jackson para la imagen nativa ({@code mvn -Pnative}): todos los DTOs de
+ * {@code domain.model.api.dto}, incluidos los que no son tipos de retorno de un controller y que el
+ * proceso AOT no ve (deltas de SSE/WebSocket, JSON pre-serializado del snapshot de estado, callbacks de
+ * la ingesta asíncrona). Spring AOT genera la metadata a partir de esta lista; un DTO nuevo tiene que
+ * agregarse acá ({@code NativeImageHintsConfigTest} falla si falta alguno).
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        DecisionCandidateResponse.class,
+        DecisionResponse.class,
+        HistoryPointResponse.class,
+        JfrRecordingResponse.class,
+        OperationStatusResponse.class,
+        PlannedOperationResponse.class,
+        ProcessOperationsResponse.class,
+        RoomDeltaResponse.class,
+        RoomHistoryResponse.class,
+        RoomQueryRequest.class,
+        RoomStatusResponse.class,
+        SensorBatchResponse.class,
+        SensorReadingRequest.class,
+        StatusDeltaResponse.class,
+        SwitchOperationResponse.class,
+        SystemStatusResponse.class,
+        TariffTransitionReportResponse.class,
+        TraceResponse.class,
+        TraceSpanResponse.class,
+        WaveReportResponse.class
+})
+public class NativeImageHintsConfig {
+}
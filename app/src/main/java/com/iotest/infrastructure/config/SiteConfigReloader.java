@@ -0,0 +1,262 @@
+package com.iotest.infrastructure.config;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.domain.model.config.RoomConfig;
+import com.iotest.domain.model.config.SiteConfigParser;
+import com.iotest.domain.model.config.SiteConfiguration;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import com.iotest.infrastructure.mqtt.MqttSensorSubscriber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Recarga en caliente el site-config.json cuando cambia en disco.
+ * <p>
+ * Un hilo daemon vigila el directorio del archivo con un {@link WatchService}. Ante un cambio
+ * espera {@code temperature-control.config-reload.debounce-ms} (los editores suelen escribir en
+ * varios pasos), parsea el archivo en ese mismo hilo y lo compara con la configuración vigente:
+ * <ul>
+ *   <li>Las habitaciones sin cambios se reutilizan tal cual (temperatura, última lectura y switch).</li>
+ *   <li>Las habitaciones modificadas se recrean conservando la última temperatura conocida.</li>
+ *   <li>Los switches de habitaciones eliminadas se apagan.</li>
+ * </ul>
+ * La nueva configuración se publica de una sola vez con {@link TemperatureController#reconfigure},
+ * y después se re-planifican solo las habitaciones afectadas (todas si cambió la energía máxima).
+ * Los límites de ingesta ("rateLimit") se aplican siempre, sin tocar las habitaciones.
+ * <p>
+ * Solo vigila archivos del filesystem; una configuración del classpath no se recarga.
+ */
+@Component
+@ConditionalOnProperty(name = "temperature-control.config-reload.enabled", havingValue = "true", matchIfMissing = true)
+public class SiteConfigReloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SiteConfigReloader.class);
+
+    private final TemperatureControlConfig temperatureControlConfig;
+    private final TemperatureController temperatureController;
+    private final TemperatureControlService temperatureControlService;
+    private final ObjectProvider<MqttSensorSubscriber> mqttSensorSubscriber;
+    private final ObjectProvider<IngestAdmissionControl> ingestAdmissionControl;
+    private final long debounceMs;
+    private final SiteConfigParser siteConfigParser = new SiteConfigParser();
+
+    private volatile WatchService watchService;
+    private Thread watcherThread;
+
+    public SiteConfigReloader(
+            TemperatureControlConfig temperatureControlConfig,
+            TemperatureController temperatureController,
+            TemperatureControlService temperatureControlService,
+            ObjectProvider<MqttSensorSubscriber> mqttSensorSubscriber,
+            ObjectProvider<IngestAdmissionControl> ingestAdmissionControl,
+            @Value("${temperature-control.config-reload.debounce-ms:500}") long debounceMs) {
+        this.temperatureControlConfig = temperatureControlConfig;
+        this.temperatureController = temperatureController;
+        this.temperatureControlService = temperatureControlService;
+        this.mqttSensorSubscriber = mqttSensorSubscriber;
+        this.ingestAdmissionControl = ingestAdmissionControl;
+        this.debounceMs = Math.max(0, debounceMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        Path configPath;
+        try {
+            Resource resource = temperatureControlConfig.resolveConfigResource();
+            if (resource instanceof ClassPathResource || !resource.isFile()) {
+                logger.info("La configuración del sitio no está en el filesystem ({}); recarga en caliente deshabilitada",
+                        resource.getDescription());
+                return;
+            }
+            configPath = resource.getFile().toPath().toAbsolutePath();
+            watchService = FileSystems.getDefault().newWatchService();
+            configPath.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warn("No se pudo vigilar el archivo de configuración del sitio: {}", e.getMessage());
+            return;
+        }
+
+        watcherThread = new Thread(() -> watchLoop(configPath), "site-config-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Recarga en caliente habilitada para {}", configPath);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // Ignorar errores al cerrar
+            }
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    private void watchLoop(Path configPath) {
+        Path fileName = configPath.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = containsFile(key, fileName);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+
+                // Debounce: absorber las escrituras sucesivas del mismo guardado
+                WatchKey next;
+                while ((next = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+                reload(configPath);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Cierre normal en el shutdown
+        }
+    }
+
+    private static boolean containsFile(WatchKey key, Path fileName) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Lee el archivo y aplica la configuración. Si el archivo es inválido se mantiene la vigente.
+     */
+    public void reload(Path configPath) {
+        SiteConfiguration configuration;
+        try (InputStream inputStream = Files.newInputStream(configPath)) {
+            configuration = siteConfigParser.parse(inputStream);
+        } catch (Exception e) {
+            logger.error("Configuración del sitio inválida en {}; se mantiene la vigente: {}", configPath, e.getMessage());
+            return;
+        }
+
+        try {
+            apply(configuration);
+        } catch (Exception e) {
+            logger.error("No se pudo aplicar la configuración del sitio; se mantiene la vigente: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compara la configuración con la vigente, la publica y re-planifica las habitaciones afectadas.
+     *
+     * @return ids de sensor de las habitaciones re-planificadas (vacío si no hubo cambios)
+     */
+    public synchronized Set<String> apply(SiteConfiguration configuration) {
+        ingestAdmissionControl.ifAvailable(admission -> admission.configure(configuration.getRateLimit()));
+
+        double maxEnergy = configuration.getMaxPowerWatts() / 1000.0;
+        boolean maxEnergyChanged = Double.compare(maxEnergy, temperatureController.getMaxEnergy()) != 0;
+
+        List<Room> rooms = new ArrayList<>();
+        List<DataSwitch> switches = new ArrayList<>();
+        Set<String> affected = new LinkedHashSet<>();
+        Set<String> switchUrls = new HashSet<>();
+
+        for (RoomConfig roomConfig : configuration.getRooms()) {
+            Room configured = siteConfigParser.toRoom(roomConfig);
+            Room current = temperatureController.findRoomBySensorId(configured.getSensorId()).orElse(null);
+
+            if (current != null && sameRoom(current, configured)) {
+                rooms.add(current);
+            } else {
+                if (current != null && current.getCurrentTemperature() != null) {
+                    configured.updateTemperature(current.getCurrentTemperature(), current.getLastUpdate());
+                }
+                rooms.add(configured);
+                affected.add(configured.getSensorId());
+            }
+
+            if (switchUrls.add(roomConfig.getSwitchUrl())) {
+                switches.add(temperatureController.findSwitchByUrl(roomConfig.getSwitchUrl())
+                        .orElseGet(() -> new DataSwitch(roomConfig.getSwitchUrl(), false)));
+            }
+        }
+
+        // Switches que quedan fuera de la configuración: se apagan si estaban encendidos
+        Set<String> newSensorIds = rooms.stream().map(Room::getSensorId).collect(Collectors.toSet());
+        List<Room> removedRooms = temperatureController.getRooms().stream()
+                .filter(room -> !newSensorIds.contains(room.getSensorId()))
+                .collect(Collectors.toList());
+        List<Operation> removedSwitchOffs = temperatureController.getSwitches().stream()
+                .filter(sw -> !switchUrls.contains(sw.getSwitchUrl()) && sw.isOn())
+                .map(sw -> new Operation(sw.getSwitchUrl(), "OFF"))
+                .collect(Collectors.toList());
+
+        if (!maxEnergyChanged && affected.isEmpty() && removedRooms.isEmpty()
+                && switches.size() == temperatureController.getSwitches().size()) {
+            logger.info("Configuración del sitio recargada sin cambios");
+            return Set.of();
+        }
+
+        // Apagar antes de publicar: el switch todavía figura en la configuración vigente
+        temperatureControlService.executeOperationsInParallel(removedSwitchOffs);
+        temperatureController.reconfigure(maxEnergy, rooms, switches);
+        logger.info("Configuración del sitio '{}' recargada: {} habitaciones ({} nuevas o modificadas, {} eliminadas), energía máxima {} kW",
+                configuration.getSiteName(), rooms.size(), affected.size(), removedRooms.size(), maxEnergy);
+
+        Set<String> toReplan = maxEnergyChanged ? newSensorIds : affected;
+        if (!toReplan.isEmpty()) {
+            temperatureControlService.replanRooms(toReplan);
+        }
+
+        mqttSensorSubscriber.ifAvailable(subscriber -> subscriber.updateTopics(
+                configuration.getRooms().stream().map(RoomConfig::getSensorTopic).collect(Collectors.toList())));
+        return toReplan;
+    }
+
+    private static boolean sameRoom(Room current, Room configured) {
+        return Objects.equals(current.getId(), configured.getId())
+                && Objects.equals(current.getName(), configured.getName())
+                && current.getSwitchUrl().equals(configured.getSwitchUrl())
+                && Double.compare(current.getDesiredTemperature(), configured.getDesiredTemperature()) == 0
+                && Double.compare(current.getEnergyConsumption(), configured.getEnergyConsumption()) == 0
+                && Objects.equals(current.getTemperatureTolerance(), configured.getTemperatureTolerance());
+    }
+}
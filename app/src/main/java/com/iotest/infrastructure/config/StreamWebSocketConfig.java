@@ -0,0 +1,28 @@
+package com.iotest.infrastructure.config;
+
+import com.iotest.infrastructure.stream.RoomStreamBroadcaster;
+import com.iotest.infrastructure.stream.RoomStreamWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registra el endpoint WebSocket del streaming de estado: {@code ws://host:puerto/api/stream/rooms/ws}.
+ */
+@Configuration
+@EnableWebSocket
+public class StreamWebSocketConfig implements WebSocketConfigurer {
+
+    private final RoomStreamBroadcaster broadcaster;
+
+    public StreamWebSocketConfig(RoomStreamBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new RoomStreamWebSocketHandler(broadcaster), "/api/stream/rooms/ws")
+                .setAllowedOrigins("*");
+    }
+}
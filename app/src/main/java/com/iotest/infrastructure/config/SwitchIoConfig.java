@@ -0,0 +1,31 @@
+package com.iotest.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuración del pool de hilos usado para las llamadas HTTP a los switches
+ * cuando se ejecutan varias operaciones en paralelo.
+ */
+@Configuration
+public class SwitchIoConfig {
+
+    /**
+     * Pool acotado para el I/O de switches. El tamaño limita cuántas llamadas
+     * simultáneas recibe el conjunto de hosts de switches.
+     * <p>
+     * Con hilos virtuales cada llamada bloqueada no ocupa un hilo de plataforma, así que el límite
+     * pasa a ser {@code switch-io.virtual-parallelism} (mucho mayor) y solo protege a los switches.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService switchIoExecutor(VirtualThreads virtualThreads,
+                                            @Value("${switch-io.parallelism:16}") int parallelism,
+                                            @Value("${switch-io.virtual-parallelism:256}") int virtualParallelism) {
+        int size = virtualThreads.isEnabled() ? virtualParallelism : parallelism;
+        return Executors.newFixedThreadPool(Math.max(1, size), virtualThreads.threadFactory("switch-io-"));
+    }
+}
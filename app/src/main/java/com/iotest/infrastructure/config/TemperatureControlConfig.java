@@ -0,0 +1,156 @@
+package com.iotest.infrastructure.config;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.decision.DecisionTrace;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TariffCalendar;
+import com.iotest.domain.model.TariffCalendarParser;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.Logica.SwitchController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.config.SiteConfigParser;
+import com.iotest.domain.model.config.SiteConfiguration;
+import com.iotest.infrastructure.metrics.MeteredSwitchController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Configuración que carga el JSON de configuración del sitio y crea
+ * los beans necesarios para el sistema de control de temperatura.
+ */
+@Configuration
+public class TemperatureControlConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemperatureControlConfig.class);
+
+    @Value("${temperature-control.config-file:classpath:site-config.json}")
+    private String configLocation;
+
+    @Value("${temperature-control.tariff-contracts-file:classpath:tariff-contracts.json}")
+    private String tariffContractsLocation;
+
+    private final SiteConfigParser siteConfigParser = new SiteConfigParser();
+    private final ResourceLoader resourceLoader;
+
+    public TemperatureControlConfig(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Carga la configuración del sitio desde el JSON.
+     * Soporta tanto el nuevo formato como el formato legacy para compatibilidad.
+     */
+    @Bean
+    public SiteConfiguration siteConfiguration() throws IOException {
+        Resource resource = resolveConfigResource();
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            return siteConfigParser.parse(inputStream);
+        }
+    }
+
+    /**
+     * Resuelve el recurso del archivo de configuración del sitio (classpath, file: o ruta del filesystem).
+     */
+    Resource resolveConfigResource() throws IOException {
+        Resource resource = resourceLoader.getResource(configLocation);
+        if (resource.exists()) {
+            return resource;
+        }
+
+        // Si no tiene prefijo, interpretarlo como ruta absoluta o relativa en el filesystem
+        if (!configLocation.startsWith("classpath:") && !configLocation.startsWith("file:")) {
+            Path path = Path.of(configLocation).toAbsolutePath();
+            if (Files.exists(path)) {
+                return resourceLoader.getResource("file:" + path);
+            }
+        }
+
+        logger.warn("No se encontró el archivo de configuración en '{}'. Usando fallback del classpath.", configLocation);
+        Resource fallback = resourceLoader.getResource("classpath:site-config.json");
+        if (!fallback.exists()) {
+            throw new IOException("No se encontró la configuración del sitio ni en " + configLocation + " ni en classpath:site-config.json");
+        }
+        return fallback;
+    }
+
+    /**
+     * Carga los contratos de tarifas reales y los registra en {@link EnergyCost}.
+     * Si el archivo no existe solo queda disponible el contrato de prueba.
+     */
+    @Bean
+    public List<TariffCalendar> tariffCalendars() throws IOException {
+        Resource resource = resourceLoader.getResource(tariffContractsLocation);
+        if (!resource.exists() && !tariffContractsLocation.startsWith("classpath:")
+                && !tariffContractsLocation.startsWith("file:")) {
+            resource = resourceLoader.getResource("file:" + Path.of(tariffContractsLocation).toAbsolutePath());
+        }
+        if (!resource.exists()) {
+            logger.warn("No se encontró el archivo de contratos de tarifas en '{}'. Solo estará disponible {}.",
+                    tariffContractsLocation, EnergyCost.TEST_CONTRACT_30S);
+            return List.of();
+        }
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            List<TariffCalendar> calendars = new TariffCalendarParser().parse(inputStream);
+            for (TariffCalendar calendar : calendars) {
+                EnergyCost.registerContract(calendar);
+                logger.info("Contrato de tarifas registrado: {} ({})", calendar.getContract(), calendar.getZoneId());
+            }
+            return calendars;
+        }
+    }
+
+    /**
+     * Crea las habitaciones (Room) desde la configuración.
+     */
+    @Bean
+    public List<Room> rooms(SiteConfiguration config) {
+        return siteConfigParser.toRooms(config);
+    }
+
+    /**
+     * Crea los switches desde la configuración.
+     */
+    @Bean
+    public List<DataSwitch> switches(SiteConfiguration config) {
+        return siteConfigParser.toSwitches(config);
+    }
+
+    /**
+     * Crea el controlador de switches, medido por switch (ver {@link MeteredSwitchController}).
+     */
+    @Bean
+    public ISwitchController switchController(MeterRegistry meterRegistry) {
+        return new MeteredSwitchController(new SwitchController(), meterRegistry);
+    }
+
+    /**
+     * Crea el controlador de temperatura.
+     */
+    @Bean
+    public TemperatureController temperatureController(
+            SiteConfiguration config,
+            List<Room> rooms,
+            List<DataSwitch> switches,
+            @Value("${decision-trace.capacity:1024}") int decisionTraceCapacity) {
+        // Convertir maxPowerWatts a kW
+        double maxEnergy = config.getMaxPowerWatts() / 1000.0;
+        TemperatureController controller = new TemperatureController(maxEnergy, rooms, switches);
+        controller.setDecisionTrace(new DecisionTrace(decisionTraceCapacity));
+        return controller;
+    }
+}
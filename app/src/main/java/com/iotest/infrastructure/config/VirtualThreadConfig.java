@@ -0,0 +1,36 @@
+package com.iotest.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modo opcional de hilos virtuales (Java 21+), activado con {@code virtual-threads.enabled=true}.
+ * <p>
+ * Con el modo activo, Tomcat atiende cada request en un hilo virtual, el I/O de switches corre sobre
+ * hilos virtuales (ver {@link SwitchIoConfig}) y los monitores de fondo (energía, reconexión MQTT)
+ * también. En una JVM sin hilos virtuales la opción se ignora con una advertencia.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    public VirtualThreads virtualThreads(@Value("${virtual-threads.enabled:false}") boolean enabled) {
+        return new VirtualThreads(enabled);
+    }
+
+    /**
+     * Reemplaza el pool de hilos de Tomcat por un hilo virtual por request.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadTomcatCustomizer(VirtualThreads virtualThreads) {
+        return protocolHandler -> {
+            if (virtualThreads.isEnabled()) {
+                protocolHandler.setExecutor(virtualThreads.newThreadPerTaskExecutor("tomcat-handler-"));
+            }
+        };
+    }
+}
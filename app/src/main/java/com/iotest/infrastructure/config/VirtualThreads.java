@@ -0,0 +1,125 @@
+package com.iotest.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creación de hilos para el modo opcional de hilos virtuales ({@code virtual-threads.enabled}).
+ * <p>
+ * El proyecto compila para Java 17, así que la API de hilos virtuales (Java 21) se obtiene por
+ * reflexión. Si el modo está desactivado o la JVM no los soporta, se crean hilos de plataforma daemon
+ * con el mismo nombre y el código bloqueante existente funciona igual en ambos casos.
+ */
+public class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_NAME_COUNTER;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method nameCounter = null;
+        Method factory = null;
+        Method perTask = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            nameCounter = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_NAME_COUNTER = nameCounter;
+        BUILDER_FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = perTask;
+    }
+
+    private final boolean enabled;
+
+    public VirtualThreads(boolean requested) {
+        this.enabled = requested && isSupported();
+        if (requested && !enabled) {
+            logger.warn("virtual-threads.enabled=true pero la JVM ({}) no soporta hilos virtuales; se usan hilos de plataforma",
+                    Runtime.version());
+        } else if (enabled) {
+            logger.info("Modo de hilos virtuales activado");
+        }
+    }
+
+    /**
+     * Indica si la JVM en ejecución tiene hilos virtuales (Java 21 o superior).
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fábrica de hilos con nombres {@code namePrefix + n}: virtuales si el modo está activo,
+     * de plataforma daemon si no.
+     */
+    public ThreadFactory threadFactory(String namePrefix) {
+        if (enabled) {
+            return virtualFactory(namePrefix, true);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> platformThread(namePrefix + counter.incrementAndGet(), runnable);
+    }
+
+    /**
+     * Crea (sin iniciar) un hilo de fondo con nombre fijo, para los monitores de larga duración.
+     */
+    public Thread newThread(String name, Runnable task) {
+        return enabled ? virtualFactory(name, false).newThread(task) : platformThread(name, task);
+    }
+
+    /**
+     * Ejecutor de un hilo virtual por tarea. Solo disponible con el modo activo.
+     *
+     * @throws IllegalStateException si el modo está desactivado
+     */
+    public ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (!enabled) {
+            throw new IllegalStateException("El modo de hilos virtuales no está activo");
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, virtualFactory(namePrefix, true));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static ThreadFactory virtualFactory(String name, boolean numbered) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = numbered ? BUILDER_NAME_COUNTER.invoke(builder, name, 1L) : BUILDER_NAME.invoke(builder, name);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear la fábrica de hilos virtuales", e);
+        }
+    }
+
+    private static Thread platformThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,216 @@
+package com.iotest.infrastructure.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Historial de temperatura y calefacción de una habitación, con memoria fija.
+ * <p>
+ * Tres niveles, todos en arreglos de primitivos reservados al crearlo:
+ * <ul>
+ *   <li>muestras crudas (instante, temperatura, calefacción) en un buffer circular de
+ *       {@code rawCapacity} posiciones, que se consultan solo dentro de {@code rawRetentionMs};</li>
+ *   <li>buckets de 5 minutos con mínimo, suma, máximo y cantidad, para el último día;</li>
+ *   <li>buckets de 1 hora, para la última semana.</li>
+ * </ul>
+ * Agregar una muestra es O(1): se escribe en el buffer crudo y se acumula en el bucket vigente de
+ * cada nivel (un bucket se reinicia cuando el buffer da la vuelta y le toca un período nuevo).
+ * Los instantes se fuerzan a ser no decrecientes para poder cortar los rangos sin ordenar.
+ */
+public final class RoomHistory {
+
+    public static final long FIVE_MINUTES_MS = 5 * 60_000L;
+    public static final long ONE_HOUR_MS = 60 * 60_000L;
+    static final int DAY_BUCKETS = 24 * 12;
+    static final int WEEK_BUCKETS = 7 * 24;
+
+    /**
+     * Punto de una serie: para muestras crudas min = avg = max y count = 1.
+     *
+     * @param heatingRatio fracción de las muestras con la calefacción encendida
+     */
+    public record Point(long timestamp, double min, double avg, double max, int count, double heatingRatio) {
+    }
+
+    /**
+     * Serie devuelta por {@link #query}: la resolución de origen ("raw", "5m" o "1h") y el paso final.
+     */
+    public record Series(String resolution, long stepMs, List<Point> points) {
+    }
+
+    private final long rawRetentionMs;
+    private final long[] rawTimestamps;
+    private final float[] rawTemperatures;
+    private final boolean[] rawHeating;
+    private long rawWritten;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    private final Rollup fiveMinutes = new Rollup(FIVE_MINUTES_MS, DAY_BUCKETS);
+    private final Rollup hours = new Rollup(ONE_HOUR_MS, WEEK_BUCKETS);
+
+    public RoomHistory(int rawCapacity, long rawRetentionMs) {
+        int capacity = Math.max(1, rawCapacity);
+        this.rawRetentionMs = rawRetentionMs;
+        this.rawTimestamps = new long[capacity];
+        this.rawTemperatures = new float[capacity];
+        this.rawHeating = new boolean[capacity];
+    }
+
+    /**
+     * Agrega una muestra. Un instante anterior al de la última muestra se toma como igual a ése.
+     */
+    public synchronized void append(long timestamp, double temperature, boolean heating) {
+        long ts = Math.max(timestamp, lastTimestamp);
+        lastTimestamp = ts;
+        int slot = (int) (rawWritten % rawTimestamps.length);
+        rawTimestamps[slot] = ts;
+        rawTemperatures[slot] = (float) temperature;
+        rawHeating[slot] = heating;
+        rawWritten++;
+        fiveMinutes.add(ts, temperature, heating);
+        hours.add(ts, temperature, heating);
+    }
+
+    /**
+     * Serie entre {@code from} y {@code to} (inclusive, epoch ms).
+     * <p>
+     * Se usa el nivel más fino que cubre {@code from} (respecto de {@code now}) y cuyo período no supera
+     * {@code stepMs}; los puntos se reagrupan después en buckets de {@code stepMs} alineados a la época.
+     * Con {@code stepMs <= 0} se devuelven los puntos del nivel elegido sin reagrupar.
+     */
+    public synchronized Series query(long from, long to, long stepMs, long now) {
+        long age = now - from;
+        boolean rawCovers = age <= rawRetentionMs;
+        boolean dayCovers = age <= fiveMinutes.retentionMs();
+        List<Point> points;
+        String resolution;
+        if (rawCovers && (stepMs <= 0 || stepMs < FIVE_MINUTES_MS)) {
+            resolution = "raw";
+            points = rawPoints(Math.max(from, now - rawRetentionMs), to);
+        } else if (dayCovers && (stepMs <= 0 || stepMs < ONE_HOUR_MS)) {
+            resolution = "5m";
+            points = fiveMinutes.points(from, to);
+        } else {
+            resolution = "1h";
+            points = hours.points(from, to);
+        }
+        if (stepMs <= 0) {
+            return new Series(resolution, 0, points);
+        }
+        return new Series(resolution, stepMs, regroup(points, stepMs));
+    }
+
+    private List<Point> rawPoints(long from, long to) {
+        List<Point> points = new ArrayList<>();
+        long first = Math.max(0, rawWritten - rawTimestamps.length);
+        for (long i = first; i < rawWritten; i++) {
+            int slot = (int) (i % rawTimestamps.length);
+            long ts = rawTimestamps[slot];
+            if (ts > to) {
+                break;
+            }
+            if (ts >= from) {
+                double temperature = rawTemperatures[slot];
+                points.add(new Point(ts, temperature, temperature, temperature, 1, rawHeating[slot] ? 1 : 0));
+            }
+        }
+        return points;
+    }
+
+    private static List<Point> regroup(List<Point> points, long stepMs) {
+        List<Point> result = new ArrayList<>();
+        long bucket = Long.MIN_VALUE;
+        double min = 0, max = 0, sum = 0, heating = 0;
+        int count = 0;
+        for (Point point : points) {
+            long start = Math.floorDiv(point.timestamp(), stepMs) * stepMs;
+            if (start != bucket) {
+                if (count > 0) {
+                    result.add(new Point(bucket, min, sum / count, max, count, heating / count));
+                }
+                bucket = start;
+                min = Double.POSITIVE_INFINITY;
+                max = Double.NEGATIVE_INFINITY;
+                sum = 0;
+                heating = 0;
+                count = 0;
+            }
+            min = Math.min(min, point.min());
+            max = Math.max(max, point.max());
+            sum += point.avg() * point.count();
+            heating += point.heatingRatio() * point.count();
+            count += point.count();
+        }
+        if (count > 0) {
+            result.add(new Point(bucket, min, sum / count, max, count, heating / count));
+        }
+        return result;
+    }
+
+    /**
+     * Buckets de ancho fijo en un buffer circular indexado por período.
+     */
+    private static final class Rollup {
+        private final long widthMs;
+        private final long[] starts;
+        private final float[] mins;
+        private final float[] maxs;
+        private final double[] sums;
+        private final int[] counts;
+        private final int[] heatingCounts;
+
+        Rollup(long widthMs, int buckets) {
+            this.widthMs = widthMs;
+            this.starts = new long[buckets];
+            this.mins = new float[buckets];
+            this.maxs = new float[buckets];
+            this.sums = new double[buckets];
+            this.counts = new int[buckets];
+            this.heatingCounts = new int[buckets];
+            Arrays.fill(starts, Long.MIN_VALUE);
+        }
+
+        long retentionMs() {
+            return widthMs * starts.length;
+        }
+
+        void add(long ts, double temperature, boolean heating) {
+            long period = Math.floorDiv(ts, widthMs);
+            int slot = (int) Math.floorMod(period, (long) starts.length);
+            long start = period * widthMs;
+            if (starts[slot] != start) {
+                starts[slot] = start;
+                mins[slot] = Float.POSITIVE_INFINITY;
+                maxs[slot] = Float.NEGATIVE_INFINITY;
+                sums[slot] = 0;
+                counts[slot] = 0;
+                heatingCounts[slot] = 0;
+            }
+            mins[slot] = Math.min(mins[slot], (float) temperature);
+            maxs[slot] = Math.max(maxs[slot], (float) temperature);
+            sums[slot] += temperature;
+            counts[slot]++;
+            if (heating) {
+                heatingCounts[slot]++;
+            }
+        }
+
+        List<Point> points(long from, long to) {
+            List<Point> points = new ArrayList<>();
+            long firstPeriod = Math.floorDiv(from, widthMs);
+            long lastPeriod = Math.floorDiv(to, widthMs);
+            // A lo sumo una vuelta del buffer
+            firstPeriod = Math.max(firstPeriod, lastPeriod - starts.length + 1);
+            for (long period = firstPeriod; period <= lastPeriod; period++) {
+                int slot = (int) Math.floorMod(period, (long) starts.length);
+                if (starts[slot] == period * widthMs && counts[slot] > 0) {
+                    int count = counts[slot];
+                    points.add(new Point(starts[slot], mins[slot], sums[slot] / count, maxs[slot], count,
+                            heatingCounts[slot] / (double) count));
+                }
+            }
+            return points;
+        }
+    }
+}
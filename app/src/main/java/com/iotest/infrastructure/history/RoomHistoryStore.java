@@ -0,0 +1,131 @@
+package com.iotest.infrastructure.history;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.StateChangeListener;
+import com.iotest.domain.model.api.dto.HistoryPointResponse;
+import com.iotest.domain.model.api.dto.RoomHistoryResponse;
+import com.iotest.domain.service.TemperatureControlService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Historial acotado por habitación ({@link RoomHistory}): escucha los cambios de temperatura y de
+ * switches del servicio y agrega una muestra (instante, temperatura, calefacción) por cada uno.
+ * <p>
+ * Cada habitación ocupa una cantidad fija de memoria ({@code history.raw-capacity} muestras crudas más
+ * los buckets de 5 minutos del día y de 1 hora de la semana), sin importar la tasa de lecturas.
+ * Las habitaciones que desaparecen al recargar el site-config.json pierden su historial.
+ */
+@Component
+public class RoomHistoryStore implements StateChangeListener {
+
+    private final TemperatureController temperatureController;
+    private final Clock clock;
+    private final int rawCapacity;
+    private final long rawRetentionMs;
+    private final Map<String, RoomHistory> histories = new ConcurrentHashMap<>();
+
+    public RoomHistoryStore(
+            TemperatureControlService temperatureControlService,
+            TemperatureController temperatureController,
+            Clock clock,
+            @Value("${history.enabled:true}") boolean enabled,
+            @Value("${history.raw-capacity:3600}") int rawCapacity,
+            @Value("${history.raw-retention-minutes:60}") long rawRetentionMinutes) {
+        this.temperatureController = temperatureController;
+        this.clock = clock;
+        this.rawCapacity = Math.max(1, rawCapacity);
+        this.rawRetentionMs = TimeUnit.MINUTES.toMillis(Math.max(1, rawRetentionMinutes));
+        if (enabled) {
+            temperatureControlService.addStateChangeListener(this);
+        }
+    }
+
+    @Override
+    public void roomChanged(Room room) {
+        Double temperature = room.getCurrentTemperature();
+        if (temperature == null) {
+            return;
+        }
+        long now = clock.millis();
+        LocalDateTime lastUpdate = room.getLastUpdate();
+        // Una lectura con la hora adelantada no puede correr el historial hacia el futuro
+        long timestamp = lastUpdate != null
+                ? Math.min(lastUpdate.atZone(clock.getZone()).toInstant().toEpochMilli(), now)
+                : now;
+        boolean heating = temperatureController.findSwitchByUrl(room.getSwitchUrl())
+                .map(DataSwitch::isOn)
+                .orElse(room.isHeatingOn());
+        historyOf(room).append(timestamp, temperature, heating);
+    }
+
+    @Override
+    public void switchChanged(DataSwitch dataSwitch) {
+        temperatureController.findRoomBySwitchUrl(dataSwitch.getSwitchUrl())
+                .filter(room -> room.getCurrentTemperature() != null)
+                .ifPresent(room -> historyOf(room)
+                        .append(clock.millis(), room.getCurrentTemperature(), dataSwitch.isOn()));
+    }
+
+    @Override
+    public void siteReconfigured() {
+        Set<String> current = temperatureController.getRooms().stream()
+                .map(Room::getId)
+                .collect(Collectors.toSet());
+        histories.keySet().retainAll(current);
+    }
+
+    /**
+     * Historial de una habitación entre {@code from} y {@code to} (epoch ms), agrupado en pasos de
+     * {@code stepMs} (0 = la resolución del nivel elegido, ver {@link RoomHistory#query}).
+     *
+     * @return vacío si la habitación no existe
+     * @throws IllegalArgumentException si el rango o el paso no son válidos
+     */
+    public Optional<RoomHistoryResponse> query(String roomId, long from, long to, long stepMs) {
+        if (from > to) {
+            throw new IllegalArgumentException("'from' debe ser anterior a 'to'");
+        }
+        if (stepMs < 0) {
+            throw new IllegalArgumentException("'step' no puede ser negativo");
+        }
+        Optional<Room> room = temperatureController.findRoomById(roomId);
+        if (room.isEmpty()) {
+            return Optional.empty();
+        }
+        RoomHistory history = histories.get(room.get().getId());
+        RoomHistory.Series series = history != null
+                ? history.query(from, to, stepMs, clock.millis())
+                : new RoomHistory.Series("raw", stepMs, List.of());
+        return Optional.of(RoomHistoryResponse.builder()
+                .roomId(room.get().getId())
+                .from(from)
+                .to(to)
+                .resolution(series.resolution())
+                .stepMs(series.stepMs())
+                .points(series.points().stream()
+                        .map(p -> new HistoryPointResponse(p.timestamp(), p.min(), p.avg(), p.max(), p.count(), p.heatingRatio()))
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    private RoomHistory historyOf(Room room) {
+        RoomHistory history = histories.get(room.getId());
+        if (history != null) {
+            return history;
+        }
+        return histories.computeIfAbsent(room.getId(), id -> new RoomHistory(rawCapacity, rawRetentionMs));
+    }
+}
@@ -0,0 +1,205 @@
+package com.iotest.infrastructure.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.api.dto.OperationStatusResponse;
+import com.iotest.domain.model.api.dto.ProcessOperationsResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.tracing.Trace;
+import com.iotest.infrastructure.tracing.TraceContext;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Ingesta asíncrona de lecturas: valida, encola y devuelve enseguida un id de operación.
+ * <p>
+ * Un pool chico de workers procesa la cola con {@link TemperatureControlService#processSensorReading},
+ * así el I/O con los switches no retiene hilos de Tomcat. El resultado queda en un
+ * {@link OperationResultStore} acotado y con vencimiento, y si se indicó una URL de callback se le
+ * envía por POST (sin reintentos). Con la cola llena, la lectura se rechaza en lugar de acumularse.
+ * <p>
+ * Para que el servicio no haga pedidos a hosts arbitrarios (SSRF), el callback solo se acepta si su
+ * host, o {@code host:puerto}, está en {@code async-ingest.callback-allowed-hosts}. Sin hosts
+ * configurados los callbacks se rechazan y el resultado se consulta en {@code GET /api/operations/{id}}.
+ * El cliente de callbacks no sigue redirecciones.
+ */
+@Component
+public class AsyncSensorIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSensorIngestor.class);
+
+    private final TemperatureControlService temperatureControlService;
+    private final ObjectMapper objectMapper;
+    private final TraceRecorder traceRecorder;
+    private final OperationResultStore resultStore;
+    private final Clock clock;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> callbackAllowedHosts;
+    private final HttpClient callbackClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public AsyncSensorIngestor(
+            TemperatureControlService temperatureControlService,
+            ObjectMapper objectMapper,
+            TraceRecorder traceRecorder,
+            Clock clock,
+            @Value("${async-ingest.workers:2}") int workers,
+            @Value("${async-ingest.queue-capacity:1000}") int queueCapacity,
+            @Value("${async-ingest.max-results:10000}") int maxResults,
+            @Value("${async-ingest.result-ttl-seconds:300}") long resultTtlSeconds,
+            @Value("${async-ingest.callback-allowed-hosts:}") String callbackAllowedHosts) {
+        this.temperatureControlService = temperatureControlService;
+        this.objectMapper = objectMapper;
+        this.traceRecorder = traceRecorder;
+        this.clock = clock;
+        this.resultStore = new OperationResultStore(maxResults, Duration.ofSeconds(resultTtlSeconds), clock);
+        this.callbackAllowedHosts = Arrays.stream(callbackAllowedHosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "async-ingest-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Valida y encola una lectura.
+     *
+     * @param callbackUrl URL http(s) a la que se envía el resultado, o null
+     * @return la operación en estado PENDING
+     * @throws IllegalArgumentException si la lectura no es válida, o la URL de callback no es válida o
+     *                                  apunta a un host no permitido
+     * @throws RejectedExecutionException si la cola está llena
+     */
+    public OperationStatusResponse submit(SensorReadingRequest request, String callbackUrl) {
+        if (request == null || request.getSensorId() == null || request.getSensorId().isBlank()) {
+            throw new IllegalArgumentException("sensor_id es obligatorio");
+        }
+        if (!Double.isFinite(request.getTemperature())) {
+            throw new IllegalArgumentException("temperature debe ser un número");
+        }
+        URI callback = callbackUrl != null ? parseCallback(callbackUrl) : null;
+
+        OperationStatusResponse pending = OperationStatusResponse.builder()
+                .operationId(UUID.randomUUID().toString())
+                .status(OperationStatusResponse.PENDING)
+                .sensorId(request.getSensorId())
+                .acceptedAt(clock.instant())
+                .build();
+        resultStore.add(pending);
+        try {
+            workers.execute(() -> process(pending, request, callback));
+        } catch (RejectedExecutionException e) {
+            resultStore.remove(pending.getOperationId());
+            throw e;
+        }
+        return pending;
+    }
+
+    public Optional<OperationStatusResponse> find(String operationId) {
+        return resultStore.get(operationId);
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    private void process(OperationStatusResponse pending, SensorReadingRequest request, URI callback) {
+        OperationStatusResponse done;
+        Trace trace = traceRecorder.begin("async.reading");
+        try {
+            TraceContext.attribute("sensor_id", request.getSensorId());
+            TraceContext.attribute("operation_id", pending.getOperationId());
+            ProcessOperationsResponse result = temperatureControlService.processSensorReading(request);
+            done = pending.toBuilder()
+                    .status(OperationStatusResponse.COMPLETED)
+                    .completedAt(clock.instant())
+                    .result(result)
+                    .build();
+        } catch (Exception e) {
+            logger.warn("Error al procesar la lectura asíncrona {} del sensor {}: {}",
+                    pending.getOperationId(), request.getSensorId(), e.getMessage());
+            done = pending.toBuilder()
+                    .status(OperationStatusResponse.FAILED)
+                    .completedAt(clock.instant())
+                    .error(e.getMessage())
+                    .build();
+        } finally {
+            traceRecorder.finish(trace);
+        }
+        resultStore.update(done);
+        if (callback != null) {
+            sendCallback(callback, done);
+        }
+    }
+
+    private void sendCallback(URI callback, OperationStatusResponse status) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(callback)
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(status)))
+                    .build();
+            callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            logger.warn("No se pudo enviar el callback de {} a {}: {}",
+                                    status.getOperationId(), callback, error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            logger.warn("El callback de {} a {} respondió {}",
+                                    status.getOperationId(), callback, response.statusCode());
+                        }
+                    });
+        } catch (Exception e) {
+            logger.warn("No se pudo enviar el callback de {} a {}: {}", status.getOperationId(), callback, e.getMessage());
+        }
+    }
+
+    private URI parseCallback(String callbackUrl) {
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("callback debe ser una URL http(s): " + callbackUrl, e);
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null
+                || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+            throw new IllegalArgumentException("callback debe ser una URL http(s): " + callbackUrl);
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!callbackAllowedHosts.contains(host) && !callbackAllowedHosts.contains(host + ":" + uri.getPort())) {
+            throw new IllegalArgumentException("callback a un host no permitido: " + uri.getHost());
+        }
+        return uri;
+    }
+}
@@ -0,0 +1,57 @@
+package com.iotest.infrastructure.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket en su forma GCRA (Generic Cell Rate Algorithm).
+ * <p>
+ * En lugar de contar tokens, cada clave guarda un único long: el instante teórico de llegada (TAT) de
+ * la próxima lectura si se respetara exactamente la tasa. Una lectura se admite si ese instante no está
+ * más adelantado que la ráfaga permitida, y en ese caso el TAT avanza un intervalo. Así la decisión es
+ * una lectura y un compare-and-set, sin locks ni hilos de recarga.
+ */
+public final class GcraRateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * @param perSecond lecturas por segundo sostenidas; 0 o menos deshabilita el límite
+     * @param burst     lecturas que se admiten de golpe por encima de la tasa (al menos 1)
+     */
+    public GcraRateLimiter(double perSecond, int burst) {
+        this.intervalNanos = perSecond > 0 ? Math.max(1, (long) (1_000_000_000L / perSecond)) : 0;
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    public boolean isEnabled() {
+        return intervalNanos > 0;
+    }
+
+    /**
+     * Estado inicial de una clave nueva: la ráfaga completa disponible.
+     */
+    public static AtomicLong newCell(long nowNanos) {
+        return new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Intenta admitir una lectura para la clave cuyo TAT es {@code cell}.
+     */
+    public boolean tryAcquire(AtomicLong cell, long nowNanos) {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        while (true) {
+            long tat = cell.get();
+            // Se comparan diferencias porque System.nanoTime() puede ser negativo
+            long base = tat - nowNanos > 0 ? tat : nowNanos;
+            if (base - nowNanos > toleranceNanos) {
+                return false;
+            }
+            if (cell.compareAndSet(tat, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
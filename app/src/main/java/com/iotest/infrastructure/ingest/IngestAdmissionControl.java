@@ -0,0 +1,139 @@
+package com.iotest.infrastructure.ingest;
+
+import com.iotest.domain.model.config.RateLimitConfig;
+import com.iotest.domain.model.config.SiteConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Control de admisión de lecturas: un {@link GcraRateLimiter} por id de sensor y uno global, delante
+ * de la API REST (responde 429) y de MQTT (descarta y cuenta).
+ * <p>
+ * Los límites salen de {@code ingest-rate-limit.*} y el bloque "rateLimit" del site-config.json los
+ * reemplaza para ese sitio; al recargar la configuración se aplican los nuevos sin perder el estado de
+ * cada sensor. Los sensores desconocidos también se limitan, pero la cantidad de claves está acotada:
+ * pasado {@code ingest-rate-limit.max-tracked-sensors}, los ids nuevos comparten un único bucket.
+ */
+@Component
+public class IngestAdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestAdmissionControl.class);
+
+    private record Limits(GcraRateLimiter perSensor, GcraRateLimiter global) {
+    }
+
+    private final boolean enabled;
+    private final double defaultPerSensorPerSecond;
+    private final int defaultPerSensorBurst;
+    private final double defaultGlobalPerSecond;
+    private final int defaultGlobalBurst;
+    private final int maxTrackedSensors;
+
+    private volatile Limits limits;
+    private final Map<String, AtomicLong> sensorCells = new ConcurrentHashMap<>();
+    private final AtomicLong overflowCell = GcraRateLimiter.newCell(System.nanoTime());
+    private final AtomicLong globalCell = GcraRateLimiter.newCell(System.nanoTime());
+
+    private final LongAdder rejectedRest = new LongAdder();
+    private final LongAdder droppedMqtt = new LongAdder();
+
+    public IngestAdmissionControl(
+            SiteConfiguration siteConfiguration,
+            @Value("${ingest-rate-limit.enabled:true}") boolean enabled,
+            @Value("${ingest-rate-limit.per-sensor-per-second:10}") double perSensorPerSecond,
+            @Value("${ingest-rate-limit.per-sensor-burst:20}") int perSensorBurst,
+            @Value("${ingest-rate-limit.global-per-second:500}") double globalPerSecond,
+            @Value("${ingest-rate-limit.global-burst:1000}") int globalBurst,
+            @Value("${ingest-rate-limit.max-tracked-sensors:10000}") int maxTrackedSensors) {
+        this.enabled = enabled;
+        this.defaultPerSensorPerSecond = perSensorPerSecond;
+        this.defaultPerSensorBurst = perSensorBurst;
+        this.defaultGlobalPerSecond = globalPerSecond;
+        this.defaultGlobalBurst = globalBurst;
+        this.maxTrackedSensors = Math.max(1, maxTrackedSensors);
+        configure(siteConfiguration != null ? siteConfiguration.getRateLimit() : null);
+    }
+
+    /**
+     * Aplica los límites del sitio (null = los de application.yml).
+     */
+    public void configure(RateLimitConfig site) {
+        double perSensorPerSecond = site != null && site.getPerSensorPerSecond() != null
+                ? site.getPerSensorPerSecond() : defaultPerSensorPerSecond;
+        int perSensorBurst = site != null && site.getPerSensorBurst() != null
+                ? site.getPerSensorBurst() : defaultPerSensorBurst;
+        double globalPerSecond = site != null && site.getGlobalPerSecond() != null
+                ? site.getGlobalPerSecond() : defaultGlobalPerSecond;
+        int globalBurst = site != null && site.getGlobalBurst() != null
+                ? site.getGlobalBurst() : defaultGlobalBurst;
+        limits = new Limits(new GcraRateLimiter(perSensorPerSecond, perSensorBurst),
+                new GcraRateLimiter(globalPerSecond, globalBurst));
+        if (enabled) {
+            logger.info("Límites de ingesta: {}/s (ráfaga {}) por sensor, {}/s (ráfaga {}) en total",
+                    perSensorPerSecond, perSensorBurst, globalPerSecond, globalBurst);
+        }
+    }
+
+    /**
+     * Admisión de una lectura REST; si se rechaza, se cuenta y el llamador responde 429.
+     */
+    public boolean admitRest(String sensorId) {
+        if (tryAdmit(sensorId)) {
+            return true;
+        }
+        rejectedRest.increment();
+        return false;
+    }
+
+    /**
+     * Admisión de una lectura MQTT; si se rechaza, se cuenta y el mensaje se descarta.
+     */
+    public boolean admitMqtt(String sensorId) {
+        if (tryAdmit(sensorId)) {
+            return true;
+        }
+        droppedMqtt.increment();
+        return false;
+    }
+
+    public long getRejectedRestCount() {
+        return rejectedRest.sum();
+    }
+
+    public long getDroppedMqttCount() {
+        return droppedMqtt.sum();
+    }
+
+    private boolean tryAdmit(String sensorId) {
+        if (!enabled) {
+            return true;
+        }
+        Limits current = limits;
+        long now = System.nanoTime();
+        if (current.perSensor().isEnabled() && !current.perSensor().tryAcquire(cellFor(sensorId, now), now)) {
+            return false;
+        }
+        return current.global().tryAcquire(globalCell, now);
+    }
+
+    private AtomicLong cellFor(String sensorId, long now) {
+        if (sensorId == null) {
+            return overflowCell;
+        }
+        AtomicLong cell = sensorCells.get(sensorId);
+        if (cell != null) {
+            return cell;
+        }
+        if (sensorCells.size() >= maxTrackedSensors) {
+            return overflowCell;
+        }
+        return sensorCells.computeIfAbsent(sensorId, id -> GcraRateLimiter.newCell(now));
+    }
+}
@@ -0,0 +1,95 @@
+package com.iotest.infrastructure.ingest;
+
+import com.iotest.domain.model.api.dto.OperationStatusResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resultados de las lecturas asíncronas, acotados en cantidad y en tiempo.
+ * <p>
+ * Las entradas se guardan en orden de alta, que es también el orden de vencimiento: al agregar se
+ * descartan las del principio que ya vencieron y, si aún se supera {@code maxEntries}, las más viejas.
+ * Así la limpieza cuesta solo lo que se descarta y no hace falta un hilo aparte. Un resultado vencido
+ * tampoco se devuelve aunque siga guardado. El vencimiento se mide con el {@link Clock} del servicio,
+ * así que con {@code clock.warp} también se acelera.
+ */
+public class OperationResultStore {
+
+    private static final class Entry {
+        private final long expiresAtMillis;
+        private OperationStatusResponse status;
+
+        private Entry(long expiresAtMillis, OperationStatusResponse status) {
+            this.expiresAtMillis = expiresAtMillis;
+            this.status = status;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public OperationResultStore(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemDefaultZone());
+    }
+
+    public OperationResultStore(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Registra una operación nueva (pendiente); el tiempo de vida se cuenta desde ahora.
+     */
+    public synchronized void add(OperationStatusResponse status) {
+        long now = clock.millis();
+        evict(now);
+        entries.put(status.getOperationId(), new Entry(now + ttlMillis, status));
+    }
+
+    /**
+     * Actualiza el estado de una operación; si ya se descartó, no hace nada.
+     */
+    public synchronized boolean update(OperationStatusResponse status) {
+        Entry entry = entries.get(status.getOperationId());
+        if (entry == null) {
+            return false;
+        }
+        entry.status = status;
+        return true;
+    }
+
+    public synchronized void remove(String operationId) {
+        entries.remove(operationId);
+    }
+
+    public synchronized Optional<OperationStatusResponse> get(String operationId) {
+        Entry entry = entries.get(operationId);
+        if (entry == null || entry.expiresAtMillis <= clock.millis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.status);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.expiresAtMillis > now && entries.size() < maxEntries) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
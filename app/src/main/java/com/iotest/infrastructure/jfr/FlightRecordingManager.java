@@ -0,0 +1,146 @@
+package com.iotest.infrastructure.jfr;
+
+import com.iotest.domain.model.api.dto.JfrRecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Grabación de Java Flight Recorder bajo demanda (POST /api/debug/jfr/start, /dump y /stop).
+ * <p>
+ * Usa el perfil {@code jfr/temperature-control.jfc} del classpath: los eventos propios
+ * ({@code com.iotest.Decision}, {@code com.iotest.SwitchCall}, {@code com.iotest.TariffTransition})
+ * más GC, asignación y CPU. La grabación es continua y guarda solo los últimos
+ * {@code jfr.max-age-minutes} (o {@code jfr.max-size-mb}); cada dump escribe esa ventana en un
+ * archivo nuevo de {@code jfr.dump-dir} sin detenerla. Hay a lo sumo una grabación a la vez.
+ */
+@Component
+public class FlightRecordingManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingManager.class);
+
+    static final String SETTINGS_RESOURCE = "/jfr/temperature-control.jfc";
+    private static final String RECORDING_NAME = "temperature-control";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path dumpDir;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+
+    public FlightRecordingManager(
+            @Value("${jfr.dump-dir:recordings}") String dumpDir,
+            @Value("${jfr.max-age-minutes:10}") long maxAgeMinutes,
+            @Value("${jfr.max-size-mb:100}") long maxSizeMb) {
+        this.dumpDir = Path.of(dumpDir);
+        this.maxAge = Duration.ofMinutes(Math.max(1, maxAgeMinutes));
+        this.maxSizeBytes = Math.max(1, maxSizeMb) * 1024 * 1024;
+    }
+
+    /**
+     * Inicia la grabación con el perfil del proyecto.
+     *
+     * @throws IllegalStateException si ya hay una grabación en curso
+     */
+    public synchronized JfrRecordingResponse start() throws IOException {
+        if (recording != null) {
+            throw new IllegalStateException("Ya hay una grabación de JFR en curso");
+        }
+        Recording newRecording = new Recording(loadSettings());
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.start();
+        recording = newRecording;
+        logger.info("Grabación de JFR iniciada (ventana de {} minutos)", maxAge.toMinutes());
+        return describe(newRecording).build();
+    }
+
+    /**
+     * Escribe el contenido actual de la grabación en un archivo nuevo, sin detenerla.
+     *
+     * @return la grabación con el archivo generado, o vacío si no hay una grabación en curso
+     */
+    public synchronized Optional<JfrRecordingResponse> dump() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Files.createDirectories(dumpDir);
+        Path file = dumpDir.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        recording.dump(file);
+        logger.info("Grabación de JFR volcada a {}", file.toAbsolutePath());
+        return Optional.of(describe(recording)
+                .file(file.toAbsolutePath().toString())
+                .sizeBytes(Files.size(file))
+                .build());
+    }
+
+    /**
+     * Detiene y descarta la grabación en curso (lo no volcado se pierde).
+     *
+     * @return la grabación detenida, o vacío si no había ninguna
+     */
+    public synchronized Optional<JfrRecordingResponse> stop() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Recording stopped = recording;
+        recording = null;
+        if (stopped.getState() == RecordingState.RUNNING) {
+            stopped.stop();
+        }
+        JfrRecordingResponse response = describe(stopped).build();
+        stopped.close();
+        logger.info("Grabación de JFR detenida");
+        return Optional.of(response);
+    }
+
+    public synchronized Optional<JfrRecordingResponse> status() {
+        return Optional.ofNullable(recording).map(r -> describe(r).build());
+    }
+
+    @PreDestroy
+    public void close() {
+        stop();
+    }
+
+    private static JfrRecordingResponse.JfrRecordingResponseBuilder describe(Recording recording) {
+        return JfrRecordingResponse.builder()
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime())
+                .maxAgeSeconds(recording.getMaxAge() != null ? recording.getMaxAge().toSeconds() : null);
+    }
+
+    private static Configuration loadSettings() throws IOException {
+        InputStream settings = FlightRecordingManager.class.getResourceAsStream(SETTINGS_RESOURCE);
+        if (settings == null) {
+            throw new IOException("No se encontró el perfil de JFR " + SETTINGS_RESOURCE);
+        }
+        try (Reader reader = new InputStreamReader(settings, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (ParseException e) {
+            throw new IOException("Perfil de JFR inválido " + SETTINGS_RESOURCE + ": " + e.getMessage(), e);
+        }
+    }
+}
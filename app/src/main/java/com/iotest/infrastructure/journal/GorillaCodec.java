@@ -0,0 +1,86 @@
+package com.iotest.infrastructure.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresión de series al estilo Gorilla (delta-of-delta para los instantes, XOR con el valor anterior
+ * para las temperaturas), adaptada a registros alineados a byte para que cada uno lleve su propio CRC
+ * y la recuperación pueda cortar en el último registro completo.
+ * <ul>
+ *   <li>Instantes: {@code (ts - tsAnterior) - deltaAnterior} en zigzag + varint; una serie con período
+ *       constante ocupa 1 byte por muestra.</li>
+ *   <li>Valores: {@code bits XOR bitsAnterior}; 0 si se repite, si no un byte con la cantidad de bytes en
+ *       cero a la derecha (4 bits altos) y de bytes significativos (4 bits bajos), seguido de esos bytes.</li>
+ * </ul>
+ */
+final class GorillaCodec {
+
+    /** Tamaño máximo de un varint de 64 bits. */
+    static final int MAX_VARINT_BYTES = 10;
+    /** Tamaño máximo de un valor codificado con {@link #putXor}. */
+    static final int MAX_XOR_BYTES = 1 + Long.BYTES;
+
+    private GorillaCodec() {
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint demasiado largo");
+    }
+
+    static void putZigZag(ByteBuffer buffer, long value) {
+        putVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long getZigZag(ByteBuffer buffer) {
+        long raw = getVarLong(buffer);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static void putXor(ByteBuffer buffer, long bits, long previousBits) {
+        long xor = bits ^ previousBits;
+        if (xor == 0) {
+            buffer.put((byte) 0);
+            return;
+        }
+        int trailing = Long.numberOfTrailingZeros(xor) / 8;
+        int meaningful = Long.BYTES - Long.numberOfLeadingZeros(xor) / 8 - trailing;
+        buffer.put((byte) ((trailing << 4) | meaningful));
+        long shifted = xor >>> (trailing * 8);
+        for (int i = meaningful - 1; i >= 0; i--) {
+            buffer.put((byte) (shifted >>> (i * 8)));
+        }
+    }
+
+    static long getXor(ByteBuffer buffer, long previousBits) {
+        int header = buffer.get() & 0xFF;
+        if (header == 0) {
+            return previousBits;
+        }
+        int trailing = header >>> 4;
+        int meaningful = header & 0x0F;
+        if (meaningful == 0 || trailing + meaningful > Long.BYTES) {
+            throw new IllegalStateException("Cabecera XOR inválida: " + header);
+        }
+        long shifted = 0;
+        for (int i = 0; i < meaningful; i++) {
+            shifted = (shifted << 8) | (buffer.get() & 0xFF);
+        }
+        return previousBits ^ (shifted << (trailing * 8));
+    }
+}
@@ -0,0 +1,28 @@
+package com.iotest.infrastructure.journal;
+
+/**
+ * Un evento leído del journal. Los campos que no corresponden al tipo quedan en su valor neutro
+ * (NaN, -1 o false).
+ *
+ * @param timestamp epoch ms: el de la lectura, el del cambio de tarifa o el de la operación
+ * @param key       id del sensor, contrato o URL del switch, según el tipo
+ */
+public record JournalEntry(Type type, long timestamp, String key, double temperature,
+                           int previousTariff, int currentTariff, boolean on, boolean success) {
+
+    public enum Type {
+        READING, TIME_EVENT, OPERATION
+    }
+
+    static JournalEntry reading(long timestamp, String sensorId, double temperature) {
+        return new JournalEntry(Type.READING, timestamp, sensorId, temperature, -1, -1, false, false);
+    }
+
+    static JournalEntry timeEvent(long timestamp, String contract, int previousTariff, int currentTariff) {
+        return new JournalEntry(Type.TIME_EVENT, timestamp, contract, Double.NaN, previousTariff, currentTariff, false, false);
+    }
+
+    static JournalEntry operation(long timestamp, String switchUrl, boolean on, boolean success) {
+        return new JournalEntry(Type.OPERATION, timestamp, switchUrl, Double.NaN, -1, -1, on, success);
+    }
+}
@@ -0,0 +1,190 @@
+package com.iotest.infrastructure.journal;
+
+import com.iotest.replay.CaptureEvent;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Lectura de los segmentos del journal, para la recuperación tras un corte y para análisis offline.
+ * <p>
+ * Cada segmento se lee hasta el primer byte de fin o hasta el primer registro incompleto o con CRC
+ * inválido (la cola de un segmento que se estaba escribiendo cuando se cortó el proceso o el equipo);
+ * lo anterior se entrega completo y en orden.
+ * <p>
+ * Para volcar un journal como NDJSON (las lecturas y cambios de tarifa quedan en el formato de
+ * {@link CaptureEvent}, así el volcado se puede reproducir con {@code com.iotest.replay.ReplayDriver}):
+ * <pre>
+ * java -cp target/classes com.iotest.infrastructure.journal.JournalReader data/journal
+ * </pre>
+ */
+public final class JournalReader {
+
+    /**
+     * Resultado de leer un segmento.
+     *
+     * @param entries eventos entregados
+     * @param torn    true si el segmento terminaba en un registro incompleto o corrupto
+     */
+    public record SegmentResult(Path segment, int entries, boolean torn) {
+    }
+
+    private JournalReader() {
+    }
+
+    /**
+     * Segmentos del directorio, del más viejo al más nuevo (vacío si el directorio no existe).
+     */
+    public static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(JournalSegment.PREFIX) && name.endsWith(JournalSegment.SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Lee todos los segmentos del directorio en orden.
+     */
+    public static List<SegmentResult> readAll(Path dir, Consumer<JournalEntry> consumer) throws IOException {
+        List<SegmentResult> results = new ArrayList<>();
+        for (Path segment : segments(dir)) {
+            results.add(read(segment, consumer));
+        }
+        return results;
+    }
+
+    /**
+     * Lee un segmento y entrega sus eventos en orden.
+     *
+     * @throws IOException si no se puede leer o no es un segmento del journal
+     */
+    public static SegmentResult read(Path segment, Consumer<JournalEntry> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < JournalSegment.HEADER_SIZE || buffer.getInt() != JournalSegment.MAGIC) {
+            throw new IOException("No es un segmento del journal: " + segment);
+        }
+        int version = buffer.getInt();
+        if (version != JournalSegment.VERSION) {
+            throw new IOException("Versión de journal no soportada (" + version + "): " + segment);
+        }
+        long baseTimestamp = buffer.getLong();
+        buffer.position(JournalSegment.HEADER_SIZE);
+
+        SeriesState series = new SeriesState(baseTimestamp);
+        List<String> keys = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        int entries = 0;
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == JournalSegment.END) {
+                return new SegmentResult(segment, entries, false);
+            }
+            ByteBuffer payload;
+            try {
+                long length = GorillaCodec.getVarLong(buffer);
+                if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+                    return new SegmentResult(segment, entries, true);
+                }
+                payload = buffer.slice(buffer.position(), (int) length);
+                buffer.position(buffer.position() + (int) length);
+                crc.reset();
+                crc.update(type);
+                crc.update(payload.duplicate());
+                if (buffer.getInt() != (int) crc.getValue()) {
+                    return new SegmentResult(segment, entries, true);
+                }
+                JournalEntry entry = decode(type, payload, series, keys);
+                if (entry != null) {
+                    consumer.accept(entry);
+                    entries++;
+                }
+            } catch (RuntimeException e) {
+                return new SegmentResult(segment, entries, true);
+            }
+        }
+        return new SegmentResult(segment, entries, false);
+    }
+
+    private static JournalEntry decode(byte type, ByteBuffer payload, SeriesState series, List<String> keys) {
+        int id = (int) GorillaCodec.getVarLong(payload);
+        if (type == JournalSegment.DEFINE) {
+            if (id != keys.size()) {
+                throw new IllegalStateException("Id de clave fuera de orden: " + id);
+            }
+            byte[] utf8 = new byte[payload.remaining()];
+            payload.get(utf8);
+            keys.add(new String(utf8, StandardCharsets.UTF_8));
+            series.add();
+            return null;
+        }
+        String key = keys.get(id);
+        long timestamp = series.decodeTimestamp(id, GorillaCodec.getZigZag(payload));
+        switch (type) {
+            case JournalSegment.READING -> {
+                long bits = GorillaCodec.getXor(payload, series.lastBits(id));
+                series.lastBits(id, bits);
+                return JournalEntry.reading(timestamp, key, Double.longBitsToDouble(bits));
+            }
+            case JournalSegment.TIME_EVENT -> {
+                int previous = (int) GorillaCodec.getZigZag(payload);
+                int current = (int) GorillaCodec.getZigZag(payload);
+                return JournalEntry.timeEvent(timestamp, key, previous, current);
+            }
+            case JournalSegment.OPERATION -> {
+                int flags = payload.get();
+                return JournalEntry.operation(timestamp, key,
+                        (flags & JournalSegment.FLAG_ON) != 0, (flags & JournalSegment.FLAG_SUCCESS) != 0);
+            }
+            default -> throw new IllegalStateException("Tipo de registro desconocido: " + type);
+        }
+    }
+
+    /**
+     * Vuelca el journal del directorio indicado (por defecto data/journal) como NDJSON por la salida estándar.
+     */
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "data/journal");
+        PrintStream out = System.out;
+        for (SegmentResult result : readAll(dir, entry -> out.println(toJson(entry)))) {
+            if (result.torn()) {
+                System.err.printf("%s: %d eventos, cola incompleta descartada%n", result.segment(), result.entries());
+            }
+        }
+    }
+
+    private static String toJson(JournalEntry entry) {
+        return switch (entry.type()) {
+            case READING -> CaptureEvent.reading(entry.timestamp(), entry.key(), entry.temperature()).toJson();
+            case TIME_EVENT -> CaptureEvent.timeEvent(entry.timestamp(), entry.key(),
+                    entry.previousTariff(), entry.currentTariff()).toJson();
+            case OPERATION -> String.format(Locale.US, "{\"type\":\"operation\",\"timestamp\":%d,\"switch_url\":\"%s\",\"action\":\"%s\",\"success\":%b}",
+                    entry.timestamp(), entry.key().replace("\\", "\\\\").replace("\"", "\\\""),
+                    entry.on() ? "ON" : "OFF", entry.success());
+        };
+    }
+}
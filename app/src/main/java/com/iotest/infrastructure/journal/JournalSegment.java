@@ -0,0 +1,210 @@
+package com.iotest.infrastructure.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Un archivo del journal, mapeado en memoria con tamaño fijo y escrito solo hacia adelante.
+ * <p>
+ * Formato (big endian):
+ * <pre>
+ * cabecera (32 bytes): int MAGIC ("EVJ1"), int versión, long instante base (epoch ms),
+ *                      long índice del segmento, 8 bytes reservados
+ * registros:           byte tipo, varint largo del contenido, contenido, int CRC32C de tipo + contenido
+ * fin:                 un byte 0 (el archivo nuevo está en ceros) o el final del archivo
+ * </pre>
+ * Tipos: {@code DEFINE} (varint id, UTF-8 de la clave) presenta una clave la primera vez que aparece en el
+ * segmento; {@code READING} (id, instante, temperatura), {@code TIME_EVENT} (id, instante, tarifa anterior,
+ * tarifa nueva) y {@code OPERATION} (id, instante, flags encendido/confirmada) la referencian por id. Los
+ * instantes y las temperaturas se comprimen por clave con {@link GorillaCodec}.
+ * <p>
+ * No es seguro entre hilos: {@link MappedEventJournal} serializa las escrituras y fuerza a disco desde
+ * su propio hilo.
+ */
+final class JournalSegment {
+
+    static final int MAGIC = 0x45564A31; // "EVJ1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".evj";
+
+    static final byte END = 0;
+    static final byte DEFINE = 1;
+    static final byte READING = 2;
+    static final byte TIME_EVENT = 3;
+    static final byte OPERATION = 4;
+
+    static final int FLAG_ON = 1;
+    static final int FLAG_SUCCESS = 2;
+
+    // Tipo + largo + CRC, más lo máximo que ocupa el contenido de un evento sin la clave
+    private static final int MAX_FRAME_OVERHEAD = 1 + GorillaCodec.MAX_VARINT_BYTES + Integer.BYTES;
+    private static final int MAX_EVENT_PAYLOAD = 3 * GorillaCodec.MAX_VARINT_BYTES + GorillaCodec.MAX_XOR_BYTES;
+
+    private final Path path;
+    private final long index;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer scratch = ByteBuffer.allocate(256);
+    private final CRC32C crc = new CRC32C();
+    private final Map<String, Integer> keys = new HashMap<>();
+    private final SeriesState series;
+
+    // Hasta dónde hay registros completos (lo lee el hilo de commit) y hasta dónde se forzó a disco
+    private volatile int written = HEADER_SIZE;
+    private int forced = 0;
+    private int records;
+
+    private JournalSegment(Path path, long index, long baseTimestamp, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.index = index;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.series = new SeriesState(baseTimestamp);
+    }
+
+    static Path fileName(Path dir, long index) {
+        return dir.resolve(String.format("%s%016d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * Crea el archivo del segmento {@code index} con {@code size} bytes y escribe la cabecera.
+     */
+    static JournalSegment create(Path dir, long index, long baseTimestamp, int size) throws IOException {
+        Path path = fileName(dir, index);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(baseTimestamp).putLong(index).putLong(0);
+            return new JournalSegment(path, index, baseTimestamp, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long index() {
+        return index;
+    }
+
+    int records() {
+        return records;
+    }
+
+    int written() {
+        return written;
+    }
+
+    /**
+     * Indica si entra un evento con esta clave (incluida su definición, si es la primera vez).
+     */
+    boolean hasRoomFor(String key) {
+        int keyBytes = keys.containsKey(key) ? 0 : MAX_FRAME_OVERHEAD + GorillaCodec.MAX_VARINT_BYTES + 3 * key.length();
+        return buffer.remaining() >= keyBytes + MAX_FRAME_OVERHEAD + MAX_EVENT_PAYLOAD;
+    }
+
+    /**
+     * Indica si un evento con esta clave entra en un segmento vacío de {@code size} bytes.
+     */
+    static boolean fits(String key, int size) {
+        return HEADER_SIZE + 2 * MAX_FRAME_OVERHEAD + GorillaCodec.MAX_VARINT_BYTES + 3 * key.length()
+                + MAX_EVENT_PAYLOAD <= size;
+    }
+
+    void reading(String sensorId, long timestamp, double temperature) {
+        int id = keyId(sensorId);
+        scratch.clear();
+        GorillaCodec.putVarLong(scratch, id);
+        GorillaCodec.putZigZag(scratch, series.encodeTimestamp(id, timestamp));
+        long bits = Double.doubleToRawLongBits(temperature);
+        GorillaCodec.putXor(scratch, bits, series.lastBits(id));
+        series.lastBits(id, bits);
+        frame(READING);
+    }
+
+    void timeEvent(String contract, long timestamp, int previousTariff, int currentTariff) {
+        int id = keyId(contract);
+        scratch.clear();
+        GorillaCodec.putVarLong(scratch, id);
+        GorillaCodec.putZigZag(scratch, series.encodeTimestamp(id, timestamp));
+        GorillaCodec.putZigZag(scratch, previousTariff);
+        GorillaCodec.putZigZag(scratch, currentTariff);
+        frame(TIME_EVENT);
+    }
+
+    void operation(String switchUrl, long timestamp, boolean on, boolean success) {
+        int id = keyId(switchUrl);
+        scratch.clear();
+        GorillaCodec.putVarLong(scratch, id);
+        GorillaCodec.putZigZag(scratch, series.encodeTimestamp(id, timestamp));
+        scratch.put((byte) ((on ? FLAG_ON : 0) | (success ? FLAG_SUCCESS : 0)));
+        frame(OPERATION);
+    }
+
+    /**
+     * Fuerza a disco lo escrito desde el último commit (group commit: un solo msync para todos los
+     * registros acumulados). Lo llama un único hilo.
+     *
+     * @return bytes forzados
+     */
+    int force() {
+        int end = written;
+        int from = forced;
+        if (end <= from) {
+            return 0;
+        }
+        buffer.force(from, end - from);
+        forced = end;
+        return end - from;
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int keyId(String key) {
+        Integer id = keys.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId = series.add();
+        keys.put(key, newId);
+        byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(GorillaCodec.MAX_VARINT_BYTES + utf8.length);
+        GorillaCodec.putVarLong(payload, newId);
+        payload.put(utf8);
+        writeFrame(DEFINE, payload.array(), payload.position());
+        return newId;
+    }
+
+    private void frame(byte type) {
+        writeFrame(type, scratch.array(), scratch.position());
+        records++;
+    }
+
+    private void writeFrame(byte type, byte[] payload, int length) {
+        crc.reset();
+        crc.update(type);
+        crc.update(payload, 0, length);
+        buffer.put(type);
+        GorillaCodec.putVarLong(buffer, length);
+        buffer.put(payload, 0, length);
+        buffer.putInt((int) crc.getValue());
+        written = buffer.position();
+    }
+}
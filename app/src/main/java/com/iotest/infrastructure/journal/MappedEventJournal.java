@@ -0,0 +1,299 @@
+package com.iotest.infrastructure.journal;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EventJournal;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.TimeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Journal durable de lecturas, cambios de tarifa y operaciones en segmentos mapeados en memoria
+ * ({@link JournalSegment}), para reconstruir qué pasó después de un corte y para análisis offline
+ * ({@link JournalReader}).
+ * <p>
+ * Escribir un evento es comprimirlo y copiarlo al segmento mapeado bajo un lock, sin llamadas al
+ * sistema: una vez copiado sobrevive a una caída del proceso. La durabilidad ante un corte del equipo
+ * la da el hilo "journal-commit", que cada {@code journal.commit-interval-ms} fuerza a disco lo
+ * acumulado con un solo msync (group commit), así el fsync nunca queda en el camino de una lectura.
+ * <p>
+ * Cada arranque abre un segmento nuevo; al llenarse uno ({@code journal.segment-size-mb}) se pasa al
+ * siguiente y el hilo de commit cierra el anterior. Al arrancar y en cada cambio de segmento se aplica la retención: se borran los segmentos más
+ * viejos que {@code journal.retention-hours} o que excedan {@code journal.max-segments}.
+ */
+@Component
+public class MappedEventJournal implements EventJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedEventJournal.class);
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final long retentionMs;
+    private final int maxSegments;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private JournalSegment active;
+    private long nextIndex;
+    private boolean failed;
+    // Segmentos llenos que el hilo de commit debe forzar y cerrar
+    private final Queue<JournalSegment> sealed = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService committer;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+
+    public MappedEventJournal(
+            TemperatureController temperatureController,
+            Clock clock,
+            @Value("${journal.enabled:true}") boolean enabled,
+            @Value("${journal.dir:data/journal}") String dir,
+            @Value("${journal.segment-size-mb:16}") int segmentSizeMb,
+            @Value("${journal.commit-interval-ms:100}") long commitIntervalMs,
+            @Value("${journal.retention-hours:168}") long retentionHours,
+            @Value("${journal.max-segments:64}") int maxSegments) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.dir = Path.of(dir).toAbsolutePath();
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(1, segmentSizeMb) * 1024L * 1024L);
+        this.retentionMs = TimeUnit.HOURS.toMillis(Math.max(1, retentionHours));
+        this.maxSegments = Math.max(2, maxSegments);
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(this.dir);
+            List<Path> existing = JournalReader.segments(this.dir);
+            nextIndex = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)) + 1;
+            active = JournalSegment.create(this.dir, nextIndex++, clock.millis(), segmentSize);
+            // Cada arranque suma un segmento: la retención se aplica también acá
+            applyRetention(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el journal en " + this.dir, e);
+        }
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, commitIntervalMs);
+        committer.scheduleWithFixedDelay(this::commitQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        temperatureController.setEventJournal(this);
+        logger.info("Journal de eventos en {} (segmentos de {} MB, commit cada {} ms)", this.dir, segmentSizeMb, interval);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (committer == null) {
+            return;
+        }
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (active != null) {
+                sealed.add(active);
+                active = null;
+            }
+        }
+        commitQuietly();
+        logger.info("Journal cerrado: {} eventos, {} descartados, {} commits", events.sum(), dropped.sum(), commits.sum());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getCommitCount() {
+        return commits.sum();
+    }
+
+    @Override
+    public void reading(String sensorId, double temperature, LocalDateTime timestamp) {
+        long ts = timestamp != null ? timestamp.atZone(clock.getZone()).toInstant().toEpochMilli()
+                : clock.millis();
+        synchronized (lock) {
+            JournalSegment segment = segmentFor(sensorId);
+            if (segment != null) {
+                segment.reading(sensorId, ts, temperature);
+                events.increment();
+            }
+        }
+    }
+
+    @Override
+    public void timeEvent(TimeEvent timeEvent) {
+        long ts = timeEvent.getTimestamp() != null
+                ? timeEvent.getTimestamp().atZone(clock.getZone()).toInstant().toEpochMilli()
+                : clock.millis();
+        synchronized (lock) {
+            JournalSegment segment = segmentFor(timeEvent.getContract());
+            if (segment != null) {
+                segment.timeEvent(timeEvent.getContract(), ts, timeEvent.getPreviousTariff(), timeEvent.getCurrentTariff());
+                events.increment();
+            }
+        }
+    }
+
+    @Override
+    public void operation(Operation operation, boolean success) {
+        long ts = clock.millis();
+        synchronized (lock) {
+            JournalSegment segment = segmentFor(operation.getSwitchUrl());
+            if (segment != null) {
+                segment.operation(operation.getSwitchUrl(), ts, "ON".equals(operation.getAction()), success);
+                events.increment();
+            }
+        }
+    }
+
+    /**
+     * Fuerza a disco lo escrito y cierra los segmentos llenos. Lo hace el hilo de commit; se expone
+     * para forzar un commit antes de leer el journal.
+     */
+    public synchronized void commit() throws IOException {
+        JournalSegment current;
+        synchronized (lock) {
+            current = active;
+        }
+        // Forzar antes de cerrar los llenos: si el segmento se llenó después de tomarlo, ya está en
+        // sealed y el close de abajo lo cerraría antes del force
+        if (current != null && current.force() > 0) {
+            commits.increment();
+        }
+        boolean rolled = false;
+        JournalSegment full;
+        while ((full = sealed.poll()) != null) {
+            full.close();
+            rolled = true;
+        }
+        if (rolled) {
+            applyRetention(current);
+        }
+    }
+
+    /**
+     * Entrega los eventos de los segmentos anteriores a este arranque con instante posterior a
+     * {@code sinceMs}, en orden (para completar un snapshot de arranque en caliente).
+     *
+     * @return cantidad de eventos entregados
+     */
+    public int replayPrevious(long sinceMs, Consumer<JournalEntry> consumer) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long firstIndexOfThisRun;
+        synchronized (lock) {
+            firstIndexOfThisRun = active != null ? active.index() : nextIndex;
+        }
+        int[] delivered = {0};
+        for (Path segment : JournalReader.segments(dir)) {
+            if (indexOf(segment) >= firstIndexOfThisRun) {
+                continue;
+            }
+            JournalReader.SegmentResult result = JournalReader.read(segment, entry -> {
+                if (entry.timestamp() > sinceMs) {
+                    consumer.accept(entry);
+                    delivered[0]++;
+                }
+            });
+            if (result.torn()) {
+                logger.info("Journal {}: cola incompleta descartada tras {} eventos", segment.getFileName(), result.entries());
+            }
+        }
+        return delivered[0];
+    }
+
+    // Con el lock tomado
+    private JournalSegment segmentFor(String key) {
+        if (active == null || failed) {
+            dropped.increment();
+            return null;
+        }
+        if (active.hasRoomFor(key)) {
+            return active;
+        }
+        if (!JournalSegment.fits(key, segmentSize)) {
+            dropped.increment();
+            return null;
+        }
+        try {
+            JournalSegment next = JournalSegment.create(dir, nextIndex++, clock.millis(), segmentSize);
+            sealed.add(active);
+            active = next;
+            return next;
+        } catch (IOException e) {
+            // Sin lugar para un segmento nuevo: se deja de registrar en vez de frenar el control
+            failed = true;
+            logger.error("No se pudo crear un segmento nuevo del journal; se dejan de registrar eventos: {}", e.getMessage());
+            dropped.increment();
+            return null;
+        }
+    }
+
+    private void applyRetention(JournalSegment current) throws IOException {
+        List<Path> segments = JournalReader.segments(dir);
+        // Se compara con la fecha de modificación de los archivos: hora real, no la del reloj del servicio
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        int remaining = segments.size();
+        for (Path segment : segments) {
+            if (current != null && segment.equals(current.path())) {
+                break;
+            }
+            boolean expired = Files.getLastModifiedTime(segment).toMillis() < cutoff;
+            if (remaining > maxSegments || expired) {
+                Files.deleteIfExists(segment);
+                remaining--;
+                logger.debug("Segmento del journal eliminado por retención: {}", segment.getFileName());
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (Exception e) {
+            logger.warn("Fallo el commit del journal: {}", e.getMessage());
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(JournalSegment.PREFIX.length(), name.length() - JournalSegment.SUFFIX.length()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.iotest.infrastructure.journal;
+
+import java.util.Arrays;
+
+/**
+ * Estado de compresión por clave (sensor, contrato o switch) dentro de un segmento: último instante,
+ * último delta y bits del último valor. Lo mantienen igual el escritor y el lector, y se reinicia en
+ * cada segmento para que cada archivo se pueda decodificar solo.
+ */
+final class SeriesState {
+
+    private final long baseTimestamp;
+    private long[] lastTimestamps = new long[16];
+    private long[] lastDeltas = new long[16];
+    private long[] lastBits = new long[16];
+    private int size;
+
+    SeriesState(long baseTimestamp) {
+        this.baseTimestamp = baseTimestamp;
+    }
+
+    /** Agrega una clave nueva y devuelve su id. */
+    int add() {
+        if (size == lastTimestamps.length) {
+            int capacity = size * 2;
+            lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+            lastDeltas = Arrays.copyOf(lastDeltas, capacity);
+            lastBits = Arrays.copyOf(lastBits, capacity);
+        }
+        lastTimestamps[size] = baseTimestamp;
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Delta-of-delta del instante {@code timestamp} para la clave, y lo deja como último. */
+    long encodeTimestamp(int id, long timestamp) {
+        long delta = timestamp - lastTimestamps[id];
+        long deltaOfDelta = delta - lastDeltas[id];
+        lastTimestamps[id] = timestamp;
+        lastDeltas[id] = delta;
+        return deltaOfDelta;
+    }
+
+    /** Inverso de {@link #encodeTimestamp}. */
+    long decodeTimestamp(int id, long deltaOfDelta) {
+        long delta = lastDeltas[id] + deltaOfDelta;
+        long timestamp = lastTimestamps[id] + delta;
+        lastTimestamps[id] = timestamp;
+        lastDeltas[id] = delta;
+        return timestamp;
+    }
+
+    long lastBits(int id) {
+        return lastBits[id];
+    }
+
+    void lastBits(int id, long bits) {
+        lastBits[id] = bits;
+    }
+}
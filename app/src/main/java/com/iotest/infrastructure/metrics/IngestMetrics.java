@@ -0,0 +1,41 @@
+package com.iotest.infrastructure.metrics;
+
+import com.iotest.infrastructure.ingest.AsyncSensorIngestor;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expone los contadores que ya llevan los componentes de ingesta, leídos solo al exportar:
+ * {@code ingest.rate_limited} (lecturas rechazadas por el límite, por canal) y
+ * {@code ingest.async.queued} (lecturas asíncronas esperando un worker).
+ */
+@Component
+public class IngestMetrics implements MeterBinder {
+
+    private final IngestAdmissionControl ingestAdmissionControl;
+    private final AsyncSensorIngestor asyncSensorIngestor;
+
+    public IngestMetrics(IngestAdmissionControl ingestAdmissionControl, AsyncSensorIngestor asyncSensorIngestor) {
+        this.ingestAdmissionControl = ingestAdmissionControl;
+        this.asyncSensorIngestor = asyncSensorIngestor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ingest.rate_limited", ingestAdmissionControl, IngestAdmissionControl::getRejectedRestCount)
+                .description("Lecturas rechazadas por el límite de ingesta")
+                .tag("channel", "rest")
+                .register(registry);
+        FunctionCounter.builder("ingest.rate_limited", ingestAdmissionControl, IngestAdmissionControl::getDroppedMqttCount)
+                .description("Lecturas rechazadas por el límite de ingesta")
+                .tag("channel", "mqtt")
+                .register(registry);
+        Gauge.builder("ingest.async.queued", asyncSensorIngestor, AsyncSensorIngestor::getQueuedCount)
+                .description("Lecturas asíncronas en cola")
+                .register(registry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.iotest.infrastructure.metrics;
+
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.infrastructure.tracing.TraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador de {@link ISwitchController} que mide cada GET y POST a los switches.
+ * <p>
+ * Registra el timer {@code switch.requests} con las etiquetas {@code method} (GET/POST),
+ * {@code switch} (URL) y {@code outcome} (success/error); la tasa de errores por switch sale de los
+ * conteos por outcome. Los timers de cada URL se buscan una sola vez y quedan en un mapa, así que cada
+ * llamada solo suma un lookup y dos lecturas de System.nanoTime().
+ * <p>
+ * Si hay una traza en curso, cada llamada es además una etapa {@code switch.get} o {@code switch.post}
+ * con la URL del switch. La del POST incluye la pausa y el GET de verificación que hace
+ * {@code SwitchController.postSwitchStatus}.
+ */
+public class MeteredSwitchController implements ISwitchController {
+
+    public static final String METRIC = "switch.requests";
+
+    private record SwitchTimers(Timer getOk, Timer getFailed, Timer postOk, Timer postFailed) {
+    }
+
+    private final ISwitchController delegate;
+    private final MeterRegistry registry;
+    private final Map<String, SwitchTimers> timersBySwitch = new ConcurrentHashMap<>();
+
+    public MeteredSwitchController(ISwitchController delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public String getSwitchStatus(String switchUrl) throws IOException, InterruptedException {
+        SwitchTimers timers = timers(switchUrl);
+        long start = System.nanoTime();
+        try (TraceContext.SpanScope span = TraceContext.span("switch.get", switchUrl)) {
+            String status = delegate.getSwitchStatus(switchUrl);
+            timers.getOk().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return status;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            timers.getFailed().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public String postSwitchStatus(String switchUrl, boolean desiredState) throws IOException, InterruptedException {
+        SwitchTimers timers = timers(switchUrl);
+        long start = System.nanoTime();
+        try (TraceContext.SpanScope span = TraceContext.span("switch.post", switchUrl)) {
+            String response = delegate.postSwitchStatus(switchUrl, desiredState);
+            timers.postOk().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            timers.postFailed().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private SwitchTimers timers(String switchUrl) {
+        SwitchTimers timers = timersBySwitch.get(switchUrl);
+        if (timers != null) {
+            return timers;
+        }
+        return timersBySwitch.computeIfAbsent(switchUrl, url -> new SwitchTimers(
+                timer("GET", url, "success"), timer("GET", url, "error"),
+                timer("POST", url, "success"), timer("POST", url, "error")));
+    }
+
+    private Timer timer(String method, String switchUrl, String outcome) {
+        return Timer.builder(METRIC)
+                .description("Llamadas HTTP a los switches")
+                .tag("method", method)
+                .tag("switch", switchUrl)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -22,10 +23,12 @@ public class TerminalStatusMonitor {
 
     private static final Logger logger = LoggerFactory.getLogger(TerminalStatusMonitor.class);
     private final TemperatureControlService temperatureControlService;
+    private final Clock clock;
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
 
-    public TerminalStatusMonitor(TemperatureControlService temperatureControlService) {
+    public TerminalStatusMonitor(TemperatureControlService temperatureControlService, Clock clock) {
         this.temperatureControlService = temperatureControlService;
+        this.clock = clock;
     }
 
     @Scheduled(fixedRate = 5000) // Cada 5 segundos
@@ -44,7 +47,7 @@ public class TerminalStatusMonitor {
         System.out.flush();
 
         // Encabezado
-        String currentTime = LocalDateTime.now().format(TIME_FORMATTER);
+        String currentTime = LocalDateTime.now(clock).format(TIME_FORMATTER);
         System.out.println("╔════════════════════════════════════════════════════════════════╗");
         System.out.println("║     SISTEMA DE CONTROL DE TEMPERATURA - Estado Actual          ║");
         System.out.println("║                    " + currentTime + "                         ║");
@@ -1,9 +1,18 @@
 package com.iotest.infrastructure.mqtt;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.POJOS.DataSensor;
 import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.model.ingest.SensorMessageDecoder;
 import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.capture.TrafficCapture;
+import com.iotest.infrastructure.config.VirtualThreads;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import com.iotest.infrastructure.tracing.Trace;
+import com.iotest.infrastructure.tracing.TraceContext;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.eclipse.paho.client.mqttv3.*;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.slf4j.Logger;
@@ -11,40 +20,75 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Cliente MQTT que se suscribe a los tópicos de sensores y procesa los mensajes.
  * Los mensajes recibidos se convierten y envían al TemperatureControlService.
+ * Los que exceden el límite de ingesta del sensor se descartan (y se cuentan) antes de procesarlos.
+ * <p>
+ * Por tópico cuenta {@code mqtt.messages.received}, {@code mqtt.messages.parsed} y
+ * {@code mqtt.messages.failed} (payload inválido o error al procesar).
+ * Cada mensaje abre una traza {@code mqtt.message} que cubre desde la recepción hasta el estado
+ * confirmado de los switches.
+ * <p>
+ * Las lecturas admitidas se agregan a la captura de tráfico ({@link TrafficCapture}) si está activa.
+ * <p>
+ * Por mensaje solo se loguea en DEBUG; para explicar una decisión está GET /api/rooms/{id}/decisions.
  */
 public class MqttSensorSubscriber implements MqttCallback {
 
     private static final Logger logger = LoggerFactory.getLogger(MqttSensorSubscriber.class);
 
+    private record TopicCounters(Counter received, Counter parsed, Counter failed) {
+    }
+
     private final TemperatureControlService temperatureControlService;
-    private final List<String> topicsToSubscribe;
+    private final IngestAdmissionControl ingestAdmissionControl;
+    private final TraceRecorder traceRecorder;
+    private final TrafficCapture trafficCapture;
+    // Se reemplaza completa al recargar la configuración del sitio (ver updateTopics)
+    private volatile List<String> topicsToSubscribe;
     private final String brokerUrl;
     private final String clientId;
     private final boolean autoReconnect;
     private MqttClient mqttClient;
     private MqttConnectOptions connectOptions;
-    private final Object clientLock = new Object();
+    // ReentrantLock y no synchronized: connect/subscribe bloquean en la red y, con hilos virtuales,
+    // un synchronized dejaría fijado (pinned) el hilo portador durante toda la espera
+    private final ReentrantLock clientLock = new ReentrantLock();
+    private final VirtualThreads virtualThreads;
     private final AtomicBoolean reconnecting = new AtomicBoolean(false);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SensorMessageDecoder decoder;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TopicCounters> countersByTopic = new ConcurrentHashMap<>();
 
     public MqttSensorSubscriber(
             TemperatureControlService temperatureControlService,
+            IngestAdmissionControl ingestAdmissionControl,
+            TraceRecorder traceRecorder,
+            TrafficCapture trafficCapture,
+            VirtualThreads virtualThreads,
+            MeterRegistry meterRegistry,
+            Clock clock,
             List<String> topicsToSubscribe,
             String brokerUrl,
             String clientId,
             boolean autoReconnect) {
         this.temperatureControlService = temperatureControlService;
-        this.topicsToSubscribe = topicsToSubscribe != null ? topicsToSubscribe : new ArrayList<>();
+        this.ingestAdmissionControl = ingestAdmissionControl;
+        this.traceRecorder = traceRecorder;
+        this.trafficCapture = trafficCapture;
+        this.virtualThreads = virtualThreads;
+        this.meterRegistry = meterRegistry;
+        this.decoder = new SensorMessageDecoder(new ObjectMapper(), clock);
+        this.topicsToSubscribe = topicsToSubscribe != null ? List.copyOf(topicsToSubscribe) : List.of();
         this.brokerUrl = brokerUrl;
         this.clientId = clientId;
         this.autoReconnect = autoReconnect;
@@ -67,7 +111,8 @@ public class MqttSensorSubscriber implements MqttCallback {
 
     @PreDestroy
     public void destroy() {
-        synchronized (clientLock) {
+        clientLock.lock();
+        try {
             reconnecting.set(false);
             if (mqttClient != null && mqttClient.isConnected()) {
                 try {
@@ -78,6 +123,8 @@ public class MqttSensorSubscriber implements MqttCallback {
                     logger.error("Error al desconectar cliente MQTT: {}", e.getMessage(), e);
                 }
             }
+        } finally {
+            clientLock.unlock();
         }
     }
 
@@ -91,7 +138,8 @@ public class MqttSensorSubscriber implements MqttCallback {
     }
 
     private void connectClient(boolean forceNewClient) throws MqttException {
-        synchronized (clientLock) {
+        clientLock.lock();
+        try {
             if (forceNewClient || mqttClient == null) {
                 if (mqttClient != null) {
                     try {
@@ -113,6 +161,8 @@ public class MqttSensorSubscriber implements MqttCallback {
                 mqttClient.connect(connectOptions);
                 subscribeToTopics();
             }
+        } finally {
+            clientLock.unlock();
         }
     }
 
@@ -132,6 +182,41 @@ public class MqttSensorSubscriber implements MqttCallback {
         }
     }
 
+    /**
+     * Actualiza los tópicos suscritos después de recargar la configuración del sitio:
+     * se desuscribe de los tópicos que ya no están y se suscribe a los nuevos.
+     */
+    public void updateTopics(List<String> newTopics) {
+        clientLock.lock();
+        try {
+            List<String> previousTopics = topicsToSubscribe;
+            topicsToSubscribe = List.copyOf(newTopics);
+
+            if (mqttClient == null || !mqttClient.isConnected()) {
+                // Al reconectar se suscribe a la lista nueva
+                return;
+            }
+            try {
+                for (String topic : previousTopics) {
+                    if (!newTopics.contains(topic)) {
+                        mqttClient.unsubscribe(topic);
+                        logger.info("Desuscrito del tópico: {}", topic);
+                    }
+                }
+                for (String topic : newTopics) {
+                    if (!previousTopics.contains(topic)) {
+                        mqttClient.subscribe(topic, 1); // QoS 1
+                        logger.info("Suscrito al tópico: {}", topic);
+                    }
+                }
+            } catch (MqttException e) {
+                logger.error("Error al actualizar las suscripciones MQTT: {}", e.getMessage(), e);
+            }
+        } finally {
+            clientLock.unlock();
+        }
+    }
+
     @Override
     public void connectionLost(Throwable cause) {
         logger.warn("Conexión MQTT perdida: {}", cause.getMessage());
@@ -147,7 +232,7 @@ public class MqttSensorSubscriber implements MqttCallback {
             return;
         }
 
-        Thread reconnectionThread = new Thread(() -> {
+        Thread reconnectionThread = virtualThreads.newThread("mqtt-reconnector", () -> {
             while (reconnecting.get()) {
                 try {
                     connectClient(true);
@@ -163,161 +248,68 @@ public class MqttSensorSubscriber implements MqttCallback {
                     }
                 }
             }
-        }, "mqtt-reconnector");
-
-        reconnectionThread.setDaemon(true);
+        });
         reconnectionThread.start();
     }
 
     @Override
     public void messageArrived(String topic, MqttMessage message) throws Exception {
+        TopicCounters counters = countersFor(topic);
+        counters.received().increment();
+        Trace trace = traceRecorder.begin("mqtt.message");
         try {
-            logger.debug("Mensaje recibido del tópico: {} - {}", topic, new String(message.getPayload()));
-
-            // Parsear el mensaje JSON
-            String payload = new String(message.getPayload());
-            JsonNode jsonNode = objectMapper.readTree(payload);
-
-            // Extraer información del mensaje
-            // El formato puede variar, pero intentamos extraer:
-            // - sensor_id (del tópico o del JSON)
-            // - temperature
-            // - timestamp (o usar el actual si no está)
+            if (logger.isDebugEnabled()) {
+                logger.debug("Mensaje recibido del tópico: {} - {}", topic, new String(message.getPayload(), StandardCharsets.UTF_8));
+            }
+            TraceContext.attribute("topic", topic);
 
-            String sensorId = extractSensorId(topic, jsonNode);
-            double temperature = extractTemperature(jsonNode);
-            LocalDateTime timestamp = extractTimestamp(jsonNode);
+            DataSensor reading;
+            try (TraceContext.SpanScope span = TraceContext.span("mqtt.parse")) {
+                reading = decoder.decode(topic, message.getPayload(), topicsToSubscribe);
+            }
+            counters.parsed().increment();
+            TraceContext.attribute("sensor_id", reading.getSensorId());
+            if (!ingestAdmissionControl.admitMqtt(reading.getSensorId())) {
+                logger.debug("Lectura descartada por límite de ingesta - Sensor: {}", reading.getSensorId());
+                return;
+            }
+            trafficCapture.reading(reading);
 
             // Crear el request
             SensorReadingRequest request = new SensorReadingRequest(
-                    sensorId,
-                    temperature,
-                    timestamp
+                    reading.getSensorId(),
+                    reading.getTemperature(),
+                    reading.getTimestamp()
             );
 
             // Procesar el mensaje a través del servicio
             temperatureControlService.processSensorReading(request);
             
-            logger.info("Mensaje procesado exitosamente - Sensor: {}, Temperatura: {}", sensorId, temperature);
+            logger.debug("Mensaje procesado exitosamente - Sensor: {}, Temperatura: {}", reading.getSensorId(), reading.getTemperature());
 
         } catch (Exception e) {
+            counters.failed().increment();
             logger.error("Error al procesar mensaje MQTT del tópico {}: {}", topic, e.getMessage(), e);
+        } finally {
+            traceRecorder.finish(trace);
         }
     }
 
-    @Override
-    public void deliveryComplete(IMqttDeliveryToken token) {
-        // No se usa en este caso ya que solo subscribimos, no publicamos
-    }
-
-    /**
-     * Extrae el sensor_id del tópico o del JSON.
-     * Formato esperado del tópico: "mqtt:topic1" o "home/sensors/living_room/temperature"
-     * 
-     * Prioridad:
-     * 1. Campo en el JSON (sensor_id, sensorId, sensor)
-     * 2. Buscar en los tópicos configurados para mapear tópico -> sensor_id
-     * 3. Usar el tópico como sensor_id
-     */
-    private String extractSensorId(String topic, JsonNode jsonNode) {
-        // Primero intentar desde el JSON
-        if (jsonNode.has("sensor_id")) {
-            return jsonNode.get("sensor_id").asText();
+    private TopicCounters countersFor(String topic) {
+        TopicCounters counters = countersByTopic.get(topic);
+        if (counters != null) {
+            return counters;
         }
-        if (jsonNode.has("sensorId")) {
-            return jsonNode.get("sensorId").asText();
-        }
-        if (jsonNode.has("sensor")) {
-            return jsonNode.get("sensor").asText();
-        }
-        
-        // Si no está en el JSON, buscar en los tópicos configurados
-        // Los tópicos configurados pueden venir como "mqtt:" o como paths
-        // Si el tópico está en la lista, buscar el sensor_id correspondiente
-        for (String configuredTopic : topicsToSubscribe) {
-            if (topic.equals(configuredTopic) || topic.endsWith(configuredTopic)) {
-                // Si el tópico configurado empieza con "mqtt:", usarlo directamente
-                // Si es un path, necesitamos mapearlo de vuelta
-                if (configuredTopic.startsWith("mqtt:")) {
-                    return configuredTopic;
-                }
-                // Si no, intentar buscar en los tópicos configurados
-                // Por ahora, usar el tópico como sensor_id
-                return configuredTopic;
-            }
-        }
-        
-        // Si no está en los tópicos configurados, usar el tópico como sensor_id
-        // Formato: "mqtt:topic1" o "home/sensors/living_room/temperature"
-        if (topic.startsWith("mqtt:")) {
-            return topic;
-        }
-        // Si es un tópico con path, usar el tópico completo como sensor_id
-        return topic;
+        return countersByTopic.computeIfAbsent(topic, t -> new TopicCounters(
+                counter("mqtt.messages.received", t), counter("mqtt.messages.parsed", t), counter("mqtt.messages.failed", t)));
     }
 
-    /**
-     * Extrae la temperatura del JSON.
-     */
-    private double extractTemperature(JsonNode jsonNode) {
-        if (jsonNode.has("temperature")) {
-            return jsonNode.get("temperature").asDouble();
-        }
-        if (jsonNode.has("temp")) {
-            return jsonNode.get("temp").asDouble();
-        }
-        if (jsonNode.has("value")) {
-            return jsonNode.get("value").asDouble();
-        }
-        // Mensajes del simulador Shelly: params -> "temperature:0" -> tC
-        JsonNode paramsNode = jsonNode.get("params");
-        if (paramsNode != null) {
-            JsonNode shellyTemp = paramsNode.get("temperature:0");
-            if (shellyTemp != null && shellyTemp.has("tC")) {
-                return shellyTemp.get("tC").asDouble();
-            }
-            // Algunos mensajes usan "temperature" directo dentro de params
-            if (paramsNode.has("temperature") && paramsNode.get("temperature").has("tC")) {
-                return paramsNode.get("temperature").get("tC").asDouble();
-            }
-            if (paramsNode.has("temperature")) {
-                JsonNode tempNode = paramsNode.get("temperature");
-                if (tempNode.has("tC")) {
-                    return tempNode.get("tC").asDouble();
-                }
-            }
-        }
-        throw new IllegalArgumentException("No se encontró campo de temperatura en el mensaje");
+    private Counter counter(String name, String topic) {
+        return Counter.builder(name).tag("topic", topic).register(meterRegistry);
     }
 
-    /**
-     * Extrae el timestamp del JSON o usa el actual.
-     */
-    private LocalDateTime extractTimestamp(JsonNode jsonNode) {
-        if (jsonNode.has("time_stamp")) {
-            String timestampStr = jsonNode.get("time_stamp").asText();
-            return LocalDateTime.parse(timestampStr);
-        }
-        if (jsonNode.has("timestamp")) {
-            String timestampStr = jsonNode.get("timestamp").asText();
-            return LocalDateTime.parse(timestampStr);
-        }
-        if (jsonNode.has("time")) {
-            String timestampStr = jsonNode.get("time").asText();
-            return LocalDateTime.parse(timestampStr);
-        }
-        // Mensajes del simulador Shelly: timestamp en segundos (double) dentro de params.ts o ts
-        JsonNode paramsNode = jsonNode.get("params");
-        if (paramsNode != null && paramsNode.has("ts")) {
-            double epochSeconds = paramsNode.get("ts").asDouble();
-            return LocalDateTime.ofInstant(Instant.ofEpochSecond((long) epochSeconds), ZoneId.systemDefault());
-        }
-        if (jsonNode.has("ts")) {
-            double epochSeconds = jsonNode.get("ts").asDouble();
-            return LocalDateTime.ofInstant(Instant.ofEpochSecond((long) epochSeconds), ZoneId.systemDefault());
-        }
-        // Usar timestamp actual si no está presente
-        return LocalDateTime.now();
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // No se usa en este caso ya que solo subscribimos, no publicamos
     }
 }
-
@@ -0,0 +1,399 @@
+package com.iotest.infrastructure.scheduler;
+
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.capture.TrafficCapture;
+import com.iotest.infrastructure.config.VirtualThreads;
+import com.iotest.infrastructure.config.WarpClock;
+import com.iotest.infrastructure.snapshot.WarmRestartManager;
+import com.iotest.jfr.TariffTransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Monitor que verifica periódicamente los cambios en la tarifa de energía
+ * y genera eventos de tiempo automáticamente cuando detecta cambios.
+ * 
+ * Este componente implementa el esquema de eventos de tiempo del diagrama:
+ * - Monitorea cambios de tarifa (HIGH → LOW o LOW → HIGH)
+ * - Genera eventos de tiempo cuando detecta cambios
+ * - Envía los eventos al {@link TariffTransitionScheduler}, que los procesa en el TemperatureController
+ *   (una sola vez por cambio) y ejecuta las operaciones
+ * 
+ * Usa un thread manual para monitorear cambios cada 5 segundos. Además, poco antes de un cambio
+ * que habilita o bloquea la calefacción ({@code energy-cost-monitor.prestage-lead-ms}) sincroniza
+ * los switches y deja programado el cambio en el {@link TariffTransitionScheduler}, para que la
+ * primera ola de operaciones salga justo en el límite de la tarifa. El plan no se calcula en el
+ * pre-stage sino en el límite: hasta ese momento siguen llegando lecturas que pueden encender
+ * switches, y un plan de apagado calculado antes los dejaría afuera.
+ * 
+ * La hora sale del {@link Clock} del servicio: con {@code clock.warp} el intervalo de verificación, la
+ * anticipación y las esperas son de tiempo virtual y se acortan en la misma proporción.
+ *
+ * Cada cambio de tarifa detectado emite un {@link TariffTransitionEvent} de JFR cuando termina su
+ * ejecución (con las operaciones del reporte del scheduler) y, si está activa, se agrega a la
+ * captura de tráfico ({@link TrafficCapture}).
+ *
+ * Se puede deshabilitar configurando: energy-cost-monitor.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "energy-cost-monitor.enabled", havingValue = "true", matchIfMissing = true)
+@DependsOn("tariffCalendars")
+public class EnergyCostMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnergyCostMonitor.class);
+
+    private final TemperatureControlService temperatureControlService;
+    private final TariffTransitionScheduler transitionScheduler;
+    private final WarmRestartManager warmRestartManager;
+    private final TrafficCapture trafficCapture;
+    private final VirtualThreads virtualThreads;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String contract;
+
+    // Estado interno para detectar cambios
+    private Integer lastKnownTariff = null;
+    
+    // Thread para monitorear cambios de tarifa
+    private Thread monitorThread;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final long checkIntervalMs; // Intervalo en milisegundos (configurable)
+    private final long prestageLeadMs;  // Anticipación con la que se prepara el próximo cambio
+
+    // Instante del cambio de tarifa ya programado en el scheduler (0 si no hay ninguno) y su reporte
+    private long stagedBoundaryTs = 0;
+    private CompletableFuture<TariffTransitionReportResponse> stagedTransition;
+
+    public EnergyCostMonitor(
+            TemperatureControlService temperatureControlService,
+            TariffTransitionScheduler transitionScheduler,
+            WarmRestartManager warmRestartManager,
+            TrafficCapture trafficCapture,
+            VirtualThreads virtualThreads,
+            MeterRegistry meterRegistry,
+            Clock clock,
+            @Value("${temperature-control.energy-contract:testContract}") String contract,
+            @Value("${energy-cost-monitor.check-interval-seconds:5}") long checkIntervalSeconds,
+            @Value("${energy-cost-monitor.prestage-lead-ms:2000}") long prestageLeadMs) {
+        this.temperatureControlService = temperatureControlService;
+        this.transitionScheduler = transitionScheduler;
+        this.warmRestartManager = warmRestartManager;
+        this.trafficCapture = trafficCapture;
+        this.virtualThreads = virtualThreads;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.contract = contract;
+        this.checkIntervalMs = checkIntervalSeconds * 1000; // Convertir segundos a milisegundos
+        this.prestageLeadMs = prestageLeadMs;
+    }
+
+    /**
+     * Inicia el thread de monitoreo cuando el componente se crea.
+     */
+    @PostConstruct
+    public void init() {
+        running.set(true);
+        // Daemon (o virtual, en el modo de hilos virtuales) para que no impida el cierre de la aplicación
+        monitorThread = virtualThreads.newThread("EnergyCostMonitor-Thread", this::monitorEnergyCostChanges);
+        monitorThread.start();
+        logger.info("Monitor de energía iniciado (thread manual) - Intervalo de verificación: {} segundos", checkIntervalMs / 1000);
+    }
+
+    /**
+     * Detiene el thread de monitoreo cuando el componente se destruye.
+     */
+    @PreDestroy
+    public void destroy() {
+        running.set(false);
+        if (monitorThread != null) {
+            monitorThread.interrupt();
+            try {
+                monitorThread.join(2000); // Esperar hasta 2 segundos para que termine
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrumpido mientras esperaba que el thread de monitoreo termine");
+            }
+            logger.info("Monitor de energía detenido");
+        }
+    }
+
+    /**
+     * Método que se ejecuta en el thread para monitorear cambios de tarifa.
+     * Verifica periódicamente si la tarifa de energía ha cambiado.
+     * 
+     * El intervalo de verificación es configurable mediante la propiedad
+     * 'energy-cost-monitor.check-interval-seconds' (por defecto 5 segundos).
+     * 
+     * Para testContract, la tarifa cambia cada 30 segundos, por lo que
+     * verificar cada 5 segundos (o menos) es suficiente para detectar los cambios.
+     */
+    private void monitorEnergyCostChanges() {
+        logger.debug("Thread de monitoreo de energía iniciado");
+        
+        while (running.get()) {
+            try {
+                long wakeUpIn = checkEnergyCostChanges();
+                
+                // Dormir según el intervalo configurado (o hasta el momento del pre-stage),
+                // pero verificar running periódicamente
+                long interval = WarpClock.realDelayMillis(clock, Math.min(checkIntervalMs, wakeUpIn));
+                long sleepTime = interval;
+                long startTime = System.nanoTime();
+                while (running.get() && sleepTime > 0) {
+                    Thread.sleep(Math.min(sleepTime, 1000)); // Dormir en bloques de 1 segundo
+                    sleepTime = interval - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.debug("Thread de monitoreo interrumpido");
+                break;
+            } catch (Exception e) {
+                logger.error("Error en el thread de monitoreo de energía: {}", e.getMessage(), e);
+                // Continuar ejecutando aunque haya un error
+                try {
+                    Thread.sleep(1000); // Esperar 1 segundo antes de reintentar
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        
+        logger.debug("Thread de monitoreo de energía finalizado");
+    }
+
+    /**
+     * Verifica si la tarifa de energía ha cambiado y prepara el próximo cambio si está cerca.
+     *
+     * @return milisegundos hasta el próximo momento en que conviene volver a verificar
+     */
+    private long checkEnergyCostChanges() {
+        try {
+            // Obtener el tiempo actual (solo aquí, en la capa de infraestructura)
+            long currentTime = clock.millis();
+            
+            // Pasar el tiempo como parámetro (NO consultar dentro del dominio)
+            EnergyCost.EnergyZone zone = EnergyCost.energyZone(contract, currentTime);
+            int currentTariff = zone.current();
+
+            // Arranque en caliente: partir de la tarifa guardada en el snapshot para detectar
+            // un cambio de tarifa que ocurrió mientras el proceso estaba caído
+            Integer restoredTariff = lastKnownTariff == null ? warmRestartManager.getRestoredTariff() : null;
+            if (restoredTariff != null && restoredTariff != currentTariff) {
+                lastKnownTariff = restoredTariff;
+                logger.debug("Monitor de energía inicializado desde el snapshot. Tarifa anterior: {}",
+                    EnergyCost.tariffName(lastKnownTariff));
+            }
+
+            // Primera ejecución (o arranque en caliente sin cambio de tarifa): inicializar el estado
+            if (lastKnownTariff == null) {
+                lastKnownTariff = currentTariff;
+                logger.debug("Monitor de energía inicializado. Tarifa actual: {}", 
+                    EnergyCost.tariffName(currentTariff));
+                
+                // Si la tarifa inicial es HIGH, apagar todos los switches inmediatamente
+                // (no esperar a que cambie, porque si ya es HIGH al inicio, deben apagarse).
+                // También en arranque en caliente con el snapshot en HIGH: el snapshot pudo
+                // guardarse con switches encendidos que el proceso anterior no llegó a apagar
+                if (currentTariff == EnergyCost.HIGH) {
+                    logger.info("Tarifa inicial es HIGH. Apagando todos los switches encendidos...");
+                    // Crear un evento de tiempo simulado: LOW -> HIGH (para que el controller apague)
+                    // Usamos LOW como previousTariff para que isChangeToHigh() retorne true
+                    LocalDateTime eventTimestamp = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(currentTime), clock.getZone());
+                    
+                    TimeEvent timeEvent = new TimeEvent(
+                        contract,
+                        EnergyCost.LOW, // Simulamos que veníamos de LOW
+                        EnergyCost.HIGH, // Y ahora estamos en HIGH
+                        eventTimestamp,
+                        zone.nextTS()
+                    );
+                    trafficCapture.timeEvent(timeEvent);
+                    
+                    recordAppliedWhenDone(processTimeEvent(timeEvent), currentTariff);
+                } else {
+                    warmRestartManager.recordAppliedTariff(currentTariff);
+                }
+                return prestageIfNeeded(zone, currentTime);
+            }
+
+            // Detectar cambio de tarifa
+            if (lastKnownTariff != currentTariff) {
+                TariffTransitionEvent event = new TariffTransitionEvent();
+                event.begin();
+                logger.info("Cambio de tarifa detectado: {} → {} (contrato: {})", 
+                    EnergyCost.tariffName(lastKnownTariff),
+                    EnergyCost.tariffName(currentTariff),
+                    contract);
+                Counter.builder("energy.tariff.transitions")
+                        .description("Cambios de tarifa detectados")
+                        .tag("from", EnergyCost.tariffName(lastKnownTariff))
+                        .tag("to", EnergyCost.tariffName(currentTariff))
+                        .register(meterRegistry)
+                        .increment();
+
+                // Crear evento de tiempo con el timestamp pasado como parámetro
+                LocalDateTime eventTimestamp = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(currentTime), clock.getZone());
+                
+                TimeEvent timeEvent = new TimeEvent(
+                    contract,
+                    lastKnownTariff,
+                    currentTariff,
+                    eventTimestamp,
+                    zone.nextTS()
+                );
+                trafficCapture.timeEvent(timeEvent);
+
+                boolean staged = stagedBoundaryTs != 0 && currentTime >= stagedBoundaryTs;
+                CompletableFuture<TariffTransitionReportResponse> transition;
+                if (staged) {
+                    // El cambio ya fue programado en el scheduler antes del límite
+                    logger.debug("Cambio de tarifa ya programado para {} - no se reprocesa", stagedBoundaryTs);
+                    transition = stagedTransition;
+                    stagedBoundaryTs = 0;
+                    stagedTransition = null;
+                } else {
+                    // Procesar el evento en el controller (el controller NO consulta el tiempo)
+                    transition = processTimeEvent(timeEvent);
+                }
+
+                String from = EnergyCost.tariffName(lastKnownTariff);
+                String to = EnergyCost.tariffName(currentTariff);
+                transition.whenComplete((report, error) -> {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.contract = contract;
+                        event.from = from;
+                        event.to = to;
+                        event.operations = report != null ? report.getOperationsCount() : 0;
+                        event.staged = staged;
+                        event.commit();
+                    }
+                });
+                recordAppliedWhenDone(transition, currentTariff);
+
+                // Actualizar el estado
+                lastKnownTariff = currentTariff;
+            }
+
+            return prestageIfNeeded(zone, currentTime);
+        } catch (Exception e) {
+            logger.error("Error al verificar cambios de tarifa de energía: {}", e.getMessage(), e);
+            return checkIntervalMs;
+        }
+    }
+
+    /**
+     * Si el próximo cambio de tarifa cambia la política (habilita o bloquea la calefacción) y está
+     * a menos de {@code prestageLeadMs}, sincroniza los switches ahora y programa el cambio para
+     * que el scheduler calcule el plan y envíe la primera ola justo en el límite.
+     *
+     * @return milisegundos hasta la próxima verificación
+     */
+    private long prestageIfNeeded(EnergyCost.EnergyZone zone, long currentTime) {
+        if (!policyChanges(zone) || stagedBoundaryTs == zone.nextTS()
+                || zone.nextTS() - currentTime > prestageLeadMs) {
+            return untilPrestage(zone, currentTime);
+        }
+
+        logger.debug("Preparando cambio de tarifa {} → {} para {}",
+                EnergyCost.tariffName(zone.current()), EnergyCost.tariffName(zone.next()), zone.nextTS());
+        temperatureControlService.synchronizeSwitchStates();
+
+        TimeEvent timeEvent = new TimeEvent(
+                contract,
+                zone.current(),
+                zone.next(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(zone.nextTS()), clock.getZone()),
+                EnergyCost.energyZone(contract, zone.nextTS()).nextTS()
+        );
+        stagedTransition = transitionScheduler.schedule(timeEvent, zone.nextTS(), currentTime);
+        stagedBoundaryTs = zone.nextTS();
+
+        // Volver a verificar justo después del límite para actualizar el estado
+        return zone.nextTS() - currentTime + 1;
+    }
+
+    /**
+     * Milisegundos que faltan para el momento de preparar el próximo cambio
+     * (o para el cambio mismo, si no hay nada que preparar).
+     */
+    private long untilPrestage(EnergyCost.EnergyZone zone, long currentTime) {
+        long untilBoundary = zone.nextTS() - currentTime + 1;
+        if (stagedBoundaryTs == zone.nextTS() || !policyChanges(zone)) {
+            return untilBoundary;
+        }
+        long untilStage = zone.nextTS() - prestageLeadMs - currentTime;
+        return untilStage > 0 ? untilStage : untilBoundary;
+    }
+
+    /**
+     * Indica si el próximo cambio habilita o bloquea la calefacción (solo HIGH la bloquea).
+     */
+    private static boolean policyChanges(EnergyCost.EnergyZone zone) {
+        return (zone.current() == EnergyCost.HIGH) != (zone.next() == EnergyCost.HIGH);
+    }
+
+    /**
+     * Publica la tarifa en el snapshot de arranque en caliente recién cuando sus operaciones terminaron:
+     * un snapshot guardado entre el límite y el apagado no debe registrar el cambio como aplicado.
+     */
+    private void recordAppliedWhenDone(CompletableFuture<TariffTransitionReportResponse> transition, int tariff) {
+        transition.whenComplete((report, error) -> {
+            if (error == null) {
+                warmRestartManager.recordAppliedTariff(tariff);
+            }
+        });
+    }
+
+    /**
+     * Procesa un evento de tiempo: sincroniza los switches y programa el cambio en el scheduler para
+     * ahora. El scheduler envía el evento al controller y ejecuta las operaciones en olas, usando el
+     * TemperatureControlService para que el estado interno se actualice correctamente.
+     *
+     * @return reporte del cambio cuando termina la última ola
+     */
+    private CompletableFuture<TariffTransitionReportResponse> processTimeEvent(TimeEvent timeEvent) {
+        try {
+            // IMPORTANTE: Sincronizar el estado real de los switches ANTES de que el controller
+            // tome decisiones, para asegurar que detecte correctamente qué switches están encendidos
+            logger.debug("Sincronizando estado de switches antes de procesar evento de tiempo...");
+            temperatureControlService.synchronizeSwitchStates();
+        } catch (Exception e) {
+            logger.error("Error al sincronizar switches antes del cambio de tarifa: {}", e.getMessage(), e);
+        }
+
+        // Enviar evento al controller (según el diagrama: Evento → Controller) a través del scheduler,
+        // que calcula el plan una sola vez y lo ejecuta en olas escalonadas
+        return transitionScheduler.schedule(timeEvent, clock.millis(), null)
+                .whenComplete((report, error) -> {
+                    if (report != null && report.getOperationsCount() > 0) {
+                        logger.info("Ejecutadas {} operaciones debido a cambio de tarifa ({} → {})",
+                            report.getOperationsCount(), report.getPreviousTariff(), report.getCurrentTariff());
+                    } else if (report != null) {
+                        logger.debug("No se requirieron operaciones para este cambio de tarifa ({} → {})",
+                            report.getPreviousTariff(), report.getCurrentTariff());
+                    }
+                });
+    }
+}
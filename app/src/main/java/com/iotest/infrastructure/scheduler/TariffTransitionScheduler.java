@@ -0,0 +1,278 @@
+package com.iotest.infrastructure.scheduler;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.api.dto.SwitchOperationResponse;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.model.api.dto.WaveReportResponse;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.config.WarpClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta las operaciones de un cambio de tarifa en olas escalonadas.
+ * <p>
+ * En vez de mandar todos los apagados (o encendidos) a la vez contra los hosts de switches,
+ * las operaciones se ordenan por prioridad de la habitación y se reparten en olas de a lo sumo
+ * {@code tariff-transition.wave-size-per-host} operaciones por host, separadas por
+ * {@code tariff-transition.wave-interval-ms}. Cada ola se ejecuta en paralelo.
+ * <p>
+ * El plan se calcula una sola vez por cambio, en el instante del cambio, a partir del estado en
+ * memoria (que el {@link EnergyCostMonitor} ya sincronizó antes del cambio), así que la primera ola
+ * sale en el límite de la tarifa sin esperar I/O previo. No se calcula antes, en el pre-stage,
+ * porque hasta el límite siguen llegando lecturas que pueden encender switches.
+ * <p>
+ * Al volver a una tarifa económica el plan es un re-planificado global; el reporte incluye
+ * cuánto tardó el sistema desde el límite hasta volver a aprovechar el presupuesto de energía.
+ * <p>
+ * Los instantes del reporte y el intervalo entre olas son del {@link Clock} del servicio; con
+ * {@code clock.warp} las esperas reales se acortan en la misma proporción.
+ */
+@Component
+public class TariffTransitionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TariffTransitionScheduler.class);
+
+    // Cantidad de reportes de transición que se guardan para consultar por REST
+    private static final int MAX_REPORTS = 20;
+
+    private final TemperatureController temperatureController;
+    private final TemperatureControlService temperatureControlService;
+    private final int waveSizePerHost;
+    private final long waveIntervalMs;
+    private final ScheduledExecutorService executor;
+    private final Deque<TariffTransitionReportResponse> recentReports = new ArrayDeque<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer decisionTimer;
+    private final Clock clock;
+
+    public TariffTransitionScheduler(
+            TemperatureController temperatureController,
+            TemperatureControlService temperatureControlService,
+            @Value("${tariff-transition.wave-size-per-host:4}") int waveSizePerHost,
+            @Value("${tariff-transition.wave-interval-ms:200}") long waveIntervalMs,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.temperatureController = temperatureController;
+        this.temperatureControlService = temperatureControlService;
+        this.waveSizePerHost = Math.max(1, waveSizePerHost);
+        this.waveIntervalMs = Math.max(0, waveIntervalMs);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.decisionTimer = TemperatureControlService.decisionTimer(meterRegistry, "time_event");
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tariff-transition");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Programa el procesamiento de un evento de tiempo para el instante {@code boundaryTs}.
+     * Si el instante ya pasó, se ejecuta de inmediato.
+     *
+     * @param timeEvent  evento que se enviará al controller en el instante del cambio
+     * @param boundaryTs instante del cambio de tarifa (epoch ms)
+     * @param stagedAt   instante en que se preparó el plan (null si no hubo pre-stage)
+     * @return reporte de la transición cuando terminó la última ola
+     */
+    public CompletableFuture<TariffTransitionReportResponse> schedule(TimeEvent timeEvent, long boundaryTs, Long stagedAt) {
+        CompletableFuture<TariffTransitionReportResponse> result = new CompletableFuture<>();
+        long delay = WarpClock.realDelayMillis(clock, boundaryTs - clock.millis());
+        executor.schedule(() -> {
+            try {
+                result.complete(runTransition(timeEvent, Math.min(boundaryTs, clock.millis()), stagedAt));
+            } catch (Exception e) {
+                logger.error("Error al ejecutar el cambio de tarifa en olas: {}", e.getMessage(), e);
+                result.completeExceptionally(e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Reparte las operaciones en olas: primero los apagados (de menor a mayor prioridad) y luego
+     * los encendidos (de la habitación más fría a la menos fría), nunca mezclados en una misma ola.
+     * Cada ola tiene como máximo {@code waveSizePerHost} operaciones por host de switch.
+     */
+    public List<List<Operation>> planWaves(List<Operation> operations) {
+        List<Operation> offs = new ArrayList<>();
+        List<Operation> ons = new ArrayList<>();
+        for (Operation operation : operations) {
+            ("ON".equals(operation.getAction()) ? ons : offs).add(operation);
+        }
+
+        Comparator<Operation> byDeficit = Comparator.comparingDouble(this::deficitOf);
+        offs.sort(byDeficit);
+        ons.sort(byDeficit.reversed());
+
+        List<List<Operation>> waves = new ArrayList<>();
+        waves.addAll(splitByHost(offs));
+        waves.addAll(splitByHost(ons));
+        return waves;
+    }
+
+    /**
+     * Últimos reportes de transición, del más reciente al más antiguo.
+     */
+    public List<TariffTransitionReportResponse> getRecentReports() {
+        synchronized (recentReports) {
+            return new ArrayList<>(recentReports);
+        }
+    }
+
+    private TariffTransitionReportResponse runTransition(TimeEvent timeEvent, long boundaryTs, Long stagedAt)
+            throws InterruptedException {
+        long decisionStart = System.nanoTime();
+        List<Operation> operations = temperatureController.processTimeEvent(timeEvent);
+        decisionTimer.record(System.nanoTime() - decisionStart, TimeUnit.NANOSECONDS);
+        List<List<Operation>> waves = planWaves(operations);
+
+        List<WaveReportResponse> waveReports = new ArrayList<>();
+        Long budgetRefillMs = null;
+        long nextPlannedStart = boundaryTs;
+        for (int i = 0; i < waves.size(); i++) {
+            List<Operation> wave = waves.get(i);
+            long wait = WarpClock.realDelayMillis(clock, nextPlannedStart - clock.millis());
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+
+            long startedAt = clock.millis();
+            List<SwitchOperationResponse> results = temperatureControlService.executeOperationsInParallel(wave);
+            long duration = clock.millis() - startedAt;
+            int failures = (int) results.stream().filter(r -> !r.isSuccess()).count();
+
+            waveReports.add(WaveReportResponse.builder()
+                    .wave(i + 1)
+                    .plannedStart(nextPlannedStart)
+                    .startedAt(startedAt)
+                    .startDelayMs(startedAt - nextPlannedStart)
+                    .durationMs(duration)
+                    .operationsCount(wave.size())
+                    .failures(failures)
+                    .build());
+            logger.info("Ola {}/{} del cambio de tarifa {} → {}: {} operaciones, {} fallidas, inicio +{} ms, duración {} ms",
+                    i + 1, waves.size(),
+                    EnergyCost.tariffName(timeEvent.getPreviousTariff()),
+                    EnergyCost.tariffName(timeEvent.getCurrentTariff()),
+                    wave.size(), failures, startedAt - boundaryTs, duration);
+
+            if (timeEvent.isChangeToLow() && budgetRefillMs == null && !temperatureController.hasHeatableRoomWithinBudget()) {
+                budgetRefillMs = clock.millis() - boundaryTs;
+            }
+
+            nextPlannedStart = Math.max(nextPlannedStart + waveIntervalMs, clock.millis());
+        }
+
+        if (timeEvent.isChangeToLow()) {
+            if (budgetRefillMs == null && !temperatureController.hasHeatableRoomWithinBudget()) {
+                budgetRefillMs = clock.millis() - boundaryTs;
+            }
+            if (budgetRefillMs != null) {
+                logger.info("Presupuesto de energía aprovechado {} ms después del cambio a {}",
+                        budgetRefillMs, EnergyCost.tariffName(timeEvent.getCurrentTariff()));
+                // Desde el límite de la tarifa hasta volver a aprovechar el presupuesto
+                Timer.builder("tariff.budget_refill")
+                        .description("Tiempo hasta volver a aprovechar el presupuesto de energía tras un cambio a tarifa económica")
+                        .tag("to", EnergyCost.tariffName(timeEvent.getCurrentTariff()))
+                        .register(meterRegistry)
+                        .record(budgetRefillMs, TimeUnit.MILLISECONDS);
+            } else {
+                logger.warn("Quedan habitaciones sin calefacción con energía disponible tras el cambio a {} (operaciones fallidas)",
+                        EnergyCost.tariffName(timeEvent.getCurrentTariff()));
+            }
+        }
+
+        if (!operations.isEmpty()) {
+            // Sincronizar después de ejecutar para asegurar consistencia con el estado real de los switches
+            temperatureControlService.synchronizeSwitchStates();
+        }
+
+        TariffTransitionReportResponse report = TariffTransitionReportResponse.builder()
+                .previousTariff(EnergyCost.tariffName(timeEvent.getPreviousTariff()))
+                .currentTariff(EnergyCost.tariffName(timeEvent.getCurrentTariff()))
+                .boundaryTs(boundaryTs)
+                .stagedAt(stagedAt)
+                .operationsCount(operations.size())
+                .totalDurationMs(clock.millis() - boundaryTs)
+                .budgetRefillMs(budgetRefillMs)
+                .waves(waveReports)
+                .build();
+
+        // Desde el límite de la tarifa hasta terminar la última ola
+        Timer.builder("tariff.transition.duration")
+                .description("Duración de los cambios de tarifa en olas")
+                .tag("to", report.getCurrentTariff())
+                .register(meterRegistry)
+                .record(report.getTotalDurationMs(), TimeUnit.MILLISECONDS);
+
+        synchronized (recentReports) {
+            recentReports.addFirst(report);
+            while (recentReports.size() > MAX_REPORTS) {
+                recentReports.removeLast();
+            }
+        }
+        return report;
+    }
+
+    private List<List<Operation>> splitByHost(List<Operation> operations) {
+        List<List<Operation>> waves = new ArrayList<>();
+        Map<String, Integer> countByHost = new HashMap<>();
+        for (Operation operation : operations) {
+            int position = countByHost.merge(hostOf(operation.getSwitchUrl()), 1, Integer::sum) - 1;
+            int waveIndex = position / waveSizePerHost;
+            while (waves.size() <= waveIndex) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(waveIndex).add(operation);
+        }
+        return waves;
+    }
+
+    private double deficitOf(Operation operation) {
+        return temperatureController.findRoomBySwitchUrl(operation.getSwitchUrl())
+                .map(Room::getTemperatureDeficit)
+                .orElse(0.0);
+    }
+
+    private static String hostOf(String switchUrl) {
+        try {
+            URI uri = URI.create(switchUrl);
+            if (uri.getHost() != null) {
+                return uri.getHost() + ":" + uri.getPort();
+            }
+        } catch (IllegalArgumentException e) {
+            // URL inválida: se agrupa por la URL completa
+        }
+        return switchUrl;
+    }
+}
@@ -0,0 +1,259 @@
+package com.iotest.infrastructure.snapshot;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.journal.JournalEntry;
+import com.iotest.infrastructure.journal.MappedEventJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arranque en caliente: guarda periódicamente (y al apagar) un {@link WarmRestartSnapshot} binario
+ * y lo restaura al iniciar.
+ * <p>
+ * Al arrancar, si hay un snapshot más nuevo que {@code warm-restart.max-age-seconds}, se restauran las
+ * temperaturas y el estado de los switches y solo se valida ese estado consultando los switches en
+ * paralelo, en vez de apagarlos todos. El snapshot guarda la última tarifa que el {@code EnergyCostMonitor}
+ * terminó de aplicar (no la de la hora actual, que puede ser un cambio con operaciones pendientes) y
+ * queda disponible para que el monitor detecte un cambio de tarifa ocurrido mientras el proceso estaba caído.
+ * Sin snapshot reciente (o con {@code warm-restart.enabled=false}) se hace el apagado inicial de siempre.
+ * <p>
+ * Si el journal de eventos está activo, después del snapshot se aplican las lecturas, operaciones
+ * confirmadas y cambios de tarifa que el journal registró después de guardarlo, así no se pierde lo
+ * ocurrido entre el último snapshot y el corte.
+ */
+@Component
+@DependsOn("tariffCalendars")
+public class WarmRestartManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmRestartManager.class);
+
+    private final TemperatureController temperatureController;
+    private final TemperatureControlService temperatureControlService;
+    private final MappedEventJournal eventJournal;
+    private final Clock clock;
+    private final String energyContract;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final long intervalSeconds;
+    private final long maxAgeMs;
+
+    private ScheduledExecutorService saver;
+    private volatile Integer restoredTariff;
+    private volatile Integer appliedTariff;
+
+    public WarmRestartManager(
+            TemperatureController temperatureController,
+            TemperatureControlService temperatureControlService,
+            MappedEventJournal eventJournal,
+            Clock clock,
+            @Value("${temperature-control.energy-contract:testContract}") String energyContract,
+            @Value("${warm-restart.enabled:true}") boolean enabled,
+            @Value("${warm-restart.file:data/warm-restart.bin}") String snapshotFile,
+            @Value("${warm-restart.interval-seconds:30}") long intervalSeconds,
+            @Value("${warm-restart.max-age-seconds:300}") long maxAgeSeconds) {
+        this.temperatureController = temperatureController;
+        this.temperatureControlService = temperatureControlService;
+        this.eventJournal = eventJournal;
+        this.clock = clock;
+        this.energyContract = energyContract;
+        this.enabled = enabled;
+        this.snapshotFile = Path.of(snapshotFile).toAbsolutePath();
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+        this.maxAgeMs = Math.max(0, maxAgeSeconds) * 1000;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (enabled && restore()) {
+            temperatureControlService.validateSwitchStates();
+        } else {
+            // Apagar todos los switches al inicio para asegurar un estado inicial limpio
+            temperatureControlService.initializeSwitchStates();
+        }
+
+        if (enabled) {
+            saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "warm-restart-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            saver.scheduleWithFixedDelay(this::saveQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (saver != null) {
+            saver.shutdownNow();
+            saveQuietly();
+        }
+    }
+
+    /**
+     * Tarifa guardada en el snapshot restaurado, o null si el arranque fue en frío.
+     */
+    public Integer getRestoredTariff() {
+        return restoredTariff;
+    }
+
+    /**
+     * Registra la tarifa cuyas operaciones el {@code EnergyCostMonitor} ya ejecutó; es la que se guarda
+     * en los próximos snapshots.
+     */
+    public void recordAppliedTariff(int tariff) {
+        appliedTariff = tariff;
+    }
+
+    /**
+     * Escribe el snapshot de forma atómica (archivo temporal + move), así un corte a mitad de la
+     * escritura nunca deja un snapshot corrupto en lugar del anterior.
+     */
+    public void save() throws IOException {
+        long now = clock.millis();
+        List<WarmRestartSnapshot.RoomEntry> rooms = new ArrayList<>();
+        for (Room room : temperatureController.getRooms()) {
+            Double temperature = room.getCurrentTemperature();
+            LocalDateTime lastUpdate = room.getLastUpdate();
+            rooms.add(new WarmRestartSnapshot.RoomEntry(
+                    room.getSensorId(),
+                    temperature != null ? temperature : Double.NaN,
+                    lastUpdate != null ? lastUpdate.atZone(clock.getZone()).toInstant().toEpochMilli() : -1));
+        }
+        List<WarmRestartSnapshot.SwitchEntry> switches = new ArrayList<>();
+        for (DataSwitch dataSwitch : temperatureController.getSwitches()) {
+            switches.add(new WarmRestartSnapshot.SwitchEntry(dataSwitch.getSwitchUrl(), dataSwitch.isOn()));
+        }
+        // Sin monitor (o antes de su primera verificación) se guarda la restaurada o, en frío, la de la hora actual
+        Integer applied = appliedTariff != null ? appliedTariff : restoredTariff;
+        int tariff = applied != null ? applied : EnergyCost.energyZone(energyContract, now).current();
+        byte[] data = new WarmRestartSnapshot(now, tariff, rooms, switches).encode();
+
+        Path parent = snapshotFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        Files.write(tmp, data);
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Snapshot de arranque en caliente guardado: {} habitaciones, {} switches, {} bytes",
+                rooms.size(), switches.size(), data.length);
+    }
+
+    /**
+     * Restaura el snapshot si existe y es reciente.
+     *
+     * @return true si se restauró
+     */
+    public boolean restore() {
+        Optional<WarmRestartSnapshot> loaded = load();
+        if (loaded.isEmpty()) {
+            return false;
+        }
+        WarmRestartSnapshot snapshot = loaded.get();
+        long age = clock.millis() - snapshot.savedAt();
+        if (age > maxAgeMs || age < 0) {
+            logger.info("Snapshot de arranque en caliente descartado (antigüedad {} s); arranque en frío", age / 1000);
+            return false;
+        }
+
+        int restoredRooms = 0;
+        for (WarmRestartSnapshot.RoomEntry entry : snapshot.rooms()) {
+            Room room = temperatureController.findRoomBySensorId(entry.sensorId()).orElse(null);
+            if (room != null && !Double.isNaN(entry.temperature())) {
+                LocalDateTime lastUpdate = entry.lastUpdate() >= 0
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.lastUpdate()), clock.getZone())
+                        : null;
+                room.updateTemperature(entry.temperature(), lastUpdate);
+                restoredRooms++;
+            }
+        }
+        int restoredSwitches = 0;
+        for (WarmRestartSnapshot.SwitchEntry entry : snapshot.switches()) {
+            Optional<DataSwitch> dataSwitch = temperatureController.findSwitchByUrl(entry.switchUrl());
+            if (dataSwitch.isPresent()) {
+                dataSwitch.get().setOn(entry.on());
+                restoredSwitches++;
+            }
+        }
+
+        restoredTariff = snapshot.lastTariff();
+        int replayed = replayJournal(snapshot.savedAt());
+        logger.info("Arranque en caliente: restauradas {} habitaciones y {} switches de un snapshot de hace {} ms "
+                        + "más {} eventos del journal (tarifa {})",
+                restoredRooms, restoredSwitches, age, replayed, EnergyCost.tariffName(restoredTariff));
+        return true;
+    }
+
+    private int replayJournal(long since) {
+        if (eventJournal == null) {
+            return 0;
+        }
+        try {
+            return eventJournal.replayPrevious(since, this::apply);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el journal de eventos; se usa solo el snapshot: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void apply(JournalEntry entry) {
+        switch (entry.type()) {
+            case READING -> temperatureController.findRoomBySensorId(entry.key()).ifPresent(room ->
+                    room.updateTemperature(entry.temperature(),
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp()), clock.getZone())));
+            case OPERATION -> {
+                if (entry.success()) {
+                    temperatureController.findSwitchByUrl(entry.key()).ifPresent(sw -> sw.setOn(entry.on()));
+                }
+            }
+            case TIME_EVENT -> {
+                if (energyContract.equals(entry.key())) {
+                    restoredTariff = entry.currentTariff();
+                }
+            }
+        }
+    }
+
+    private Optional<WarmRestartSnapshot> load() {
+        try {
+            return Optional.of(WarmRestartSnapshot.decode(Files.readAllBytes(snapshotFile)));
+        } catch (NoSuchFileException e) {
+            logger.info("No hay snapshot de arranque en caliente en {}; arranque en frío", snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Snapshot de arranque en caliente ilegible en {}; arranque en frío: {}", snapshotFile, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (Exception e) {
+            logger.warn("No se pudo guardar el snapshot de arranque en caliente: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.iotest.infrastructure.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Estado mínimo para un arranque en caliente: temperatura y última lectura de cada habitación,
+ * estado de cada switch y la última tarifa vista.
+ * <p>
+ * Formato binario (big endian, {@link DataOutputStream}):
+ * <pre>
+ * int    MAGIC ("WRS1")
+ * long   savedAt (epoch ms)
+ * int    lastTariff
+ * int    cantidad de habitaciones, y por cada una: UTF sensorId, double temperatura (NaN si no hay),
+ *        long lastUpdate (epoch ms, -1 si no hay)
+ * int    cantidad de switches, y por cada uno: UTF url, boolean encendido
+ * long   CRC32 de todo lo anterior
+ * </pre>
+ */
+public record WarmRestartSnapshot(long savedAt, int lastTariff, List<RoomEntry> rooms, List<SwitchEntry> switches) {
+
+    private static final int MAGIC = 0x57525331; // "WRS1"
+
+    public record RoomEntry(String sensorId, double temperature, long lastUpdate) {
+    }
+
+    public record SwitchEntry(String switchUrl, boolean on) {
+    }
+
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 48 * (rooms.size() + switches.size()));
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeLong(savedAt);
+        out.writeInt(lastTariff);
+        out.writeInt(rooms.size());
+        for (RoomEntry room : rooms) {
+            out.writeUTF(room.sensorId());
+            out.writeDouble(room.temperature());
+            out.writeLong(room.lastUpdate());
+        }
+        out.writeInt(switches.size());
+        for (SwitchEntry sw : switches) {
+            out.writeUTF(sw.switchUrl());
+            out.writeBoolean(sw.on());
+        }
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException si el contenido está truncado, no es un snapshot o el CRC no coincide
+     */
+    public static WarmRestartSnapshot decode(byte[] data) throws IOException {
+        if (data.length < Long.BYTES) {
+            throw new IOException("Snapshot truncado");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - Long.BYTES);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("El archivo no es un snapshot de arranque en caliente");
+        }
+        long savedAt = in.readLong();
+        int lastTariff = in.readInt();
+
+        int roomCount = in.readInt();
+        List<RoomEntry> rooms = new ArrayList<>(Math.max(0, Math.min(roomCount, data.length)));
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(new RoomEntry(in.readUTF(), in.readDouble(), in.readLong()));
+        }
+        int switchCount = in.readInt();
+        List<SwitchEntry> switches = new ArrayList<>(Math.max(0, Math.min(switchCount, data.length)));
+        for (int i = 0; i < switchCount; i++) {
+            switches.add(new SwitchEntry(in.readUTF(), in.readBoolean()));
+        }
+
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("CRC del snapshot inválido");
+        }
+        return new WarmRestartSnapshot(savedAt, lastTariff, List.copyOf(rooms), List.copyOf(switches));
+    }
+}
@@ -0,0 +1,268 @@
+package com.iotest.infrastructure.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.api.dto.RoomDeltaResponse;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.model.api.dto.StatusDeltaResponse;
+import com.iotest.domain.model.api.dto.SystemStatusResponse;
+import com.iotest.domain.service.StatusSnapshot;
+import com.iotest.domain.service.TemperatureControlService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Empuja el estado de las habitaciones a los clientes de streaming (SSE y WebSocket).
+ * <p>
+ * Al suscribirse, cada cliente recibe un snapshot completo; después solo deltas con las habitaciones
+ * que cambiaron (temperatura, calefacción, necesidad de calefacción) y la energía si cambió. Un hilo
+ * despierta con cada cambio de estado, espera {@code stream.coalesce-ms} para agrupar los cambios
+ * que llegan juntos, calcula el delta contra la última versión enviada y lo serializa una sola vez
+ * para todos los clientes. Los envíos a cada cliente salen de un pool aparte, así un cliente lento
+ * no frena a los demás (ver {@link StreamClient}).
+ */
+@Component
+public class RoomStreamBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomStreamBroadcaster.class);
+    private static final byte[] EMPTY = new byte[0];
+
+    private final TemperatureControlService temperatureControlService;
+    private final ObjectMapper objectMapper;
+    private final long coalesceMs;
+    private final long heartbeatMs;
+    private final int clientBufferSize;
+
+    private final Set<StreamClient> clients = ConcurrentHashMap.newKeySet();
+    private final Object signal = new Object();
+    private boolean changed;
+    private volatile boolean running;
+    private Thread broadcasterThread;
+    private final ExecutorService senders;
+
+    // Última versión difundida (solo la usa el hilo del broadcaster)
+    private StatusSnapshot lastBroadcast;
+
+    public RoomStreamBroadcaster(
+            TemperatureControlService temperatureControlService,
+            ObjectMapper objectMapper,
+            @Value("${stream.coalesce-ms:100}") long coalesceMs,
+            @Value("${stream.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${stream.client-buffer:64}") int clientBufferSize,
+            @Value("${stream.sender-threads:2}") int senderThreads) {
+        this.temperatureControlService = temperatureControlService;
+        this.objectMapper = objectMapper;
+        this.coalesceMs = Math.max(0, coalesceMs);
+        this.heartbeatMs = Math.max(1, heartbeatSeconds) * 1000;
+        this.clientBufferSize = clientBufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "stream-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        lastBroadcast = temperatureControlService.getStatusSnapshot();
+        temperatureControlService.addStatusChangeListener(this::signalChange);
+        running = true;
+        broadcasterThread = new Thread(this::broadcastLoop, "room-stream-broadcaster");
+        broadcasterThread.setDaemon(true);
+        broadcasterThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (broadcasterThread != null) {
+            broadcasterThread.interrupt();
+        }
+        senders.shutdownNow();
+        clients.forEach(StreamClient::close);
+        clients.clear();
+    }
+
+    /**
+     * Tamaño del buffer por cliente ({@code stream.client-buffer}).
+     */
+    public int getClientBufferSize() {
+        return clientBufferSize;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Suscribe un cliente; su primer mensaje es el snapshot completo vigente.
+     */
+    public void register(StreamClient client) {
+        clients.add(client);
+        schedule(client);
+        logger.debug("Cliente de streaming suscrito ({} activos)", clients.size());
+    }
+
+    public void unregister(StreamClient client) {
+        if (clients.remove(client)) {
+            client.clearPending();
+            logger.debug("Cliente de streaming dado de baja ({} activos)", clients.size());
+        }
+    }
+
+    private void signalChange() {
+        synchronized (signal) {
+            changed = true;
+            signal.notifyAll();
+        }
+    }
+
+    private void broadcastLoop() {
+        while (running) {
+            try {
+                boolean hasChange;
+                synchronized (signal) {
+                    if (!changed) {
+                        signal.wait(heartbeatMs);
+                    }
+                    hasChange = changed;
+                }
+                if (!hasChange) {
+                    broadcast(new StreamClient.Message(StreamClient.Message.HEARTBEAT, -1, EMPTY));
+                    continue;
+                }
+                // Agrupar los cambios que llegan juntos (por ejemplo, una ola de switches)
+                Thread.sleep(coalesceMs);
+                synchronized (signal) {
+                    changed = false;
+                }
+                publishChanges();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Error al difundir el estado a los clientes de streaming: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Calcula el delta entre la última versión difundida y la vigente y lo envía a todos los clientes.
+     */
+    void publishChanges() throws JsonProcessingException {
+        StatusSnapshot snapshot = temperatureControlService.getStatusSnapshot();
+        StatusSnapshot previous = lastBroadcast;
+        if (previous != null && previous.getVersion() == snapshot.getVersion()) {
+            return;
+        }
+        lastBroadcast = snapshot;
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        Optional<List<RoomStatusResponse>> changedRooms = snapshot.changedRoomsSince(previous);
+        if (changedRooms.isEmpty()) {
+            // Cambió la configuración del sitio: todos reciben el snapshot completo
+            broadcast(new StreamClient.Message(StreamClient.Message.SNAPSHOT, snapshot.getVersion(),
+                    snapshot.systemStatusJson(objectMapper)));
+            return;
+        }
+
+        SystemStatusResponse before = previous.getSystemStatus();
+        SystemStatusResponse after = snapshot.getSystemStatus();
+        boolean energyChanged = before.getMaxEnergy() != after.getMaxEnergy()
+                || before.getCurrentEnergyConsumption() != after.getCurrentEnergyConsumption();
+        if (changedRooms.get().isEmpty() && !energyChanged) {
+            return;
+        }
+
+        StatusDeltaResponse delta = StatusDeltaResponse.builder()
+                .version(snapshot.getVersion())
+                .maxEnergy(energyChanged ? after.getMaxEnergy() : null)
+                .currentEnergyConsumption(energyChanged ? after.getCurrentEnergyConsumption() : null)
+                .availableEnergy(energyChanged ? after.getAvailableEnergy() : null)
+                .rooms(changedRooms.get().stream().map(RoomStreamBroadcaster::toDelta).collect(Collectors.toList()))
+                .build();
+        broadcast(new StreamClient.Message(StreamClient.Message.DELTA, snapshot.getVersion(),
+                objectMapper.writeValueAsBytes(delta)));
+    }
+
+    private void broadcast(StreamClient.Message message) {
+        for (StreamClient client : clients) {
+            client.offer(message);
+            schedule(client);
+        }
+    }
+
+    private void schedule(StreamClient client) {
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (Exception e) {
+                client.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Envía los mensajes pendientes de un cliente. Solo hay una tarea de envío por cliente a la vez.
+     */
+    private void drain(StreamClient client) {
+        try {
+            while (clients.contains(client)) {
+                if (client.resync) {
+                    client.resync = false;
+                    client.clearPending();
+                    StatusSnapshot snapshot = temperatureControlService.getStatusSnapshot();
+                    client.send(StreamClient.Message.SNAPSHOT, snapshot.getVersion(), snapshot.systemStatusJson(objectMapper));
+                    client.lastVersion = snapshot.getVersion();
+                    continue;
+                }
+                StreamClient.Message message = client.poll();
+                if (message == null) {
+                    break;
+                }
+                if (!StreamClient.Message.HEARTBEAT.equals(message.event()) && message.version() <= client.lastVersion) {
+                    continue;
+                }
+                client.send(message.event(), message.version(), message.data());
+                if (message.version() > client.lastVersion) {
+                    client.lastVersion = message.version();
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Error al enviar al cliente de streaming, se da de baja: {}", e.getMessage());
+            unregister(client);
+            client.close();
+        } finally {
+            client.draining.set(false);
+        }
+        if (clients.contains(client) && client.hasPending()) {
+            schedule(client);
+        }
+    }
+
+    private static RoomDeltaResponse toDelta(RoomStatusResponse room) {
+        return RoomDeltaResponse.builder()
+                .roomId(room.getRoomId())
+                .currentTemperature(room.getCurrentTemperature())
+                .isHeatingOn(room.isHeatingOn())
+                .needsHeating(room.isNeedsHeating())
+                .lastUpdate(room.getLastUpdate())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.iotest.infrastructure.stream;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Variante WebSocket de {@code GET /api/stream/rooms}: mismos mensajes (snapshot inicial y deltas)
+ * que el streaming SSE. Los mensajes que manda el cliente se ignoran.
+ */
+public class RoomStreamWebSocketHandler extends TextWebSocketHandler {
+
+    private final RoomStreamBroadcaster broadcaster;
+    private final Map<String, StreamClient> clientsBySession = new ConcurrentHashMap<>();
+
+    public RoomStreamWebSocketHandler(RoomStreamBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        StreamClient client = new WebSocketStreamClient(session, broadcaster.getClientBufferSize());
+        clientsBySession.put(session.getId(), client);
+        broadcaster.register(client);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        StreamClient client = clientsBySession.remove(session.getId());
+        if (client != null) {
+            broadcaster.unregister(client);
+        }
+    }
+}
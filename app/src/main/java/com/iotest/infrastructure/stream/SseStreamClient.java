@@ -0,0 +1,38 @@
+package com.iotest.infrastructure.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cliente de streaming sobre Server-Sent Events. El id de cada evento es la versión del estado.
+ */
+public class SseStreamClient extends StreamClient {
+
+    private final SseEmitter emitter;
+
+    public SseStreamClient(SseEmitter emitter, int bufferSize) {
+        super(bufferSize);
+        this.emitter = emitter;
+    }
+
+    @Override
+    protected void send(String event, long version, byte[] data) throws IOException {
+        if (Message.HEARTBEAT.equals(event)) {
+            // Comentario SSE: mantiene viva la conexión y detecta clientes caídos
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .name(event)
+                .id(Long.toString(version))
+                .data(new String(data, StandardCharsets.UTF_8), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    protected void close() {
+        emitter.complete();
+    }
+}
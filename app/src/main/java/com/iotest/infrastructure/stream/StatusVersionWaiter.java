@@ -0,0 +1,138 @@
+package com.iotest.infrastructure.stream;
+
+import com.iotest.domain.service.StatusSnapshot;
+import com.iotest.domain.service.TemperatureControlService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Long-poll sobre la versión del estado ({@code ?waitForVersion=N}).
+ * <p>
+ * Un pedido espera hasta que el snapshot vigente tenga versión {@code >= N} o hasta que venza su
+ * timeout, y en ambos casos se completa con el snapshot vigente. Los pedidos en espera no ocupan
+ * hilos: se guardan en una cola y un único hilo los revisa cuando cambia el estado (varios cambios
+ * seguidos se revisan una sola vez) y cuando vence cada timeout.
+ */
+@Component
+public class StatusVersionWaiter {
+
+    private record Waiter(long minVersion, CompletableFuture<StatusSnapshot> future) {
+    }
+
+    private final TemperatureControlService temperatureControlService;
+    private final long defaultTimeoutSeconds;
+    private final long maxTimeoutSeconds;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-long-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusVersionWaiter(
+            TemperatureControlService temperatureControlService,
+            @Value("${long-poll.default-timeout-seconds:30}") long defaultTimeoutSeconds,
+            @Value("${long-poll.max-timeout-seconds:60}") long maxTimeoutSeconds) {
+        this.temperatureControlService = temperatureControlService;
+        this.maxTimeoutSeconds = Math.max(0, maxTimeoutSeconds);
+        this.defaultTimeoutSeconds = Math.min(Math.max(0, defaultTimeoutSeconds), this.maxTimeoutSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        temperatureControlService.addStatusChangeListener(this::signalChange);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        completeAll();
+    }
+
+    /**
+     * Timeout efectivo: el pedido, o {@code long-poll.default-timeout-seconds} si no se indicó,
+     * acotado a {@code long-poll.max-timeout-seconds}.
+     */
+    public Duration effectiveTimeout(Long requestedSeconds) {
+        long seconds = requestedSeconds != null ? requestedSeconds : defaultTimeoutSeconds;
+        return Duration.ofSeconds(Math.min(Math.max(0, seconds), maxTimeoutSeconds));
+    }
+
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Espera a que el estado llegue a la versión indicada.
+     *
+     * @return el snapshot vigente al llegar a {@code minVersion} o al vencer el timeout
+     */
+    public CompletableFuture<StatusSnapshot> awaitVersion(long minVersion, Duration timeout) {
+        StatusSnapshot snapshot = temperatureControlService.getStatusSnapshot();
+        if (snapshot.getVersion() >= minVersion || timeout.isZero() || timeout.isNegative()) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+
+        Waiter waiter = new Waiter(minVersion, new CompletableFuture<>());
+        waiters.add(waiter);
+        try {
+            executor.schedule(() -> expire(waiter), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            waiters.remove(waiter);
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        // Un cambio pudo llegar entre la primera lectura y el alta en la cola
+        signalChange();
+        return waiter.future();
+    }
+
+    private void signalChange() {
+        if (waiters.isEmpty() || !dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            dispatchScheduled.set(false);
+        }
+    }
+
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        StatusSnapshot snapshot = temperatureControlService.getStatusSnapshot();
+        for (Waiter waiter : waiters) {
+            // Se quita de la cola antes de completar, y solo si no lo quitó antes el timeout
+            if (snapshot.getVersion() >= waiter.minVersion() && waiters.remove(waiter)) {
+                waiter.future().complete(snapshot);
+            }
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        if (waiters.remove(waiter)) {
+            waiter.future().complete(temperatureControlService.getStatusSnapshot());
+        }
+    }
+
+    private void completeAll() {
+        StatusSnapshot snapshot = temperatureControlService.getStatusSnapshot();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.future().complete(snapshot);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.iotest.infrastructure.stream;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cliente suscrito al streaming de estado (SSE o WebSocket).
+ * <p>
+ * Cada cliente tiene su propio buffer acotado de mensajes ya serializados. Si un cliente lento lo
+ * llena, se descartan sus deltas pendientes y se le marca para resincronizar: el próximo envío es un
+ * snapshot completo, que reemplaza a todos los deltas que se perdió. Los envíos de un cliente los
+ * hace una sola tarea a la vez, así que las implementaciones de {@link #send} no necesitan ser
+ * seguras entre hilos.
+ */
+public abstract class StreamClient {
+
+    /**
+     * Mensaje ya serializado. Los deltas de versión menor o igual a la que ya tiene el cliente se descartan.
+     */
+    record Message(String event, long version, byte[] data) {
+        static final String SNAPSHOT = "snapshot";
+        static final String DELTA = "delta";
+        static final String HEARTBEAT = "heartbeat";
+    }
+
+    private final BlockingQueue<Message> buffer;
+    final AtomicBoolean draining = new AtomicBoolean(false);
+    volatile boolean resync = true;
+    long lastVersion = -1;
+
+    protected StreamClient(int bufferSize) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+    }
+
+    /**
+     * Envía un mensaje al cliente.
+     *
+     * @param event   "snapshot", "delta" o "heartbeat"
+     * @param version versión del estado (para SSE es el id del evento)
+     * @param data    JSON del mensaje (vacío para heartbeat)
+     */
+    protected abstract void send(String event, long version, byte[] data) throws IOException;
+
+    /**
+     * Cierra la conexión del cliente (se llama al darlo de baja por error de envío).
+     */
+    protected abstract void close();
+
+    /**
+     * Encola un mensaje; si el buffer está lleno, descarta los pendientes y pide un snapshot completo.
+     */
+    void offer(Message message) {
+        if (!buffer.offer(message)) {
+            buffer.clear();
+            resync = true;
+        }
+    }
+
+    Message poll() {
+        return buffer.poll();
+    }
+
+    boolean hasPending() {
+        return resync || !buffer.isEmpty();
+    }
+
+    void clearPending() {
+        buffer.clear();
+    }
+}
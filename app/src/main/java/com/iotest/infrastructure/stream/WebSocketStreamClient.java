@@ -0,0 +1,42 @@
+package com.iotest.infrastructure.stream;
+
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cliente de streaming sobre WebSocket. Cada mensaje de texto es
+ * {@code {"event":"snapshot|delta","version":N,"data":{...}}}.
+ */
+public class WebSocketStreamClient extends StreamClient {
+
+    private final WebSocketSession session;
+
+    public WebSocketStreamClient(WebSocketSession session, int bufferSize) {
+        super(bufferSize);
+        this.session = session;
+    }
+
+    @Override
+    protected void send(String event, long version, byte[] data) throws IOException {
+        if (Message.HEARTBEAT.equals(event)) {
+            session.sendMessage(new PingMessage());
+            return;
+        }
+        String payload = "{\"event\":\"" + event + "\",\"version\":" + version + ",\"data\":"
+                + new String(data, StandardCharsets.UTF_8) + "}";
+        session.sendMessage(new TextMessage(payload));
+    }
+
+    @Override
+    protected void close() {
+        try {
+            session.close();
+        } catch (IOException ignored) {
+            // La sesión ya estaba cerrada
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.iotest.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escribe las trazas en un archivo local con el formato del file exporter del OpenTelemetry Collector:
+ * una línea por lote, cada una un {@code ExportTraceServiceRequest} en OTLP/JSON (ids en hexadecimal,
+ * tiempos en nanosegundos Unix). El archivo se puede reenviar con un collector (receiver otlpjsonfile)
+ * o cargar en cualquier herramienta que lea OTLP.
+ * <p>
+ * Las trazas se encolan sin bloquear y un hilo daemon las escribe cada {@code intervalMs}; si la cola
+ * se llena (disco lento), las nuevas se descartan y se avisa en el log cuántas.
+ */
+class OtlpFileExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpFileExporter.class);
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final long intervalMs;
+    private final BlockingQueue<Trace> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    OtlpFileExporter(ObjectMapper objectMapper, Path file, long intervalMs) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.intervalMs = Math.max(10, intervalMs);
+        this.writerThread = new Thread(this::writeLoop, "trace-exporter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Exportando trazas en formato OTLP/JSON a {}", file.toAbsolutePath());
+    }
+
+    void offer(Trace trace) {
+        if (!queue.offer(trace)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    void close() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            flush();
+        }
+    }
+
+    synchronized void flush() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            logger.warn("Se descartaron {} trazas sin exportar (cola llena)", lost);
+        }
+        List<Trace> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(toRequest(batch)));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudieron exportar {} trazas a {}: {}", batch.size(), file, e.getMessage());
+        }
+    }
+
+    private ObjectNode toRequest(List<Trace> traces) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", "temperature-control");
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", "com.iotest.tracing");
+        ArrayNode spans = scopeSpans.putArray("spans");
+        for (Trace trace : traces) {
+            long start = trace.getStartEpochNanos();
+            ObjectNode root = span(spans, trace, trace.getRootSpanId(), null, trace.getName(), SPAN_KIND_SERVER,
+                    start, start + trace.getDurationNanos());
+            ArrayNode attributes = root.putArray("attributes");
+            for (Map.Entry<String, String> attribute : trace.getAttributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            for (TraceSpan stage : trace.getSpans()) {
+                long stageStart = start + stage.startOffsetNanos();
+                ObjectNode child = span(spans, trace, stage.spanId(), stage.parentSpanId(), stage.name(), SPAN_KIND_INTERNAL,
+                        stageStart, stageStart + stage.durationNanos());
+                if (stage.attribute() != null) {
+                    addAttribute(child.putArray("attributes"), "target", stage.attribute());
+                }
+            }
+        }
+        return request;
+    }
+
+    private static ObjectNode span(ArrayNode spans, Trace trace, String spanId, String parentSpanId, String name,
+                                   int kind, long startNanos, long endNanos) {
+        ObjectNode span = spans.addObject()
+                .put("traceId", trace.getTraceId())
+                .put("spanId", spanId);
+        if (parentSpanId != null) {
+            span.put("parentSpanId", parentSpanId);
+        }
+        return span.put("name", name)
+                .put("kind", kind)
+                .put("startTimeUnixNano", Long.toString(startNanos))
+                .put("endTimeUnixNano", Long.toString(endNanos));
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, String value) {
+        ObjectNode attribute = attributes.addObject().put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+}
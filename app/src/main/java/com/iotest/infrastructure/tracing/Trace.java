@@ -0,0 +1,89 @@
+package com.iotest.infrastructure.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traza de un evento (un mensaje MQTT, una lectura REST o un lote): el span raíz más los spans de
+ * cada etapa. Los tiempos se toman con System.nanoTime() relativos al inicio; el instante absoluto
+ * solo se usa al exportar.
+ * <p>
+ * Las etapas pueden registrarse desde varios hilos (operaciones en paralelo sobre los switches),
+ * por eso el alta de spans es sincronizada; cada span se agrega una sola vez, al cerrarse.
+ */
+public final class Trace {
+
+    private final String traceId;
+    private final String rootSpanId;
+    private final String name;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private final List<TraceSpan> spans = new ArrayList<>();
+    private volatile long endNanos;
+
+    Trace(String name) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+        this.rootSpanId = newSpanId();
+        this.name = name;
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.startNanos = System.nanoTime();
+    }
+
+    static String newSpanId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    public synchronized Trace attribute(String key, String value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    synchronized void addSpan(TraceSpan span) {
+        spans.add(span);
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getRootSpanId() {
+        return rootSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        long end = endNanos;
+        return (end != 0 ? end : System.nanoTime()) - startNanos;
+    }
+
+    public synchronized Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public synchronized List<TraceSpan> getSpans() {
+        return List.copyOf(spans);
+    }
+}
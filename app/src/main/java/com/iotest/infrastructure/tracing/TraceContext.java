@@ -0,0 +1,102 @@
+package com.iotest.infrastructure.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * Traza en curso del hilo actual, al estilo del MDC de los logs.
+ * <p>
+ * Los puntos de entrada (MQTT, REST, ingesta asíncrona) abren la traza con {@link TraceRecorder};
+ * el resto del código solo marca etapas con {@link #span(String)} sin saber si hay una traza activa:
+ * sin traza, {@code span} no hace nada y no asigna memoria. Para tareas que pasan a otro hilo (el
+ * pool de I/O de switches) la traza se propaga con {@link #wrap(Supplier)}.
+ */
+public final class TraceContext {
+
+    /**
+     * Etapa abierta; se cierra con try-with-resources.
+     */
+    public interface SpanScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Current(Trace trace, String spanId) {
+    }
+
+    private static final ThreadLocal<Current> CURRENT = new ThreadLocal<>();
+    private static final SpanScope NOOP = () -> { };
+
+    private TraceContext() {
+    }
+
+    public static SpanScope span(String name) {
+        return span(name, null);
+    }
+
+    /**
+     * Abre una etapa hija de la etapa actual.
+     *
+     * @param attribute dato de la etapa que se muestra junto al nombre (por ejemplo, la URL del switch)
+     */
+    public static SpanScope span(String name, String attribute) {
+        Current parent = CURRENT.get();
+        if (parent == null) {
+            return NOOP;
+        }
+        Trace trace = parent.trace();
+        String spanId = Trace.newSpanId();
+        long start = System.nanoTime();
+        CURRENT.set(new Current(trace, spanId));
+        return () -> {
+            CURRENT.set(parent);
+            trace.addSpan(new TraceSpan(spanId, parent.spanId(), name,
+                    start - trace.getStartNanos(), System.nanoTime() - start, attribute));
+        };
+    }
+
+    /**
+     * Agrega un atributo a la traza en curso (si hay una).
+     */
+    public static void attribute(String key, String value) {
+        Current current = CURRENT.get();
+        if (current != null) {
+            current.trace().attribute(key, value);
+        }
+    }
+
+    /**
+     * Envuelve una tarea para que corra, en otro hilo, dentro de la etapa actual.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Current captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Current previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    static Trace current() {
+        Current current = CURRENT.get();
+        return current != null ? current.trace() : null;
+    }
+
+    static void attach(Trace trace) {
+        CURRENT.set(new Current(trace, trace.getRootSpanId()));
+    }
+
+    static void detach() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,122 @@
+package com.iotest.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Abre y cierra las trazas de cada evento y guarda las últimas {@code tracing.buffer-size} en un
+ * buffer circular en memoria, para consultar las lentas por REST. Si {@code tracing.export-file}
+ * tiene una ruta, las trazas también se escriben ahí en formato OTLP/JSON (ver {@link OtlpFileExporter}).
+ * <p>
+ * Guardar una traza es una escritura en un arreglo sin locks; con {@code tracing.enabled=false}
+ * {@link #begin} devuelve null y ninguna etapa registra nada.
+ */
+@Component
+public class TraceRecorder {
+
+    private final boolean enabled;
+    private final AtomicReferenceArray<Trace> ring;
+    private final AtomicLong written = new AtomicLong();
+    private final OtlpFileExporter exporter;
+
+    public TraceRecorder(
+            ObjectMapper objectMapper,
+            @Value("${tracing.enabled:true}") boolean enabled,
+            @Value("${tracing.buffer-size:1000}") int bufferSize,
+            @Value("${tracing.export-file:}") String exportFile,
+            @Value("${tracing.export-interval-ms:1000}") long exportIntervalMs) {
+        this.enabled = enabled;
+        this.ring = new AtomicReferenceArray<>(Math.max(1, bufferSize));
+        this.exporter = enabled && exportFile != null && !exportFile.isBlank()
+                ? new OtlpFileExporter(objectMapper, Path.of(exportFile), exportIntervalMs)
+                : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+
+    /**
+     * Abre una traza y la deja como traza en curso del hilo actual.
+     *
+     * @return la traza, o null si el trazado está deshabilitado
+     */
+    public Trace begin(String name) {
+        if (!enabled) {
+            return null;
+        }
+        Trace trace = new Trace(name);
+        TraceContext.attach(trace);
+        return trace;
+    }
+
+    /**
+     * Cierra la traza, la quita del hilo actual y la guarda (y exporta). Acepta null.
+     */
+    public void finish(Trace trace) {
+        if (trace == null) {
+            return;
+        }
+        trace.finish();
+        if (TraceContext.current() == trace) {
+            TraceContext.detach();
+        }
+        long slot = written.getAndIncrement();
+        ring.set((int) (slot % ring.length()), trace);
+        if (exporter != null) {
+            exporter.offer(trace);
+        }
+    }
+
+    /**
+     * Trazas del buffer que duraron al menos {@code minMs}, de la más reciente a la más vieja.
+     */
+    public List<Trace> find(double minMs, int limit) {
+        long minNanos = (long) (minMs * 1_000_000);
+        long last = written.get() - 1;
+        long first = Math.max(0, last - ring.length() + 1);
+        List<Trace> result = new ArrayList<>();
+        for (long i = last; i >= first && result.size() < limit; i--) {
+            Trace trace = ring.get((int) (i % ring.length()));
+            if (trace != null && trace.getDurationNanos() >= minNanos) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing: el tiempo de cada etapa de primer nivel (sumado si se repite)
+     * y el total, en milisegundos. Por ejemplo {@code switch.sync;dur=12.4, decision;dur=0.1, total;dur=130.2}.
+     */
+    public static String serverTiming(Trace trace) {
+        Map<String, Long> byStage = new LinkedHashMap<>();
+        for (TraceSpan span : trace.getSpans()) {
+            if (trace.getRootSpanId().equals(span.parentSpanId())) {
+                byStage.merge(span.name(), span.durationNanos(), Long::sum);
+            }
+        }
+        StringBuilder header = new StringBuilder();
+        byStage.forEach((stage, nanos) -> header.append(stage).append(";dur=").append(millis(nanos)).append(", "));
+        return header.append("total;dur=").append(millis(trace.getDurationNanos())).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
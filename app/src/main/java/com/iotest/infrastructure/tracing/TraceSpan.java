@@ -0,0 +1,11 @@
+package com.iotest.infrastructure.tracing;
+
+/**
+ * Etapa terminada de una traza.
+ *
+ * @param startOffsetNanos inicio relativo al comienzo de la traza
+ * @param attribute        valor opcional de la etapa (por ejemplo la URL del switch), o null
+ */
+public record TraceSpan(String spanId, String parentSpanId, String name,
+                        long startOffsetNanos, long durationNanos, String attribute) {
+}
@@ -35,6 +35,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "mqtt.enabled=false",
         "temperature-control.config-file=classpath:test-site-config.json",
         "energy-cost-monitor.enabled=true",
+        "warm-restart.enabled=false",
+        "journal.enabled=false",
         "energy-cost-monitor.check-interval-seconds=1"
 })
 @DisplayName("Tests de Política de Costo de Energía")
@@ -36,7 +36,9 @@ import static org.mockito.Mockito.when;
         "mqtt.enabled=true",
         "mqtt.auto-reconnect=true",
         "temperature-control.config-file=classpath:test-site-config.json",
-        "energy-cost-monitor.enabled=false"
+        "energy-cost-monitor.enabled=false",
+        "warm-restart.enabled=false",
+        "journal.enabled=false"
 })
 @DisplayName("Tests de Integración MQTT - Casos Borde")
 class MqttIntegrationTest {
@@ -39,7 +39,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "mqtt.broker=tcp://localhost:1883",
         "mqtt.enabled=false",
         "temperature-control.config-file=classpath:test-site-config.json",
-        "energy-cost-monitor.enabled=false"
+        "energy-cost-monitor.enabled=false",
+        "warm-restart.enabled=false",
+        "journal.enabled=false",
+        // Mide la capacidad del pipeline, no el límite de ingesta (que rechazaría las ráfagas por sensor)
+        "ingest-rate-limit.enabled=false"
 })
 @DisplayName("Tests de Estrés y Performance")
 class StressAndPerformanceTest {
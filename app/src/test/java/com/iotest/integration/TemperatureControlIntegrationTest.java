@@ -0,0 +1,425 @@
+package com.iotest.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.TemperatureControlApplication;
+import com.iotest.infrastructure.mqtt.MqttSensorSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de integración para los endpoints REST del sistema de control de temperatura.
+ * 
+ * Estos tests verifican:
+ * - Control de temperatura cuando la carga total no es una limitación
+ * - Control cuando la carga total es una limitación efectiva
+ * - Casos borde: fallas en comunicación REST
+ */
+@SpringBootTest(classes = TemperatureControlApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "mqtt.broker=tcp://localhost:1883",
+    "mqtt.enabled=false",
+    "temperature-control.config-file=classpath:test-site-config.json",
+    "energy-cost-monitor.enabled=true",
+    "warm-restart.enabled=false",
+    "journal.enabled=false",
+    "energy-cost-monitor.check-interval-seconds=1"
+})
+@DisplayName("Tests de Integración - API REST")
+class TemperatureControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TemperatureControlService temperatureControlService;
+
+    @MockBean
+    private ISwitchController switchController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Configurar mocks para switchController - éxito por defecto
+        when(switchController.postSwitchStatus(anyString(), anyBoolean()))
+                .thenReturn("Respuesta: {\"on\":true}");
+    }
+
+    @Test
+    @DisplayName("Caso 1: Control de temperatura cuando la carga total NO es limitación")
+    void testTemperatureControlWithoutEnergyLimitation() throws Exception {
+        // Arrange: Sistema con energía suficiente (5.0 kW), habitación fría
+        String requestBody = """
+            {
+                "sensor_id": "mqtt:topic1",
+                "temperature": 19.0,
+                "time_stamp": "%s"
+            }
+            """.formatted(LocalDateTime.now());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sensor_id").value("mqtt:topic1"))
+                .andExpect(jsonPath("$.operations_count").exists())
+                .andExpect(jsonPath("$.operations").isArray())
+                .andExpect(jsonPath("$.current_energy_consumption").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 2: Control cuando la carga total ES una limitación efectiva")
+    void testTemperatureControlWithEnergyLimitation() throws Exception {
+        // Arrange: Primero encender una habitación
+        String requestBody1 = """
+            {
+                "sensor_id": "mqtt:topic2",
+                "temperature": 18.0,
+                "time_stamp": "%s"
+            }
+            """.formatted(LocalDateTime.now());
+
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody1))
+                .andExpect(status().isOk());
+
+        // Ahora intentar encender otra con límite de energía (3.0 kW, cada una consume 2.0 kW)
+        String requestBody2 = """
+            {
+                "sensor_id": "mqtt:topic1",
+                "temperature": 15.0,
+                "time_stamp": "%s"
+            }
+            """.formatted(LocalDateTime.now());
+
+        // Act & Assert: Debe hacer swap o no poder encender
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operations_count").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 3: Debe retornar estado del sistema correctamente")
+    void testGetSystemStatus() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/system/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.max_energy").exists())
+                .andExpect(jsonPath("$.current_energy_consumption").exists())
+                .andExpect(jsonPath("$.available_energy").exists())
+                .andExpect(jsonPath("$.rooms").isArray());
+    }
+
+    @Test
+    @DisplayName("Caso 4: Debe retornar estado de todas las habitaciones")
+    void testGetAllRooms() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/rooms"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].room_id").exists())
+                .andExpect(jsonPath("$[0].sensor_id").exists())
+                .andExpect(jsonPath("$[0].current_temperature").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 5: Debe retornar estado de habitación específica")
+    void testGetRoomStatus() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/rooms/mqtt:topic1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.room_id").exists())
+                .andExpect(jsonPath("$.sensor_id").value("mqtt:topic1"))
+                .andExpect(jsonPath("$.current_temperature").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 6: Debe retornar 404 para habitación no encontrada")
+    void testGetRoomStatusNotFound() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/rooms/unknown_room"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Caso 7: Debe manejar error cuando switch falla (simulación de falla REST)")
+    void testSwitchFailureHandling() throws Exception {
+        // Arrange: Simular falla en el switch SOLO cuando se llama
+        // Primero necesitamos que haya una operación, así que enviamos una temperatura fría
+        when(switchController.postSwitchStatus(anyString(), anyBoolean()))
+                .thenThrow(new java.io.IOException("Error de conexión con switch"));
+
+        String requestBody = """
+            {
+                "sensor_id": "mqtt:topic1",
+                "temperature": 19.0,
+                "time_stamp": "%s"
+            }
+            """.formatted(LocalDateTime.now());
+
+        // Act & Assert: Debe procesar el error pero retornar respuesta
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operations").isArray())
+                .andExpect(jsonPath("$.operations_count").exists());
+        
+        // Si hay operaciones, verificar que al menos una tenga success=false
+        // Si no hay operaciones (porque la habitación ya está cálida), el test pasa
+    }
+
+    @Test
+    @DisplayName("Caso 8: Debe validar request inválido (sensor desconocido)")
+    void testInvalidSensorRequest() throws Exception {
+        String requestBody = """
+            {
+                "sensor_id": "mqtt:unknown_sensor",
+                "temperature": 19.0,
+                "time_stamp": "%s"
+            }
+            """.formatted(LocalDateTime.now());
+
+        // Act & Assert: Debe procesar pero sin operaciones
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operations_count").value(0));
+    }
+
+    @Test
+    @DisplayName("Caso 9: Health check debe funcionar")
+    void testHealthCheck() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 10: Verificar política de alto costo de energía")
+    void testEnergyCostCheck() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/system/energy-cost-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contract\": \"testContract\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sensor_id").value("SYSTEM"))
+                .andExpect(jsonPath("$.operations_count").exists());
+    }
+
+    @Test
+    @DisplayName("Caso 11: Debe devolver ETag y 304 si el estado no cambió")
+    void testStatusNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/system/status"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("X-State-Version"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/system/status").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Caso 12: Long-poll debe responder con el estado vigente si ya llegó a la versión pedida")
+    void testLongPollAlreadyReached() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/rooms/mqtt:topic1")
+                        .param("waitForVersion", "0")
+                        .param("timeout", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.sensor_id").value("mqtt:topic1"));
+    }
+
+    @Test
+    @DisplayName("Caso 13: Debe paginar, filtrar y proyectar las habitaciones")
+    void testRoomsQuery() throws Exception {
+        mockMvc.perform(get("/api/rooms").param("limit", "1").param("fields", "room_id,current_temperature"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].room_id").exists())
+                .andExpect(jsonPath("$[0].current_temperature").exists())
+                .andExpect(jsonPath("$[0].sensor_id").doesNotExist())
+                .andExpect(header().exists("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/rooms").param("fields", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Caso 14: Debe procesar un lote de lecturas en array JSON y en NDJSON")
+    void testSensorBatch() throws Exception {
+        mockMvc.perform(post("/api/sensor/readings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"sensor_id": "mqtt:topic1", "temperature": 23.0},
+                     {"sensor_id": "mqtt:topic2", "temperature": 22.5},
+                     {"sensor_id": "mqtt:topic1", "temperature": 23.5}]
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.readings_received").value(3))
+                .andExpect(jsonPath("$.rooms_updated").value(2));
+
+        mockMvc.perform(post("/api/sensor/readings")
+                .contentType("application/x-ndjson")
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 23.0}\n"
+                        + "{\"sensor_id\": \"unknown\", \"temperature\": 10.0}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.readings_received").value(2))
+                .andExpect(jsonPath("$.unknown_sensor_readings").value(1));
+
+        mockMvc.perform(post("/api/sensor/readings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"sensor_id\": \"mqtt:topic1\", \"temperature\": "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Caso 15: Debe aceptar una lectura asíncrona con 202 y exponer su resultado")
+    void testAsyncSensorReading() throws Exception {
+        String body = mockMvc.perform(post("/api/sensor/reading/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 23.0}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getContentAsString();
+        String operationId = objectMapper.readTree(body).get("operation_id").asText();
+
+        String status = "PENDING";
+        for (int i = 0; i < 50 && "PENDING".equals(status); i++) {
+            Thread.sleep(100);
+            String operation = mockMvc.perform(get("/api/operations/" + operationId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(operation).get("status").asText();
+        }
+        assertThat(status).isEqualTo("COMPLETED");
+
+        mockMvc.perform(get("/api/operations/unknown")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/sensor/reading/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"temperature\": 23.0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Caso 16: Debe exponer las métricas de decisión, latencia de ingesta y energía por Actuator")
+    void testActuatorMetrics() throws Exception {
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 21.0}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/temperature.decision").param("tag", "trigger:reading"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").isNotEmpty());
+        mockMvc.perform(get("/actuator/metrics/ingest.decision.latency"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/energy.consumption.max"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/ingest.rate_limited"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Caso 17: Debe devolver Server-Timing en la ingesta REST y la traza en /api/debug/traces")
+    void testLatencyTracing() throws Exception {
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 21.5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("decision;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+
+        mockMvc.perform(get("/api/debug/traces").param("minMs", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("rest.reading"))
+                .andExpect(jsonPath("$[0].attributes.sensor_id").value("mqtt:topic1"))
+                .andExpect(jsonPath("$[0].spans[?(@.name == 'decision')]").isNotEmpty());
+        mockMvc.perform(get("/api/debug/traces").param("minMs", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Caso 18: Debe explicar las decisiones del controlador sobre una habitación")
+    void testRoomDecisions() throws Exception {
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 15.0}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/rooms/mqtt:topic1/decisions").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].trigger").value("READING"))
+                .andExpect(jsonPath("$[0].sensor_id").value("mqtt:topic1"))
+                .andExpect(jsonPath("$[0].temperature").value(15.0))
+                .andExpect(jsonPath("$[0].outcome").exists())
+                .andExpect(jsonPath("$[0].available_energy").isNumber());
+        mockMvc.perform(get("/api/rooms/no-existe/decisions"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Caso 19: Debe devolver el historial de temperatura de una habitación")
+    void testRoomHistory() throws Exception {
+        mockMvc.perform(post("/api/sensor/reading")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sensor_id\": \"mqtt:topic1\", \"temperature\": 17.25}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/rooms/mqtt:topic1/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.room_id").exists())
+                .andExpect(jsonPath("$.resolution").value("raw"))
+                .andExpect(jsonPath("$.points[-1].avg").value(17.25))
+                .andExpect(jsonPath("$.points[-1].count").value(1));
+        mockMvc.perform(get("/api/rooms/mqtt:topic1/history").param("step", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.step_ms").value(3_600_000))
+                .andExpect(jsonPath("$.points[-1].max").isNumber());
+        mockMvc.perform(get("/api/rooms/mqtt:topic1/history").param("step", "cinco"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/rooms/no-existe/history"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,122 @@
+package com.iotest.unit.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.api.dto.RoomQueryRequest;
+import com.iotest.domain.model.api.dto.RoomStatusResponse;
+import com.iotest.domain.service.StatusSnapshot;
+import com.iotest.domain.service.StatusSnapshotPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StatusSnapshotPublisher - Tests Unitarios")
+class StatusSnapshotPublisherTest {
+
+    private Room room1;
+    private Room room2;
+    private DataSwitch switch1;
+    private DataSwitch switch2;
+    private TemperatureController controller;
+    private StatusSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        room1 = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.5);
+        room2 = new Room("sensor2", "http://sim:8080/switch/2", 22.0, 2.0);
+        switch1 = new DataSwitch("http://sim:8080/switch/1", false);
+        switch2 = new DataSwitch("http://sim:8080/switch/2", true);
+        controller = new TemperatureController(5.0, List.of(room1, room2), List.of(switch1, switch2));
+        publisher = new StatusSnapshotPublisher(controller);
+        controller.setStateChangeListener(publisher);
+    }
+
+    @Test
+    @DisplayName("Debe devolver el mismo snapshot mientras no haya cambios")
+    void shouldReturnSameSnapshotWithoutChanges() {
+        StatusSnapshot first = publisher.current();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        assertThat(publisher.current()).isSameAs(first);
+        assertThat(first.systemStatusJson(objectMapper)).isSameAs(first.systemStatusJson(objectMapper));
+        assertThat(first.getSystemStatus().getCurrentEnergyConsumption()).isEqualTo(2.0);
+        assertThat(first.getSystemStatus().getAvailableEnergy()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Debe reconstruir solo las habitaciones que cambiaron")
+    void shouldRebuildOnlyChangedRooms() {
+        StatusSnapshot before = publisher.current();
+
+        room1.updateTemperature(18.0, LocalDateTime.now());
+        switch1.setOn(true);
+        StatusSnapshot after = publisher.current();
+
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(after.findRoom("sensor1")).get().satisfies(status -> {
+            assertThat(status.getCurrentTemperature()).isEqualTo(18.0);
+            assertThat(status.isHeatingOn()).isTrue();
+            assertThat(status.isNeedsHeating()).isTrue();
+        });
+        // La habitación sin cambios se comparte entre versiones
+        assertThat(after.findRoom("sensor2").get()).isSameAs(before.findRoom("sensor2").get());
+        assertThat(after.getSystemStatus().getCurrentEnergyConsumption()).isEqualTo(3.5);
+        // La versión anterior no se modifica
+        assertThat(before.getSystemStatus().getCurrentEnergyConsumption()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Debe reconstruir todo al reconfigurar el sitio")
+    void shouldRebuildEverythingOnReconfigure() {
+        publisher.current();
+        Room room3 = new Room("sensor3", "http://sim:8080/switch/3", 21.0, 1.0);
+        DataSwitch switch3 = new DataSwitch("http://sim:8080/switch/3", false);
+
+        controller.reconfigure(8.0, List.of(room1, room3), List.of(switch1, switch3));
+        StatusSnapshot snapshot = publisher.current();
+
+        assertThat(snapshot.getRooms()).extracting("sensorId").containsExactly("sensor1", "sensor3");
+        assertThat(snapshot.findRoom("sensor2")).isEmpty();
+        assertThat(snapshot.getSystemStatus().getMaxEnergy()).isEqualTo(8.0);
+
+        room3.updateTemperature(19.0, LocalDateTime.now());
+        assertThat(publisher.current().findRoom("sensor3").get().getCurrentTemperature()).isEqualTo(19.0);
+    }
+
+    @Test
+    @DisplayName("Debe paginar con cursor y filtrar habitaciones")
+    void shouldPaginateAndFilterRooms() {
+        Room room3 = new Room("3", "sensor3", "Sala", "http://sim:8080/switch/3", 21.0, 1.0, null, false, null, 0.5);
+        controller.reconfigure(5.0, List.of(room1, room2, room3),
+                List.of(switch1, switch2, new DataSwitch("http://sim:8080/switch/3", false)));
+        StatusSnapshot snapshot = publisher.current();
+
+        StatusSnapshot.RoomPage first = snapshot.queryRooms(RoomQueryRequest.builder().limit(2).build());
+        assertThat(first.rooms()).extracting(RoomStatusResponse::getSensorId).containsExactly("sensor1", "sensor2");
+        assertThat(first.nextCursor()).isNotNull();
+
+        StatusSnapshot.RoomPage second = snapshot.queryRooms(
+                RoomQueryRequest.builder().limit(2).cursor(first.nextCursor()).build());
+        assertThat(second.rooms()).extracting(RoomStatusResponse::getRoomId).containsExactly("3");
+        assertThat(second.nextCursor()).isNull();
+
+        assertThat(snapshot.queryRooms(RoomQueryRequest.builder().heating("on").build()).rooms())
+                .extracting(RoomStatusResponse::getSensorId).containsExactly("sensor2");
+        assertThat(snapshot.queryRooms(RoomQueryRequest.builder().namePrefix("sa").build()).rooms())
+                .extracting(RoomStatusResponse::getName).containsExactly("Sala");
+        assertThat(snapshot.findRoom("3")).isEqualTo(snapshot.findRoom("sensor3"));
+        assertThat(snapshot.findRoomsBySwitchUrl("http://sim:8080/switch/3"))
+                .extracting(RoomStatusResponse::getRoomId).containsExactly("3");
+        assertThatThrownBy(() -> snapshot.queryRooms(RoomQueryRequest.builder().cursor("bm9wZQ").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.api.dto.SensorBatchResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.service.TemperatureControlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TemperatureControlService - Tests Unitarios")
+class TemperatureControlServiceTest {
+
+    private static final String SLOW_SWITCH = "http://slow:8080/switch/1";
+    private static final String FAST_SWITCH = "http://fast:8080/switch/1";
+
+    private ExecutorService executor;
+    private DataSwitch slowSwitch;
+    private DataSwitch fastSwitch;
+    private ISwitchController switchController;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        slowSwitch = new DataSwitch(SLOW_SWITCH, true);
+        fastSwitch = new DataSwitch(FAST_SWITCH, true);
+        switchController = mock(ISwitchController.class);
+        when(switchController.getSwitchStatus(anyString())).thenReturn("{\"id\":1,\"state\":true}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe respetar el plazo de arranque y terminar en segundo plano los switches lentos")
+    void shouldRespectStartupDeadlineAndFinishSlowSwitchesInBackground() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(switchController.postSwitchStatus(eq(SLOW_SWITCH), eq(false))).thenAnswer(invocation -> {
+            release.await();
+            return "ok";
+        });
+        when(switchController.postSwitchStatus(eq(FAST_SWITCH), eq(false))).thenReturn("ok");
+
+        TemperatureController controller = new TemperatureController(10.0,
+                List.of(new Room("sensor1", SLOW_SWITCH, 22.0, 1.0), new Room("sensor2", FAST_SWITCH, 22.0, 1.0)),
+                List.of(slowSwitch, fastSwitch));
+        TemperatureControlService service = new TemperatureControlService(
+                controller, switchController, EnergyCost.TEST_CONTRACT_30S, executor, 200,
+                new SimpleMeterRegistry(), Clock.systemDefaultZone());
+
+        long start = System.nanoTime();
+        service.initializeSwitchStates();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // El arranque no espera al switch lento más allá del plazo
+        assertThat(elapsedMs).isLessThan(2000);
+        assertThat(fastSwitch.isOn()).isFalse();
+        assertThat(slowSwitch.isOn()).isTrue();
+
+        // Cuando responde, termina de apagarse en segundo plano
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(slowSwitch.isOn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe agrupar un lote por habitación y decidir con una sola sincronización")
+    void shouldCoalesceBatchPerRoomAndSyncOnce() throws Exception {
+        when(switchController.postSwitchStatus(anyString(), eq(false))).thenReturn("ok");
+        Room room1 = new Room("sensor1", SLOW_SWITCH, 22.0, 1.0);
+        Room room2 = new Room("sensor2", FAST_SWITCH, 22.0, 1.0);
+        TemperatureController controller = new TemperatureController(10.0, List.of(room1, room2),
+                List.of(slowSwitch, fastSwitch));
+        TemperatureControlService service = new TemperatureControlService(
+                controller, switchController, EnergyCost.TEST_CONTRACT_30S, executor, 200,
+                new SimpleMeterRegistry(), Clock.systemDefaultZone());
+        LocalDateTime now = LocalDateTime.now();
+
+        SensorBatchResponse response = service.processSensorBatch(List.of(
+                new SensorReadingRequest("sensor1", 25.0, now.minusSeconds(10)),
+                new SensorReadingRequest("sensor2", 24.0, now),
+                new SensorReadingRequest("sensor2", 15.0, now.minusSeconds(5)),
+                new SensorReadingRequest("unknown", 10.0, now),
+                new SensorReadingRequest(null, 10.0, now)).iterator());
+
+        assertThat(response.getReadingsReceived()).isEqualTo(5);
+        assertThat(response.getRoomsUpdated()).isEqualTo(2);
+        assertThat(response.getUnknownSensorReadings()).isEqualTo(1);
+        assertThat(response.getInvalidReadings()).isEqualTo(1);
+        // Se aplica la lectura más reciente de cada habitación, aunque llegue antes en el lote
+        assertThat(room2.getCurrentTemperature()).isEqualTo(24.0);
+        assertThat(response.getTurnedOff()).isEqualTo(2);
+        assertThat(response.getFailedOperations()).isEmpty();
+        verify(switchController, times(1)).getSwitchStatus(SLOW_SWITCH);
+        verify(switchController, times(1)).getSwitchStatus(FAST_SWITCH);
+    }
+}
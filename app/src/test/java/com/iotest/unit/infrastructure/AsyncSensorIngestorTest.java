@@ -0,0 +1,104 @@
+package com.iotest.unit.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.api.dto.ProcessOperationsResponse;
+import com.iotest.domain.model.api.dto.SensorReadingRequest;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.ingest.AsyncSensorIngestor;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AsyncSensorIngestor - Tests Unitarios")
+class AsyncSensorIngestorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TemperatureControlService service;
+    private AsyncSensorIngestor ingestor;
+    private HttpServer callbackServer;
+    private final CompletableFuture<String> callbackBody = new CompletableFuture<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = mock(TemperatureControlService.class);
+        when(service.processSensorReading(any())).thenReturn(ProcessOperationsResponse.builder().build());
+
+        callbackServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        callbackServer.createContext("/resultados", exchange -> {
+            callbackBody.complete(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        callbackServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestor != null) {
+            ingestor.stop();
+        }
+        callbackServer.stop(0);
+    }
+
+    private AsyncSensorIngestor newIngestor(String callbackAllowedHosts) {
+        return new AsyncSensorIngestor(service, objectMapper, new TraceRecorder(objectMapper, false, 10, "", 1000),
+                Clock.systemDefaultZone(), 1, 10, 100, 300, callbackAllowedHosts);
+    }
+
+    private static SensorReadingRequest reading() {
+        return new SensorReadingRequest("sensor1", 19.5, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cualquier callback si no hay hosts permitidos")
+    void shouldRejectCallbacksByDefault() {
+        ingestor = newIngestor("");
+
+        assertThatThrownBy(() -> ingestor.submit(reading(), "http://127.0.0.1:8080/resultados"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ingestor.submit(reading(), null).getOperationId()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar callbacks a hosts fuera de la lista permitida")
+    void shouldRejectCallbacksToOtherHosts() {
+        ingestor = newIngestor("gateway.local, 127.0.0.1:9");
+
+        assertThatThrownBy(() -> ingestor.submit(reading(), "http://169.254.169.254/latest/meta-data"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ingestor.submit(reading(), "http://gateway.local@169.254.169.254/"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 127.0.0.1 solo está permitido en el puerto 9
+        assertThatThrownBy(() -> ingestor.submit(reading(), "http://127.0.0.1:8080/resultados"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ingestor.submit(reading(), "file:///etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debe enviar el resultado al callback de un host permitido")
+    void shouldSendResultToAllowedCallback() throws Exception {
+        ingestor = newIngestor("127.0.0.1:" + callbackServer.getAddress().getPort());
+        String callback = "http://127.0.0.1:" + callbackServer.getAddress().getPort() + "/resultados";
+
+        String operationId = ingestor.submit(reading(), callback).getOperationId();
+
+        assertThat(callbackBody.get(5, TimeUnit.SECONDS)).contains(operationId).contains("COMPLETED");
+    }
+}
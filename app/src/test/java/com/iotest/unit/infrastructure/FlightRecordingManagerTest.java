@@ -0,0 +1,78 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.Logica.SwitchController;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.api.dto.JfrRecordingResponse;
+import com.iotest.infrastructure.jfr.FlightRecordingManager;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FlightRecordingManager - Tests Unitarios")
+class FlightRecordingManagerTest {
+
+    @TempDir
+    Path dumpDir;
+
+    private FlightRecordingManager manager;
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe grabar las decisiones y las llamadas a switches y volcarlas a un archivo")
+    void shouldRecordCustomEventsAndDump() throws Exception {
+        manager = new FlightRecordingManager(dumpDir.toString(), 10, 100);
+        assertThat(manager.status()).isEmpty();
+        assertThat(manager.start().getState()).isEqualTo("RUNNING");
+        assertThatThrownBy(manager::start).isInstanceOf(IllegalStateException.class);
+
+        Room room = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.5);
+        TemperatureController controller = new TemperatureController(5.0, List.of(room),
+                List.of(new DataSwitch("http://sim:8080/switch/1", false)));
+        controller.processSensorData(new DataSensor("sensor1", 18.0, LocalDateTime.now()));
+        // Puerto cerrado: la llamada falla sin respuesta y se registra con código 0
+        assertThatThrownBy(() -> new SwitchController().getSwitchStatus("http://127.0.0.1:1/switch/9"))
+                .isInstanceOf(IOException.class);
+
+        JfrRecordingResponse dump = manager.dump().orElseThrow();
+        assertThat(dump.getSizeBytes()).isPositive();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(dump.getFile()));
+
+        RecordedEvent decision = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.iotest.Decision"))
+                .findFirst().orElseThrow();
+        assertThat(decision.getString("sensor")).isEqualTo("sensor1");
+        assertThat(decision.getInt("operations")).isEqualTo(1);
+
+        RecordedEvent switchCall = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.iotest.SwitchCall"))
+                .findFirst().orElseThrow();
+        assertThat(switchCall.getString("method")).isEqualTo("GET");
+        assertThat(switchCall.getString("url")).isEqualTo("http://127.0.0.1:1/switch/9");
+        assertThat(switchCall.getInt("status")).isZero();
+
+        // El dump no detiene la grabación
+        assertThat(manager.status()).get().extracting(JfrRecordingResponse::getState).isEqualTo("RUNNING");
+        assertThat(manager.stop()).isPresent();
+        assertThat(manager.dump()).isEmpty();
+    }
+}
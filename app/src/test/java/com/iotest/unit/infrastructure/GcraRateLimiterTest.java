@@ -0,0 +1,72 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.config.RateLimitConfig;
+import com.iotest.infrastructure.ingest.GcraRateLimiter;
+import com.iotest.infrastructure.ingest.IngestAdmissionControl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("GcraRateLimiter - Tests Unitarios")
+class GcraRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Debe admitir la ráfaga completa y después solo a la tasa configurada")
+    void shouldAdmitBurstThenRate() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 5);
+        long now = 1_000 * SECOND;
+        AtomicLong cell = GcraRateLimiter.newCell(now);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(cell, now)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(cell, now)).isFalse();
+
+        // Una lectura cada 100 ms (10/s) vuelve a estar permitida
+        assertThat(limiter.tryAcquire(cell, now + SECOND / 10)).isTrue();
+        assertThat(limiter.tryAcquire(cell, now + SECOND / 10)).isFalse();
+
+        // Tras un rato sin lecturas se recupera la ráfaga, pero no más
+        long later = now + 10 * SECOND;
+        int admitted = 0;
+        while (limiter.tryAcquire(cell, later)) {
+            admitted++;
+        }
+        assertThat(admitted).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Debe admitir todo si la tasa es 0")
+    void shouldBeUnlimitedWithoutRate() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0, 1);
+        AtomicLong cell = GcraRateLimiter.newCell(0);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire(cell, 0)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe limitar por sensor, contar los rechazos y aplicar los límites del sitio")
+    void shouldLimitPerSensorAndApplySiteLimits() {
+        IngestAdmissionControl admission = new IngestAdmissionControl(null, true, 0.001, 2, 0, 1, 100);
+
+        assertThat(admission.admitRest("s1")).isTrue();
+        assertThat(admission.admitRest("s1")).isTrue();
+        assertThat(admission.admitRest("s1")).isFalse();
+        assertThat(admission.admitMqtt("s1")).isFalse();
+        assertThat(admission.admitRest("s2")).isTrue();
+        assertThat(admission.getRejectedRestCount()).isEqualTo(1);
+        assertThat(admission.getDroppedMqttCount()).isEqualTo(1);
+
+        // El sitio sube la ráfaga: el estado del sensor se conserva y quedan lecturas disponibles
+        admission.configure(new RateLimitConfig(null, 4, null, null));
+        assertThat(admission.admitRest("s1")).isTrue();
+        assertThat(admission.admitRest("s1")).isTrue();
+        assertThat(admission.admitRest("s1")).isFalse();
+    }
+}
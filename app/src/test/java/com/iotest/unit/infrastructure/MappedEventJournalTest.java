@@ -0,0 +1,230 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.capture.TrafficCapture;
+import com.iotest.infrastructure.config.VirtualThreads;
+import com.iotest.infrastructure.journal.JournalEntry;
+import com.iotest.infrastructure.journal.JournalReader;
+import com.iotest.infrastructure.journal.MappedEventJournal;
+import com.iotest.infrastructure.scheduler.EnergyCostMonitor;
+import com.iotest.infrastructure.scheduler.TariffTransitionScheduler;
+import com.iotest.infrastructure.snapshot.WarmRestartManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("MappedEventJournal - Tests Unitarios")
+class MappedEventJournalTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private MappedEventJournal newJournal(int segmentSizeMb, int maxSegments) {
+        return new MappedEventJournal(new TemperatureController(10.0, List.of(), List.of()), Clock.systemDefaultZone(), true,
+                tempDir.toString(), segmentSizeMb, 60_000, 168, maxSegments);
+    }
+
+    private static long epochMs(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("Debe leer en orden las lecturas, cambios de tarifa y operaciones registrados")
+    void shouldRoundTripEvents() throws Exception {
+        MappedEventJournal journal = newJournal(1, 8);
+        journal.reading("sensor1", 19.5, T0);
+        journal.reading("sensor2", 21.25, T0.plusSeconds(1));
+        journal.timeEvent(new TimeEvent("testContract", EnergyCost.LOW, EnergyCost.HIGH, T0.plusSeconds(2), 0));
+        journal.operation(new Operation("http://sim/switch/1", "OFF"), true);
+        journal.reading("sensor1", -3.75, T0.minusSeconds(30));
+        journal.close();
+
+        List<JournalEntry> entries = new ArrayList<>();
+        List<JournalReader.SegmentResult> results = JournalReader.readAll(tempDir, entries::add);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).torn()).isFalse();
+        assertThat(entries).extracting(JournalEntry::type).containsExactly(
+                JournalEntry.Type.READING, JournalEntry.Type.READING, JournalEntry.Type.TIME_EVENT,
+                JournalEntry.Type.OPERATION, JournalEntry.Type.READING);
+        assertThat(entries.get(0).key()).isEqualTo("sensor1");
+        assertThat(entries.get(0).timestamp()).isEqualTo(epochMs(T0));
+        assertThat(entries.get(1).temperature()).isEqualTo(21.25);
+        assertThat(entries.get(2).previousTariff()).isEqualTo(EnergyCost.LOW);
+        assertThat(entries.get(2).currentTariff()).isEqualTo(EnergyCost.HIGH);
+        assertThat(entries.get(3).key()).isEqualTo("http://sim/switch/1");
+        assertThat(entries.get(3).on()).isFalse();
+        assertThat(entries.get(3).success()).isTrue();
+        assertThat(entries.get(4).timestamp()).isEqualTo(epochMs(T0.minusSeconds(30)));
+        assertThat(entries.get(4).temperature()).isEqualTo(-3.75);
+    }
+
+    @Test
+    @DisplayName("Debe comprimir una serie periódica a pocos bytes por lectura")
+    void shouldCompressPeriodicSeries() throws Exception {
+        MappedEventJournal journal = newJournal(1, 8);
+        for (int i = 0; i < 10_000; i++) {
+            journal.reading("sensor1", i % 100 == 0 ? 20.5 : 20.0, T0.plusSeconds(i));
+        }
+        journal.close();
+
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.readAll(tempDir, entries::add);
+        assertThat(entries).hasSize(10_000);
+        assertThat(entries.get(9_999).timestamp()).isEqualTo(epochMs(T0.plusSeconds(9_999)));
+
+        // Tipo, largo, id, delta-of-delta y XOR: 5 bytes de contenido + 4 de CRC
+        long used = usedBytes(JournalReader.segments(tempDir).get(0));
+        assertThat(used / 10_000.0).isLessThan(10.0);
+    }
+
+    @Test
+    @DisplayName("Debe pasar a otro segmento al llenarse y borrar los que excedan la retención")
+    void shouldRollSegmentsAndApplyRetention() throws Exception {
+        MappedEventJournal journal = newJournal(1, 2);
+        for (int i = 0; i < 400_000; i++) {
+            journal.reading("sensor" + (i % 4), 20.0 + (i % 7) * 0.1, T0.plusSeconds(i));
+            if (i % 50_000 == 0) {
+                journal.commit();
+            }
+        }
+        journal.close();
+
+        List<Path> segments = JournalReader.segments(tempDir);
+        assertThat(segments).hasSizeLessThanOrEqualTo(3);
+        assertThat(segments.get(0).getFileName().toString()).isNotEqualTo("journal-0000000000000000.evj");
+        assertThat(journal.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe descartar la cola corrupta y entregar los eventos del arranque anterior")
+    void shouldRecoverTornTailAndReplayPreviousRun() throws Exception {
+        MappedEventJournal first = newJournal(1, 8);
+        first.reading("sensor1", 18.0, T0);
+        first.reading("sensor1", 18.5, T0.plusSeconds(10));
+        first.operation(new Operation("http://sim/switch/1", "ON"), true);
+        first.close();
+
+        // Se corta el proceso a mitad del último registro
+        Path segment = JournalReader.segments(tempDir).get(0);
+        long end = usedBytes(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end - 2);
+            int original = file.read();
+            file.seek(end - 2);
+            file.write(~original);
+        }
+
+        MappedEventJournal second = newJournal(1, 8);
+        second.reading("sensor1", 30.0, T0.plusSeconds(20));
+        List<JournalEntry> replayed = new ArrayList<>();
+        int count = second.replayPrevious(epochMs(T0), replayed::add);
+        second.close();
+
+        assertThat(count).isEqualTo(1);
+        assertThat(replayed).extracting(JournalEntry::temperature).containsExactly(18.5);
+        assertThat(JournalReader.segments(tempDir)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Debe registrar un solo TIME_EVENT por cambio de tarifa detectado por el monitor")
+    void shouldJournalEachTariffChangeOnce() throws Exception {
+        // testContract: LOW en los períodos pares de 30 s; arranca 5 s después de empezar uno
+        SteppedClock clock = new SteppedClock(30_000L * 1000 + 5_000);
+        Room room = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0);
+        room.updateTemperature(18.0, T0);
+        TemperatureController controller = new TemperatureController(10.0, List.of(room),
+                List.of(new DataSwitch("http://sim:8080/switch/1", true)));
+        MappedEventJournal journal = new MappedEventJournal(controller, clock, true,
+                tempDir.toString(), 1, 60_000, 168, 8);
+        TariffTransitionScheduler scheduler = new TariffTransitionScheduler(controller,
+                mock(TemperatureControlService.class), 4, 0, new SimpleMeterRegistry(), clock);
+        WarmRestartManager warmRestartManager = mock(WarmRestartManager.class);
+        when(warmRestartManager.getRestoredTariff()).thenReturn(null);
+        EnergyCostMonitor monitor = new EnergyCostMonitor(mock(TemperatureControlService.class), scheduler,
+                warmRestartManager, new TrafficCapture(clock, "", 1000), new VirtualThreads(false),
+                new SimpleMeterRegistry(), clock, EnergyCost.TEST_CONTRACT_30S, 1, 0);
+
+        try {
+            monitor.init();
+            // La primera verificación (todavía en LOW) ya leyó la hora cuando consulta el snapshot
+            verify(warmRestartManager, timeout(5_000)).getRestoredTariff();
+            clock.millis = 30_000L * 1001 + 1_000;
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (scheduler.getRecentReports().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            monitor.destroy();
+            scheduler.destroy();
+            journal.close();
+        }
+
+        assertThat(scheduler.getRecentReports()).hasSize(1);
+        assertThat(scheduler.getRecentReports().get(0).getOperationsCount()).isEqualTo(1);
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.readAll(tempDir, entries::add);
+        assertThat(entries).filteredOn(entry -> entry.type() == JournalEntry.Type.TIME_EVENT)
+                .extracting(JournalEntry::currentTariff)
+                .containsExactly(EnergyCost.HIGH);
+    }
+
+    // Reloj que el test mueve a mano
+    private static final class SteppedClock extends Clock {
+        private volatile long millis;
+
+        private SteppedClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    // Hasta el último byte distinto de cero (los segmentos se crean en ceros)
+    private static long usedBytes(Path segment) throws Exception {
+        byte[] data = Files.readAllBytes(segment);
+        int end = data.length;
+        while (end > 0 && data[end - 1] == 0) {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,45 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.infrastructure.metrics.MeteredSwitchController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("MeteredSwitchController - Tests Unitarios")
+class MeteredSwitchControllerTest {
+
+    private static final String URL = "http://localhost:8080/switch/1";
+
+    @Test
+    @DisplayName("Debe medir GET y POST por switch separando éxitos y errores")
+    void shouldTimeCallsPerSwitchAndOutcome() throws Exception {
+        ISwitchController delegate = mock(ISwitchController.class);
+        when(delegate.getSwitchStatus(URL)).thenReturn("{\"id\":1,\"state\":true}");
+        when(delegate.postSwitchStatus(URL, true)).thenThrow(new IOException("timeout"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredSwitchController controller = new MeteredSwitchController(delegate, registry);
+
+        controller.getSwitchStatus(URL);
+        controller.getSwitchStatus(URL);
+        assertThatThrownBy(() -> controller.postSwitchStatus(URL, true)).isInstanceOf(IOException.class);
+
+        assertThat(count(registry, "GET", "success")).isEqualTo(2);
+        assertThat(count(registry, "GET", "error")).isZero();
+        assertThat(count(registry, "POST", "error")).isEqualTo(1);
+        assertThat(count(registry, "POST", "success")).isZero();
+    }
+
+    private static long count(SimpleMeterRegistry registry, String method, String outcome) {
+        return registry.get(MeteredSwitchController.METRIC)
+                .tags("method", method, "switch", URL, "outcome", outcome)
+                .timer().count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.api.dto.RoomDeltaResponse;
+import com.iotest.infrastructure.config.NativeImageHintsConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NativeImageHintsConfig - Tests Unitarios")
+class NativeImageHintsConfigTest {
+
+    @Test
+    @DisplayName("Debe registrar metadata de reflexión para todos los DTOs")
+    void shouldRegisterEveryDto() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, NativeImageHintsConfig.class);
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, factory) -> !metadataReader.getClassMetadata().getClassName().contains("$"));
+        List<String> dtos = scanner.findCandidateComponents(RoomDeltaResponse.class.getPackageName()).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .toList();
+
+        assertThat(dtos).isNotEmpty();
+        for (String dto : dtos) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(Class.forName(dto)))
+                    .as("metadata de reflexión de %s", dto)
+                    .accepts(hints);
+        }
+    }
+}
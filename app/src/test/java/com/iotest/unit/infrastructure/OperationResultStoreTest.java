@@ -0,0 +1,69 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.api.dto.OperationStatusResponse;
+import com.iotest.infrastructure.ingest.OperationResultStore;
+import com.iotest.replay.ReplayClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OperationResultStore - Tests Unitarios")
+class OperationResultStoreTest {
+
+    @Test
+    @DisplayName("Debe descartar los resultados más viejos al superar la capacidad")
+    void shouldEvictOldestWhenFull() {
+        OperationResultStore store = new OperationResultStore(2, Duration.ofMinutes(5));
+        store.add(pending("op-1"));
+        store.add(pending("op-2"));
+        store.add(pending("op-3"));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("op-1")).isEmpty();
+        assertThat(store.get("op-3")).isPresent();
+
+        assertThat(store.update(pending("op-2").toBuilder().status(OperationStatusResponse.COMPLETED).build())).isTrue();
+        assertThat(store.get("op-2").orElseThrow().getStatus()).isEqualTo(OperationStatusResponse.COMPLETED);
+        assertThat(store.update(pending("op-1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe dejar de devolver y descartar los resultados vencidos")
+    void shouldExpireResults() throws Exception {
+        OperationResultStore store = new OperationResultStore(100, Duration.ofMillis(50));
+        store.add(pending("op-1"));
+        assertThat(store.get("op-1")).isPresent();
+
+        Thread.sleep(100);
+
+        assertThat(store.get("op-1")).isEmpty();
+        store.add(pending("op-2"));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe medir el vencimiento con el reloj inyectado")
+    void shouldExpireWithInjectedClock() {
+        ReplayClock clock = new ReplayClock(1_000_000, ZoneId.systemDefault());
+        OperationResultStore store = new OperationResultStore(100, Duration.ofMinutes(5), clock);
+        store.add(pending("op-1"));
+
+        clock.advanceTo(1_000_000 + Duration.ofMinutes(4).toMillis());
+        assertThat(store.get("op-1")).isPresent();
+
+        clock.advanceTo(1_000_000 + Duration.ofMinutes(5).toMillis());
+        assertThat(store.get("op-1")).isEmpty();
+    }
+
+    private static OperationStatusResponse pending(String id) {
+        return OperationStatusResponse.builder()
+                .operationId(id)
+                .status(OperationStatusResponse.PENDING)
+                .sensorId("sensor1")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.infrastructure.history.RoomHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RoomHistory - Tests Unitarios")
+class RoomHistoryTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long T0 = 1_700_000_000_000L - Math.floorMod(1_700_000_000_000L, HOUR);
+
+    @Test
+    @DisplayName("Debe devolver las muestras crudas de la última hora y descartar las que no entran en el buffer")
+    void shouldReturnRawSamplesWithinCapacity() {
+        RoomHistory history = new RoomHistory(3, HOUR);
+        for (int i = 0; i < 5; i++) {
+            history.append(T0 + i * MINUTE, 18 + i, i % 2 == 0);
+        }
+
+        RoomHistory.Series series = history.query(T0, T0 + 10 * MINUTE, 0, T0 + 10 * MINUTE);
+
+        assertThat(series.resolution()).isEqualTo("raw");
+        assertThat(series.points()).extracting(RoomHistory.Point::timestamp)
+                .containsExactly(T0 + 2 * MINUTE, T0 + 3 * MINUTE, T0 + 4 * MINUTE);
+        assertThat(series.points().get(0).avg()).isEqualTo(20.0);
+        assertThat(series.points().get(0).heatingRatio()).isEqualTo(1.0);
+        assertThat(series.points().get(1).heatingRatio()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("Debe agregar mínimo, promedio, máximo y fracción de calefacción por paso")
+    void shouldRollUpIntoSteps() {
+        RoomHistory history = new RoomHistory(100, HOUR);
+        history.append(T0, 18.0, true);
+        history.append(T0 + MINUTE, 20.0, false);
+        history.append(T0 + 6 * MINUTE, 22.0, false);
+
+        RoomHistory.Series series = history.query(T0, T0 + HOUR, 5 * MINUTE, T0 + 10 * MINUTE);
+
+        assertThat(series.resolution()).isEqualTo("5m");
+        assertThat(series.stepMs()).isEqualTo(5 * MINUTE);
+        assertThat(series.points()).hasSize(2);
+        RoomHistory.Point first = series.points().get(0);
+        assertThat(first.timestamp()).isEqualTo(T0);
+        assertThat(first.min()).isEqualTo(18.0);
+        assertThat(first.avg()).isEqualTo(19.0);
+        assertThat(first.max()).isEqualTo(20.0);
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(first.heatingRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Debe usar los buckets horarios para rangos de más de un día")
+    void shouldUseHourlyBucketsForOldRanges() {
+        RoomHistory history = new RoomHistory(10, HOUR);
+        for (int hour = 0; hour < 48; hour++) {
+            history.append(T0 + hour * HOUR, hour, false);
+            history.append(T0 + hour * HOUR + 30 * MINUTE, hour + 1, true);
+        }
+        long now = T0 + 48 * HOUR;
+
+        RoomHistory.Series series = history.query(T0, now, 0, now);
+
+        assertThat(series.resolution()).isEqualTo("1h");
+        assertThat(series.points()).hasSize(48);
+        assertThat(series.points().get(0).avg()).isEqualTo(0.5);
+        assertThat(series.points().get(47).max()).isEqualTo(48.0);
+        // Las muestras crudas ya no alcanzan: solo queda la ventana reciente
+        assertThat(history.query(now - 2 * HOUR, now, 0, now).resolution()).isEqualTo("5m");
+    }
+
+    @Test
+    @DisplayName("Debe tratar un instante anterior al último como simultáneo")
+    void shouldClampOutOfOrderTimestamps() {
+        RoomHistory history = new RoomHistory(10, HOUR);
+        history.append(T0 + 5 * MINUTE, 20.0, false);
+        history.append(T0, 21.0, true);
+
+        RoomHistory.Series series = history.query(T0, T0 + 10 * MINUTE, 0, T0 + 10 * MINUTE);
+
+        assertThat(series.points()).extracting(RoomHistory.Point::timestamp)
+                .containsExactly(T0 + 5 * MINUTE, T0 + 5 * MINUTE);
+    }
+}
@@ -0,0 +1,144 @@
+package com.iotest.unit.infrastructure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.stream.RoomStreamBroadcaster;
+import com.iotest.infrastructure.stream.StreamClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("RoomStreamBroadcaster - Tests Unitarios")
+class RoomStreamBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ExecutorService executor;
+    private Room room1;
+    private DataSwitch switch1;
+    private RoomStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        room1 = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.5);
+        Room room2 = new Room("sensor2", "http://sim:8080/switch/2", 22.0, 2.0);
+        switch1 = new DataSwitch("http://sim:8080/switch/1", false);
+        TemperatureController controller = new TemperatureController(5.0, List.of(room1, room2),
+                List.of(switch1, new DataSwitch("http://sim:8080/switch/2", false)));
+        TemperatureControlService service = new TemperatureControlService(
+                controller, mock(ISwitchController.class), EnergyCost.TEST_CONTRACT_30S, executor, 200,
+                new SimpleMeterRegistry(), Clock.systemDefaultZone());
+        broadcaster = new RoomStreamBroadcaster(service, objectMapper, 10, 15, 4, 1);
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe enviar el snapshot inicial y después solo las habitaciones que cambiaron")
+    void shouldSendInitialSnapshotAndThenDeltas() throws Exception {
+        RecordingClient client = new RecordingClient(4, null);
+        broadcaster.register(client);
+
+        Received snapshot = client.next();
+        assertThat(snapshot.event()).isEqualTo("snapshot");
+        assertThat(objectMapper.readTree(snapshot.data()).get("rooms")).hasSize(2);
+
+        room1.updateTemperature(18.0, LocalDateTime.now());
+        switch1.setOn(true);
+
+        Received delta = client.next();
+        assertThat(delta.event()).isEqualTo("delta");
+        assertThat(delta.version()).isGreaterThan(snapshot.version());
+        JsonNode json = objectMapper.readTree(delta.data());
+        assertThat(json.get("rooms")).hasSize(1);
+        assertThat(json.get("rooms").get(0).get("room_id").asText()).isEqualTo("sensor1");
+        assertThat(json.get("rooms").get(0).get("is_heating_on").asBoolean()).isTrue();
+        assertThat(json.get("current_energy_consumption").asDouble()).isEqualTo(1.5);
+    }
+
+    @Test
+    @DisplayName("Debe resincronizar con un snapshot a un cliente lento que llenó su buffer")
+    void shouldResyncSlowClientWithSnapshot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingClient client = new RecordingClient(1, release);
+        broadcaster.register(client);
+        assertThat(client.next().event()).isEqualTo("snapshot");
+
+        // Mientras el cliente está bloqueado en el primer envío, llegan más cambios que su buffer
+        for (int i = 0; i < 5; i++) {
+            room1.updateTemperature(15.0 + i, LocalDateTime.now());
+            Thread.sleep(40);
+        }
+        release.countDown();
+
+        Received resync = client.next();
+        assertThat(resync.event()).isEqualTo("snapshot");
+        assertThat(objectMapper.readTree(resync.data()).get("rooms").get(0).get("current_temperature").asDouble())
+                .isEqualTo(19.0);
+    }
+
+    private record Received(String event, long version, byte[] data) {
+    }
+
+    private static class RecordingClient extends StreamClient {
+        private final BlockingQueue<Received> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingClient(int bufferSize, CountDownLatch release) {
+            super(bufferSize);
+            this.release = release;
+        }
+
+        @Override
+        protected void send(String event, long version, byte[] data) throws java.io.IOException {
+            if ("heartbeat".equals(event)) {
+                return;
+            }
+            received.add(new Received(event, version, data));
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        protected void close() {
+        }
+
+        Received next() throws InterruptedException {
+            Received next = received.poll(5, TimeUnit.SECONDS);
+            assertThat(next).as("mensaje de streaming").isNotNull();
+            return next;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.config.SiteConfigReloader;
+import com.iotest.domain.model.config.RoomConfig;
+import com.iotest.domain.model.config.SiteConfigParser;
+import com.iotest.domain.model.config.SiteConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("SiteConfigReloader - Tests Unitarios")
+class SiteConfigReloaderTest {
+
+    private TemperatureController controller;
+    private TemperatureControlService service;
+    private SiteConfigReloader reloader;
+    private Room office1;
+    private DataSwitch switch1;
+    private DataSwitch switch2;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        office1 = new Room("1", "sim/ht/1", "office1", "http://sim:8080/switch/1", 22.0, 1.8, null, false, null, 0.5);
+        Room office2 = new Room("2", "sim/ht/2", "office2", "http://sim:8080/switch/2", 21.0, 1.5, null, false, null, 0.5);
+        office1.updateTemperature(19.0, LocalDateTime.now());
+        office2.updateTemperature(20.0, LocalDateTime.now());
+        switch1 = new DataSwitch("http://sim:8080/switch/1", true);
+        switch2 = new DataSwitch("http://sim:8080/switch/2", true);
+        controller = new TemperatureController(14.0, List.of(office1, office2), List.of(switch1, switch2));
+
+        service = mock(TemperatureControlService.class);
+        reloader = new SiteConfigReloader(null, controller, service, mock(ObjectProvider.class),
+                mock(ObjectProvider.class), 0);
+    }
+
+    @Test
+    @DisplayName("Debe conservar las habitaciones sin cambios y re-planificar solo las modificadas")
+    void shouldKeepUnchangedRoomsAndReplanOnlyChangedOnes() {
+        SiteConfiguration configuration = new SiteConfiguration("oficinaA", 14000, List.of(
+                new RoomConfig("1", "office1", "sim/ht/1", "http://sim:8080/switch/1", 22.0, 0.5, 1800),
+                new RoomConfig("2", "office2", "sim/ht/2", "http://sim:8080/switch/2", 23.0, 0.5, 1500)));
+
+        Set<String> replanned = reloader.apply(configuration);
+
+        assertThat(replanned).containsExactly("sim/ht/2");
+        assertThat(controller.findRoomBySensorId("sim/ht/1")).containsSame(office1);
+        Room changed = controller.findRoomBySensorId("sim/ht/2").orElseThrow();
+        assertThat(changed.getDesiredTemperature()).isEqualTo(23.0);
+        assertThat(changed.getCurrentTemperature()).isEqualTo(20.0);
+        // Los switches se reutilizan con su estado
+        assertThat(controller.findSwitchByUrl("http://sim:8080/switch/2")).containsSame(switch2);
+        verify(service).replanRooms(Set.of("sim/ht/2"));
+    }
+
+    @Test
+    @DisplayName("Debe apagar el switch de una habitación eliminada y no re-planificar si no hay otros cambios")
+    void shouldTurnOffSwitchOfRemovedRoom() {
+        SiteConfiguration configuration = new SiteConfiguration("oficinaA", 14000, List.of(
+                new RoomConfig("1", "office1", "sim/ht/1", "http://sim:8080/switch/1", 22.0, 0.5, 1800)));
+
+        Set<String> replanned = reloader.apply(configuration);
+
+        assertThat(replanned).isEmpty();
+        assertThat(controller.getRooms()).containsExactly(office1);
+        assertThat(controller.findSwitchByUrl("http://sim:8080/switch/2")).isEmpty();
+        verify(service).executeOperationsInParallel(argThat(operations -> operations.size() == 1
+                && operations.get(0).getSwitchUrl().equals("http://sim:8080/switch/2")
+                && operations.get(0).getAction().equals("OFF")));
+        verify(service, never()).replanRooms(any());
+    }
+}
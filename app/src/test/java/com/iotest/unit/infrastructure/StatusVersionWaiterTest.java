@@ -0,0 +1,96 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.StatusSnapshot;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.stream.StatusVersionWaiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("StatusVersionWaiter - Tests Unitarios")
+class StatusVersionWaiterTest {
+
+    private ExecutorService executor;
+    private Room room1;
+    private TemperatureControlService service;
+    private StatusVersionWaiter waiter;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        room1 = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.5);
+        TemperatureController controller = new TemperatureController(5.0, List.of(room1),
+                List.of(new DataSwitch("http://sim:8080/switch/1", false)));
+        service = new TemperatureControlService(
+                controller, mock(ISwitchController.class), EnergyCost.TEST_CONTRACT_30S, executor, 200,
+                new SimpleMeterRegistry(), Clock.systemDefaultZone());
+        waiter = new StatusVersionWaiter(service, 30, 60);
+        waiter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        waiter.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe responder de inmediato si el estado ya llegó a la versión pedida")
+    void shouldCompleteImmediatelyWhenVersionReached() {
+        long version = service.getStatusSnapshot().getVersion();
+
+        CompletableFuture<StatusSnapshot> future = waiter.awaitVersion(version, Duration.ofSeconds(30));
+
+        assertThat(future).isDone();
+        assertThat(future.join().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("Debe esperar sin hilos hasta que cambie el estado")
+    void shouldCompleteWhenStateChanges() throws Exception {
+        long version = service.getStatusSnapshot().getVersion();
+
+        CompletableFuture<StatusSnapshot> future = waiter.awaitVersion(version + 1, Duration.ofSeconds(30));
+        assertThat(future).isNotDone();
+        assertThat(waiter.getWaitingCount()).isEqualTo(1);
+
+        room1.updateTemperature(18.5, LocalDateTime.now());
+
+        StatusSnapshot snapshot = future.get(5, TimeUnit.SECONDS);
+        assertThat(snapshot.getVersion()).isGreaterThan(version);
+        assertThat(snapshot.findRoom("sensor1").orElseThrow().getCurrentTemperature()).isEqualTo(18.5);
+        assertThat(waiter.getWaitingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe responder con el estado vigente al vencer el timeout y acotar el timeout pedido")
+    void shouldCompleteWithCurrentStateOnTimeout() throws Exception {
+        long version = service.getStatusSnapshot().getVersion();
+
+        CompletableFuture<StatusSnapshot> future = waiter.awaitVersion(version + 1, Duration.ofMillis(100));
+
+        assertThat(future.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(version);
+        assertThat(waiter.getWaitingCount()).isZero();
+        assertThat(waiter.effectiveTimeout(null)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(waiter.effectiveTimeout(600L)).isEqualTo(Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,112 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.scheduler.TariffTransitionScheduler;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("TariffTransitionScheduler - Tests Unitarios")
+class TariffTransitionSchedulerTest {
+
+    private TariffTransitionScheduler scheduler;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // Host A con 3 switches, host B con 1; temperaturas distintas para definir prioridades
+        List<Room> rooms = new ArrayList<>();
+        List<DataSwitch> switches = new ArrayList<>();
+        double[] temperatures = {20.0, 15.0, 18.0, 10.0};
+        String[] urls = {"http://a:8080/switch/1", "http://a:8080/switch/2", "http://a:8080/switch/3", "http://b:8080/switch/1"};
+        for (int i = 0; i < urls.length; i++) {
+            Room room = new Room("sensor" + i, urls[i], 22.0, 1.0);
+            room.updateTemperature(temperatures[i], LocalDateTime.now());
+            rooms.add(room);
+            switches.add(new DataSwitch(urls[i], true));
+        }
+        TemperatureController controller = new TemperatureController(10.0, rooms, switches);
+
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new TariffTransitionScheduler(controller, mock(TemperatureControlService.class), 2, 100,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    @DisplayName("Debe limitar las operaciones por host en cada ola y apagar primero las menos prioritarias")
+    void shouldLimitOperationsPerHostAndOrderByPriority() {
+        List<Operation> operations = List.of(
+                new Operation("http://a:8080/switch/1", "OFF"),
+                new Operation("http://a:8080/switch/2", "OFF"),
+                new Operation("http://a:8080/switch/3", "OFF"),
+                new Operation("http://b:8080/switch/1", "OFF"));
+
+        List<List<Operation>> waves = scheduler.planWaves(operations);
+
+        assertThat(waves).hasSize(2);
+        // Ola 1: las dos de menor déficit del host A (20°C y 18°C) y la única del host B
+        assertThat(waves.get(0)).containsExactly(
+                new Operation("http://a:8080/switch/1", "OFF"),
+                new Operation("http://a:8080/switch/3", "OFF"),
+                new Operation("http://b:8080/switch/1", "OFF"));
+        assertThat(waves.get(1)).containsExactly(new Operation("http://a:8080/switch/2", "OFF"));
+    }
+
+    @Test
+    @DisplayName("No debe mezclar apagados y encendidos en una misma ola")
+    void shouldNotMixOffAndOnInTheSameWave() {
+        List<Operation> operations = List.of(
+                new Operation("http://a:8080/switch/1", "ON"),
+                new Operation("http://b:8080/switch/1", "OFF"),
+                new Operation("http://a:8080/switch/2", "ON"));
+
+        List<List<Operation>> waves = scheduler.planWaves(operations);
+
+        assertThat(waves).hasSize(2);
+        assertThat(waves.get(0)).containsExactly(new Operation("http://b:8080/switch/1", "OFF"));
+        // Encendidos: primero la habitación más fría
+        assertThat(waves.get(1)).containsExactly(
+                new Operation("http://a:8080/switch/2", "ON"),
+                new Operation("http://a:8080/switch/1", "ON"));
+    }
+
+    @Test
+    @DisplayName("Debe registrar en una métrica el tiempo hasta aprovechar el presupuesto al volver a LOW")
+    void shouldRecordBudgetRefillTime() throws Exception {
+        // Todas las habitaciones ya calientan: el presupuesto queda aprovechado tras la primera pasada
+        TimeEvent toLow = new TimeEvent("testContract", EnergyCost.HIGH, EnergyCost.LOW, LocalDateTime.now(), 0);
+
+        TariffTransitionReportResponse report =
+                scheduler.schedule(toLow, System.currentTimeMillis(), null).get(5, TimeUnit.SECONDS);
+
+        Timer refill = meterRegistry.find("tariff.budget_refill").tag("to", "LOW").timer();
+        assertThat(report.getBudgetRefillMs()).isNotNull();
+        assertThat(refill).isNotNull();
+        assertThat(refill.count()).isEqualTo(1);
+        assertThat(refill.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(report.getBudgetRefillMs().doubleValue());
+    }
+}
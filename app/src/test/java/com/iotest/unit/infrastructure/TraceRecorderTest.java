@@ -0,0 +1,119 @@
+package com.iotest.unit.infrastructure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.infrastructure.tracing.Trace;
+import com.iotest.infrastructure.tracing.TraceContext;
+import com.iotest.infrastructure.tracing.TraceRecorder;
+import com.iotest.infrastructure.tracing.TraceSpan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TraceRecorder - Tests Unitarios")
+class TraceRecorderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Debe registrar las etapas anidadas, también las que corren en otro hilo")
+    void shouldRecordNestedSpansAcrossThreads() {
+        TraceRecorder recorder = new TraceRecorder(objectMapper, true, 10, "", 1000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Trace trace = recorder.begin("rest.reading");
+            TraceContext.attribute("sensor_id", "s1");
+            try (TraceContext.SpanScope execute = TraceContext.span("switch.execute")) {
+                CompletableFuture.supplyAsync(TraceContext.wrap(() -> {
+                    try (TraceContext.SpanScope post = TraceContext.span("switch.post", "http://switch/1")) {
+                        return true;
+                    }
+                }), executor).join();
+            }
+            recorder.finish(trace);
+
+            List<TraceSpan> spans = trace.getSpans();
+            TraceSpan execute = spans.stream().filter(s -> s.name().equals("switch.execute")).findFirst().orElseThrow();
+            TraceSpan post = spans.stream().filter(s -> s.name().equals("switch.post")).findFirst().orElseThrow();
+            assertThat(execute.parentSpanId()).isEqualTo(trace.getRootSpanId());
+            assertThat(post.parentSpanId()).isEqualTo(execute.spanId());
+            assertThat(post.attribute()).isEqualTo("http://switch/1");
+            assertThat(trace.getAttributes()).containsEntry("sensor_id", "s1");
+
+            // Cerrada la traza, las etapas fuera de ella no registran nada
+            try (TraceContext.SpanScope ignored = TraceContext.span("fuera")) {
+                assertThat(trace.getSpans()).hasSize(2);
+            }
+            assertThat(trace.getSpans()).hasSize(2);
+            assertThat(TraceRecorder.serverTiming(trace)).startsWith("switch.execute;dur=").contains("total;dur=");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe devolver las trazas lentas más recientes y respetar el tamaño del buffer")
+    void shouldFindSlowTracesNewestFirst() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(objectMapper, true, 3, "", 1000);
+        Trace slow = recorder.begin("slow");
+        Thread.sleep(20);
+        recorder.finish(slow);
+        for (int i = 0; i < 2; i++) {
+            recorder.finish(recorder.begin("fast-" + i));
+        }
+
+        assertThat(recorder.find(10, 10)).containsExactly(slow);
+        assertThat(recorder.find(0, 10)).extracting(Trace::getName).containsExactly("fast-1", "fast-0", "slow");
+
+        // El buffer guarda solo las últimas 3
+        recorder.finish(recorder.begin("fast-2"));
+        assertThat(recorder.find(0, 10)).extracting(Trace::getName).containsExactly("fast-2", "fast-1", "fast-0");
+        assertThat(recorder.find(0, 1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("No debe registrar nada con el trazado deshabilitado")
+    void shouldDoNothingWhenDisabled() {
+        TraceRecorder recorder = new TraceRecorder(objectMapper, false, 10, "", 1000);
+        Trace trace = recorder.begin("rest.reading");
+        try (TraceContext.SpanScope ignored = TraceContext.span("decision")) {
+            recorder.finish(trace);
+        }
+        assertThat(trace).isNull();
+        assertThat(recorder.find(0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe exportar las trazas al archivo en formato OTLP/JSON")
+    void shouldExportOtlpJson(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces.json");
+        TraceRecorder recorder = new TraceRecorder(objectMapper, true, 10, file.toString(), 60_000);
+        Trace trace = recorder.begin("mqtt.message");
+        TraceContext.attribute("topic", "sim/ht/1");
+        try (TraceContext.SpanScope ignored = TraceContext.span("decision")) {
+            // etapa vacía
+        }
+        recorder.finish(trace);
+        recorder.stop();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(1);
+        JsonNode spans = objectMapper.readTree(lines.get(0))
+                .at("/resourceSpans/0/scopeSpans/0/spans");
+        assertThat(spans).hasSize(2);
+        assertThat(spans.get(0).get("traceId").asText()).isEqualTo(trace.getTraceId()).hasSize(32);
+        assertThat(spans.get(0).get("name").asText()).isEqualTo("mqtt.message");
+        assertThat(spans.get(0).at("/attributes/0/value/stringValue").asText()).isEqualTo("sim/ht/1");
+        assertThat(spans.get(1).get("parentSpanId").asText()).isEqualTo(trace.getRootSpanId());
+        assertThat(spans.get(1).get("name").asText()).isEqualTo("decision");
+    }
+}
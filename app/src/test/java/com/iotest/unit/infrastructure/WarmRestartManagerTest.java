@@ -0,0 +1,164 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.capture.TrafficCapture;
+import com.iotest.infrastructure.config.VirtualThreads;
+import com.iotest.infrastructure.scheduler.EnergyCostMonitor;
+import com.iotest.infrastructure.scheduler.TariffTransitionScheduler;
+import com.iotest.infrastructure.snapshot.WarmRestartManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WarmRestartManager - Tests Unitarios")
+class WarmRestartManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static TemperatureController newController(Room room, DataSwitch dataSwitch) {
+        return new TemperatureController(10.0, List.of(room), List.of(dataSwitch));
+    }
+
+    // testContract: HIGH en los períodos impares de 30 s
+    private static final Clock HIGH_CLOCK = Clock.fixed(Instant.ofEpochMilli(30_000L * 1001 + 1_000), ZoneId.systemDefault());
+
+    private WarmRestartManager newManager(TemperatureController controller, TemperatureControlService service, long maxAgeSeconds) {
+        return newManager(controller, service, maxAgeSeconds, Clock.systemDefaultZone());
+    }
+
+    private WarmRestartManager newManager(TemperatureController controller, TemperatureControlService service,
+                                          long maxAgeSeconds, Clock clock) {
+        return new WarmRestartManager(controller, service, null, clock, EnergyCost.TEST_CONTRACT_30S, true,
+                tempDir.resolve("warm-restart.bin").toString(), 30, maxAgeSeconds);
+    }
+
+    @Test
+    @DisplayName("Debe restaurar temperaturas y switches de un snapshot reciente sin apagar todo")
+    void shouldRestoreRecentSnapshotAndSkipBlanketOff() throws Exception {
+        LocalDateTime lastUpdate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Room room = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0);
+        room.updateTemperature(19.5, lastUpdate);
+        newManager(newController(room, new DataSwitch("http://sim:8080/switch/1", true)),
+                mock(TemperatureControlService.class), 300).save();
+
+        // Proceso nuevo: misma configuración, sin estado
+        Room restoredRoom = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0);
+        DataSwitch restoredSwitch = new DataSwitch("http://sim:8080/switch/1", false);
+        TemperatureControlService service = mock(TemperatureControlService.class);
+        WarmRestartManager manager = newManager(newController(restoredRoom, restoredSwitch), service, 300);
+
+        manager.init();
+        manager.destroy();
+
+        assertThat(restoredRoom.getCurrentTemperature()).isEqualTo(19.5);
+        assertThat(restoredRoom.getLastUpdate()).isEqualTo(lastUpdate);
+        assertThat(restoredSwitch.isOn()).isTrue();
+        assertThat(manager.getRestoredTariff()).isNotNull();
+        verify(service).validateSwitchStates();
+        verify(service, never()).initializeSwitchStates();
+    }
+
+    @Test
+    @DisplayName("Debe arrancar en frío si el snapshot está corrupto")
+    void shouldColdStartWhenSnapshotIsCorrupt() throws Exception {
+        Files.write(tempDir.resolve("warm-restart.bin"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        Room room = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0);
+        TemperatureControlService service = mock(TemperatureControlService.class);
+        WarmRestartManager manager = newManager(newController(room, new DataSwitch("http://sim:8080/switch/1", false)), service, 300);
+
+        assertThat(manager.restore()).isFalse();
+        assertThat(room.getCurrentTemperature()).isNull();
+        assertThat(manager.getRestoredTariff()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe guardar la tarifa aplicada por el monitor y no la de la hora actual")
+    void shouldSaveAppliedTariffInsteadOfWallClockTariff() throws Exception {
+        Room room = new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0);
+        WarmRestartManager previous = newManager(newController(room, new DataSwitch("http://sim:8080/switch/1", true)),
+                mock(TemperatureControlService.class), 300, HIGH_CLOCK);
+        // Ya es HIGH pero las operaciones del cambio todavía no terminaron
+        previous.recordAppliedTariff(EnergyCost.LOW);
+        previous.save();
+
+        WarmRestartManager manager = newManager(newController(new Room("sensor1", "http://sim:8080/switch/1", 22.0, 1.0),
+                new DataSwitch("http://sim:8080/switch/1", false)), mock(TemperatureControlService.class), 300, HIGH_CLOCK);
+
+        assertThat(manager.restore()).isTrue();
+        assertThat(manager.getRestoredTariff()).isEqualTo(EnergyCost.LOW);
+    }
+
+    @Test
+    @DisplayName("Debe apagar los switches restaurados si el snapshot y la tarifa actual son HIGH")
+    void shouldEnforceHighTariffOnWarmStart() throws Exception {
+        String switchUrl = "http://sim:8080/switch/1";
+        Room room = new Room("sensor1", switchUrl, 22.0, 1.0);
+        room.updateTemperature(18.0, LocalDateTime.now(HIGH_CLOCK));
+        WarmRestartManager previous = newManager(newController(room, new DataSwitch(switchUrl, true)),
+                mock(TemperatureControlService.class), 300, HIGH_CLOCK);
+        previous.recordAppliedTariff(EnergyCost.HIGH);
+        previous.save();
+
+        // Proceso nuevo: el servicio aplica las operaciones sobre los switches del controller
+        DataSwitch restoredSwitch = new DataSwitch(switchUrl, false);
+        TemperatureController controller = newController(new Room("sensor1", switchUrl, 22.0, 1.0), restoredSwitch);
+        TemperatureControlService service = mock(TemperatureControlService.class);
+        List<Operation> executed = new CopyOnWriteArrayList<>();
+        when(service.executeOperationsInParallel(any())).thenAnswer(invocation -> {
+            List<Operation> wave = invocation.getArgument(0);
+            wave.forEach(op -> controller.findSwitchByUrl(op.getSwitchUrl())
+                    .ifPresent(sw -> sw.setOn("ON".equals(op.getAction()))));
+            executed.addAll(wave);
+            return List.of();
+        });
+        WarmRestartManager manager = newManager(controller, service, 300, HIGH_CLOCK);
+        TariffTransitionScheduler scheduler = new TariffTransitionScheduler(controller, service, 4, 0,
+                new SimpleMeterRegistry(), HIGH_CLOCK);
+        EnergyCostMonitor monitor = new EnergyCostMonitor(service, scheduler, manager,
+                new TrafficCapture(HIGH_CLOCK, "", 1000), new VirtualThreads(false), new SimpleMeterRegistry(),
+                HIGH_CLOCK, EnergyCost.TEST_CONTRACT_30S, 1, 0);
+
+        try {
+            manager.init();
+            assertThat(manager.getRestoredTariff()).isEqualTo(EnergyCost.HIGH);
+            assertThat(restoredSwitch.isOn()).isTrue();
+
+            monitor.init();
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (scheduler.getRecentReports().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            monitor.destroy();
+            scheduler.destroy();
+            manager.destroy();
+        }
+
+        assertThat(executed).containsExactly(new Operation(switchUrl, "OFF"));
+        assertThat(restoredSwitch.isOn()).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.iotest.unit.infrastructure;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.api.dto.TariffTransitionReportResponse;
+import com.iotest.domain.service.TemperatureControlService;
+import com.iotest.infrastructure.config.ClockConfig;
+import com.iotest.infrastructure.config.WarpClock;
+import com.iotest.infrastructure.scheduler.TariffTransitionScheduler;
+import com.iotest.replay.ReplayClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("WarpClock - Tests Unitarios")
+class WarpClockTest {
+
+    @Test
+    @DisplayName("Debe avanzar factor veces más rápido que el reloj base desde la hora virtual de inicio")
+    void shouldAdvanceByFactor() {
+        ReplayClock base = new ReplayClock(1_000, ZoneId.of("UTC"));
+        WarpClock clock = new WarpClock(base, 50_000, 100);
+
+        assertThat(clock.millis()).isEqualTo(50_000);
+        base.advanceTo(1_250);
+        assertThat(clock.millis()).isEqualTo(75_000);
+        assertThat(clock.instant()).isEqualTo(Instant.ofEpochMilli(75_000));
+        assertThat(clock.getZone()).isEqualTo(ZoneId.of("UTC"));
+    }
+
+    @Test
+    @DisplayName("Debe convertir esperas virtuales a reales solo con un WarpClock")
+    void shouldConvertDelays() {
+        WarpClock clock = new WarpClock(Clock.systemUTC(), 0, 100);
+
+        assertThat(WarpClock.realDelayMillis(clock, 30_000)).isEqualTo(300);
+        assertThat(WarpClock.realDelayMillis(clock, 1)).isEqualTo(1);
+        assertThat(WarpClock.realDelayMillis(clock, -5)).isZero();
+        assertThat(WarpClock.realDelayMillis(Clock.systemUTC(), 30_000)).isEqualTo(30_000);
+    }
+
+    @Test
+    @DisplayName("Debe usar el reloj del sistema sin aceleración y un WarpClock con factor u hora de inicio")
+    void shouldBuildClockFromProperties() {
+        ClockConfig config = new ClockConfig();
+
+        assertThat(config.clock(1, "")).isNotInstanceOf(WarpClock.class);
+
+        Clock warped = config.clock(100, "2024-05-06T06:00:00Z");
+        assertThat(warped).isInstanceOf(WarpClock.class);
+        assertThat(warped.millis()).isBetween(
+                Instant.parse("2024-05-06T06:00:00Z").toEpochMilli(),
+                Instant.parse("2024-05-06T06:10:00Z").toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("El scheduler debe esperar el cambio de tarifa en tiempo acelerado")
+    void schedulerShouldHonourWarpedTime() throws Exception {
+        WarpClock clock = new WarpClock(Clock.systemDefaultZone(), System.currentTimeMillis(), 1000);
+        TariffTransitionScheduler scheduler = new TariffTransitionScheduler(
+                new TemperatureController(10.0, List.of(), List.of()), mock(TemperatureControlService.class),
+                2, 100, new SimpleMeterRegistry(), clock);
+        try {
+            // Un minuto virtual hasta el cambio: unos 60 ms reales
+            long boundary = clock.millis() + 60_000;
+            TimeEvent timeEvent = new TimeEvent(EnergyCost.TEST_CONTRACT_30S, EnergyCost.HIGH, EnergyCost.LOW,
+                    LocalDateTime.now(clock), 0);
+
+            long start = System.nanoTime();
+            TariffTransitionReportResponse report = scheduler.schedule(timeEvent, boundary, null).get(5, TimeUnit.SECONDS);
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+            assertThat(report.getBoundaryTs()).isEqualTo(boundary);
+        } finally {
+            scheduler.destroy();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.iotest.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos resultados de JMH en JSON ({@code -rf json}), por benchmark y parámetros.
+ * <p>
+ * Por cada caso muestra el puntaje de ambos, el cambio (positivo = mejor, según el modo: más
+ * operaciones/s o menos tiempo por operación) y la asignación por operación si se corrió con
+ * {@code -prof gc}. Un cambio menor que la suma de los errores de ambos se marca con "~" (ruido).
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.iotest.benchmark.BenchmarkComparison base.json nuevo.json
+ * </pre>
+ */
+public final class BenchmarkComparison {
+
+    private record Result(String mode, double score, double error, String unit, Double allocBytes) {
+    }
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: BenchmarkComparison <base.json> <nuevo.json>");
+            System.exit(2);
+        }
+        Map<String, Result> base = load(new File(args[0]));
+        Map<String, Result> current = load(new File(args[1]));
+
+        System.out.println(String.format(Locale.US, "%-72s %16s %16s %9s %12s %12s",
+                "benchmark", "base", "nuevo", "cambio", "base B/op", "nuevo B/op"));
+        Map<String, Result> all = new TreeMap<>(base);
+        current.forEach(all::putIfAbsent);
+        for (String key : all.keySet()) {
+            Result before = base.get(key);
+            Result after = current.get(key);
+            System.out.println(String.format(Locale.US, "%-72s %16s %16s %9s %12s %12s",
+                    key, score(before), score(after), change(before, after), alloc(before), alloc(after)));
+        }
+    }
+
+    private static Map<String, Result> load(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(shortName(run.path("benchmark").asText()));
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode primary = run.path("primaryMetric");
+            results.put(key.toString(), new Result(run.path("mode").asText(),
+                    primary.path("score").asDouble(), errorOf(primary), primary.path("scoreUnit").asText(),
+                    allocOf(run.path("secondaryMetrics"))));
+        }
+        return results;
+    }
+
+    // com.iotest.benchmark.ProcessSensorDataBenchmark.processSensorData -> ProcessSensorDataBenchmark.processSensorData
+    private static String shortName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        int type = method > 0 ? benchmark.lastIndexOf('.', method - 1) : -1;
+        return benchmark.substring(type + 1);
+    }
+
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isFinite(error) ? error : 0;
+    }
+
+    private static Double allocOf(JsonNode secondary) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondary.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith("gc.alloc.rate.norm")) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static String score(Result result) {
+        return result == null ? "-" : String.format(Locale.US, "%.3f %s", result.score(), unitSuffix(result.unit()));
+    }
+
+    private static String unitSuffix(String unit) {
+        return unit.replace("ops/", "/").replace("/op", "");
+    }
+
+    private static String change(Result before, Result after) {
+        if (before == null || after == null || before.score() == 0 || !before.mode().equals(after.mode())) {
+            return "-";
+        }
+        double diff = after.score() - before.score();
+        // En throughput más es mejor; en tiempo por operación, menos
+        double improvement = ("thrpt".equals(after.mode()) ? diff : -diff) / before.score() * 100 + 0.0;
+        String noise = Math.abs(diff) <= before.error() + after.error() ? "~" : "";
+        return String.format(Locale.US, "%s%+.1f%%", noise, improvement);
+    }
+
+    private static String alloc(Result result) {
+        return result == null || result.allocBytes() == null ? "-" : String.format(Locale.US, "%.0f", result.allocBytes());
+    }
+}
@@ -0,0 +1,58 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de una decisión global sobre todas las habitaciones ({@code calculateOperations}) según la
+ * presión sobre el presupuesto de energía: demanda de las habitaciones frías / energía máxima.
+ * <p>
+ * {@code calculateOperations} es privado; se entra por {@link TemperatureController#replanRooms} con
+ * todos los sensores, que es la misma pasada de decisión que usa un cambio a tarifa económica. El Set
+ * de ids ya es inmutable, así que replanRooms no lo copia y no entra en la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CalculateOperationsBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rooms;
+
+    @Param({"0.5", "1.0", "2.0", "4.0"})
+    public double pressure;
+
+    private TemperatureController controller;
+    private Set<String> allSensors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSite site = SyntheticSite.generate(rooms, pressure);
+        controller = site.controller();
+        allSensors = site.sensorIds();
+    }
+
+    @Benchmark
+    public List<Operation> calculateOperations() {
+        return controller.replanRooms(allSensors);
+    }
+}
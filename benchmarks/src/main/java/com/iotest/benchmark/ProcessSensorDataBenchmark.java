@@ -0,0 +1,58 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSensor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de {@link TemperatureController#processSensorData}: una lectura de un sensor al azar por
+ * invocación, sobre el sitio sintético con presupuesto justo (pressure 1). Con {@code -prof gc} se ve
+ * además la asignación por lectura ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Las operaciones devueltas no se ejecutan, así que el estado de los switches no cambia entre
+ * invocaciones; solo cambian las temperaturas de las habitaciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessSensorDataBenchmark {
+
+    private static final int READINGS = 1 << 12;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rooms;
+
+    private TemperatureController controller;
+    private DataSensor[] readings;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSite site = SyntheticSite.generate(rooms, 1.0);
+        controller = site.controller();
+        readings = site.readings(READINGS);
+    }
+
+    @Benchmark
+    public List<Operation> processSensorData() {
+        return controller.processSensorData(readings[next++ & (READINGS - 1)]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.TimeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de {@link TemperatureController#processTimeEvent} en los dos cambios de tarifa: a HIGH
+ * (apagar todo lo encendido) y de vuelta a LOW (re-planificado global), con presupuesto justo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessTimeEventBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rooms;
+
+    @Param({"TO_HIGH", "TO_LOW"})
+    public String transition;
+
+    private TemperatureController controller;
+    private TimeEvent timeEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = SyntheticSite.generate(rooms, 1.0).controller();
+        boolean toHigh = "TO_HIGH".equals(transition);
+        timeEvent = new TimeEvent(EnergyCost.TEST_CONTRACT_30S,
+                toHigh ? EnergyCost.LOW : EnergyCost.HIGH,
+                toHigh ? EnergyCost.HIGH : EnergyCost.LOW,
+                LocalDateTime.of(2024, 5, 6, 6, 0), 0);
+    }
+
+    @Benchmark
+    public List<Operation> processTimeEvent() {
+        return controller.processTimeEvent(timeEvent);
+    }
+}
@@ -0,0 +1,125 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.Logica.SwitchController;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalado del I/O de switches: {@code calls} consultas bloqueantes ({@link SwitchController} usa
+ * http.send) contra un switch simulado con 20 ms de latencia, repartidas como en
+ * executeOperationsInParallel. Compara el pool de plataforma por defecto ({@code switch-io.parallelism=16})
+ * con hilos virtuales ({@code switch-io.virtual-parallelism=256}).
+ * <p>
+ * El puntaje es el tiempo de la tanda completa; llamadas/s = calls / tiempo. Con 16 hilos de
+ * plataforma el techo teórico es 16 / 20 ms = 800 llamadas/s. Los hilos virtuales requieren Java 21:
+ * en Java 17 hay que correrlo con {@code -p threads=platform}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class SwitchIoBenchmark {
+
+    private static final int SWITCH_LATENCY_MS = 20;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"64", "256", "1024"})
+    public int calls;
+
+    private final SwitchController switchController = new SwitchController();
+    private HttpServer switchServer;
+    private String switchUrl;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        switchServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        switchServer.createContext("/switch/1", exchange -> {
+            try {
+                Thread.sleep(SWITCH_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1,\"state\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        switchServer.setExecutor(Executors.newCachedThreadPool());
+        switchServer.start();
+        switchUrl = "http://127.0.0.1:" + switchServer.getAddress().getPort() + "/switch/1";
+
+        executor = "virtual".equals(threads)
+                ? Executors.newFixedThreadPool(256, virtualThreadFactory())
+                : Executors.newFixedThreadPool(16, runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        switchServer.stop(0);
+    }
+
+    @Benchmark
+    public int switchStatusFanOut() {
+        List<CompletableFuture<String>> futures = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return switchController.getSwitchStatus(switchUrl);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor));
+        }
+        int on = 0;
+        for (CompletableFuture<String> future : futures) {
+            if (future.join().contains("\"state\":true")) {
+                on++;
+            }
+        }
+        return on;
+    }
+
+    // Los benchmarks compilan para Java 17: Thread.ofVirtual() se obtiene por reflexión
+    private static ThreadFactory virtualThreadFactory() throws Exception {
+        Object builder;
+        try {
+            builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21; usar -p threads=platform", e);
+        }
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+}
@@ -0,0 +1,108 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Sitio sintético y reproducible (semilla fija) para los benchmarks del {@link TemperatureController}.
+ * <p>
+ * Cada habitación quiere 21 °C con tolerancia de 1 °C y tiene una temperatura entre 16 y 24 °C, así que
+ * cerca de la mitad necesita calefacción; el consumo va de 1 a 3 kW. Los switches se reparten de a 64
+ * por host. La energía máxima es la demanda de las habitaciones frías dividida por {@code pressure}:
+ * con 0.5 sobra la mitad del presupuesto, con 1 alcanza justo y con 2 o más hay que elegir (swaps).
+ * <p>
+ * Al generar el sitio se encienden, en orden aleatorio y mientras alcance la energía, la mitad de las
+ * habitaciones frías y una de cada diez de las templadas (estas últimas para ejercitar los apagados).
+ */
+public final class SyntheticSite {
+
+    public static final long SEED = 42;
+
+    private static final int SWITCHES_PER_HOST = 64;
+    private static final double DESIRED_TEMPERATURE = 21.0;
+    private static final double TOLERANCE = 1.0;
+
+    private final List<Room> rooms;
+    private final List<DataSwitch> switches;
+    private final double maxEnergy;
+
+    private SyntheticSite(List<Room> rooms, List<DataSwitch> switches, double maxEnergy) {
+        this.rooms = rooms;
+        this.switches = switches;
+        this.maxEnergy = maxEnergy;
+    }
+
+    public static SyntheticSite generate(int roomCount, double pressure) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime now = LocalDateTime.of(2024, 5, 6, 6, 0);
+        List<Room> rooms = new ArrayList<>(roomCount);
+        double demand = 0;
+        for (int i = 0; i < roomCount; i++) {
+            double temperature = 16.0 + random.nextDouble() * 8.0;
+            double power = 1.0 + random.nextInt(5) * 0.5;
+            rooms.add(new Room("room-" + i, "sensor-" + i, "Habitación " + i, switchUrl(i),
+                    DESIRED_TEMPERATURE, power, temperature, false, now, TOLERANCE));
+            if (temperature < DESIRED_TEMPERATURE - TOLERANCE) {
+                demand += power;
+            }
+        }
+        double maxEnergy = Math.max(1.0, demand / pressure);
+
+        List<DataSwitch> switches = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            switches.add(new DataSwitch(switchUrl(i), false));
+        }
+        double consumption = 0;
+        for (int offset = random.nextInt(Math.max(1, roomCount)), n = 0; n < roomCount; n++) {
+            int i = (offset + n) % roomCount;
+            Room room = rooms.get(i);
+            boolean turnOn = room.needsHeating() ? random.nextInt(2) == 0 : random.nextInt(10) == 0;
+            if (turnOn && consumption + room.getEnergyConsumption() <= maxEnergy) {
+                switches.get(i).setOn(true);
+                room.setHeatingOn(true);
+                consumption += room.getEnergyConsumption();
+            }
+        }
+        return new SyntheticSite(rooms, switches, maxEnergy);
+    }
+
+    public TemperatureController controller() {
+        return new TemperatureController(maxEnergy, rooms, switches);
+    }
+
+    /**
+     * Ids de todos los sensores en un Set inmutable: {@code Set.copyOf} lo devuelve sin copiarlo.
+     */
+    public Set<String> sensorIds() {
+        return rooms.stream().map(Room::getSensorId).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Lecturas precalculadas de sensores al azar, con temperaturas a ambos lados del umbral.
+     *
+     * @param count potencia de 2, para recorrerlas con una máscara
+     */
+    public DataSensor[] readings(int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 6, 6, 1);
+        DataSensor[] readings = new DataSensor[count];
+        for (int i = 0; i < count; i++) {
+            Room room = rooms.get(random.nextInt(rooms.size()));
+            readings[i] = new DataSensor(room.getSensorId(), 16.0 + random.nextDouble() * 8.0, timestamp);
+        }
+        return readings;
+    }
+
+    private static String switchUrl(int index) {
+        return "http://host-" + (index / SWITCHES_PER_HOST) + ":8080/switch/" + index;
+    }
+}
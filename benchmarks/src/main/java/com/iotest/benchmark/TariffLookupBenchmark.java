@@ -0,0 +1,64 @@
+package com.iotest.benchmark;
+
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TariffCalendarParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de {@link EnergyCost#energyZone(String, long)} con el contrato de prueba y con los contratos
+ * reales de {@code tariff-contracts.json} (el mismo de la aplicación, incluido en benchmarks.jar), que
+ * se resuelven por búsqueda binaria sobre las transiciones compiladas.
+ * <p>
+ * Las consultas son instantes al azar dentro del año que empieza al correr el benchmark (semilla fija,
+ * precalculados para no medir el RNG): caen en el horizonte que compila cada calendario al crearse, que
+ * es el caso de la aplicación en marcha.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TariffLookupBenchmark {
+
+    private static final int INSTANTS = 1 << 16;
+
+    @Param({EnergyCost.TEST_CONTRACT_30S, "uteDobleHorario", "uteTripleHorario"})
+    public String contract;
+
+    private long[] instants;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try (InputStream inputStream = TariffLookupBenchmark.class.getResourceAsStream("/tariff-contracts.json")) {
+            new TariffCalendarParser().parse(inputStream).forEach(EnergyCost::registerContract);
+        }
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(SyntheticSite.SEED);
+        instants = new long[INSTANTS];
+        for (int i = 0; i < INSTANTS; i++) {
+            instants[i] = start + random.nextLong(365L * 24 * 3600 * 1000);
+        }
+    }
+
+    @Benchmark
+    public EnergyCost.EnergyZone energyZone() {
+        return EnergyCost.energyZone(contract, instants[next++ & (INSTANTS - 1)]);
+    }
+}
@@ -0,0 +1,596 @@
+package com.iotest.domain.model.Controllers;
+
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.EventJournal;
+import com.iotest.domain.model.StateChangeListener;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.decision.DecisionOutcome;
+import com.iotest.domain.model.decision.DecisionTrace;
+import com.iotest.domain.model.decision.DecisionTrigger;
+import com.iotest.jfr.DecisionEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class TemperatureController {
+
+    // Estado de configuración del sitio (energía máxima, habitaciones y switches).
+    // Es inmutable y se reemplaza completo con reconfigure(), así que cada decisión
+    // trabaja sobre una única versión consistente aunque se recargue la configuración.
+    private volatile SiteState state;
+    private volatile StateChangeListener stateChangeListener;
+    // Últimas decisiones, para explicar por qué se encendió, apagó o no se calefaccionó una habitación
+    private volatile DecisionTrace decisionTrace = new DecisionTrace(DecisionTrace.DEFAULT_CAPACITY);
+    // Registro durable de lecturas, cambios de tarifa y operaciones (por defecto no registra nada)
+    private volatile EventJournal eventJournal = EventJournal.NONE;
+
+    public TemperatureController(double maxEnergy, List<Room> rooms, List<DataSwitch> switches) {
+        this.state = new SiteState(maxEnergy, rooms, switches);
+    }
+
+    /**
+     * Reemplaza atómicamente la configuración del sitio (recarga en caliente de site-config.json).
+     * Los objetos Room y DataSwitch que se reutilicen conservan su temperatura y estado.
+     */
+    public void reconfigure(double maxEnergy, List<Room> rooms, List<DataSwitch> switches) {
+        SiteState newState = new SiteState(maxEnergy, rooms, switches);
+        StateChangeListener listener = stateChangeListener;
+        if (listener != null) {
+            newState.attach(listener);
+        }
+        this.state = newState;
+        if (listener != null) {
+            listener.siteReconfigured();
+        }
+    }
+
+    /**
+     * Registra el listener que recibe los cambios de temperatura de las habitaciones, de estado
+     * de los switches y de configuración. Hay un solo listener; se engancha a cada Room y
+     * DataSwitch de la configuración vigente y de las siguientes.
+     */
+    public void setStateChangeListener(StateChangeListener listener) {
+        this.stateChangeListener = listener;
+        state.attach(listener);
+        listener.siteReconfigured();
+    }
+
+    /**
+     * Reemplaza el buffer de decisiones (por ejemplo, para cambiar su tamaño o deshabilitarlo con capacidad 0).
+     */
+    public void setDecisionTrace(DecisionTrace decisionTrace) {
+        this.decisionTrace = decisionTrace;
+    }
+
+    public DecisionTrace getDecisionTrace() {
+        return decisionTrace;
+    }
+
+    /**
+     * Registra el journal que recibe cada lectura aplicada y cada evento de tiempo procesado.
+     */
+    public void setEventJournal(EventJournal eventJournal) {
+        this.eventJournal = eventJournal != null ? eventJournal : EventJournal.NONE;
+    }
+
+    public EventJournal getEventJournal() {
+        return eventJournal;
+    }
+
+    /**
+     * Este es el método principal que define la API de lógica.
+     * Recibe datos del sensor y devuelve las acciones a tomar.
+     * Solo genera operaciones para la habitación que reportó el sensor,
+     * pero puede apagar otras habitaciones que ya no necesitan calefacción.
+     * Cada decisión emite un {@link DecisionEvent} de JFR (sin costo si no hay una grabación activa).
+     */
+    public List<Operation> processSensorData(DataSensor sensorData) {
+        DecisionEvent event = new DecisionEvent();
+        event.begin();
+        SiteState state = this.state;
+
+        // 1. Encontrar la habitación que reporta la temperatura
+        Room reportingRoom = state.findRoomBySensorId(sensorData.getSensorId()).orElse(null);
+
+        // Si el sensorId no corresponde a ninguna habitación, no hacemos nada
+        if (reportingRoom == null) {
+            return new ArrayList<>();
+        }
+
+        // 2. Actualizar el estado interno de la habitación
+        reportingRoom.updateTemperature(sensorData.getTemperature(), sensorData.getTimestamp());
+        eventJournal.reading(sensorData.getSensorId(), sensorData.getTemperature(), sensorData.getTimestamp());
+
+        // 3. Ejecutar la lógica principal de decisión solo para la habitación que reportó
+        List<Operation> operations = calculateOperationsForRoom(state, reportingRoom);
+        event.end();
+        if (event.shouldCommit()) {
+            event.room = reportingRoom.getId();
+            event.sensor = reportingRoom.getSensorId();
+            event.operations = operations.size();
+            event.commit();
+        }
+        return operations;
+    }
+
+    /**
+     * Procesa un lote de lecturas (a lo sumo una por habitación, ya agrupadas) con una sola pasada de
+     * decisión: actualiza las temperaturas y re-planifica juntas las habitaciones que reportaron,
+     * igual que {@link #replanRooms}. Las lecturas de sensores desconocidos se ignoran.
+     */
+    public List<Operation> processSensorBatch(Collection<DataSensor> readings) {
+        SiteState state = this.state;
+        EventJournal journal = this.eventJournal;
+        Set<String> reported = new HashSet<>();
+        for (DataSensor reading : readings) {
+            Room room = state.findRoomBySensorId(reading.getSensorId()).orElse(null);
+            if (room != null) {
+                room.updateTemperature(reading.getTemperature(), reading.getTimestamp());
+                journal.reading(reading.getSensorId(), reading.getTemperature(), reading.getTimestamp());
+                reported.add(room.getSensorId());
+            }
+        }
+        if (reported.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return calculateOperations(state, room -> reported.contains(room.getSensorId()), DecisionTrigger.BATCH);
+    }
+
+    /**
+     * Contiene la lógica principal del controlador para una habitación específica.
+     * Decide qué switches prender o apagar basado en el estado de la habitación reportada
+     * y el límite de energía. También puede apagar otras habitaciones que ya no necesitan calefacción.
+     * La decisión (entradas, habitaciones evaluadas y operaciones) queda en el {@link DecisionTrace}.
+     * 
+     * @param reportingRoom La habitación que reportó el sensor
+     * @return Lista de operaciones a realizar
+     */
+    private List<Operation> calculateOperationsForRoom(SiteState state, Room reportingRoom) {
+        List<Operation> operations = new ArrayList<>();
+        double currentConsumption = state.getCurrentEnergyConsumption();
+
+        // --- PASO 1: APAGAR switches que ya no se necesitan (todas las habitaciones) ---
+        // Iteramos todas las habitaciones para ver si alguna está cálida pero encendida.
+        for (Room room : state.allRooms) {
+            DataSwitch sw = state.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+
+            // Si la habitación NO necesita calefacción Y su switch ESTÁ encendido
+            if (sw != null && !room.needsHeating() && sw.isOn()) {
+                // Generamos la operación de apagado
+                // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                operations.add(new Operation(sw.getSwitchUrl(), "OFF"));
+                // Recuperamos la energía que estaba consumiendo (para el cálculo de energía disponible)
+                currentConsumption -= room.getEnergyConsumption();
+            }
+        }
+
+        // --- PASO 2: ENCENDER o manejar la habitación que reportó el sensor ---
+        
+        // Recalcular energía disponible basándose en el estado actual después del PASO 1
+        double availableEnergy = state.maxEnergy - currentConsumption;
+        // Usar un pequeño epsilon para evitar problemas de precisión de punto flotante
+        final double EPSILON = 0.001;
+        DecisionTrace trace = decisionTrace;
+        long ticket = trace.begin(DecisionTrigger.READING, reportingRoom, availableEnergy, state.maxEnergy);
+
+        DataSwitch swToTurnOn = state.findSwitchByUrl(reportingRoom.getSwitchUrl()).orElse(null);
+        if (swToTurnOn == null) {
+            trace.end(ticket, DecisionOutcome.NO_SWITCH, operations, 0);
+            return operations; // Si no se encuentra el switch, retornar solo las operaciones de apagado
+        }
+
+        double roomEnergy = reportingRoom.getEnergyConsumption();
+
+        // Si la habitación NO necesita calefacción, no hacemos nada más (ya se apagó en PASO 1 si estaba encendida)
+        if (!reportingRoom.needsHeating()) {
+            trace.end(ticket, DecisionOutcome.NOT_NEEDED, operations, 0);
+            return operations;
+        }
+
+        DecisionOutcome outcome = DecisionOutcome.ALREADY_ON;
+        // Si la habitación necesita calefacción y está apagada
+        if (!swToTurnOn.isOn()) {
+            // --- Caso A: Hay energía de sobra. La encendemos.
+            // Usar >= con epsilon para manejar precisión de punto flotante
+            if (roomEnergy <= availableEnergy + EPSILON) {
+                operations.add(new Operation(swToTurnOn.getSwitchUrl(), "ON"));
+                // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                availableEnergy -= roomEnergy;
+                outcome = DecisionOutcome.TURNED_ON;
+
+            // --- Caso B: No hay energía. Vemos si podemos "robar" de otra menos prioritaria.
+            } else {
+                outcome = DecisionOutcome.NO_ENERGY;
+                // Buscamos en las habitaciones ya encendidas si alguna tiene MENOS prioridad (menor déficit) que la que queremos encender.
+                List<Room> runningRooms = state.allRooms.stream()
+                        .filter(room -> state.findSwitchByUrl(room.getSwitchUrl()).map(DataSwitch::isOn).orElse(false))
+                        .sorted(Comparator.comparing(Room::getTemperatureDeficit)) // Ordena de menos prioritaria a más
+                        .collect(Collectors.toList());
+
+                for (Room runningRoom : runningRooms) {
+                    // Comparamos prioridades
+                    if (reportingRoom.getTemperatureDeficit() > runningRoom.getTemperatureDeficit()) {
+                        DataSwitch swToTurnOff = state.findSwitchByUrl(runningRoom.getSwitchUrl()).orElse(null);
+                        if (swToTurnOff == null) continue; // Saltar si no se encuentra el switch
+                        
+                        double freedEnergy = runningRoom.getEnergyConsumption();
+
+                        // Si apagando esta, ¿hay sitio para la nueva?
+                        // Usar >= con epsilon para manejar precisión de punto flotante
+                        if (availableEnergy + freedEnergy >= roomEnergy - EPSILON) {
+                            // ¡Sí! Hacemos el "swap"
+
+                            // 1. Apagar la menos prioritaria
+                            operations.add(new Operation(swToTurnOff.getSwitchUrl(), "OFF"));
+                            // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+
+                            // 2. Encender la más prioritaria
+                            operations.add(new Operation(swToTurnOn.getSwitchUrl(), "ON"));
+                            // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+
+                            // 3. Dejamos de buscar "víctimas" para esta habitación.
+                            trace.candidate(ticket, runningRoom, true);
+                            outcome = DecisionOutcome.SWAPPED;
+                            break;
+                        }
+                    }
+                    trace.candidate(ticket, runningRoom, false);
+                }
+            }
+        }
+        // Si la habitación ya está encendida y necesita calefacción, no hacemos nada más
+
+        trace.end(ticket, outcome, operations, 0);
+        return operations;
+    }
+
+    /**
+     * Contiene la lógica principal del controlador.
+     * Decide qué switches prender o apagar basado en el estado de TODAS las habitaciones
+     * y el límite de energía.
+     * Este método se usa para eventos de tiempo o cuando se necesita optimizar todo el sistema.
+     */
+    private List<Operation> calculateOperations(SiteState state) {
+        return calculateOperations(state, room -> true, DecisionTrigger.TIME_EVENT);
+    }
+
+    /**
+     * Re-planifica solo las habitaciones indicadas (por id de sensor), por ejemplo las que
+     * cambiaron al recargar la configuración del sitio. Solo esas habitaciones pueden
+     * encenderse o apagarse por su propia temperatura; las demás solo se tocan si hay que
+     * liberar energía (swap o consumo por encima del nuevo máximo).
+     */
+    public List<Operation> replanRooms(Collection<String> sensorIds) {
+        SiteState state = this.state;
+        Set<String> affected = Set.copyOf(sensorIds);
+        return calculateOperations(state, room -> affected.contains(room.getSensorId()), DecisionTrigger.REPLAN);
+    }
+
+    /**
+     * Decide para varias habitaciones a la vez. Cada habitación que necesita calefacción deja su
+     * decisión (encendida, swap o sin energía) en el {@link DecisionTrace}.
+     */
+    private List<Operation> calculateOperations(SiteState state, Predicate<Room> candidate, DecisionTrigger trigger) {
+        List<Operation> operations = new ArrayList<>();
+        double currentConsumption = state.getCurrentEnergyConsumption();
+
+        // Lista de habitaciones que están encendidas (para posible "swap" o recorte)
+        List<Room> runningRooms = state.allRooms.stream()
+                .filter(room -> state.findSwitchByUrl(room.getSwitchUrl()).map(DataSwitch::isOn).orElse(false))
+                .sorted(Comparator.comparing(Room::getTemperatureDeficit)) // Ordena de menos prioritaria a más
+                .collect(Collectors.toList());
+
+        // --- PASO 1: APAGAR switches que ya no se necesitan ---
+        // Iteramos todas las habitaciones para ver si alguna está cálida pero encendida.
+        for (Room room : state.allRooms) {
+            if (!candidate.test(room)) continue;
+            DataSwitch sw = state.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+
+            // Si la habitación NO necesita calefacción Y su switch ESTÁ encendido
+            if (sw != null && !room.needsHeating() && sw.isOn()) {
+                // Generamos la operación de apagado
+                // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                operations.add(new Operation(sw.getSwitchUrl(), "OFF"));
+                // Recuperamos la energía que estaba consumiendo (para el cálculo de energía disponible)
+                currentConsumption -= room.getEnergyConsumption();
+                runningRooms.remove(room);
+            }
+        }
+
+        // --- PASO 1b: RECORTAR si el consumo supera el máximo ---
+        // Puede pasar si se bajó la energía máxima al recargar la configuración:
+        // apagamos las habitaciones menos prioritarias hasta volver al límite.
+        final double EPSILON = 0.001;
+        while (currentConsumption > state.maxEnergy + EPSILON && !runningRooms.isEmpty()) {
+            Room roomToShed = runningRooms.remove(0);
+            operations.add(new Operation(roomToShed.getSwitchUrl(), "OFF"));
+            currentConsumption -= roomToShed.getEnergyConsumption();
+        }
+
+        // --- PASO 2: ENCENDER switches prioritarios (si hay energía) ---
+
+        // Recalcular energía disponible basándose en el estado actual después del PASO 1
+        double availableEnergy = state.maxEnergy - currentConsumption;
+
+        // Obtenemos una lista de habitaciones que NECESITAN calefacción y están APAGADAS
+        List<Room> roomsToHeat = state.allRooms.stream()
+                .filter(candidate)
+                .filter(Room::needsHeating)
+                .filter(room -> state.findSwitchByUrl(room.getSwitchUrl()).map(sw -> !sw.isOn()).orElse(false))
+                .sorted(Comparator.comparing(Room::getTemperatureDeficit).reversed()) // Prioriza la MÁS fría
+                .collect(Collectors.toList());
+
+        // Iteramos por la lista de prioridad (de más fría a menos fría)
+        DecisionTrace trace = decisionTrace;
+        for (Room roomToHeat : roomsToHeat) {
+            DataSwitch swToTurnOn = state.findSwitchByUrl(roomToHeat.getSwitchUrl()).orElse(null);
+            if (swToTurnOn == null) continue; // Saltar si no se encuentra el switch
+            
+            double roomEnergy = roomToHeat.getEnergyConsumption();
+            long ticket = trace.begin(trigger, roomToHeat, availableEnergy, state.maxEnergy);
+            int firstOperation = operations.size();
+            DecisionOutcome outcome = DecisionOutcome.NO_ENERGY;
+
+            // --- Caso A: Hay energía de sobra. La encendemos.
+            // Usar >= con epsilon para manejar precisión de punto flotante
+            if (roomEnergy <= availableEnergy + EPSILON) {
+                operations.add(new Operation(swToTurnOn.getSwitchUrl(), "ON"));
+                // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                availableEnergy -= roomEnergy;
+                outcome = DecisionOutcome.TURNED_ON;
+
+                // --- Caso B: No hay energía. Vemos si podemos "robar" de otra menos prioritaria.
+            } else {
+                // (Esto cubre el Test 5: shouldPrioritizeColderRoom...)
+                // Buscamos en las habitaciones ya encendidas (runningRooms)
+                // si alguna tiene MENOS prioridad (menor déficit) que la que queremos encender.
+                for (Room runningRoom : runningRooms) {
+
+                    // Comparamos prioridades
+                    if (roomToHeat.getTemperatureDeficit() > runningRoom.getTemperatureDeficit()) {
+
+                        DataSwitch swToTurnOff = state.findSwitchByUrl(runningRoom.getSwitchUrl()).orElse(null);
+                        if (swToTurnOff == null) continue; // Saltar si no se encuentra el switch
+                        
+                        double freedEnergy = runningRoom.getEnergyConsumption();
+
+                        // Si apagando esta, ¿hay sitio para la nueva?
+                        // Usar >= con epsilon para manejar precisión de punto flotante
+                        if (availableEnergy + freedEnergy >= roomEnergy - EPSILON) {
+                            // ¡Sí! Hacemos el "swap"
+
+                            // 1. Apagar la menos prioritaria
+                            operations.add(new Operation(swToTurnOff.getSwitchUrl(), "OFF"));
+                            // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+
+                            // 2. Encender la más prioritaria
+                            operations.add(new Operation(swToTurnOn.getSwitchUrl(), "ON"));
+                            // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+
+                            // 3. Actualizar energía disponible
+                            availableEnergy = (availableEnergy + freedEnergy) - roomEnergy;
+
+                            // 4. Quitar la habitación que apagamos de la lista de "running"
+                            runningRooms.remove(runningRoom);
+
+                            // 5. Dejamos de buscar "víctimas" para esta habitación.
+                            trace.candidate(ticket, runningRoom, true);
+                            outcome = DecisionOutcome.SWAPPED;
+                            break;
+                        }
+                    }
+                    trace.candidate(ticket, runningRoom, false);
+                }
+            }
+            trace.end(ticket, outcome, operations, firstOperation);
+        }
+
+        return operations;
+    }
+
+    /**
+     * Indica si queda alguna habitación que necesita calefacción, está apagada y entraría en la
+     * energía disponible. Cuando no queda ninguna, el presupuesto de energía está aprovechado.
+     */
+    public boolean hasHeatableRoomWithinBudget() {
+        SiteState state = this.state;
+        final double EPSILON = 0.001;
+        double availableEnergy = state.maxEnergy - state.getCurrentEnergyConsumption();
+        for (Room room : state.allRooms) {
+            DataSwitch sw = state.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+            if (sw != null && !sw.isOn() && room.needsHeating()
+                    && room.getEnergyConsumption() <= availableEnergy + EPSILON) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Métodos de Ayuda (Helpers) ---
+
+    /**
+     * Busca el switch por su URL.
+     */
+    public Optional<DataSwitch> findSwitchByUrl(String switchUrl) {
+        return state.findSwitchByUrl(switchUrl);
+    }
+
+    /**
+     * Busca la habitación que controla un switch (por ejemplo, para ordenar operaciones por prioridad).
+     */
+    public Optional<Room> findRoomBySwitchUrl(String switchUrl) {
+        return Optional.ofNullable(state.roomBySwitchUrl.get(switchUrl));
+    }
+
+    /**
+     * Busca la habitación por el id de su sensor.
+     */
+    public Optional<Room> findRoomBySensorId(String sensorId) {
+        return state.findRoomBySensorId(sensorId);
+    }
+
+    /**
+     * Busca la habitación por su id de configuración o, si no hay ninguna con ese id, por el id de su sensor.
+     */
+    public Optional<Room> findRoomById(String roomId) {
+        Room room = state.roomById.get(roomId);
+        return room != null ? Optional.of(room) : state.findRoomBySensorId(roomId);
+    }
+
+    /**
+     * Habitaciones de la configuración vigente (lista inmutable).
+     */
+    public List<Room> getRooms() {
+        return state.allRooms;
+    }
+
+    /**
+     * Switches de la configuración vigente (lista inmutable).
+     */
+    public List<DataSwitch> getSwitches() {
+        return state.allSwitches;
+    }
+
+    /**
+     * Consumo actual: suma de las habitaciones con el switch encendido.
+     */
+    public double getCurrentEnergyConsumption() {
+        return state.getCurrentEnergyConsumption();
+    }
+
+    public double getMaxEnergy() {
+        return state.maxEnergy;
+    }
+
+    /**
+     * Procesa un evento de tiempo (cambio de tarifa de energía).
+     * Este método se llama automáticamente cuando se detecta un cambio en la tarifa.
+     * 
+     * Cuando la tarifa vuelve a ser económica (HIGH → LOW/VALLE) se hace un re-planificado global
+     * con las últimas temperaturas conocidas, para no esperar a la próxima lectura de cada sensor.
+     * 
+     * @param timeEvent Evento de tiempo que contiene información sobre el cambio de tarifa
+     * @return Lista de operaciones a realizar (apagar switches si la tarifa es HIGH, encender por prioridad al volver a LOW)
+     */
+    public List<Operation> processTimeEvent(TimeEvent timeEvent) {
+        SiteState state = this.state;
+        List<Operation> operations = new ArrayList<>();
+        eventJournal.timeEvent(timeEvent);
+        
+        // Si la tarifa actual es HIGH, apagar todos los switches que estén encendidos
+        // Esto cubre tanto el caso de cambio a HIGH como el caso de que ya esté en HIGH
+        if (timeEvent.getCurrentTariff() == EnergyCost.HIGH) {
+            for (Room room : state.allRooms) {
+                DataSwitch sw = state.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+                if (sw != null && sw.isOn()) {
+                    operations.add(new Operation(sw.getSwitchUrl(), "OFF"));
+                    // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                }
+            }
+        }
+        // Si la tarifa cambió a LOW, re-planificamos todas las habitaciones con la última temperatura conocida
+        // (antes se esperaba al próximo evento de temperatura de cada habitación)
+        else if (timeEvent.isChangeToLow()) {
+            operations.addAll(calculateOperations(state));
+        }
+        
+        return operations;
+    }
+
+    /**
+     * Método legacy para verificar y aplicar política de alto costo.
+     * Ahora se recomienda usar processTimeEvent() que se llama automáticamente.
+     * 
+     * IMPORTANTE: Este método recibe el tiempo como parámetro, NO lo consulta internamente.
+     * Esto cumple con el principio de que el controller no debe consultar el tiempo.
+     * 
+     * @param contract Contrato de energía
+     * @param timestamp Timestamp actual (en milisegundos desde epoch)
+     * @return Lista de operaciones a realizar
+     * @deprecated Usar processTimeEvent() en su lugar
+     */
+    @Deprecated
+    public List<Operation> turnSwitchOffWhenHighCost(String contract, long timestamp){
+        SiteState state = this.state;
+        List<Operation> operations = new ArrayList<>();
+        // Usar energyZone() pasando el tiempo como parámetro (NO currentEnergyZone())
+        EnergyCost.EnergyZone zone = EnergyCost.energyZone(contract, timestamp);
+        if (zone.current() == EnergyCost.HIGH){
+            for (Room room : state.allRooms){
+                DataSwitch sw = state.findSwitchByUrl(room.getSwitchUrl()).orElse(null);
+                if (sw != null && sw.isOn()){
+                    operations.add(new Operation(sw.getSwitchUrl(), "OFF"));
+                    // NO actualizamos el estado interno aquí - se actualizará DESPUÉS de que la operación física se ejecute exitosamente
+                }
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Configuración vigente del sitio con sus índices de búsqueda.
+     * Inmutable: se crea una nueva instancia en cada reconfiguración.
+     */
+    private static final class SiteState {
+        private final double maxEnergy;
+        // Lista de todas las habitaciones para iterar
+        private final List<Room> allRooms;
+        private final List<DataSwitch> allSwitches;
+        // Mapas para búsqueda rápida (eficiencia)
+        private final Map<String, Room> roomBySensorId;
+        private final Map<String, DataSwitch> switchByUrl;
+        private final Map<String, Room> roomBySwitchUrl;
+        private final Map<String, Room> roomById;
+
+        private SiteState(double maxEnergy, List<Room> rooms, List<DataSwitch> switches) {
+            this.maxEnergy = maxEnergy;
+            this.allRooms = List.copyOf(rooms);
+            this.allSwitches = List.copyOf(switches);
+
+            // Creamos mapas para encontrar objetos por su ID/URL rápidamente
+            this.roomBySensorId = rooms.stream()
+                    .collect(Collectors.toMap(Room::getSensorId, Function.identity()));
+
+            this.switchByUrl = switches.stream()
+                    .collect(Collectors.toMap(DataSwitch::getSwitchUrl, Function.identity()));
+
+            this.roomBySwitchUrl = rooms.stream()
+                    .collect(Collectors.toMap(Room::getSwitchUrl, Function.identity(), (first, second) -> first));
+
+            this.roomById = rooms.stream()
+                    .collect(Collectors.toMap(Room::getId, Function.identity(), (first, second) -> first));
+        }
+
+        private void attach(StateChangeListener listener) {
+            allRooms.forEach(room -> room.setChangeListener(listener));
+            allSwitches.forEach(dataSwitch -> dataSwitch.setChangeListener(listener));
+        }
+
+        private double getCurrentEnergyConsumption() {
+            return allRooms.stream()
+                    .filter(room -> findSwitchByUrl(room.getSwitchUrl()).map(DataSwitch::isOn).orElse(false))
+                    .mapToDouble(Room::getEnergyConsumption)
+                    .sum();
+        }
+
+        private Optional<Room> findRoomBySensorId(String sensorId) {
+            return Optional.ofNullable(roomBySensorId.get(sensorId));
+        }
+
+        private Optional<DataSwitch> findSwitchByUrl(String switchUrl) {
+            return Optional.ofNullable(switchByUrl.get(switchUrl));
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.iotest.domain.model;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Informa Costo de la Energía y cuando cambia de uno costo a otro.
+ * <p>
+ * Además del contrato de prueba, resuelve los contratos reales registrados con
+ * {@link #registerContract(TariffCalendar)} (ver tariff-contracts.json).
  */
 public class EnergyCost {
 
@@ -20,16 +27,27 @@ public class EnergyCost {
      */
     public final static int HIGH = 1;
 
+    /**
+     * Tarifa valle - la más económica en contratos de triple horario.
+     * Para la política de control se comporta igual que LOW: solo HIGH bloquea el encendido.
+     */
+    public final static int VALLE = 2;
+
     /**
      * Duración de la Zona para validar.
      * Para testContract: 30 segundos (cambia cada 30 segundos entre HIGH y LOW)
      */
     private final static long ZONE_DURATION = 1000 * 30; // 30 segundos en milisegundos
 
+    /**
+     * Contratos reales compilados, por nombre.
+     */
+    private final static Map<String, TariffCalendar> CONTRACTS = new ConcurrentHashMap<>();
+
     /**
      * Indica el tipo de Tarifa actual. También indica cuando se va a activar una nueva tarifa y cuál va a ser.
      * </p>
-     * Tarifas: 0 -> BAJA (tarifa económica), 1 -> ALTA (tarifa cara)
+     * Tarifas: 0 -> BAJA (tarifa económica), 1 -> ALTA (tarifa cara), 2 -> VALLE (tarifa más económica)
      *
      * @param current Tipo de Tarifa actual
      * @param next    Próxima Tarifa que va a activarse
@@ -58,8 +76,48 @@ public class EnergyCost {
             long nextZoneTS = (base + 1) * ZONE_DURATION;
 
             return new EnergyZone(zone, nextZone, nextZoneTS);
-        } else {
+        }
+
+        TariffCalendar calendar = contract != null ? CONTRACTS.get(contract) : null;
+        if (calendar == null) {
             throw new IllegalArgumentException("Invalid contract value: " + contract);
         }
+        return calendar.energyZone(ts);
+    }
+
+    /**
+     * Registra (o reemplaza) un contrato real para que pueda consultarse por nombre.
+     */
+    public static void registerContract(TariffCalendar calendar) {
+        if (TEST_CONTRACT_30S.equals(calendar.getContract())) {
+            throw new IllegalArgumentException("No se puede redefinir el contrato de prueba " + TEST_CONTRACT_30S);
+        }
+        CONTRACTS.put(calendar.getContract(), calendar);
+    }
+
+    /**
+     * Indica si el contrato puede consultarse con {@link #energyZone(String, long)}.
+     */
+    public static boolean isKnownContract(String contract) {
+        return TEST_CONTRACT_30S.equals(contract) || (contract != null && CONTRACTS.containsKey(contract));
+    }
+
+    /**
+     * Nombres de los contratos reales registrados.
+     */
+    public static Set<String> registeredContracts() {
+        return Set.copyOf(CONTRACTS.keySet());
+    }
+
+    /**
+     * Nombre legible de una tarifa, para logs y respuestas.
+     */
+    public static String tariffName(int tariff) {
+        return switch (tariff) {
+            case LOW -> "LOW";
+            case HIGH -> "HIGH";
+            case VALLE -> "VALLE";
+            default -> "TARIFA_" + tariff;
+        };
     }
 }
@@ -0,0 +1,36 @@
+package com.iotest.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro durable de lo que llevó al estado actual: cada lectura aplicada, cada cambio de tarifa
+ * y cada operación ejecutada sobre un switch, en el orden en que ocurrieron.
+ * <p>
+ * Se invoca en el hilo que procesa el evento, así que las implementaciones no deben bloquear
+ * (nada de fsync por evento). {@link #NONE} no registra nada.
+ */
+public interface EventJournal {
+
+    EventJournal NONE = new EventJournal() {
+        @Override
+        public void reading(String sensorId, double temperature, LocalDateTime timestamp) {
+        }
+
+        @Override
+        public void timeEvent(TimeEvent timeEvent) {
+        }
+
+        @Override
+        public void operation(Operation operation, boolean success) {
+        }
+    };
+
+    /** Lectura aceptada y aplicada a una habitación (timestamp null = ahora). */
+    void reading(String sensorId, double temperature, LocalDateTime timestamp);
+
+    /** Cambio de tarifa procesado por el controlador. */
+    void timeEvent(TimeEvent timeEvent);
+
+    /** Operación enviada a un switch; {@code success} indica si el switch la confirmó. */
+    void operation(Operation operation, boolean success);
+}
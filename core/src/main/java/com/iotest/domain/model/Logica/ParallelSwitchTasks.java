@@ -0,0 +1,73 @@
+package com.iotest.domain.model.Logica;
+
+import com.iotest.domain.model.POJOS.DataSwitch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Ejecuta una tarea sobre todos los switches en paralelo con un plazo, para el arranque: se espera como
+ * máximo {@code deadlineMs} y los switches que no respondieron a tiempo terminan en segundo plano.
+ * Lo usan la aplicación Spring y el motor headless.
+ */
+public final class ParallelSwitchTasks {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSwitchTasks.class);
+
+    private ParallelSwitchTasks() {
+    }
+
+    /**
+     * @param executor   pool de I/O de switches (acota el paralelismo)
+     * @param deadlineMs máximo que se espera a que terminen todas las tareas
+     * @param outcome    participio para el log ("apagados", "validados")
+     * @param task       tarea por switch; devuelve false si falló
+     * @return true si todas las tareas terminaron dentro del plazo
+     */
+    public static boolean runWithDeadline(List<DataSwitch> switches, Executor executor, long deadlineMs,
+                                          String outcome, Predicate<DataSwitch> task) {
+        logger.info("Inicializando {} switches en paralelo (plazo {} ms)...", switches.size(), deadlineMs);
+        long start = System.currentTimeMillis();
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger errorCount = new AtomicInteger();
+
+        CompletableFuture<?>[] futures = switches.stream()
+                .map(dataSwitch -> CompletableFuture.runAsync(() -> {
+                    if (task.test(dataSwitch)) {
+                        successCount.incrementAndGet();
+                    } else {
+                        errorCount.incrementAndGet();
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+
+        try {
+            all.get(deadlineMs, TimeUnit.MILLISECONDS);
+            logger.info("Inicialización completada en {} ms: {} switches {} exitosamente, {} errores",
+                    System.currentTimeMillis() - start, successCount.get(), outcome, errorCount.get());
+            return true;
+        } catch (TimeoutException e) {
+            long pending = Arrays.stream(futures).filter(future -> !future.isDone()).count();
+            logger.warn("⚠️ Plazo de inicialización vencido: {} switches {}, {} errores, {} siguen en segundo plano",
+                    successCount.get(), outcome, errorCount.get(), pending);
+            all.whenComplete((ignored, error) -> logger.info(
+                    "Inicialización en segundo plano completada en {} ms: {} switches {} exitosamente, {} errores",
+                    System.currentTimeMillis() - start, successCount.get(), outcome, errorCount.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error inesperado al inicializar los switches: {}", e.getMessage(), e);
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.iotest.domain.model.Logica;
 
+import com.iotest.jfr.SwitchCallEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +28,7 @@ public String getSwitchStatus(String SwitchURL) throws IOException, InterruptedE
     HttpRequest req = HttpRequest.newBuilder(URI.create(SwitchURL))
             .GET().timeout(Duration.ofSeconds(5)).header("Accept", "application/json").build();
 
-    HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> resp = send(req, SwitchURL, "GET");
     logger.debug("Respuesta GET switch {}: código {}, cuerpo: {}", SwitchURL, resp.statusCode(), resp.body());
     
     if (resp.statusCode() == 200) {  //200 es que vino OK
@@ -42,7 +43,7 @@ public String getSwitchStatus(String SwitchURL) throws IOException, InterruptedE
 
 
 public String postSwitchStatus(String SwitchURL, boolean estadoDeseado) throws IOException, InterruptedException{
-    logger.info("Intentando {} switch en URL: {}", estadoDeseado ? "encender" : "apagar", SwitchURL);
+    logger.debug("Intentando {} switch en URL: {}", estadoDeseado ? "encender" : "apagar", SwitchURL);
     
     // Construir JSON según especificación de la API: {"state": true/false}
     String estadoSwitch = "{\"state\":" + estadoDeseado + "}";
@@ -54,8 +55,8 @@ public String postSwitchStatus(String SwitchURL, boolean estadoDeseado) throws I
             .POST(HttpRequest.BodyPublishers.ofString(estadoSwitch, StandardCharsets.UTF_8))
             .build();
 
-    HttpResponse<String> setResp = http.send(setReq, HttpResponse.BodyHandlers.ofString());
-    logger.info("Respuesta POST switch {}: código {}, cuerpo: {}", SwitchURL, setResp.statusCode(), setResp.body());
+    HttpResponse<String> setResp = send(setReq, SwitchURL, "POST");
+    logger.debug("Respuesta POST switch {}: código {}, cuerpo: {}", SwitchURL, setResp.statusCode(), setResp.body());
     
     // Aceptar códigos de éxito (200-299)
     if (setResp.statusCode() >= 200 && setResp.statusCode() < 300) {
@@ -64,7 +65,7 @@ public String postSwitchStatus(String SwitchURL, boolean estadoDeseado) throws I
             // Esperar un momento para que el switch procese el cambio
             Thread.sleep(100);
             String actualStatus = getSwitchStatus(SwitchURL);
-            logger.info("Estado actual del switch {} después de la operación: {}", SwitchURL, actualStatus);
+            logger.debug("Estado actual del switch {} después de la operación: {}", SwitchURL, actualStatus);
             
             // Verificar que el estado en la respuesta coincide con lo deseado
             // La respuesta del switch devuelve un campo "state" (boolean)
@@ -76,7 +77,7 @@ public String postSwitchStatus(String SwitchURL, boolean estadoDeseado) throws I
                 throw new IOException("El switch no cambió de estado correctamente. Estado deseado: " + estadoDeseado + ", Estado real: " + estadoReal + ". Respuesta: " + actualStatus);
             }
             
-            logger.info("✅ Switch {} {} exitosamente", SwitchURL, estadoDeseado ? "encendido" : "apagado");
+            logger.debug("✅ Switch {} {} exitosamente", SwitchURL, estadoDeseado ? "encendido" : "apagado");
             return ("Respuesta: " + setResp.body());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -91,4 +92,18 @@ public String postSwitchStatus(String SwitchURL, boolean estadoDeseado) throws I
     }
 }
 
+
+// Envía el request y emite un SwitchCallEvent de JFR con la latencia y el código HTTP (0 si no hubo respuesta)
+private HttpResponse<String> send(HttpRequest req, String SwitchURL, String method) throws IOException, InterruptedException {
+    SwitchCallEvent event = SwitchCallEvent.start(SwitchURL, method);
+    int status = 0;
+    try {
+        HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+        status = resp.statusCode();
+        return resp;
+    } finally {
+        event.complete(status);
+    }
+}
+
 }
@@ -0,0 +1,37 @@
+package com.iotest.domain.model.POJOS;
+
+import com.iotest.domain.model.StateChangeListener;
+
+// Representa el estado interno de un switch
+public class DataSwitch {
+    private final String switchUrl;
+    // volatile: lo actualizan los hilos de I/O de switches y lo leen los hilos de decisión
+    private volatile boolean isOn;
+    private volatile StateChangeListener changeListener;
+
+    public DataSwitch(String switchUrl, boolean isOn) {
+        this.switchUrl = switchUrl;
+        this.isOn = isOn;
+    }
+
+    public String getSwitchUrl() {
+        return switchUrl;
+    }
+
+    public boolean isOn() {
+        return isOn;
+    }
+
+    public void setOn(boolean on) {
+        boolean changed = isOn != on;
+        isOn = on;
+        StateChangeListener listener = changeListener;
+        if (changed && listener != null) {
+            listener.switchChanged(this);
+        }
+    }
+
+    public void setChangeListener(StateChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+}
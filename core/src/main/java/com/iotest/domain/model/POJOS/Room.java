@@ -1,7 +1,10 @@
 package com.iotest.domain.model.POJOS;
+import com.iotest.domain.model.StateChangeListener;
+
 import java.time.LocalDateTime;
 
 public class Room {
+    private final String id; // id de site-config.json (null si no se configuró)
     private final String sensorId;
     private final String name;
     private final String switchUrl;
@@ -12,6 +15,7 @@ public class Room {
     private boolean heatingOn;
     private LocalDateTime lastUpdate;
     private final Double temperatureTolerance; //aceptable temperature fluctutation
+    private volatile StateChangeListener changeListener;
 
     // Constructor simplificado para los tests
     public Room(String sensorId, String switchUrl, double desiredTemperature, double powerConsumption) {
@@ -22,6 +26,15 @@ public class Room {
     public Room(String sensorId, String name, String switchUrl, double desiredTemperature,
                 double powerConsumption, Double currentTemperature, boolean heatingOn, 
                 LocalDateTime lastUpdate, Double temperatureTolerance) {
+        this(null, sensorId, name, switchUrl, desiredTemperature, powerConsumption, currentTemperature,
+                heatingOn, lastUpdate, temperatureTolerance);
+    }
+
+    // Constructor completo con el id de configuración
+    public Room(String id, String sensorId, String name, String switchUrl, double desiredTemperature,
+                double powerConsumption, Double currentTemperature, boolean heatingOn,
+                LocalDateTime lastUpdate, Double temperatureTolerance) {
+        this.id = id;
         this.sensorId = sensorId;
         this.name = name;
         this.switchUrl = switchUrl;
@@ -44,6 +57,14 @@ public class Room {
     public void updateTemperature(double temperature, LocalDateTime timestamp) {
         this.currentTemperature = temperature;
         this.lastUpdate = timestamp;
+        StateChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.roomChanged(this);
+        }
+    }
+
+    public void setChangeListener(StateChangeListener changeListener) {
+        this.changeListener = changeListener;
     }
 
     // Calcula el déficit de temperatura (cuánto falta para llegar a la temperatura deseada)
@@ -58,7 +79,7 @@ public class Room {
     public String getSensorId() { return sensorId; }
     public String getName() { return name; }
     public String getSwitchUrl() { return switchUrl; }
-    public String getId() { return sensorId; } // Para retrocompatibilidad
+    public String getId() { return id != null ? id : sensorId; } // Sin id configurado, el del sensor (retrocompatibilidad)
     public double getDesiredTemperature() { return desiredTemperature; }
     public Double getCurrentTemperature() { return currentTemperature; }
     public Double getTemperatureTolerance() { return temperatureTolerance; }
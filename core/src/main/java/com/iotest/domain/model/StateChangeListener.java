@@ -0,0 +1,23 @@
+package com.iotest.domain.model;
+
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+
+/**
+ * Recibe los cambios de estado de habitaciones y switches, para mantener al día vistas derivadas
+ * (por ejemplo el snapshot de estado de la API) sin recalcularlas en cada lectura.
+ * <p>
+ * Se invoca en el hilo que hace el cambio, así que las implementaciones deben ser rápidas
+ * (marcar qué cambió y volver) y seguras entre hilos.
+ */
+public interface StateChangeListener {
+
+    /** Cambió la temperatura de la habitación. */
+    void roomChanged(Room room);
+
+    /** Cambió el estado (encendido/apagado) del switch. */
+    void switchChanged(DataSwitch dataSwitch);
+
+    /** Se reemplazó la configuración del sitio (habitaciones, switches o energía máxima). */
+    void siteReconfigured();
+}
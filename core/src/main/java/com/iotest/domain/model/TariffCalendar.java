@@ -0,0 +1,233 @@
+package com.iotest.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calendario de tarifas de un contrato real por franjas horarias (time-of-use).
+ * <p>
+ * La definición (franjas de día hábil, fin de semana y feriado) se compila a dos arrays
+ * ordenados: instantes de transición (epoch ms) y tarifa vigente desde cada transición.
+ * Las consultas se resuelven por búsqueda binaria sobre esos arrays, sin reservar memoria
+ * más allá del {@link EnergyCost.EnergyZone} devuelto.
+ * <p>
+ * La compilación cubre un horizonte de {@value #HORIZON_DAYS} días alrededor del momento en que
+ * se crea el calendario y no se reemplaza. Una consulta fuera de ese horizonte (una reproducción
+ * de tráfico viejo, un reloj acelerado que ya lo pasó) se resuelve con una ventana aparte de
+ * {@value #DETACHED_DAYS} días alrededor del instante pedido, que se reutiliza mientras las
+ * consultas caigan dentro de ella: intercalar consultas de hoy y de otra época no recompila el
+ * horizonte completo en cada una. Como los instantes se calculan en la zona horaria del contrato,
+ * los cambios de horario de verano quedan resueltos en la compilación.
+ */
+public final class TariffCalendar {
+
+    /**
+     * Días que cubre cada compilación del calendario.
+     */
+    static final int HORIZON_DAYS = 400;
+
+    /**
+     * Días hacia atrás desde el instante consultado que incluye la compilación.
+     */
+    private static final int HORIZON_BACK_DAYS = 7;
+
+    /**
+     * Días que cubre la ventana aparte para consultas fuera del horizonte.
+     */
+    static final int DETACHED_DAYS = 31;
+
+    /**
+     * Días hacia atrás desde el instante consultado que incluye la ventana aparte.
+     */
+    private static final int DETACHED_BACK_DAYS = 1;
+
+    /**
+     * Franja horaria: desde {@code from} (hora local) rige la tarifa {@code level}
+     * hasta la próxima franja.
+     */
+    public record Band(LocalTime from, int level) {
+    }
+
+    /**
+     * Transiciones compiladas: {@code levels[i]} rige desde {@code transitions[i]}
+     * hasta {@code transitions[i + 1]}. Dos tarifas consecutivas nunca son iguales.
+     */
+    private record Compiled(long[] transitions, int[] levels) {
+    }
+
+    private final String contract;
+    private final ZoneId zoneId;
+    private final List<Band> weekdayBands;
+    private final List<Band> weekendBands;
+    private final List<Band> holidayBands;
+    private final Set<LocalDate> holidays;
+
+    private final Compiled compiled;
+
+    /**
+     * Última ventana compilada para una consulta fuera del horizonte; nunca reemplaza a {@link #compiled}.
+     */
+    private volatile Compiled detached;
+
+    public TariffCalendar(String contract, ZoneId zoneId, List<Band> weekdayBands,
+                          List<Band> weekendBands, List<Band> holidayBands, Set<LocalDate> holidays) {
+        if (contract == null || contract.isBlank()) {
+            throw new IllegalArgumentException("El contrato debe tener nombre");
+        }
+        this.contract = contract;
+        this.zoneId = zoneId != null ? zoneId : ZoneId.systemDefault();
+        this.weekdayBands = sortedBands(contract, weekdayBands);
+        this.weekendBands = weekendBands != null && !weekendBands.isEmpty()
+                ? sortedBands(contract, weekendBands) : this.weekdayBands;
+        this.holidayBands = holidayBands != null && !holidayBands.isEmpty()
+                ? sortedBands(contract, holidayBands) : this.weekendBands;
+        this.holidays = holidays != null ? Set.copyOf(holidays) : Set.of();
+
+        Set<Integer> levels = new HashSet<>();
+        this.weekdayBands.forEach(band -> levels.add(band.level()));
+        this.weekendBands.forEach(band -> levels.add(band.level()));
+        this.holidayBands.forEach(band -> levels.add(band.level()));
+        if (levels.size() < 2) {
+            throw new IllegalArgumentException("El contrato " + contract + " debe tener al menos dos tarifas distintas");
+        }
+
+        this.compiled = compile(System.currentTimeMillis(), HORIZON_BACK_DAYS, HORIZON_DAYS);
+    }
+
+    public String getContract() {
+        return contract;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Informa la tarifa vigente en {@code ts} y cuándo y a cuál cambia.
+     *
+     * @param ts milisegundos desde epoch (misma unidad que System.currentTimeMillis())
+     */
+    public EnergyCost.EnergyZone energyZone(long ts) {
+        Compiled c = compiled;
+        if (!covers(c, ts)) {
+            c = detachedWindow(ts);
+        }
+
+        long[] transitions = c.transitions();
+        int found = Arrays.binarySearch(transitions, ts);
+        int index = found >= 0 ? found : -found - 2;
+        return new EnergyCost.EnergyZone(c.levels()[index], c.levels()[index + 1], transitions[index + 1]);
+    }
+
+    /**
+     * Cantidad de transiciones en la compilación actual (para diagnóstico y pruebas).
+     */
+    int compiledTransitions() {
+        return compiled.transitions().length;
+    }
+
+    /**
+     * Ventana para un instante fuera del horizonte: reutiliza la última si lo cubre y, si no,
+     * compila una corta alrededor de {@code ts}. Solo si en esa no hay un cambio de tarifa
+     * posterior (contratos que cambian pocas veces al año) compila el horizonte completo.
+     */
+    private Compiled detachedWindow(long ts) {
+        Compiled c = detached;
+        if (c != null && covers(c, ts)) {
+            return c;
+        }
+        c = compile(ts, DETACHED_BACK_DAYS, DETACHED_DAYS);
+        if (!covers(c, ts)) {
+            c = compile(ts, HORIZON_BACK_DAYS, HORIZON_DAYS);
+            if (!covers(c, ts)) {
+                throw new IllegalStateException("El contrato " + contract
+                        + " no tiene cambios de tarifa en el horizonte de " + ts);
+            }
+        }
+        detached = c;
+        return c;
+    }
+
+    /**
+     * Indica si {@code ts} cae entre la primera y la última transición de la ventana,
+     * es decir, si se conocen su tarifa y la siguiente.
+     */
+    private static boolean covers(Compiled c, long ts) {
+        long[] transitions = c.transitions();
+        return transitions.length > 0 && ts >= transitions[0] && ts < transitions[transitions.length - 1];
+    }
+
+    private Compiled compile(long ts, int backDays, int days) {
+        LocalDate first = ZonedDateTime.ofInstant(Instant.ofEpochMilli(ts), zoneId)
+                .toLocalDate()
+                .minusDays(backDays);
+
+        long[] transitions = new long[days * 4];
+        int[] levels = new int[days * 4];
+        int count = 0;
+
+        for (int day = 0; day < days; day++) {
+            LocalDate date = first.plusDays(day);
+            for (Band band : bandsFor(date)) {
+                // Fusionar franjas consecutivas con la misma tarifa
+                if (count > 0 && levels[count - 1] == band.level()) {
+                    continue;
+                }
+                long start = date.atTime(band.from()).atZone(zoneId).toInstant().toEpochMilli();
+                if (count > 0 && start <= transitions[count - 1]) {
+                    // Franja que desaparece por un cambio de hora: la reemplaza la siguiente
+                    levels[count - 1] = band.level();
+                    if (count > 1 && levels[count - 2] == levels[count - 1]) {
+                        count--;
+                    }
+                    continue;
+                }
+                if (count == transitions.length) {
+                    transitions = Arrays.copyOf(transitions, count * 2);
+                    levels = Arrays.copyOf(levels, count * 2);
+                }
+                transitions[count] = start;
+                levels[count] = band.level();
+                count++;
+            }
+        }
+
+        return new Compiled(Arrays.copyOf(transitions, count), Arrays.copyOf(levels, count));
+    }
+
+    private List<Band> bandsFor(LocalDate date) {
+        if (holidays.contains(date)) {
+            return holidayBands;
+        }
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return weekendBands;
+        }
+        return weekdayBands;
+    }
+
+    private static List<Band> sortedBands(String contract, List<Band> bands) {
+        if (bands == null || bands.isEmpty()) {
+            throw new IllegalArgumentException("El contrato " + contract + " no define franjas horarias");
+        }
+        List<Band> sorted = new ArrayList<>(bands);
+        sorted.sort(Comparator.comparing(Band::from));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).from().equals(sorted.get(i - 1).from())) {
+                throw new IllegalArgumentException("El contrato " + contract + " tiene dos franjas que empiezan a las "
+                        + sorted.get(i).from());
+            }
+        }
+        return List.copyOf(sorted);
+    }
+}
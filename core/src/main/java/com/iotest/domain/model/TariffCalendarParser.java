@@ -0,0 +1,108 @@
+package com.iotest.domain.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lee los contratos de tarifas desde JSON y los compila a {@link TariffCalendar}.
+ * <p>
+ * Formato esperado:
+ * <pre>
+ * {
+ *   "contracts": [
+ *     {
+ *       "name": "uteDobleHorario",
+ *       "timezone": "America/Montevideo",
+ *       "weekday": [ {"from": "00:00", "tariff": "LOW"}, {"from": "18:00", "tariff": "HIGH"}, {"from": "22:00", "tariff": "LOW"} ],
+ *       "weekend": [ {"from": "00:00", "tariff": "LOW"} ],
+ *       "holiday": [ {"from": "00:00", "tariff": "LOW"} ],
+ *       "holidays": ["2026-01-01", "2026-05-01"]
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * "weekend" y "holiday" son opcionales (por defecto se usan las franjas de día hábil y de fin
+ * de semana respectivamente). Las tarifas se indican por nombre (LOW/LLANO, HIGH/PUNTA,
+ * VALLE) o por número.
+ */
+public final class TariffCalendarParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public List<TariffCalendar> parse(InputStream inputStream) throws IOException {
+        JsonNode root = objectMapper.readTree(inputStream);
+        JsonNode contractsNode = root != null ? root.get("contracts") : null;
+
+        List<TariffCalendar> calendars = new ArrayList<>();
+        if (contractsNode == null || !contractsNode.isArray()) {
+            return calendars;
+        }
+
+        for (JsonNode contractNode : contractsNode) {
+            String name = contractNode.get("name").asText();
+            ZoneId zoneId = contractNode.has("timezone")
+                    ? ZoneId.of(contractNode.get("timezone").asText())
+                    : ZoneId.systemDefault();
+
+            Set<LocalDate> holidays = new HashSet<>();
+            if (contractNode.has("holidays")) {
+                for (JsonNode holiday : contractNode.get("holidays")) {
+                    holidays.add(LocalDate.parse(holiday.asText()));
+                }
+            }
+
+            calendars.add(new TariffCalendar(
+                    name,
+                    zoneId,
+                    parseBands(name, contractNode.get("weekday")),
+                    parseBands(name, contractNode.get("weekend")),
+                    parseBands(name, contractNode.get("holiday")),
+                    holidays
+            ));
+        }
+        return calendars;
+    }
+
+    private List<TariffCalendar.Band> parseBands(String contract, JsonNode bandsNode) {
+        List<TariffCalendar.Band> bands = new ArrayList<>();
+        if (bandsNode == null || !bandsNode.isArray()) {
+            return bands;
+        }
+        for (JsonNode bandNode : bandsNode) {
+            if (!bandNode.has("from") || !bandNode.has("tariff")) {
+                throw new IllegalArgumentException("Franja inválida en el contrato " + contract + ": " + bandNode);
+            }
+            bands.add(new TariffCalendar.Band(
+                    LocalTime.parse(bandNode.get("from").asText()),
+                    parseTariff(contract, bandNode.get("tariff"))
+            ));
+        }
+        return bands;
+    }
+
+    static int parseTariff(String contract, JsonNode tariffNode) {
+        if (tariffNode.isInt()) {
+            int level = tariffNode.asInt();
+            if (level != EnergyCost.LOW && level != EnergyCost.HIGH && level != EnergyCost.VALLE) {
+                throw new IllegalArgumentException("Tarifa desconocida en el contrato " + contract + ": " + level);
+            }
+            return level;
+        }
+        return switch (tariffNode.asText().trim().toUpperCase()) {
+            case "LOW", "LLANO" -> EnergyCost.LOW;
+            case "HIGH", "PUNTA" -> EnergyCost.HIGH;
+            case "VALLE" -> EnergyCost.VALLE;
+            default -> throw new IllegalArgumentException("Tarifa desconocida en el contrato " + contract + ": " + tariffNode.asText());
+        };
+    }
+}
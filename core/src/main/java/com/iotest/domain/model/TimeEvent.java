@@ -8,8 +8,8 @@ import java.time.LocalDateTime;
  */
 public class TimeEvent {
     private final String contract;
-    private final int previousTariff; // Tarifa anterior (LOW o HIGH)
-    private final int currentTariff;  // Tarifa actual (LOW o HIGH)
+    private final int previousTariff; // Tarifa anterior (LOW, HIGH o VALLE)
+    private final int currentTariff;  // Tarifa actual (LOW, HIGH o VALLE)
     private final LocalDateTime timestamp;
     private final long nextChangeTimestamp; // Cuándo cambiará la próxima tarifa
 
@@ -43,17 +43,17 @@ public class TimeEvent {
     }
 
     /**
-     * Indica si la tarifa cambió de LOW a HIGH.
+     * Indica si la tarifa cambió de una tarifa económica (LOW o VALLE) a HIGH.
      */
     public boolean isChangeToHigh() {
-        return previousTariff == EnergyCost.LOW && currentTariff == EnergyCost.HIGH;
+        return previousTariff != EnergyCost.HIGH && currentTariff == EnergyCost.HIGH;
     }
 
     /**
-     * Indica si la tarifa cambió de HIGH a LOW.
+     * Indica si la tarifa cambió de HIGH a una tarifa económica (LOW o VALLE).
      */
     public boolean isChangeToLow() {
-        return previousTariff == EnergyCost.HIGH && currentTariff == EnergyCost.LOW;
+        return previousTariff == EnergyCost.HIGH && currentTariff != EnergyCost.HIGH;
     }
 
     /**
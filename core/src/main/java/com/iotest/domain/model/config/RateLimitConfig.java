@@ -0,0 +1,25 @@
+package com.iotest.domain.model.config;
+
+/**
+ * Límites de ingesta del bloque opcional "rateLimit" del site-config.json.
+ * Un valor null deja el de application.yml.
+ */
+public class RateLimitConfig {
+    private final Double perSensorPerSecond;
+    private final Integer perSensorBurst;
+    private final Double globalPerSecond;
+    private final Integer globalBurst;
+
+    public RateLimitConfig(Double perSensorPerSecond, Integer perSensorBurst,
+                           Double globalPerSecond, Integer globalBurst) {
+        this.perSensorPerSecond = perSensorPerSecond;
+        this.perSensorBurst = perSensorBurst;
+        this.globalPerSecond = globalPerSecond;
+        this.globalBurst = globalBurst;
+    }
+
+    public Double getPerSensorPerSecond() { return perSensorPerSecond; }
+    public Integer getPerSensorBurst() { return perSensorBurst; }
+    public Double getGlobalPerSecond() { return globalPerSecond; }
+    public Integer getGlobalBurst() { return globalBurst; }
+}
@@ -0,0 +1,34 @@
+package com.iotest.domain.model.config;
+
+/**
+ * Configuración de una habitación del site-config.json.
+ */
+public class RoomConfig {
+    private final String id;
+    private final String name;
+    private final String sensorTopic;
+    private final String switchUrl;
+    private final double desiredTemperature;
+    private final double temperatureTolerance;
+    private final double powerConsumptionWatts;
+
+    public RoomConfig(String id, String name, String sensorTopic, String switchUrl,
+                    double desiredTemperature, double temperatureTolerance,
+                    double powerConsumptionWatts) {
+        this.id = id;
+        this.name = name;
+        this.sensorTopic = sensorTopic;
+        this.switchUrl = switchUrl;
+        this.desiredTemperature = desiredTemperature;
+        this.temperatureTolerance = temperatureTolerance;
+        this.powerConsumptionWatts = powerConsumptionWatts;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getSensorTopic() { return sensorTopic; }
+    public String getSwitchUrl() { return switchUrl; }
+    public double getDesiredTemperature() { return desiredTemperature; }
+    public double getTemperatureTolerance() { return temperatureTolerance; }
+    public double getPowerConsumptionWatts() { return powerConsumptionWatts; }
+}
@@ -0,0 +1,43 @@
+package com.iotest.domain.model.config;
+
+import java.util.List;
+
+/**
+ * Configuración del sitio leída del site-config.json (energía máxima y habitaciones).
+ */
+public class SiteConfiguration {
+    private final String siteName;
+    private final double maxPowerWatts;
+    private final List<RoomConfig> rooms;
+    private final RateLimitConfig rateLimit;
+
+    public SiteConfiguration(String siteName, double maxPowerWatts, List<RoomConfig> rooms) {
+        this(siteName, maxPowerWatts, rooms, null);
+    }
+
+    public SiteConfiguration(String siteName, double maxPowerWatts, List<RoomConfig> rooms, RateLimitConfig rateLimit) {
+        this.siteName = siteName;
+        this.maxPowerWatts = maxPowerWatts;
+        this.rooms = rooms;
+        this.rateLimit = rateLimit;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public double getMaxPowerWatts() {
+        return maxPowerWatts;
+    }
+
+    public List<RoomConfig> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Límites de ingesta propios del sitio, o null si el archivo no los define.
+     */
+    public RateLimitConfig getRateLimit() {
+        return rateLimit;
+    }
+}
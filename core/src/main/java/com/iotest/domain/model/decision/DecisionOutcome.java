@@ -0,0 +1,19 @@
+package com.iotest.domain.model.decision;
+
+/**
+ * Resultado de la decisión sobre una habitación.
+ */
+public enum DecisionOutcome {
+    /** No necesita calefacción (si estaba encendida, se apaga). */
+    NOT_NEEDED,
+    /** Necesita calefacción y ya estaba encendida. */
+    ALREADY_ON,
+    /** Se enciende con la energía disponible. */
+    TURNED_ON,
+    /** Se enciende apagando otra habitación menos prioritaria ("robo" de energía). */
+    SWAPPED,
+    /** Necesita calefacción pero no hay energía ni una habitación menos prioritaria para apagar. */
+    NO_ENERGY,
+    /** La habitación no tiene switch configurado. */
+    NO_SWITCH
+}
@@ -0,0 +1,42 @@
+package com.iotest.domain.model.decision;
+
+import com.iotest.domain.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Copia de una decisión leída del {@link DecisionTrace}.
+ *
+ * @param sequence          número de decisión (creciente)
+ * @param timestamp         instante de la última lectura de la habitación
+ * @param temperature       temperatura de la habitación al decidir (NaN si no había lectura)
+ * @param availableEnergy   energía disponible al decidir, después de apagar las habitaciones cálidas
+ * @param candidates        habitaciones encendidas evaluadas para ceder su energía (a lo sumo
+ *                          {@link DecisionTrace#MAX_CANDIDATES}; {@code candidatesTotal} es el total)
+ * @param operations        operaciones generadas (a lo sumo {@link DecisionTrace#MAX_OPERATIONS};
+ *                          {@code operationsTotal} es el total)
+ */
+public record DecisionRecord(
+        long sequence,
+        DecisionTrigger trigger,
+        String roomId,
+        String sensorId,
+        LocalDateTime timestamp,
+        double temperature,
+        double desiredTemperature,
+        double roomEnergy,
+        double availableEnergy,
+        double maxEnergy,
+        DecisionOutcome outcome,
+        List<Candidate> candidates,
+        int candidatesTotal,
+        List<Operation> operations,
+        int operationsTotal) {
+
+    /**
+     * Habitación encendida evaluada como "víctima"; {@code chosen} si se apagó para ceder su energía.
+     */
+    public record Candidate(String roomId, double temperatureDeficit, double energy, boolean chosen) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.iotest.domain.model.decision;
+
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.Room;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular de tamaño fijo con las últimas decisiones del TemperatureController: entradas
+ * (temperatura, energía disponible), habitaciones evaluadas para ceder energía y operaciones elegidas.
+ * <p>
+ * Se escribe en el camino caliente sin asignar memoria: todos los arreglos se reservan al crearlo y
+ * cada decisión solo copia primitivos y referencias a objetos que ya existen (Room, Operation,
+ * LocalDateTime). Cada casillero tiene un número de secuencia (seqlock): impar mientras se escribe y
+ * par al terminar. Los lectores copian el casillero y lo descartan si la secuencia cambió en el medio,
+ * así nunca bloquean al escritor. Si más de {@code capacity} decisiones se escriben a la vez, un
+ * casillero puede quedar con datos mezclados; con los tamaños usados esto no ocurre en la práctica.
+ * <p>
+ * Uso: {@link #begin} devuelve un ticket; {@link #candidate} y {@link #end} completan ese casillero.
+ * Con capacidad 0 el buffer está deshabilitado y todas las llamadas son no-ops.
+ */
+public final class DecisionTrace {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int MAX_CANDIDATES = 8;
+    public static final int MAX_OPERATIONS = 8;
+
+    private static final long DISABLED = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLongArray sequences;
+
+    private final DecisionTrigger[] triggers;
+    private final Room[] rooms;
+    private final LocalDateTime[] timestamps;
+    private final double[] temperatures;
+    private final double[] availableEnergies;
+    private final double[] maxEnergies;
+    private final DecisionOutcome[] outcomes;
+
+    private final int[] candidateCounts;
+    private final Room[] candidateRooms;
+    private final double[] candidateDeficits;
+    private final boolean[] candidateChosen;
+
+    private final int[] operationCounts;
+    private final Operation[] operations;
+
+    /**
+     * @param capacity cantidad de decisiones que se conservan (se redondea a potencia de 2; 0 deshabilita)
+     */
+    public DecisionTrace(int capacity) {
+        this.capacity = capacity <= 0 ? 0 : Integer.highestOneBit(Math.max(1, capacity - 1) << 1);
+        this.mask = Math.max(0, this.capacity - 1);
+        int slots = this.capacity;
+        this.sequences = new AtomicLongArray(slots);
+        this.triggers = new DecisionTrigger[slots];
+        this.rooms = new Room[slots];
+        this.timestamps = new LocalDateTime[slots];
+        this.temperatures = new double[slots];
+        this.availableEnergies = new double[slots];
+        this.maxEnergies = new double[slots];
+        this.outcomes = new DecisionOutcome[slots];
+        this.candidateCounts = new int[slots];
+        this.candidateRooms = new Room[slots * MAX_CANDIDATES];
+        this.candidateDeficits = new double[slots * MAX_CANDIDATES];
+        this.candidateChosen = new boolean[slots * MAX_CANDIDATES];
+        this.operationCounts = new int[slots];
+        this.operations = new Operation[slots * MAX_OPERATIONS];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Reserva un casillero para una decisión sobre {@code room}.
+     *
+     * @return el ticket para completar la decisión, o -1 si el buffer está deshabilitado
+     */
+    public long begin(DecisionTrigger trigger, Room room, double availableEnergy, double maxEnergy) {
+        if (capacity == 0) {
+            return DISABLED;
+        }
+        long ticket = next.getAndIncrement();
+        int slot = (int) (ticket & mask);
+        sequences.set(slot, 2 * ticket + 1);
+        // Que las escrituras del casillero no se adelanten a la marca de "escribiendo"
+        VarHandle.releaseFence();
+        Double temperature = room.getCurrentTemperature();
+        triggers[slot] = trigger;
+        rooms[slot] = room;
+        timestamps[slot] = room.getLastUpdate();
+        temperatures[slot] = temperature != null ? temperature : Double.NaN;
+        availableEnergies[slot] = availableEnergy;
+        maxEnergies[slot] = maxEnergy;
+        outcomes[slot] = null;
+        candidateCounts[slot] = 0;
+        operationCounts[slot] = 0;
+        return ticket;
+    }
+
+    /**
+     * Agrega una habitación encendida evaluada para ceder su energía. Pasado {@link #MAX_CANDIDATES}
+     * solo se cuenta, salvo la elegida, que reemplaza a la última guardada.
+     */
+    public void candidate(long ticket, Room room, boolean chosen) {
+        if (ticket < 0) {
+            return;
+        }
+        int slot = (int) (ticket & mask);
+        int count = candidateCounts[slot];
+        int index = count < MAX_CANDIDATES ? count : (chosen ? MAX_CANDIDATES - 1 : -1);
+        if (index >= 0) {
+            int at = slot * MAX_CANDIDATES + index;
+            candidateRooms[at] = room;
+            candidateDeficits[at] = room.getTemperatureDeficit();
+            candidateChosen[at] = chosen;
+        }
+        candidateCounts[slot] = count + 1;
+    }
+
+    /**
+     * Cierra la decisión con su resultado y las operaciones {@code ops[from..]} que generó.
+     */
+    public void end(long ticket, DecisionOutcome outcome, List<Operation> ops, int from) {
+        if (ticket < 0) {
+            return;
+        }
+        int slot = (int) (ticket & mask);
+        int total = Math.max(0, ops.size() - from);
+        int stored = Math.min(total, MAX_OPERATIONS);
+        for (int i = 0; i < stored; i++) {
+            operations[slot * MAX_OPERATIONS + i] = ops.get(from + i);
+        }
+        operationCounts[slot] = total;
+        outcomes[slot] = outcome;
+        // Si otro escritor ya tomó el casillero (dio toda la vuelta), la secuencia queda con la suya
+        sequences.compareAndSet(slot, 2 * ticket + 1, 2 * ticket + 2);
+    }
+
+    /**
+     * Últimas decisiones (de la más reciente a la más vieja) sobre la habitación con id de configuración
+     * {@code roomId}, o de todas si es null.
+     */
+    public List<DecisionRecord> recent(String roomId, int limit) {
+        List<DecisionRecord> result = new ArrayList<>();
+        if (capacity == 0) {
+            return result;
+        }
+        long last = next.get() - 1;
+        long first = Math.max(0, last - capacity + 1);
+        for (long ticket = last; ticket >= first && result.size() < limit; ticket--) {
+            DecisionRecord record = read(ticket);
+            if (record != null && (roomId == null || roomId.equals(record.roomId()))) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    private DecisionRecord read(long ticket) {
+        int slot = (int) (ticket & mask);
+        long expected = 2 * ticket + 2;
+        if (sequences.get(slot) != expected) {
+            return null; // Se está escribiendo o ya se reemplazó
+        }
+        Room room = rooms[slot];
+        DecisionTrigger trigger = triggers[slot];
+        LocalDateTime timestamp = timestamps[slot];
+        double temperature = temperatures[slot];
+        double availableEnergy = availableEnergies[slot];
+        double maxEnergy = maxEnergies[slot];
+        DecisionOutcome outcome = outcomes[slot];
+        int candidatesTotal = candidateCounts[slot];
+        List<DecisionRecord.Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < Math.min(candidatesTotal, MAX_CANDIDATES); i++) {
+            int at = slot * MAX_CANDIDATES + i;
+            Room candidate = candidateRooms[at];
+            candidates.add(new DecisionRecord.Candidate(candidate != null ? candidate.getId() : null,
+                    candidateDeficits[at], candidate != null ? candidate.getEnergyConsumption() : 0,
+                    candidateChosen[at]));
+        }
+        int operationsTotal = operationCounts[slot];
+        List<Operation> ops = new ArrayList<>();
+        for (int i = 0; i < Math.min(operationsTotal, MAX_OPERATIONS); i++) {
+            ops.add(operations[slot * MAX_OPERATIONS + i]);
+        }
+        // Que las lecturas del casillero no se atrasen a la verificación de la secuencia
+        VarHandle.acquireFence();
+        if (sequences.get(slot) != expected || room == null) {
+            return null;
+        }
+        return new DecisionRecord(ticket, trigger, room.getId(), room.getSensorId(), timestamp, temperature,
+                room.getDesiredTemperature(), room.getEnergyConsumption(), availableEnergy, maxEnergy, outcome,
+                candidates, candidatesTotal, ops, operationsTotal);
+    }
+}
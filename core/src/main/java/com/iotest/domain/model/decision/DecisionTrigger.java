@@ -0,0 +1,15 @@
+package com.iotest.domain.model.decision;
+
+/**
+ * Qué originó una decisión del TemperatureController.
+ */
+public enum DecisionTrigger {
+    /** Lectura de un sensor (processSensorData). */
+    READING,
+    /** Lote de lecturas (processSensorBatch). */
+    BATCH,
+    /** Re-planificado tras recargar la configuración (replanRooms). */
+    REPLAN,
+    /** Cambio de tarifa (processTimeEvent). */
+    TIME_EVENT
+}
@@ -0,0 +1,149 @@
+package com.iotest.domain.model.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotest.domain.model.POJOS.DataSensor;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Decodifica los mensajes JSON de los sensores (formato propio o del simulador Shelly) a {@link DataSensor}.
+ * No depende de Spring ni de MQTT: lo usan tanto el suscriptor de la aplicación como el motor headless.
+ */
+public class SensorMessageDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public SensorMessageDecoder() {
+        this(new ObjectMapper());
+    }
+
+    public SensorMessageDecoder(ObjectMapper objectMapper) {
+        this(objectMapper, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param clock reloj con el que se fecha un mensaje que no trae timestamp
+     */
+    public SensorMessageDecoder(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Decodifica un mensaje recibido en un tópico.
+     *
+     * @param topic            tópico en el que llegó el mensaje
+     * @param payload          cuerpo JSON del mensaje
+     * @param configuredTopics tópicos configurados, para resolver el sensor_id cuando no viene en el JSON
+     * @throws IOException              si el cuerpo no es JSON válido
+     * @throws IllegalArgumentException si el mensaje no trae temperatura
+     */
+    public DataSensor decode(String topic, byte[] payload, List<String> configuredTopics) throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(payload);
+
+        // Extraer información del mensaje
+        // El formato puede variar, pero intentamos extraer:
+        // - sensor_id (del tópico o del JSON)
+        // - temperature
+        // - timestamp (o usar el actual si no está)
+        String sensorId = extractSensorId(topic, jsonNode, configuredTopics);
+        double temperature = extractTemperature(jsonNode);
+        LocalDateTime timestamp = extractTimestamp(jsonNode);
+        return new DataSensor(sensorId, temperature, timestamp);
+    }
+
+    /**
+     * Extrae el sensor_id del tópico o del JSON.
+     * Formato esperado del tópico: "mqtt:topic1" o "home/sensors/living_room/temperature"
+     *
+     * Prioridad:
+     * 1. Campo en el JSON (sensor_id, sensorId, sensor)
+     * 2. Buscar en los tópicos configurados para mapear tópico -> sensor_id
+     * 3. Usar el tópico como sensor_id
+     */
+    private String extractSensorId(String topic, JsonNode jsonNode, List<String> configuredTopics) {
+        // Primero intentar desde el JSON
+        if (jsonNode.has("sensor_id")) {
+            return jsonNode.get("sensor_id").asText();
+        }
+        if (jsonNode.has("sensorId")) {
+            return jsonNode.get("sensorId").asText();
+        }
+        if (jsonNode.has("sensor")) {
+            return jsonNode.get("sensor").asText();
+        }
+
+        // Si no está en el JSON, buscar en los tópicos configurados
+        // Los tópicos configurados pueden venir como "mqtt:" o como paths
+        for (String configuredTopic : configuredTopics) {
+            if (topic.equals(configuredTopic) || topic.endsWith(configuredTopic)) {
+                return configuredTopic;
+            }
+        }
+
+        // Si no está en los tópicos configurados, usar el tópico completo como sensor_id
+        // Formato: "mqtt:topic1" o "home/sensors/living_room/temperature"
+        return topic;
+    }
+
+    /**
+     * Extrae la temperatura del JSON.
+     */
+    private double extractTemperature(JsonNode jsonNode) {
+        if (jsonNode.has("temperature")) {
+            return jsonNode.get("temperature").asDouble();
+        }
+        if (jsonNode.has("temp")) {
+            return jsonNode.get("temp").asDouble();
+        }
+        if (jsonNode.has("value")) {
+            return jsonNode.get("value").asDouble();
+        }
+        // Mensajes del simulador Shelly: params -> "temperature:0" -> tC
+        JsonNode paramsNode = jsonNode.get("params");
+        if (paramsNode != null) {
+            JsonNode shellyTemp = paramsNode.get("temperature:0");
+            if (shellyTemp != null && shellyTemp.has("tC")) {
+                return shellyTemp.get("tC").asDouble();
+            }
+            // Algunos mensajes usan "temperature" directo dentro de params
+            if (paramsNode.has("temperature") && paramsNode.get("temperature").has("tC")) {
+                return paramsNode.get("temperature").get("tC").asDouble();
+            }
+        }
+        throw new IllegalArgumentException("No se encontró campo de temperatura en el mensaje");
+    }
+
+    /**
+     * Extrae el timestamp del JSON o usa el actual.
+     */
+    private LocalDateTime extractTimestamp(JsonNode jsonNode) {
+        if (jsonNode.has("time_stamp")) {
+            return LocalDateTime.parse(jsonNode.get("time_stamp").asText());
+        }
+        if (jsonNode.has("timestamp")) {
+            return LocalDateTime.parse(jsonNode.get("timestamp").asText());
+        }
+        if (jsonNode.has("time")) {
+            return LocalDateTime.parse(jsonNode.get("time").asText());
+        }
+        // Mensajes del simulador Shelly: timestamp en segundos (double) dentro de params.ts o ts
+        JsonNode paramsNode = jsonNode.get("params");
+        if (paramsNode != null && paramsNode.has("ts")) {
+            double epochSeconds = paramsNode.get("ts").asDouble();
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond((long) epochSeconds), clock.getZone());
+        }
+        if (jsonNode.has("ts")) {
+            double epochSeconds = jsonNode.get("ts").asDouble();
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond((long) epochSeconds), clock.getZone());
+        }
+        // Usar timestamp actual si no está presente
+        return LocalDateTime.now(clock);
+    }
+}
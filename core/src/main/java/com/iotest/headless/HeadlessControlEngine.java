@@ -0,0 +1,325 @@
+package com.iotest.headless;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.Logica.ParallelSwitchTasks;
+import com.iotest.domain.model.Logica.SwitchController;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.TariffCalendar;
+import com.iotest.domain.model.TariffCalendarParser;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.config.RoomConfig;
+import com.iotest.domain.model.config.SiteConfigParser;
+import com.iotest.domain.model.config.SiteConfiguration;
+import com.iotest.domain.model.ingest.SensorMessageDecoder;
+import com.iotest.infrastructure.config.WarpClock;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de control sin Spring ni contenedor de servlets, para gateways con poca memoria.
+ * <p>
+ * Usa el mismo núcleo que la aplicación Spring ({@link TemperatureController}, {@link EnergyCost},
+ * {@link SensorMessageDecoder} y {@link SwitchController}): se suscribe a los tópicos de los sensores,
+ * decide y ejecuta las operaciones sobre los switches, y revisa la tarifa en un único hilo programado.
+ * No expone API REST; el estado se ve en el log.
+ * <p>
+ * Al arrancar apaga los switches en paralelo, igual que la aplicación Spring ({@link ParallelSwitchTasks}):
+ * a lo sumo {@code switch-io.parallelism} a la vez, esperando como máximo {@code switch-io.startup-deadline-ms};
+ * los que no respondieron a tiempo terminan en segundo plano.
+ * <p>
+ * La hora sale del {@link Clock} recibido, como en la aplicación Spring: con {@code clock.warp} y
+ * {@code clock.start} la tarifa vigente y el intervalo del monitor son de tiempo virtual.
+ * <p>
+ * Uso: {@code java -jar temperature-control-core-1.0.0-SNAPSHOT-headless.jar [site-config.json]} con las
+ * propiedades de sistema {@code mqtt.broker}, {@code energy-contract}, {@code tariff-contracts-file},
+ * {@code check-interval-seconds}, {@code switch-io.parallelism}, {@code switch-io.startup-deadline-ms},
+ * {@code clock.warp} y {@code clock.start} (o las variables de entorno {@code MQTT_BROKER}, {@code ENERGY_CONTRACT},
+ * {@code CONFIG_PATH}, {@code TARIFF_CONTRACTS_PATH}, {@code SWITCH_IO_PARALLELISM},
+ * {@code SWITCH_IO_STARTUP_DEADLINE_MS}, {@code CLOCK_WARP} y {@code CLOCK_START}).
+ */
+public class HeadlessControlEngine implements MqttCallbackExtended, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeadlessControlEngine.class);
+
+    private final TemperatureController temperatureController;
+    private final ISwitchController switchController;
+    private final String contract;
+    private final List<String> topics;
+    private final long startupDeadlineMs;
+    private final Clock clock;
+    private final SensorMessageDecoder decoder = new SensorMessageDecoder();
+    private final ExecutorService switchIoExecutor;
+    private final ScheduledExecutorService tariffMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "headless-tariff-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private MqttClient mqttClient;
+    private Integer lastKnownTariff;
+
+    public HeadlessControlEngine(TemperatureController temperatureController, ISwitchController switchController,
+                                 String contract, List<String> topics, int switchParallelism, long startupDeadlineMs,
+                                 Clock clock) {
+        this.temperatureController = temperatureController;
+        this.switchController = switchController;
+        this.contract = contract;
+        this.topics = List.copyOf(topics);
+        this.startupDeadlineMs = Math.max(0, startupDeadlineMs);
+        this.clock = clock;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.switchIoExecutor = Executors.newFixedThreadPool(Math.max(1, switchParallelism), runnable -> {
+            Thread thread = new Thread(runnable, "headless-switch-io-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : setting("config-file", "CONFIG_PATH", "site-config.json");
+        String contractsFile = setting("tariff-contracts-file", "TARIFF_CONTRACTS_PATH", "tariff-contracts.json");
+        String broker = setting("mqtt.broker", "MQTT_BROKER", "tcp://localhost:1883");
+        String contract = setting("energy-contract", "ENERGY_CONTRACT", EnergyCost.TEST_CONTRACT_30S);
+        long checkIntervalSeconds = Long.parseLong(setting("check-interval-seconds", "CHECK_INTERVAL_SECONDS", "5"));
+        int switchParallelism = Integer.parseInt(setting("switch-io.parallelism", "SWITCH_IO_PARALLELISM", "16"));
+        long startupDeadlineMs = Long.parseLong(
+                setting("switch-io.startup-deadline-ms", "SWITCH_IO_STARTUP_DEADLINE_MS", "5000"));
+        double warp = Double.parseDouble(setting("clock.warp", "CLOCK_WARP", "1"));
+        Clock clock = WarpClock.of(warp, setting("clock.start", "CLOCK_START", ""));
+
+        registerContracts(contractsFile);
+
+        SiteConfigParser parser = new SiteConfigParser();
+        SiteConfiguration configuration;
+        try (InputStream inputStream = Files.newInputStream(Path.of(configFile))) {
+            configuration = parser.parse(inputStream);
+        }
+        TemperatureController controller = new TemperatureController(configuration.getMaxPowerWatts() / 1000.0,
+                parser.toRooms(configuration), parser.toSwitches(configuration));
+        List<String> topics = configuration.getRooms().stream()
+                .map(RoomConfig::getSensorTopic)
+                .collect(Collectors.toList());
+
+        HeadlessControlEngine engine = new HeadlessControlEngine(controller, new SwitchController(), contract, topics,
+                switchParallelism, startupDeadlineMs, clock);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            engine.close();
+            stopped.countDown();
+        }, "headless-shutdown"));
+
+        engine.start(broker, "temp-controller-headless", checkIntervalSeconds);
+        logger.info("Motor headless iniciado: sitio {}, {} habitaciones, contrato {}, broker {}, reloj {}",
+                configuration.getSiteName(), configuration.getRooms().size(), contract, broker, clock);
+        stopped.await();
+    }
+
+    /**
+     * Apaga todos los switches, se conecta al broker y arranca el monitor de tarifa.
+     * Si el broker no está disponible, Paho sigue reintentando la conexión en segundo plano.
+     */
+    public void start(String brokerUrl, String clientId, long checkIntervalSeconds) throws MqttException {
+        initializeSwitches();
+
+        // El intervalo es de tiempo virtual: con clock.warp la espera real se acorta en la misma proporción
+        long checkIntervalMs = WarpClock.realDelayMillis(clock, Math.max(1, checkIntervalSeconds) * 1000);
+        tariffMonitor.scheduleWithFixedDelay(this::checkTariff, 0, Math.max(1, checkIntervalMs), TimeUnit.MILLISECONDS);
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(30);
+        options.setKeepAliveInterval(60);
+        mqttClient = new MqttClient(brokerUrl, clientId + "-" + System.currentTimeMillis(), new MemoryPersistence());
+        mqttClient.setCallback(this);
+        connect(options);
+    }
+
+    /**
+     * Paho reconecta automáticamente solo después de una primera conexión exitosa; hasta entonces se reintenta
+     * cada 5 segundos en el hilo del monitor.
+     */
+    private void connect(MqttConnectOptions options) {
+        try {
+            mqttClient.connect(options);
+        } catch (MqttException e) {
+            logger.warn("No se pudo conectar con el broker MQTT: {}. Nuevo intento en 5s...", e.getMessage());
+            if (!tariffMonitor.isShutdown()) {
+                tariffMonitor.schedule(() -> connect(options), 5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Apaga todos los switches en paralelo y espera como máximo {@code startupDeadlineMs}.
+     *
+     * @return true si todos respondieron dentro del plazo
+     */
+    public boolean initializeSwitches() {
+        return ParallelSwitchTasks.runWithDeadline(temperatureController.getSwitches(), switchIoExecutor,
+                startupDeadlineMs, "apagados", this::turnOff);
+    }
+
+    @Override
+    public void close() {
+        tariffMonitor.shutdownNow();
+        switchIoExecutor.shutdownNow();
+        if (mqttClient != null) {
+            try {
+                if (mqttClient.isConnected()) {
+                    mqttClient.disconnect();
+                }
+                mqttClient.close();
+            } catch (MqttException e) {
+                logger.warn("Error al cerrar el cliente MQTT: {}", e.getMessage());
+            }
+        }
+        logger.info("Motor headless detenido");
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        try {
+            for (String topic : topics) {
+                mqttClient.subscribe(topic, 1); // QoS 1
+            }
+            logger.info("{} a {}: suscrito a {} tópicos", reconnect ? "Reconectado" : "Conectado", serverURI, topics.size());
+        } catch (MqttException e) {
+            logger.error("Error al suscribirse a los tópicos: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        logger.warn("Conexión MQTT perdida: {}", cause.getMessage());
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) {
+        try {
+            onReading(decoder.decode(topic, message.getPayload(), topics));
+        } catch (Exception e) {
+            logger.error("Error al procesar mensaje MQTT del tópico {}: {}", topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // Solo se suscribe, no publica
+    }
+
+    /**
+     * Decide y ejecuta las operaciones para una lectura. En tarifa HIGH solo se ejecutan los apagados.
+     */
+    public synchronized void onReading(DataSensor reading) {
+        List<Operation> operations = temperatureController.processSensorData(reading);
+        if (EnergyCost.energyZone(contract, clock.millis()).current() == EnergyCost.HIGH) {
+            operations = operations.stream()
+                    .filter(op -> "OFF".equals(op.getAction()))
+                    .collect(Collectors.toList());
+        }
+        operations.forEach(this::execute);
+    }
+
+    /**
+     * Detecta cambios de tarifa y ejecuta las operaciones del evento de tiempo correspondiente.
+     */
+    synchronized void checkTariff() {
+        try {
+            long now = clock.millis();
+            EnergyCost.EnergyZone zone = EnergyCost.energyZone(contract, now);
+            // En el primer chequeo se simula LOW → HIGH si ya arrancamos en HIGH, para apagar todo
+            int previous = lastKnownTariff != null ? lastKnownTariff
+                    : zone.current() == EnergyCost.HIGH ? EnergyCost.LOW : zone.current();
+            lastKnownTariff = zone.current();
+            if (previous == zone.current()) {
+                return;
+            }
+            logger.info("Cambio de tarifa: {} → {}", EnergyCost.tariffName(previous), EnergyCost.tariffName(zone.current()));
+            TimeEvent timeEvent = new TimeEvent(contract, previous, zone.current(),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone()), zone.nextTS());
+            temperatureController.processTimeEvent(timeEvent).forEach(this::execute);
+        } catch (Exception e) {
+            logger.error("Error al verificar la tarifa: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ejecuta una operación y actualiza el estado interno solo si el switch respondió.
+     */
+    private void execute(Operation operation) {
+        boolean desiredState = "ON".equals(operation.getAction());
+        try {
+            switchController.postSwitchStatus(operation.getSwitchUrl(), desiredState);
+            temperatureController.findSwitchByUrl(operation.getSwitchUrl()).ifPresent(s -> s.setOn(desiredState));
+        } catch (IOException e) {
+            logger.warn("Error al ejecutar {} en {}: {}", operation.getAction(), operation.getSwitchUrl(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean turnOff(DataSwitch dataSwitch) {
+        try {
+            switchController.postSwitchStatus(dataSwitch.getSwitchUrl(), false);
+            dataSwitch.setOn(false);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Error al apagar {}: {}", dataSwitch.getSwitchUrl(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Registra en {@link EnergyCost} los contratos del archivo indicado (si no existe, solo queda el de prueba).
+     */
+    public static void registerContracts(String contractsFile) throws IOException {
+        Path path = Path.of(contractsFile);
+        if (!Files.exists(path)) {
+            logger.warn("No se encontró el archivo de contratos de tarifas en '{}'. Solo estará disponible {}.",
+                    contractsFile, EnergyCost.TEST_CONTRACT_30S);
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            List<TariffCalendar> calendars = new TariffCalendarParser().parse(inputStream);
+            calendars.forEach(EnergyCost::registerContract);
+        }
+    }
+
+    private static String setting(String property, String environmentVariable, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            value = System.getenv(environmentVariable);
+        }
+        return value != null ? value : defaultValue;
+    }
+}
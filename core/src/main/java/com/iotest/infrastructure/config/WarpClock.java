@@ -0,0 +1,119 @@
+package com.iotest.infrastructure.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reloj acelerado para correr el servicio al ritmo del simulador ({@code clock.warp}).
+ * <p>
+ * Parte de una hora virtual de inicio y avanza {@code factor} milisegundos virtuales por cada
+ * milisegundo real del reloj base: con factor 100, un día de tarifas pasa en unos 15 minutos. Todo lo
+ * que espera una cantidad de tiempo virtual (sleeps, tareas programadas) debe convertirla con
+ * {@link #realDelayMillis(Clock, long)}; con un reloj normal la conversión no cambia nada.
+ * <p>
+ * Está en el núcleo para que la aplicación Spring ({@code ClockConfig}) y el motor headless armen el
+ * reloj de la misma forma a partir de {@code clock.warp} y {@code clock.start}.
+ */
+public class WarpClock extends Clock {
+
+    private final Clock base;
+    private final long realStartMillis;
+    private final long virtualStartMillis;
+    private final double factor;
+
+    public WarpClock(Clock base, long virtualStartMillis, double factor) {
+        this(base, base.millis(), virtualStartMillis, factor);
+    }
+
+    private WarpClock(Clock base, long realStartMillis, long virtualStartMillis, double factor) {
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("El factor de aceleración debe ser positivo: " + factor);
+        }
+        this.base = base;
+        this.realStartMillis = realStartMillis;
+        this.virtualStartMillis = virtualStartMillis;
+        this.factor = factor;
+    }
+
+    /**
+     * Reloj del sistema si {@code warp} es 1 y no hay {@code start}; si no, un {@link WarpClock} que arranca
+     * en {@code start} (o en la hora actual si está vacío).
+     */
+    public static Clock of(double warp, String start) {
+        Clock system = Clock.systemDefaultZone();
+        if (warp == 1 && (start == null || start.isBlank())) {
+            return system;
+        }
+        long startMillis = start == null || start.isBlank() ? system.millis() : parseStart(start, system.getZone());
+        return new WarpClock(system, startMillis, warp);
+    }
+
+    /**
+     * Acepta un instante ISO-8601 ({@code 2024-05-01T06:00:00Z}) o una fecha y hora local
+     * ({@code 2024-05-01T06:00:00}) en la zona del sistema.
+     */
+    public static long parseStart(String start, ZoneId zone) {
+        try {
+            return Instant.parse(start).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(start).atZone(zone).toInstant().toEpochMilli();
+            } catch (DateTimeParseException invalid) {
+                throw new IllegalArgumentException("clock.start no es una fecha válida: " + start, invalid);
+            }
+        }
+    }
+
+    public double getFactor() {
+        return factor;
+    }
+
+    /**
+     * Milisegundos reales que hay que esperar para que pasen {@code virtualMillis} en este reloj.
+     */
+    public long toRealMillis(long virtualMillis) {
+        if (virtualMillis <= 0) {
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil(virtualMillis / factor));
+    }
+
+    /**
+     * Espera real equivalente a {@code virtualMillis} en {@code clock}: se divide por el factor si es
+     * un {@link WarpClock} y queda igual con cualquier otro reloj.
+     */
+    public static long realDelayMillis(Clock clock, long virtualMillis) {
+        if (clock instanceof WarpClock warp) {
+            return warp.toRealMillis(virtualMillis);
+        }
+        return Math.max(0, virtualMillis);
+    }
+
+    @Override
+    public long millis() {
+        return virtualStartMillis + (long) ((base.millis() - realStartMillis) * factor);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return base.getZone();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new WarpClock(base.withZone(zone), realStartMillis, virtualStartMillis, factor);
+    }
+
+    @Override
+    public String toString() {
+        return "WarpClock[x" + factor + ", " + getZone() + "]";
+    }
+}
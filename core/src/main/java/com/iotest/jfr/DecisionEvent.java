@@ -0,0 +1,31 @@
+package com.iotest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una decisión de {@code TemperatureController.processSensorData}: la habitación, el
+ * sensor y cuántas operaciones se generaron. La duración es la de la decisión completa.
+ * <p>
+ * Con JFR apagado (o el evento deshabilitado) solo queda la creación del objeto, que el JIT elimina.
+ */
+@Name("com.iotest.Decision")
+@Label("Decisión de control")
+@Category({"Temperature Control"})
+@Description("Decisión del TemperatureController ante una lectura de sensor")
+@StackTrace(false)
+public class DecisionEvent extends Event {
+
+    @Label("Habitación")
+    public String room;
+
+    @Label("Sensor")
+    public String sensor;
+
+    @Label("Operaciones")
+    public int operations;
+}
@@ -0,0 +1,51 @@
+package com.iotest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una llamada HTTP a un switch. La duración es la latencia del request; {@code status}
+ * es el código HTTP, o 0 si no hubo respuesta (timeout, conexión rechazada, interrupción).
+ */
+@Name("com.iotest.SwitchCall")
+@Label("Llamada a switch")
+@Category({"Temperature Control"})
+@Description("Request HTTP GET o POST a un switch")
+@StackTrace(false)
+public class SwitchCallEvent extends Event {
+
+    @Label("URL")
+    public String url;
+
+    @Label("Método")
+    public String method;
+
+    @Label("Código HTTP")
+    public int status;
+
+    /**
+     * Crea el evento y empieza a medir.
+     */
+    public static SwitchCallEvent start(String url, String method) {
+        SwitchCallEvent event = new SwitchCallEvent();
+        event.begin();
+        event.url = url;
+        event.method = method;
+        return event;
+    }
+
+    /**
+     * Termina la medición y registra el evento si está habilitado y supera el umbral.
+     */
+    public void complete(int status) {
+        end();
+        if (shouldCommit()) {
+            this.status = status;
+            commit();
+        }
+    }
+}
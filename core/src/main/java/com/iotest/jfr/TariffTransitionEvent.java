@@ -0,0 +1,36 @@
+package com.iotest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de un cambio de tarifa detectado por el monitor de energía. La duración va desde que se
+ * detecta el cambio hasta que termina la última ola de operaciones.
+ */
+@Name("com.iotest.TariffTransition")
+@Label("Cambio de tarifa")
+@Category({"Temperature Control"})
+@Description("Cambio de tarifa de energía y operaciones que generó")
+@StackTrace(false)
+public class TariffTransitionEvent extends Event {
+
+    @Label("Contrato")
+    public String contract;
+
+    @Label("Tarifa anterior")
+    public String from;
+
+    @Label("Tarifa nueva")
+    public String to;
+
+    @Label("Operaciones")
+    public int operations;
+
+    @Label("Programado")
+    @Description("El cambio ya estaba programado en el scheduler de transiciones antes del límite")
+    public boolean staged;
+}
@@ -0,0 +1,49 @@
+package com.iotest.replay;
+
+import java.util.Locale;
+
+/**
+ * Un evento de un tráfico capturado: una lectura de sensor o un cambio de tarifa.
+ * <p>
+ * Se guarda como una línea NDJSON, con el mismo formato que el volcado del journal de eventos
+ * (así un journal volcado también se puede reproducir):
+ * <pre>
+ * {"type":"reading","timestamp":1705312800000,"sensor_id":"mqtt:topic1","temperature":19.5}
+ * {"type":"time_event","timestamp":1705312830000,"contract":"testContract","previous_tariff":0,"current_tariff":1}
+ * </pre>
+ *
+ * @param timestamp epoch ms
+ */
+public record CaptureEvent(Type type, long timestamp, String sensorId, double temperature,
+                           String contract, int previousTariff, int currentTariff) {
+
+    public enum Type {
+        READING, TIME_EVENT
+    }
+
+    public static CaptureEvent reading(long timestamp, String sensorId, double temperature) {
+        return new CaptureEvent(Type.READING, timestamp, sensorId, temperature, null, -1, -1);
+    }
+
+    public static CaptureEvent timeEvent(long timestamp, String contract, int previousTariff, int currentTariff) {
+        return new CaptureEvent(Type.TIME_EVENT, timestamp, null, Double.NaN, contract, previousTariff, currentTariff);
+    }
+
+    /**
+     * La línea NDJSON del evento (sin el salto de línea).
+     */
+    public String toJson() {
+        return switch (type) {
+            case READING -> String.format(Locale.US,
+                    "{\"type\":\"reading\",\"timestamp\":%d,\"sensor_id\":\"%s\",\"temperature\":%s}",
+                    timestamp, escape(sensorId), temperature);
+            case TIME_EVENT -> String.format(Locale.US,
+                    "{\"type\":\"time_event\",\"timestamp\":%d,\"contract\":\"%s\",\"previous_tariff\":%d,\"current_tariff\":%d}",
+                    timestamp, escape(contract), previousTariff, currentTariff);
+        };
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,98 @@
+package com.iotest.replay;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee un tráfico capturado en NDJSON ({@link CaptureEvent}) de a un evento, con el parser de streaming
+ * de Jackson y sin armar un árbol por línea. Las líneas de otros tipos (por ejemplo las operaciones de
+ * un journal volcado) se saltean.
+ */
+public class CaptureReader implements Iterator<CaptureEvent>, Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonParser parser;
+    private CaptureEvent next;
+
+    public CaptureReader(InputStream inputStream) throws IOException {
+        this.parser = JSON.createParser(inputStream);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Captura inválida cerca de la línea "
+                        + parser.getCurrentLocation().getLineNr(), e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public CaptureEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CaptureEvent event = next;
+        next = null;
+        return event;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private CaptureEvent readNext() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Se esperaba un objeto JSON");
+            }
+            String type = null;
+            String sensorId = null;
+            String contract = null;
+            long timestamp = 0;
+            double temperature = Double.NaN;
+            int previousTariff = -1;
+            int currentTariff = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type" -> type = parser.getText();
+                    case "timestamp" -> timestamp = parser.getLongValue();
+                    case "sensor_id" -> sensorId = parser.getText();
+                    case "temperature" -> temperature = parser.getDoubleValue();
+                    case "contract" -> contract = parser.getText();
+                    case "previous_tariff" -> previousTariff = parser.getIntValue();
+                    case "current_tariff" -> currentTariff = parser.getIntValue();
+                    default -> {
+                        if (value.isStructStart()) {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+            if ("reading".equals(type) && sensorId != null) {
+                return CaptureEvent.reading(timestamp, sensorId, temperature);
+            }
+            if ("time_event".equals(type) && currentTariff >= 0) {
+                return CaptureEvent.timeEvent(timestamp, contract, previousTariff, currentTariff);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.iotest.replay;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Reloj que marca la hora del evento que se está reproduciendo: el driver lo adelanta antes de cada
+ * evento, así todo lo que consulta la hora ve la del tráfico capturado y no la de la máquina.
+ * Nunca retrocede (un evento fuera de orden se procesa a la hora del anterior).
+ */
+public class ReplayClock extends Clock {
+
+    private final ZoneId zone;
+    private long millis;
+
+    public ReplayClock(long startMillis, ZoneId zone) {
+        this.millis = startMillis;
+        this.zone = zone;
+    }
+
+    /**
+     * Adelanta el reloj a {@code millis} (si es posterior a la hora actual).
+     */
+    public void advanceTo(long millis) {
+        if (millis > this.millis) {
+            this.millis = millis;
+        }
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ReplayClock(millis, zone);
+    }
+}
@@ -0,0 +1,246 @@
+package com.iotest.replay;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.TimeEvent;
+import com.iotest.domain.model.config.SiteConfigParser;
+import com.iotest.domain.model.config.SiteConfiguration;
+import com.iotest.headless.HeadlessControlEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reproduce un tráfico capturado ({@link CaptureEvent}) contra un {@link TemperatureController} tan rápido
+ * como da la CPU, para ajustar el controlador con días reales de producción.
+ * <p>
+ * Un solo hilo, sin esperas: antes de cada evento se adelanta el {@link ReplayClock} a su hora, se pasa
+ * la lectura a {@code processSensorData} (o el cambio de tarifa a {@code processTimeEvent}) y las
+ * operaciones se ejecutan sobre el {@link ISwitchController} recibido (normalmente un
+ * {@link StubSwitchController}) con la misma regla que la aplicación: en tarifa HIGH solo se envían los apagados.
+ * <p>
+ * Los cambios de tarifa salen de la captura; si se indica un contrato, en cambio, se calculan con su
+ * calendario a la hora del reloj de reproducción y los de la captura se ignoran.
+ * <p>
+ * Uso:
+ * <pre>
+ * java -cp temperature-control-core-1.0.0-SNAPSHOT.jar com.iotest.replay.ReplayDriver site-config.json captura.ndjson [contrato]
+ * </pre>
+ */
+public class ReplayDriver {
+
+    private final TemperatureController temperatureController;
+    private final ISwitchController switchController;
+    private final ReplayClock clock;
+    private final String contract;
+
+    private int currentTariff = EnergyCost.LOW;
+    private Integer lastTariff;
+    private double consumption;
+
+    // Acumuladores del reporte
+    private long events;
+    private long readings;
+    private long timeEvents;
+    private long unknown;
+    private long turnedOn;
+    private long turnedOff;
+    private long blockedOn;
+    private long failed;
+    private double energyMs;
+    private double peakConsumption;
+    private final Map<String, ComfortAccumulator> comfortByRoom = new HashMap<>();
+
+    /**
+     * @param contract contrato con el que calcular la tarifa, o null para usar los cambios de la captura
+     */
+    public ReplayDriver(TemperatureController temperatureController, ISwitchController switchController,
+                        ReplayClock clock, String contract) {
+        this.temperatureController = temperatureController;
+        this.switchController = switchController;
+        this.clock = clock;
+        this.contract = contract;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: ReplayDriver <site-config.json> <captura.ndjson> [contrato]");
+            System.exit(2);
+        }
+        String contract = args.length > 2 ? args[2] : null;
+        if (contract != null) {
+            HeadlessControlEngine.registerContracts(System.getProperty("tariff-contracts-file", "tariff-contracts.json"));
+        }
+        SiteConfigParser parser = new SiteConfigParser();
+        SiteConfiguration configuration;
+        try (InputStream inputStream = Files.newInputStream(Path.of(args[0]))) {
+            configuration = parser.parse(inputStream);
+        }
+        TemperatureController controller = new TemperatureController(configuration.getMaxPowerWatts() / 1000.0,
+                parser.toRooms(configuration), parser.toSwitches(configuration));
+        ReplayDriver driver = new ReplayDriver(controller, new StubSwitchController(),
+                new ReplayClock(0, ZoneId.systemDefault()), contract);
+        try (CaptureReader reader = new CaptureReader(Files.newInputStream(Path.of(args[1])))) {
+            System.out.print(driver.run(reader).format());
+        }
+    }
+
+    /**
+     * Reproduce todos los eventos y devuelve el reporte. Los switches arrancan en el estado que tengan
+     * en el controlador.
+     */
+    public ReplayReport run(Iterator<CaptureEvent> capture) {
+        long wallStart = System.nanoTime();
+        consumption = temperatureController.getCurrentEnergyConsumption();
+        peakConsumption = consumption;
+        long firstTs = Long.MIN_VALUE;
+        long lastTs = Long.MIN_VALUE;
+        while (capture.hasNext()) {
+            CaptureEvent event = capture.next();
+            events++;
+            long now = Math.max(event.timestamp(), lastTs);
+            if (firstTs == Long.MIN_VALUE) {
+                firstTs = now;
+            } else {
+                energyMs += consumption * (now - lastTs);
+            }
+            lastTs = now;
+            clock.advanceTo(now);
+
+            if (contract != null) {
+                followCalendar(now);
+            }
+            if (event.type() == CaptureEvent.Type.READING) {
+                replayReading(event, now);
+            } else if (contract == null) {
+                replayTimeEvent(event, now);
+            }
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+
+        List<ReplayReport.RoomComfort> rooms = new ArrayList<>();
+        for (Map.Entry<String, ComfortAccumulator> entry : comfortByRoom.entrySet()) {
+            rooms.add(entry.getValue().close(entry.getKey(), lastTs));
+        }
+        long simulatedMs = firstTs == Long.MIN_VALUE ? 0 : lastTs - firstTs;
+        double maxEnergy = temperatureController.getMaxEnergy();
+        double utilization = simulatedMs > 0 && maxEnergy > 0 ? energyMs / (maxEnergy * simulatedMs) : 0;
+        return new ReplayReport(events, readings, timeEvents, unknown, turnedOn, turnedOff, blockedOn, failed,
+                simulatedMs, wallNanos, maxEnergy, utilization, peakConsumption, rooms);
+    }
+
+    private void replayReading(CaptureEvent event, long now) {
+        Room room = temperatureController.findRoomBySensorId(event.sensorId()).orElse(null);
+        if (room == null) {
+            unknown++;
+            return;
+        }
+        readings++;
+        ComfortAccumulator comfort = comfortByRoom.computeIfAbsent(room.getId(), id -> new ComfortAccumulator());
+        comfort.advance(now);
+        List<Operation> operations = temperatureController.processSensorData(
+                new DataSensor(event.sensorId(), event.temperature(), toLocalDateTime(event.timestamp())));
+        comfort.deficit = room.getTemperatureDeficit();
+        comfort.readings++;
+        execute(operations);
+    }
+
+    private void replayTimeEvent(CaptureEvent event, long now) {
+        int previous = lastTariff != null ? lastTariff : event.previousTariff();
+        processTariff(event.contract(), previous, event.currentTariff(), now);
+    }
+
+    private void followCalendar(long now) {
+        int tariff = EnergyCost.energyZone(contract, now).current();
+        if (lastTariff == null || lastTariff != tariff) {
+            // Al empezar en HIGH se simula LOW → HIGH para apagar todo, como el monitor de energía
+            int previous = lastTariff != null ? lastTariff : tariff == EnergyCost.HIGH ? EnergyCost.LOW : tariff;
+            processTariff(contract, previous, tariff, now);
+        }
+    }
+
+    private void processTariff(String eventContract, int previous, int current, long now) {
+        timeEvents++;
+        lastTariff = current;
+        currentTariff = current;
+        execute(temperatureController.processTimeEvent(
+                new TimeEvent(eventContract, previous, current, toLocalDateTime(now), 0)));
+    }
+
+    private void execute(List<Operation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        for (Operation operation : operations) {
+            boolean on = "ON".equals(operation.getAction());
+            if (on && currentTariff == EnergyCost.HIGH) {
+                blockedOn++;
+                continue;
+            }
+            try {
+                switchController.postSwitchStatus(operation.getSwitchUrl(), on);
+                temperatureController.findSwitchByUrl(operation.getSwitchUrl()).ifPresent(s -> s.setOn(on));
+                if (on) {
+                    turnedOn++;
+                } else {
+                    turnedOff++;
+                }
+            } catch (IOException e) {
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+            }
+        }
+        consumption = temperatureController.getCurrentEnergyConsumption();
+        peakConsumption = Math.max(peakConsumption, consumption);
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), clock.getZone());
+    }
+
+    /**
+     * Déficit de temperatura de una habitación integrado en el tiempo.
+     */
+    private static final class ComfortAccumulator {
+        long readings;
+        long lastTs = Long.MIN_VALUE;
+        double deficit;
+        double deficitMs;
+        long belowMs;
+        long observedMs;
+
+        void advance(long now) {
+            if (lastTs != Long.MIN_VALUE) {
+                long dt = now - lastTs;
+                deficitMs += deficit * dt;
+                observedMs += dt;
+                if (deficit > 0) {
+                    belowMs += dt;
+                }
+            }
+            lastTs = now;
+        }
+
+        ReplayReport.RoomComfort close(String roomId, long endTs) {
+            advance(endTs);
+            return new ReplayReport.RoomComfort(roomId, readings, deficitMs / 3_600_000.0,
+                    observedMs > 0 ? (double) belowMs / observedMs : 0);
+        }
+    }
+}
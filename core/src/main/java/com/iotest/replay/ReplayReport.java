@@ -0,0 +1,54 @@
+package com.iotest.replay;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resultado de una reproducción.
+ *
+ * @param simulatedMs       tiempo del tráfico reproducido (del primer al último evento)
+ * @param wallNanos         tiempo real que llevó reproducirlo
+ * @param blockedOn         encendidos que no se enviaron por estar en tarifa HIGH
+ * @param budgetUtilization consumo promedio ponderado en el tiempo sobre la energía máxima (0 a 1)
+ * @param peakConsumption   mayor consumo simultáneo alcanzado
+ */
+public record ReplayReport(long events, long readings, long timeEvents, long unknownSensorReadings,
+                           long turnedOn, long turnedOff, long blockedOn, long failedOperations,
+                           long simulatedMs, long wallNanos, double maxEnergy,
+                           double budgetUtilization, double peakConsumption, List<RoomComfort> rooms) {
+
+    /**
+     * Confort de una habitación durante la reproducción, desde su primera lectura.
+     *
+     * @param deficitDegreeHours integral de (temperatura deseada − temperatura) cuando falta calor, en °C·h
+     * @param belowDesiredRatio  fracción del tiempo observado por debajo de la temperatura deseada
+     */
+    public record RoomComfort(String roomId, long readings, double deficitDegreeHours, double belowDesiredRatio) {
+    }
+
+    public double eventsPerSecond() {
+        return wallNanos > 0 ? events * 1e9 / wallNanos : 0;
+    }
+
+    /**
+     * Reporte en texto, con una línea por habitación (de mayor a menor déficit).
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "Eventos: %d (%d lecturas, %d cambios de tarifa, %d de sensores desconocidos)%n",
+                events, readings, timeEvents, unknownSensorReadings));
+        out.append(String.format(Locale.US, "Tiempo simulado: %.2f h en %.3f s (%.0f eventos/s, %.0fx)%n",
+                simulatedMs / 3_600_000.0, wallNanos / 1e9, eventsPerSecond(),
+                wallNanos > 0 ? simulatedMs * 1e6 / wallNanos : 0));
+        out.append(String.format(Locale.US, "Operaciones: %d ON, %d OFF, %d ON bloqueados por tarifa HIGH, %d fallidas%n",
+                turnedOn, turnedOff, blockedOn, failedOperations));
+        out.append(String.format(Locale.US, "Presupuesto: %.1f%% de %.2f kW en promedio, pico %.2f kW%n",
+                budgetUtilization * 100, maxEnergy, peakConsumption));
+        out.append(String.format(Locale.US, "%-24s %10s %14s %12s%n", "Habitación", "Lecturas", "Déficit °C·h", "Bajo deseada"));
+        rooms.stream()
+                .sorted((a, b) -> Double.compare(b.deficitDegreeHours(), a.deficitDegreeHours()))
+                .forEach(room -> out.append(String.format(Locale.US, "%-24s %10d %14.2f %11.1f%%%n",
+                        room.roomId(), room.readings(), room.deficitDegreeHours(), room.belowDesiredRatio() * 100)));
+        return out.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.iotest.replay;
+
+import com.iotest.domain.model.Logica.ISwitchController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Switches en memoria para la reproducción: acepta todas las órdenes al instante, guarda el estado
+ * de cada uno y cuenta los encendidos y apagados. No es seguro entre hilos (el driver es de un hilo).
+ */
+public class StubSwitchController implements ISwitchController {
+
+    private final Map<String, Boolean> states = new HashMap<>();
+    private long turnedOn;
+    private long turnedOff;
+
+    @Override
+    public String getSwitchStatus(String switchUrl) {
+        return "{\"state\":" + states.getOrDefault(switchUrl, false) + "}";
+    }
+
+    @Override
+    public String postSwitchStatus(String switchUrl, boolean desiredState) {
+        states.put(switchUrl, desiredState);
+        if (desiredState) {
+            turnedOn++;
+        } else {
+            turnedOff++;
+        }
+        return "{\"state\":" + desiredState + "}";
+    }
+
+    public long getTurnedOn() {
+        return turnedOn;
+    }
+
+    public long getTurnedOff() {
+        return turnedOff;
+    }
+}
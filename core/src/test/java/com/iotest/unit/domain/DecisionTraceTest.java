@@ -0,0 +1,126 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.Operation;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.decision.DecisionOutcome;
+import com.iotest.domain.model.decision.DecisionRecord;
+import com.iotest.domain.model.decision.DecisionTrace;
+import com.iotest.domain.model.decision.DecisionTrigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DecisionTrace - Tests Unitarios")
+class DecisionTraceTest {
+
+    private TemperatureController controller;
+    private Room room1;
+    private Room room2;
+    private DataSwitch switch2;
+
+    @BeforeEach
+    void setUp() {
+        room1 = new Room("mqtt:topic1", "http://host:port/switch/1", 22.0, 2.0);
+        room2 = new Room("mqtt:topic2", "http://host:port/switch/2", 21.0, 2.0);
+        switch2 = new DataSwitch("http://host:port/switch/2", false);
+        controller = new TemperatureController(3.0, List.of(room1, room2),
+                List.of(new DataSwitch("http://host:port/switch/1", false), switch2));
+    }
+
+    @Test
+    @DisplayName("Debe registrar el swap con la habitación elegida como víctima y las operaciones")
+    void shouldRecordSwapWithChosenVictim() {
+        // room2 encendida y todavía fría (déficit 1.5), pero menos que room1 (déficit 7)
+        switch2.setOn(true);
+        room2.updateTemperature(19.5, LocalDateTime.now());
+
+        controller.processSensorData(new DataSensor("mqtt:topic1", 15.0, LocalDateTime.now()));
+
+        List<DecisionRecord> decisions = controller.getDecisionTrace().recent("mqtt:topic1", 10);
+        assertThat(decisions).hasSize(1);
+        DecisionRecord decision = decisions.get(0);
+        assertThat(decision.trigger()).isEqualTo(DecisionTrigger.READING);
+        assertThat(decision.outcome()).isEqualTo(DecisionOutcome.SWAPPED);
+        assertThat(decision.temperature()).isEqualTo(15.0);
+        assertThat(decision.availableEnergy()).isEqualTo(1.0);
+        assertThat(decision.candidates()).singleElement().satisfies(candidate -> {
+            assertThat(candidate.roomId()).isEqualTo("mqtt:topic2");
+            assertThat(candidate.temperatureDeficit()).isEqualTo(1.5);
+            assertThat(candidate.chosen()).isTrue();
+        });
+        assertThat(decision.operations()).containsExactly(
+                new Operation("http://host:port/switch/2", "OFF"),
+                new Operation("http://host:port/switch/1", "ON"));
+    }
+
+    @Test
+    @DisplayName("Debe registrar por qué no se calefacciona una habitación sin energía disponible")
+    void shouldRecordDeclinedRoom() {
+        // room2 está más fría que room1: no se le puede quitar la energía
+        switch2.setOn(true);
+        room2.updateTemperature(10.0, LocalDateTime.now());
+
+        controller.processSensorData(new DataSensor("mqtt:topic1", 19.0, LocalDateTime.now()));
+
+        DecisionRecord decision = controller.getDecisionTrace().recent("mqtt:topic1", 1).get(0);
+        assertThat(decision.outcome()).isEqualTo(DecisionOutcome.NO_ENERGY);
+        assertThat(decision.candidates()).extracting(DecisionRecord.Candidate::chosen).containsExactly(false);
+        assertThat(decision.operations()).isEmpty();
+        // La otra habitación no tiene decisiones
+        assertThat(controller.getDecisionTrace().recent("mqtt:topic2", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe conservar solo las últimas decisiones y devolverlas de la más reciente a la más vieja")
+    void shouldKeepLatestDecisions() {
+        controller.setDecisionTrace(new DecisionTrace(4));
+        for (int i = 0; i < 10; i++) {
+            controller.processSensorData(new DataSensor("mqtt:topic1", 23.0 + i, LocalDateTime.now()));
+        }
+
+        List<DecisionRecord> decisions = controller.getDecisionTrace().recent(null, 10);
+        assertThat(decisions).extracting(DecisionRecord::temperature).containsExactly(32.0, 31.0, 30.0, 29.0);
+        assertThat(decisions).extracting(DecisionRecord::outcome).containsOnly(DecisionOutcome.NOT_NEEDED);
+
+        controller.setDecisionTrace(new DecisionTrace(0));
+        controller.processSensorData(new DataSensor("mqtt:topic1", 19.0, LocalDateTime.now()));
+        assertThat(controller.getDecisionTrace().recent(null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("No debe asignar memoria al registrar una decisión")
+    void shouldNotAllocateWhenRecording() {
+        DecisionTrace trace = new DecisionTrace(64);
+        room1.updateTemperature(15.0, LocalDateTime.now());
+        List<Operation> operations = List.of(new Operation("http://host:port/switch/1", "ON"));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20_000; i++) {
+            record(trace, operations);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            record(trace, operations);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private void record(DecisionTrace trace, List<Operation> operations) {
+        long ticket = trace.begin(DecisionTrigger.READING, room1, 1.0, 3.0);
+        trace.candidate(ticket, room2, true);
+        trace.end(ticket, DecisionOutcome.SWAPPED, operations, 0);
+    }
+}
@@ -0,0 +1,192 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.Logica.ISwitchController;
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.domain.model.TariffCalendar;
+import com.iotest.headless.HeadlessControlEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HeadlessControlEngine - Tests Unitarios")
+class HeadlessControlEngineTest {
+
+    // Contratos con una sola tarifa todo el día, para no depender de la hora del test. El feriado lejano
+    // con la otra tarifa solo está para que el calendario tenga cambios de tarifa en su horizonte
+    private static final String ALWAYS_LOW = "headlessAlwaysLow";
+    private static final String ALWAYS_HIGH = "headlessAlwaysHigh";
+
+    private static final LocalDate HOLIDAY = LocalDate.now().plusDays(100);
+
+    private HeadlessControlEngine engine;
+
+    @BeforeAll
+    static void registerContracts() {
+        EnergyCost.registerContract(constantCalendar(ALWAYS_LOW, EnergyCost.LOW));
+        EnergyCost.registerContract(constantCalendar(ALWAYS_HIGH, EnergyCost.HIGH));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    private static TariffCalendar constantCalendar(String name, int tariff) {
+        List<TariffCalendar.Band> allDay = List.of(new TariffCalendar.Band(LocalTime.MIDNIGHT, tariff));
+        int other = tariff == EnergyCost.HIGH ? EnergyCost.LOW : EnergyCost.HIGH;
+        List<TariffCalendar.Band> unused = List.of(new TariffCalendar.Band(LocalTime.MIDNIGHT, other));
+        return new TariffCalendar(name, ZoneId.systemDefault(), allDay, allDay, unused,
+                Set.of(HOLIDAY));
+    }
+
+    private static TemperatureController controller(int rooms, boolean on) {
+        List<Room> roomList = new ArrayList<>();
+        List<DataSwitch> switches = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            String url = "http://sim:8080/switch/" + i;
+            Room room = new Room("sensor" + i, url, 22.0, 1.0);
+            room.updateTemperature(22.0, LocalDateTime.now());
+            roomList.add(room);
+            switches.add(new DataSwitch(url, on));
+        }
+        return new TemperatureController(10.0, roomList, switches);
+    }
+
+    @Test
+    @DisplayName("Debe apagar los switches en paralelo al arrancar")
+    void shouldTurnSwitchesOffInParallel() {
+        TemperatureController controller = controller(4, true);
+        // Cada POST espera a que lleguen los cuatro: en serie ninguno terminaría
+        CountDownLatch allInFlight = new CountDownLatch(4);
+        RecordingSwitchController switches = new RecordingSwitchController(url -> {
+            allInFlight.countDown();
+            if (!allInFlight.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("Los apagados no se ejecutaron en paralelo");
+            }
+        });
+        engine = new HeadlessControlEngine(controller, switches, ALWAYS_LOW, List.of(), 4, 10_000, Clock.systemDefaultZone());
+
+        assertThat(engine.initializeSwitches()).isTrue();
+
+        assertThat(switches.posts).hasSize(4).allMatch(post -> post.endsWith("=false"));
+        assertThat(controller.getSwitches()).noneMatch(DataSwitch::isOn);
+    }
+
+    @Test
+    @DisplayName("Debe dejar de esperar al vencer el plazo y terminar en segundo plano")
+    void shouldNotWaitPastStartupDeadline() throws Exception {
+        TemperatureController controller = controller(3, true);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSwitchController switches = new RecordingSwitchController(url -> {
+            if (url.endsWith("/switch/0")) {
+                release.await();
+            }
+        });
+        engine = new HeadlessControlEngine(controller, switches, ALWAYS_LOW, List.of(), 3, 100, Clock.systemDefaultZone());
+
+        assertThat(engine.initializeSwitches()).isFalse();
+
+        DataSwitch slow = controller.findSwitchByUrl("http://sim:8080/switch/0").orElseThrow();
+        assertThat(slow.isOn()).isTrue();
+        assertThat(controller.findSwitchByUrl("http://sim:8080/switch/1").orElseThrow().isOn()).isFalse();
+        assertThat(controller.findSwitchByUrl("http://sim:8080/switch/2").orElseThrow().isOn()).isFalse();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slow.isOn() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slow.isOn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe encender la calefacción con tarifa económica")
+    void shouldTurnHeatingOnWithLowTariff() {
+        TemperatureController controller = controller(1, false);
+        RecordingSwitchController switches = new RecordingSwitchController(url -> { });
+        engine = new HeadlessControlEngine(controller, switches, ALWAYS_LOW, List.of(), 1, 1_000, Clock.systemDefaultZone());
+
+        engine.onReading(new DataSensor("sensor0", 18.0, LocalDateTime.now()));
+
+        assertThat(switches.posts).containsExactly("http://sim:8080/switch/0=true");
+        assertThat(controller.getSwitches().get(0).isOn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("No debe encender la calefacción con tarifa HIGH")
+    void shouldNotTurnHeatingOnWithHighTariff() {
+        TemperatureController controller = controller(1, false);
+        RecordingSwitchController switches = new RecordingSwitchController(url -> { });
+        engine = new HeadlessControlEngine(controller, switches, ALWAYS_HIGH, List.of(), 1, 1_000, Clock.systemDefaultZone());
+
+        engine.onReading(new DataSensor("sensor0", 18.0, LocalDateTime.now()));
+
+        assertThat(switches.posts).isEmpty();
+        assertThat(controller.getSwitches().get(0).isOn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe tomar la tarifa del reloj recibido y no de la hora del sistema")
+    void shouldUseInjectedClockForTariff() {
+        TemperatureController controller = controller(1, false);
+        RecordingSwitchController switches = new RecordingSwitchController(url -> { });
+        // El feriado de ALWAYS_LOW es HIGH: con el reloj ubicado ese día no se enciende nada
+        Clock holiday = Clock.fixed(HOLIDAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant(),
+                ZoneId.systemDefault());
+        engine = new HeadlessControlEngine(controller, switches, ALWAYS_LOW, List.of(), 1, 1_000, holiday);
+
+        engine.onReading(new DataSensor("sensor0", 18.0, LocalDateTime.now()));
+
+        assertThat(switches.posts).isEmpty();
+        assertThat(controller.getSwitches().get(0).isOn()).isFalse();
+    }
+
+    private interface PostHook {
+        void before(String switchUrl) throws IOException, InterruptedException;
+    }
+
+    // Registra cada POST como "url=estado" después de ejecutar el hook
+    private static final class RecordingSwitchController implements ISwitchController {
+        private final Queue<String> posts = new ConcurrentLinkedQueue<>();
+        private final PostHook hook;
+
+        private RecordingSwitchController(PostHook hook) {
+            this.hook = hook;
+        }
+
+        @Override
+        public String getSwitchStatus(String switchUrl) {
+            return "{\"state\":false}";
+        }
+
+        @Override
+        public String postSwitchStatus(String switchUrl, boolean desiredState) throws IOException, InterruptedException {
+            hook.before(switchUrl);
+            posts.add(switchUrl + "=" + desiredState);
+            return "{\"state\":" + desiredState + "}";
+        }
+    }
+}
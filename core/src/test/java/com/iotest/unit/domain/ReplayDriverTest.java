@@ -0,0 +1,102 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.Controllers.TemperatureController;
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.POJOS.DataSwitch;
+import com.iotest.domain.model.POJOS.Room;
+import com.iotest.replay.CaptureEvent;
+import com.iotest.replay.CaptureReader;
+import com.iotest.replay.ReplayClock;
+import com.iotest.replay.ReplayDriver;
+import com.iotest.replay.ReplayReport;
+import com.iotest.replay.StubSwitchController;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ReplayDriver - Tests Unitarios")
+class ReplayDriverTest {
+
+    private static final long T0 = 1_705_312_800_000L;
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final String SWITCH = "http://sim/switch/1";
+
+    private final DataSwitch dataSwitch = new DataSwitch(SWITCH, false);
+    private final TemperatureController controller = new TemperatureController(1.0,
+            List.of(new Room("sensor1", SWITCH, 22.0, 1.0)), List.of(dataSwitch));
+    private final StubSwitchController switches = new StubSwitchController();
+    private final ReplayClock clock = new ReplayClock(0, ZoneId.systemDefault());
+
+    @Test
+    @DisplayName("Debe reportar operaciones, uso del presupuesto y déficit de confort ponderados en el tiempo simulado")
+    void shouldReportOperationsBudgetAndComfort() {
+        ReplayDriver driver = new ReplayDriver(controller, switches, clock, null);
+
+        ReplayReport report = driver.run(List.of(
+                CaptureEvent.reading(T0, "sensor1", 20.0),
+                CaptureEvent.reading(T0 + HOUR, "sensor1", 22.5),
+                CaptureEvent.reading(T0 + HOUR, "desconocido", 10.0)).iterator());
+
+        assertThat(report.events()).isEqualTo(3);
+        assertThat(report.readings()).isEqualTo(2);
+        assertThat(report.unknownSensorReadings()).isEqualTo(1);
+        assertThat(report.turnedOn()).isEqualTo(1);
+        assertThat(switches.getTurnedOn()).isEqualTo(1);
+        assertThat(report.simulatedMs()).isEqualTo(HOUR);
+        // Encendida toda la hora con 1 kW de 1 kW disponible
+        assertThat(report.budgetUtilization()).isCloseTo(1.0, within(1e-9));
+        assertThat(report.peakConsumption()).isEqualTo(1.0);
+        // Faltaron 2 °C durante una hora
+        assertThat(report.rooms()).singleElement().satisfies(room -> {
+            assertThat(room.readings()).isEqualTo(2);
+            assertThat(room.deficitDegreeHours()).isCloseTo(2.0, within(1e-9));
+            assertThat(room.belowDesiredRatio()).isEqualTo(1.0);
+        });
+        assertThat(clock.millis()).isEqualTo(T0 + HOUR);
+        assertThat(report.format()).contains("Habitación", "sensor1");
+    }
+
+    @Test
+    @DisplayName("Debe aplicar los cambios de tarifa capturados y no encender en tarifa HIGH")
+    void shouldApplyCapturedTariffChanges() {
+        ReplayDriver driver = new ReplayDriver(controller, switches, clock, null);
+
+        ReplayReport report = driver.run(List.of(
+                CaptureEvent.reading(T0, "sensor1", 18.0),
+                CaptureEvent.timeEvent(T0 + 10 * MINUTE, "testContract", EnergyCost.LOW, EnergyCost.HIGH),
+                CaptureEvent.reading(T0 + 20 * MINUTE, "sensor1", 18.0)).iterator());
+
+        assertThat(report.timeEvents()).isEqualTo(1);
+        assertThat(report.turnedOn()).isEqualTo(1);
+        assertThat(report.turnedOff()).isEqualTo(1);
+        assertThat(report.blockedOn()).isEqualTo(1);
+        assertThat(dataSwitch.isOn()).isFalse();
+        assertThat(report.budgetUtilization()).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Debe leer la captura NDJSON que escribe CaptureEvent y saltear las operaciones de un journal volcado")
+    void shouldReadCaptureLines() throws Exception {
+        String ndjson = CaptureEvent.reading(T0, "mqtt:topic1", 19.5).toJson() + "\n"
+                + "{\"type\":\"operation\",\"timestamp\":1,\"switch_url\":\"x\",\"action\":\"ON\",\"success\":true}\n"
+                + CaptureEvent.timeEvent(T0 + 1, "testContract", EnergyCost.LOW, EnergyCost.HIGH).toJson() + "\n";
+
+        List<CaptureEvent> events = new ArrayList<>();
+        try (CaptureReader reader = new CaptureReader(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))) {
+            reader.forEachRemaining(events::add);
+        }
+
+        assertThat(events).containsExactly(
+                CaptureEvent.reading(T0, "mqtt:topic1", 19.5),
+                CaptureEvent.timeEvent(T0 + 1, "testContract", EnergyCost.LOW, EnergyCost.HIGH));
+    }
+}
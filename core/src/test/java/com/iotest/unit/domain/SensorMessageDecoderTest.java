@@ -0,0 +1,54 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.POJOS.DataSensor;
+import com.iotest.domain.model.ingest.SensorMessageDecoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SensorMessageDecoder - Tests Unitarios")
+class SensorMessageDecoderTest {
+
+    private final SensorMessageDecoder decoder = new SensorMessageDecoder();
+
+    @Test
+    @DisplayName("Debe decodificar el formato propio con sensor_id y time_stamp")
+    void shouldDecodeOwnFormat() throws Exception {
+        DataSensor reading = decoder.decode("sim/ht/1",
+                bytes("{\"sensor_id\":\"mqtt:topic1\",\"temperature\":21.5,\"time_stamp\":\"2025-01-01T10:00:00\"}"),
+                List.of("sim/ht/1"));
+
+        assertThat(reading.getSensorId()).isEqualTo("mqtt:topic1");
+        assertThat(reading.getTemperature()).isEqualTo(21.5);
+        assertThat(reading.getTimestamp()).isEqualTo(LocalDateTime.of(2025, 1, 1, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Debe decodificar el mensaje Shelly usando el tópico configurado como sensor_id")
+    void shouldDecodeShellyMessageWithConfiguredTopic() throws Exception {
+        DataSensor reading = decoder.decode("sim/ht/2",
+                bytes("{\"params\":{\"ts\":1700000000.5,\"temperature:0\":{\"tC\":19.25}}}"),
+                List.of("sim/ht/1", "sim/ht/2"));
+
+        assertThat(reading.getSensorId()).isEqualTo("sim/ht/2");
+        assertThat(reading.getTemperature()).isEqualTo(19.25);
+        assertThat(reading.getTimestamp()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un mensaje sin temperatura")
+    void shouldRejectMessageWithoutTemperature() {
+        assertThatThrownBy(() -> decoder.decode("sim/ht/1", bytes("{\"humidity\":40}"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
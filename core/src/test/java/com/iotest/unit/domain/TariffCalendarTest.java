@@ -0,0 +1,179 @@
+package com.iotest.unit.domain;
+
+import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TariffCalendar;
+import com.iotest.domain.model.TariffCalendarParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TariffCalendar - Tests Unitarios")
+class TariffCalendarTest {
+
+    private static final ZoneId MONTEVIDEO = ZoneId.of("America/Montevideo");
+
+    private TariffCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        // Triple horario: valle de noche, punta de 18 a 22 solo en días hábiles
+        calendar = new TariffCalendar(
+                "testTriple",
+                MONTEVIDEO,
+                List.of(new TariffCalendar.Band(LocalTime.of(0, 0), EnergyCost.VALLE),
+                        new TariffCalendar.Band(LocalTime.of(7, 0), EnergyCost.LOW),
+                        new TariffCalendar.Band(LocalTime.of(18, 0), EnergyCost.HIGH),
+                        new TariffCalendar.Band(LocalTime.of(22, 0), EnergyCost.LOW)),
+                List.of(new TariffCalendar.Band(LocalTime.of(0, 0), EnergyCost.VALLE),
+                        new TariffCalendar.Band(LocalTime.of(7, 0), EnergyCost.LOW)),
+                null,
+                Set.of(LocalDate.of(2026, 5, 1))
+        );
+    }
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(MONTEVIDEO).toInstant().toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("Debe informar punta en día hábil y la próxima tarifa con su instante")
+    void shouldResolveWeekdayPeak() {
+        // Miércoles 21/10/2026 a las 19:30
+        EnergyCost.EnergyZone zone = calendar.energyZone(at(2026, 10, 21, 19, 30));
+
+        assertThat(zone.current()).isEqualTo(EnergyCost.HIGH);
+        assertThat(zone.next()).isEqualTo(EnergyCost.LOW);
+        assertThat(zone.nextTS()).isEqualTo(at(2026, 10, 21, 22, 0));
+    }
+
+    @Test
+    @DisplayName("El instante exacto de una transición pertenece a la nueva tarifa")
+    void shouldStartNewTariffAtTransition() {
+        EnergyCost.EnergyZone zone = calendar.energyZone(at(2026, 10, 21, 18, 0));
+
+        assertThat(zone.current()).isEqualTo(EnergyCost.HIGH);
+    }
+
+    @Test
+    @DisplayName("Fin de semana y feriados no tienen punta")
+    void shouldSkipPeakOnWeekendsAndHolidays() {
+        // Sábado 24/10/2026 a las 19:00: llano hasta la medianoche, luego valle
+        EnergyCost.EnergyZone saturday = calendar.energyZone(at(2026, 10, 24, 19, 0));
+        assertThat(saturday.current()).isEqualTo(EnergyCost.LOW);
+        assertThat(saturday.next()).isEqualTo(EnergyCost.VALLE);
+        assertThat(saturday.nextTS()).isEqualTo(at(2026, 10, 25, 0, 0));
+
+        // Viernes 1/5/2026 es feriado: usa las franjas de fin de semana
+        EnergyCost.EnergyZone holiday = calendar.energyZone(at(2026, 5, 1, 19, 0));
+        assertThat(holiday.current()).isEqualTo(EnergyCost.LOW);
+    }
+
+    @Test
+    @DisplayName("Debe resolver consultas fuera del horizonte")
+    void shouldResolveOutsideHorizon() {
+        EnergyCost.EnergyZone zone = calendar.energyZone(at(2031, 3, 5, 3, 0)); // miércoles
+
+        assertThat(zone.current()).isEqualTo(EnergyCost.VALLE);
+        assertThat(zone.nextTS()).isEqualTo(at(2031, 3, 5, 7, 0));
+    }
+
+    @Test
+    @DisplayName("Intercalar consultas de otra época no debe alterar las del horizonte")
+    void shouldKeepLiveWindowWhenQueryingOutsideHorizon() {
+        long now = System.currentTimeMillis();
+        EnergyCost.EnergyZone current = calendar.energyZone(now);
+        // Primer miércoles de marzo de varios años: punta a las 19; el sábado siguiente, llano
+        int[][] wednesdays = {{2030, 6}, {2031, 5}, {2032, 3}, {2033, 2}, {2034, 1}};
+
+        for (int[] wednesday : wednesdays) {
+            assertThat(calendar.energyZone(at(wednesday[0], 3, wednesday[1], 19, 0)).current())
+                    .isEqualTo(EnergyCost.HIGH);
+            assertThat(calendar.energyZone(at(wednesday[0], 3, wednesday[1] + 3, 19, 0)).current())
+                    .isEqualTo(EnergyCost.LOW);
+            assertThat(calendar.energyZone(now)).isEqualTo(current);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe resolver fuera del horizonte un contrato con cambios de tarifa muy espaciados")
+    void shouldResolveSparseContractOutsideHorizon() {
+        // Llano todo el año salvo un feriado en punta: la ventana corta no alcanza a ver el cambio
+        TariffCalendar sparse = new TariffCalendar("testEspaciado", MONTEVIDEO,
+                List.of(new TariffCalendar.Band(LocalTime.MIDNIGHT, EnergyCost.LOW)), null,
+                List.of(new TariffCalendar.Band(LocalTime.MIDNIGHT, EnergyCost.HIGH)),
+                Set.of(LocalDate.of(2031, 12, 25)));
+
+        EnergyCost.EnergyZone zone = sparse.energyZone(at(2031, 10, 1, 12, 0));
+
+        assertThat(zone.current()).isEqualTo(EnergyCost.LOW);
+        assertThat(zone.next()).isEqualTo(EnergyCost.HIGH);
+        assertThat(zone.nextTS()).isEqualTo(at(2031, 12, 25, 0, 0));
+    }
+
+    @Test
+    @DisplayName("EnergyCost debe resolver contratos registrados desde JSON")
+    void shouldResolveRegisteredContractFromJson() throws Exception {
+        String json = """
+            {
+              "contracts": [
+                {
+                  "name": "testDoble",
+                  "timezone": "America/Montevideo",
+                  "weekday": [ {"from": "00:00", "tariff": "LLANO"}, {"from": "18:00", "tariff": "PUNTA"}, {"from": "22:00", "tariff": "LLANO"} ],
+                  "weekend": [ {"from": "00:00", "tariff": "LLANO"} ]
+                }
+              ]
+            }
+            """;
+        new TariffCalendarParser()
+                .parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))
+                .forEach(EnergyCost::registerContract);
+
+        EnergyCost.EnergyZone zone = EnergyCost.energyZone("testDoble", at(2026, 10, 21, 12, 0));
+
+        assertThat(EnergyCost.isKnownContract("testDoble")).isTrue();
+        assertThat(zone.current()).isEqualTo(EnergyCost.LOW);
+        assertThat(zone.next()).isEqualTo(EnergyCost.HIGH);
+        assertThat(zone.nextTS()).isEqualTo(at(2026, 10, 21, 18, 0));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar al parsear una tarifa numérica que no es LOW, HIGH ni VALLE")
+    void shouldRejectUnknownNumericTariff() {
+        String json = """
+            {
+              "contracts": [
+                {
+                  "name": "testInvalido",
+                  "weekday": [ {"from": "00:00", "tariff": 0}, {"from": "18:00", "tariff": 7} ]
+                }
+              ]
+            }
+            """;
+
+        assertThatThrownBy(() -> new TariffCalendarParser()
+                .parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("testInvalido");
+    }
+
+    @Test
+    @DisplayName("Debe rechazar contratos con una sola tarifa")
+    void shouldRejectSingleTariffContract() {
+        assertThatThrownBy(() -> new TariffCalendar("plano", MONTEVIDEO,
+                List.of(new TariffCalendar.Band(LocalTime.MIDNIGHT, EnergyCost.LOW)), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
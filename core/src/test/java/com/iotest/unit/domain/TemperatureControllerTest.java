@@ -6,6 +6,7 @@ import com.iotest.domain.model.POJOS.DataSwitch;
 import com.iotest.domain.model.Operation;
 import com.iotest.domain.model.POJOS.Room;
 import com.iotest.domain.model.EnergyCost;
+import com.iotest.domain.model.TimeEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -184,4 +185,41 @@ class TemperatureControllerTest {
                 // Assert: No hay operaciones porque no hay energía suficiente
                 assertThat(operations).isEmpty();
             }
+
+            @Test
+            @DisplayName("Debe re-planificar con las últimas temperaturas cuando la tarifa vuelve a LOW")
+            void shouldReplanAllRoomsWhenTariffReturnsToLow() {
+                // Arrange: ambas habitaciones quedaron frías durante la tarifa HIGH (límite 3.0 kWh: entra solo una)
+                room1.updateTemperature(15.0, LocalDateTime.now()); // Déficit de 7.0°C
+                room2.updateTemperature(19.0, LocalDateTime.now()); // Déficit de 2.0°C
+                TimeEvent toLow = new TimeEvent(EnergyCost.TEST_CONTRACT_30S, EnergyCost.HIGH, EnergyCost.LOW,
+                        LocalDateTime.now(), 0L);
+
+                // Act
+                List<Operation> operations = controller.processTimeEvent(toLow);
+
+                // Assert: se enciende la más fría sin esperar a una nueva lectura
+                assertThat(operations).containsExactly(new Operation("http://host:port/switch/1", "ON"));
+
+                // Una vez ejecutada la operación, el presupuesto queda aprovechado (room2 no entra)
+                switch1.setOn(true);
+                assertThat(controller.hasHeatableRoomWithinBudget()).isFalse();
+            }
+
+            @Test
+            @DisplayName("Debe apagar la habitación menos prioritaria si se reduce la energía máxima")
+            void shouldShedLowestPriorityRoomWhenMaxEnergyIsReduced() {
+                // Arrange: ambas encendidas y con frío; room1 (19°C / 22°C) es la más prioritaria
+                room1.updateTemperature(19.0, LocalDateTime.now());
+                room2.updateTemperature(20.0, LocalDateTime.now());
+                switch1.setOn(true);
+                switch2.setOn(true);
+
+                // Act: la nueva configuración solo admite una habitación
+                controller.reconfigure(2.5, List.of(room1, room2), List.of(switch1, switch2));
+                List<Operation> operations = controller.replanRooms(List.of());
+
+                // Assert
+                assertThat(operations).containsExactly(new Operation("http://host:port/switch/2", "OFF"));
+            }
 }
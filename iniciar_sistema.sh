@@ -139,29 +139,29 @@ fi
 
 # Verificar si hay problemas de permisos en target
 TARGET_HAS_PERMISSION_ISSUES=false
-if [ -d "target" ]; then
-    echo "   Verificando permisos del directorio target..."
+if [ -d "app/target" ]; then
+    echo "   Verificando permisos del directorio app/target..."
     # Intentar cambiar permisos primero
-    if ! chmod -R u+w target/ 2>/dev/null; then
+    if ! chmod -R u+w app/target/ 2>/dev/null; then
         TARGET_HAS_PERMISSION_ISSUES=true
     fi
     # Intentar eliminar un archivo de prueba
-    if [ -f "target/test.txt" ]; then
-        if ! rm -f target/test.txt 2>/dev/null; then
+    if [ -f "app/target/test.txt" ]; then
+        if ! rm -f app/target/test.txt 2>/dev/null; then
             TARGET_HAS_PERMISSION_ISSUES=true
         fi
     fi
     
     if [ "$TARGET_HAS_PERMISSION_ISSUES" = true ]; then
-        echo -e "${YELLOW}⚠️  Detectado problema de permisos en target/${NC}"
+        echo -e "${YELLOW}⚠️  Detectado problema de permisos en app/target/${NC}"
         echo -e "${YELLOW}   Por favor ejecuta manualmente antes de continuar:${NC}"
-        echo -e "${CYAN}   sudo rm -rf target/${NC}"
+        echo -e "${CYAN}   sudo rm -rf app/target/${NC}"
         echo ""
-        echo -e "${RED}❌ No se puede continuar sin limpiar el directorio target/${NC}"
+        echo -e "${RED}❌ No se puede continuar sin limpiar el directorio app/target/${NC}"
         exit 1
     else
-        echo "   Limpiando directorio target..."
-        rm -rf target/ 2>/dev/null || true
+        echo "   Limpiando directorio app/target..."
+        rm -rf app/target/ 2>/dev/null || true
         sleep 1
     fi
 fi
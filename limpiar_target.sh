@@ -1,27 +1,27 @@
 #!/bin/bash
 
-# Script para limpiar el directorio target con permisos elevados
+# Script para limpiar el directorio app/target con permisos elevados
 # Útil cuando hay problemas de permisos después de ejecutar contenedores Docker
 
-echo "🧹 Limpiando directorio target..."
+echo "🧹 Limpiando directorio app/target..."
 
-if [ -d "target" ]; then
+if [ -d "app/target" ]; then
     # Intentar sin sudo primero
-    if rm -rf target/ 2>/dev/null; then
+    if rm -rf app/target/ 2>/dev/null; then
         echo "✅ Directorio target eliminado exitosamente"
     else
         echo "⚠️  Se requieren permisos elevados..."
-        echo "   Ejecutando: sudo rm -rf target/"
-        sudo rm -rf target/
+        echo "   Ejecutando: sudo rm -rf app/target/"
+        sudo rm -rf app/target/
         if [ $? -eq 0 ]; then
             echo "✅ Directorio target eliminado exitosamente con sudo"
         else
-            echo "❌ Error al eliminar directorio target"
+            echo "❌ Error al eliminar directorio app/target"
             exit 1
         fi
     fi
 else
-    echo "ℹ️  El directorio target no existe"
+    echo "ℹ️  El directorio app/target no existe"
 fi
 
 echo ""
@@ -0,0 +1,130 @@
+#!/bin/bash
+
+# Script para medir el tiempo de arranque y la memoria (RSS) de las variantes de build:
+#   jar      -> fat jar normal (mvn -pl app -am package)
+#   aot-cds  -> Spring AOT + AppCDS (mvn -Paot-cds -pl app -am package)
+#   native   -> imagen nativa GraalVM (mvn -Pnative -pl app -am package, requiere native-image)
+#
+# Uso: ./medir_arranque.sh [variantes] [repeticiones]
+#   ./medir_arranque.sh                  # jar y aot-cds (y native si ya está compilado), 5 repeticiones
+#   ./medir_arranque.sh "jar native" 10
+#
+# Cada corrida arranca la aplicación en un puerto libre, mide hasta que /api/health responde 200
+# y toma el RSS del proceso en ese momento. Los resultados quedan en app/target/arranque/resultados.csv.
+# No hace falta broker MQTT ni simulador: los errores de conexión se registran y la aplicación arranca igual.
+
+
+VARIANTS="${1:-jar aot-cds native}"
+RUNS="${2:-5}"
+PORT=18081
+OUT_DIR="app/target/arranque"
+CSV="$OUT_DIR/resultados.csv"
+
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+RED='\033[0;31m'
+NC='\033[0m' # No Color
+
+JAR="app/target/temperature-control-system-1.0.0-SNAPSHOT.jar"
+AOT_JAR="app/target/temperature-control-system-1.0.0-SNAPSHOT-aot.jar"
+NATIVE_BIN="app/target/temperature-control-system"
+
+# Propiedades comunes: sin snapshot de arranque en caliente para que todas las corridas sean iguales
+APP_PROPS="-Dwarm-restart.enabled=false -Dlogging.file.name=$OUT_DIR/app.log"
+
+mkdir -p "$OUT_DIR"
+
+# Maven del sistema si está instalado, si no el wrapper
+MVN="mvn"
+command -v mvn >/dev/null 2>&1 || MVN="./mvnw"
+
+build_variant() {
+    case "$1" in
+        jar)
+            [ -f "$JAR" ] || $MVN -q -B -pl app -am -DskipTests package
+            ;;
+        aot-cds)
+            [ -f "$AOT_JAR" ] && [ -f app/target/app.jsa ] || $MVN -q -B -Paot-cds -pl app -am -DskipTests package
+            ;;
+        native)
+            if [ ! -x "$NATIVE_BIN" ]; then
+                if command -v native-image >/dev/null 2>&1; then
+                    $MVN -q -B -Pnative -pl app -am -DskipTests package
+                else
+                    return 1
+                fi
+            fi
+            ;;
+    esac
+}
+
+start_variant() {
+    case "$1" in
+        jar)     exec java $APP_PROPS -Dserver.port=$PORT -jar "$JAR" ;;
+        aot-cds) exec java -XX:SharedArchiveFile=app/target/app.jsa -Dspring.aot.enabled=true $APP_PROPS -Dserver.port=$PORT -jar "$AOT_JAR" ;;
+        native)  exec "$NATIVE_BIN" $APP_PROPS -Dserver.port=$PORT ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ a[NR] = $1 } END { if (NR % 2) print a[(NR + 1) / 2]; else print int((a[NR / 2] + a[NR / 2 + 1]) / 2) }'
+}
+
+echo "variante,corrida,arranque_ms,rss_kb" > "$CSV"
+
+for variant in $VARIANTS; do
+    if ! build_variant "$variant"; then
+        echo -e "${YELLOW}⚠️  $variant: no se pudo compilar (native-image requiere GraalVM), se omite${NC}"
+        continue
+    fi
+
+    echo -e "${YELLOW}⏱  Midiendo $variant ($RUNS corridas)...${NC}"
+    for run in $(seq 1 "$RUNS"); do
+        start=$(now_ms)
+        start_variant "$variant" > "$OUT_DIR/$variant-$run.out" 2>&1 &
+        pid=$!
+
+        ready=""
+        for _ in $(seq 1 600); do
+            if curl -s -o /dev/null -w "%{http_code}" "http://localhost:$PORT/api/health" 2>/dev/null | grep -q 200; then
+                ready=$(now_ms)
+                break
+            fi
+            if ! kill -0 "$pid" 2>/dev/null; then
+                break
+            fi
+            sleep 0.05
+        done
+
+        if [ -z "$ready" ]; then
+            echo -e "${RED}❌ $variant corrida $run no arrancó (ver $OUT_DIR/$variant-$run.out)${NC}"
+            kill "$pid" 2>/dev/null || true
+            wait "$pid" 2>/dev/null || true
+            continue
+        fi
+
+        rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status" 2>/dev/null || ps -o rss= -p "$pid")
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+
+        echo "$variant,$run,$((ready - start)),$rss" >> "$CSV"
+        echo "   corrida $run: $((ready - start)) ms, RSS $((rss / 1024)) MB"
+    done
+done
+
+echo ""
+echo -e "${GREEN}📊 Resumen (mediana)${NC}"
+printf "%-10s %12s %10s\n" "variante" "arranque_ms" "rss_mb"
+for variant in $VARIANTS; do
+    if grep -q "^$variant," "$CSV"; then
+        startup=$(grep "^$variant," "$CSV" | cut -d, -f3 | median)
+        rss=$(grep "^$variant," "$CSV" | cut -d, -f4 | median)
+        printf "%-10s %12s %10s\n" "$variant" "$startup" "$((rss / 1024))"
+    fi
+done
+echo ""
+echo "Resultados completos en $CSV"